@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor.benchmarks;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Deterministic corpus of templates resembling those of a typical web application: pages with inline scripts and
+ * styles, server side tags, comments and indentation, spread over a few directories.
+ */
+final class BenchmarkCorpus {
+
+    /** The seed, fixed so every run measures the same corpus. */
+    private static final long SEED = 20_111_031L;
+
+    /**
+     * Prevent instantiation.
+     */
+    private BenchmarkCorpus() {
+    }
+
+    /**
+     * Write HTML templates.
+     *
+     * @param dir
+     *            the directory
+     * @param files
+     *            the number of files
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    static void writeHtml(Path dir, int files) throws IOException {
+        Random random = new Random(SEED);
+        for (int i = 0; i < files; i++) {
+            StringBuilder sb = new StringBuilder(16_384);
+            sb.append("<!DOCTYPE html>\n<html>\n  <head>\n    <title>Page ").append(i).append("</title>\n");
+            sb.append("    <style type=\"text/css\">\n");
+            for (int rule = random.nextInt(8) + 2; rule > 0; rule--) {
+                sb.append("      .block-").append(i).append('-').append(rule).append(" {\n        margin: ")
+                        .append(random.nextInt(20)).append("px;\n        color: #")
+                        .append(Integer.toHexString(0x100000 + random.nextInt(0xefffff))).append(";\n      }\n");
+            }
+            sb.append("    </style>\n  </head>\n  <body>\n    <!-- page ").append(i).append(" -->\n");
+            for (int section = random.nextInt(12) + 4; section > 0; section--) {
+                sb.append("    <div class=\"block-").append(i).append('-').append(section).append("\">\n");
+                sb.append("      <h2>Section ").append(section).append("</h2>\n      <p>\n        ");
+                for (int word = random.nextInt(60) + 20; word > 0; word--) {
+                    sb.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+                }
+                sb.append("\n      </p>\n");
+                if (random.nextInt(4) == 0) {
+                    sb.append("      <?php echo $item").append(section).append("; ?>\n");
+                }
+                sb.append("    </div>\n");
+            }
+            sb.append("    <script type=\"text/javascript\">\n");
+            for (int function = random.nextInt(5) + 1; function > 0; function--) {
+                sb.append("      function handler").append(function).append("(event) {\n")
+                        .append("        var element = document.getElementById('block-").append(i).append("');\n")
+                        .append("        if (element !== null) {\n")
+                        .append("          element.className = element.className + ' active-").append(function)
+                        .append("';\n        }\n        return event;\n      }\n");
+            }
+            sb.append("    </script>\n  </body>\n</html>\n");
+            write(dir.resolve("section" + i % 10 + "/page" + i + ".html"), sb);
+        }
+    }
+
+    /**
+     * Write XML documents.
+     *
+     * @param dir
+     *            the directory
+     * @param files
+     *            the number of files
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    static void writeXml(Path dir, int files) throws IOException {
+        Random random = new Random(SEED);
+        for (int i = 0; i < files; i++) {
+            StringBuilder sb = new StringBuilder(16_384);
+            sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<!-- document ").append(i).append(" -->\n");
+            sb.append("<catalog id=\"").append(i).append("\">\n");
+            for (int item = random.nextInt(60) + 20; item > 0; item--) {
+                sb.append("    <item id=\"").append(item).append("\">\n        <name>")
+                        .append(WORDS[random.nextInt(WORDS.length)]).append("</name>\n        <price>")
+                        .append(random.nextInt(10_000) / 100.0).append("</price>\n    </item>\n");
+            }
+            sb.append("</catalog>\n");
+            write(dir.resolve("section" + i % 10 + "/document" + i + ".xml"), sb);
+        }
+    }
+
+    /**
+     * Delete a directory tree.
+     *
+     * @param dir
+     *            the directory
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    static void delete(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Write a file.
+     *
+     * @param path
+     *            the path
+     * @param content
+     *            the content
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private static void write(Path path, CharSequence content) throws IOException {
+        Files.createDirectories(path.getParent());
+        Files.writeString(path, content, StandardCharsets.UTF_8);
+    }
+
+    /** The words of the text. */
+    private static final String[] WORDS = { "lorem", "ipsum", "dolor", "sit", "amet", "consectetur", "adipiscing",
+            "elit", "sed", "do", "eiusmod", "tempor", "incididunt", "ut", "labore", "et", "dolore", "magna",
+            "aliqua" };
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor.benchmarks;
+
+import com.tunyk.mvn.plugins.htmlcompressor.FileTool;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of reading a source tree, writing the compressed files and writing the JSON sprite.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FileToolBenchmark {
+
+    /** The number of files of the corpus. */
+    @Param({ "100", "1000" })
+    private int files;
+
+    /** The corpus directory. */
+    private Path corpus;
+
+    /** The target directory. */
+    private Path target;
+
+    /** The file tool. */
+    private FileTool fileTool;
+
+    /** The files read from the corpus. */
+    private Map<String, String> contents;
+
+    /**
+     * Write the corpus.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        corpus = Files.createTempDirectory("htmlcompressor-corpus");
+        target = Files.createTempDirectory("htmlcompressor-target");
+        BenchmarkCorpus.writeHtml(corpus, files);
+        fileTool = new FileTool(corpus.toString(), new String[] { "html" }, true);
+        contents = fileTool.getFiles();
+    }
+
+    /**
+     * Delete the corpus.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkCorpus.delete(corpus);
+        BenchmarkCorpus.delete(target);
+    }
+
+    /**
+     * Read the corpus.
+     *
+     * @return the files
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Benchmark
+    public Map<String, String> getFiles() throws IOException {
+        return fileTool.getFiles();
+    }
+
+    /**
+     * Write the files.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Benchmark
+    public void writeFiles() throws IOException {
+        fileTool.writeFiles(contents, target.toString());
+    }
+
+    /**
+     * Write the JSON sprite.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Benchmark
+    public void writeToJsonFile() throws IOException {
+        fileTool.writeToJsonFile(contents, target.resolve("templates.js").toString(), "var templates = %s;");
+    }
+}
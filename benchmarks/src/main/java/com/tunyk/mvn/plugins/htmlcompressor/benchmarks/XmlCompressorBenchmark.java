@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor.benchmarks;
+
+import com.tunyk.mvn.plugins.htmlcompressor.XmlCompressor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the xml goal's compression of a source tree.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MINUTES)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class XmlCompressorBenchmark {
+
+    /** The number of files of the corpus. */
+    @Param({ "200" })
+    private int files;
+
+    /** Whether comments are removed. */
+    @Param({ "false", "true" })
+    private boolean removeComments;
+
+    /** Whether spaces between tags are removed. */
+    @Param({ "false", "true" })
+    private boolean removeIntertagSpaces;
+
+    /** The corpus directory. */
+    private Path corpus;
+
+    /** The target directory. */
+    private Path target;
+
+    /** The compressor. */
+    private XmlCompressor xmlCompressor;
+
+    /**
+     * Write the corpus and configure the compressor.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        corpus = Files.createTempDirectory("htmlcompressor-corpus");
+        target = Files.createTempDirectory("htmlcompressor-target");
+        BenchmarkCorpus.writeXml(corpus, files);
+
+        com.googlecode.htmlcompressor.compressor.XmlCompressor handler = new com.googlecode.htmlcompressor.compressor.XmlCompressor();
+        handler.setRemoveComments(removeComments);
+        handler.setRemoveIntertagSpaces(removeIntertagSpaces);
+        xmlCompressor = new XmlCompressor(corpus.toString(), target.toString());
+        xmlCompressor.setXmlCompressor(handler);
+    }
+
+    /**
+     * Delete the corpus.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkCorpus.delete(corpus);
+        BenchmarkCorpus.delete(target);
+    }
+
+    /**
+     * Compress the corpus.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Benchmark
+    public void compress() throws Exception {
+        xmlCompressor.compress();
+    }
+}
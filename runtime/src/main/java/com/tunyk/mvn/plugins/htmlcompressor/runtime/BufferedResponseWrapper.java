@@ -0,0 +1,363 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor.runtime;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+
+/**
+ * Response wrapper holding back the body, so it can be minified once complete.
+ * <p>
+ * Whether the body is held back is decided on its first write or flush, from the content type and status set by then.
+ * Only successful HTML responses are held back; any other body, such as a download, goes straight to the response. For
+ * a held back body the content length set by the application is dropped, as it no longer matches, and flushes are
+ * deferred until the body is written. Errors and redirects go straight to the response, as does everything once
+ * {@link #passThrough()} is called or a write listener is set.
+ */
+class BufferedResponseWrapper extends HttpServletResponseWrapper {
+
+    /** The characters written through the writer. */
+    private CharArrayWriter chars;
+
+    /** The bytes written through the output stream. */
+    private ByteArrayOutputStream bytes;
+
+    /** The writer. */
+    private PrintWriter writer;
+
+    /** The output stream. */
+    private ServletOutputStream outputStream;
+
+    /** Whether the body is held back, null until it is first written or flushed. */
+    private Boolean buffered;
+
+    /** Whether an error or redirect was sent. */
+    private boolean sent;
+
+    /**
+     * Instantiates a new buffered response wrapper.
+     *
+     * @param response
+     *            the response
+     */
+    BufferedResponseWrapper(HttpServletResponse response) {
+        super(response);
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        if (outputStream != null) {
+            throw new IllegalStateException("getOutputStream() has already been called");
+        }
+        if (writer == null) {
+            writer = new PrintWriter(new Writer() {
+
+                @Override
+                public void write(char[] cbuf, int off, int len) throws IOException {
+                    if (isBuffered()) {
+                        if (chars == null) {
+                            chars = new CharArrayWriter(8192);
+                        }
+                        chars.write(cbuf, off, len);
+                    } else {
+                        getResponse().getWriter().write(cbuf, off, len);
+                    }
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    if (!isBuffered()) {
+                        getResponse().getWriter().flush();
+                    }
+                }
+
+                @Override
+                public void close() throws IOException {
+                    if (!isBuffered()) {
+                        getResponse().getWriter().close();
+                    }
+                }
+            });
+        }
+        return writer;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called");
+        }
+        if (outputStream == null) {
+            outputStream = new ServletOutputStream() {
+
+                @Override
+                public void write(int b) throws IOException {
+                    target().write(b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    target().write(b, off, len);
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    if (!isBuffered()) {
+                        getResponse().getOutputStream().flush();
+                    }
+                }
+
+                @Override
+                public void close() throws IOException {
+                    if (!isBuffered()) {
+                        getResponse().getOutputStream().close();
+                    }
+                }
+
+                @Override
+                public boolean isReady() {
+                    try {
+                        return isBuffered() || getResponse().getOutputStream().isReady();
+                    } catch (IOException e) {
+                        return false;
+                    }
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {
+                    try {
+                        // Non-blocking output cannot be held back, so it is passed on unminified
+                        passThrough();
+                        getResponse().getOutputStream().setWriteListener(writeListener);
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+
+                /**
+                 * Gets the stream the body goes to.
+                 *
+                 * @return the stream
+                 *
+                 * @throws IOException
+                 *             Signals that an I/O exception has occurred.
+                 */
+                private OutputStream target() throws IOException {
+                    if (!isBuffered()) {
+                        return getResponse().getOutputStream();
+                    }
+                    if (bytes == null) {
+                        bytes = new ByteArrayOutputStream(8192);
+                    }
+                    return bytes;
+                }
+            };
+        }
+        return outputStream;
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        if (!holdsBack()) {
+            super.setContentLength(len);
+        }
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        if (!holdsBack()) {
+            super.setContentLengthLong(len);
+        }
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (!isBuffered()) {
+            super.flushBuffer();
+        }
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        if (chars != null) {
+            chars.reset();
+        }
+        if (bytes != null) {
+            bytes.reset();
+        }
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        resetBuffer();
+        // Nothing was passed on yet, so the reset body may still go straight to the response
+        if (Boolean.TRUE.equals(buffered)) {
+            buffered = null;
+        }
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        sent = true;
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        sent = true;
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        sent = true;
+        super.sendRedirect(location);
+    }
+
+    /**
+     * Checks if the body is held back, deciding it on the first call.
+     *
+     * @return true, if the body is held back
+     */
+    private boolean isBuffered() {
+        if (buffered == null) {
+            buffered = isHtml() && getStatus() == HttpServletResponse.SC_OK;
+        }
+        return buffered;
+    }
+
+    /**
+     * Checks if the body is or would be held back, without deciding it yet.
+     *
+     * @return true, if the body is or would be held back
+     */
+    private boolean holdsBack() {
+        return buffered != null ? buffered : isHtml() && getStatus() == HttpServletResponse.SC_OK;
+    }
+
+    /**
+     * Checks if the body was held back, rather than passed on or an error or redirect sent.
+     *
+     * @return true, if there is a body to write
+     */
+    boolean hasBody() {
+        return !sent && Boolean.TRUE.equals(buffered);
+    }
+
+    /**
+     * Checks if the body is HTML.
+     *
+     * @return true, if is html
+     */
+    boolean isHtml() {
+        String contentType = getContentType();
+        return contentType != null && contentType.regionMatches(true, 0, "text/html", 0, 9);
+    }
+
+    /**
+     * Gets the body as text.
+     *
+     * @return the body
+     */
+    String getText() {
+        if (writer != null) {
+            writer.flush();
+            return chars == null ? "" : chars.toString();
+        }
+        return bytes == null ? "" : new String(bytes.toByteArray(), getCharset());
+    }
+
+    /**
+     * Gets the charset of the response.
+     *
+     * @return the charset
+     */
+    Charset getCharset() {
+        return Charset.forName(getCharacterEncoding());
+    }
+
+    /**
+     * Write a body to the wrapped response.
+     *
+     * @param text
+     *            the body
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    void writeText(String text) throws IOException {
+        byte[] body = text.getBytes(getCharset());
+        getResponse().setContentLength(body.length);
+        getResponse().getOutputStream().write(body);
+    }
+
+    /**
+     * Write the body held back so far unchanged to the wrapped response, and pass on anything written afterwards as it
+     * is written.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    void passThrough() throws IOException {
+        boolean held = Boolean.TRUE.equals(buffered);
+        buffered = false;
+        if (!held) {
+            return;
+        }
+        if (chars != null) {
+            getResponse().getWriter().write(chars.toCharArray());
+            chars = null;
+        }
+        if (bytes != null) {
+            bytes.writeTo(getResponse().getOutputStream());
+            bytes = null;
+        }
+    }
+
+    /**
+     * Write the held back body unchanged to the wrapped response.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    void writeUnchanged() throws IOException {
+        if (writer != null) {
+            writer.flush();
+            if (chars != null) {
+                getResponse().getWriter().write(chars.toCharArray());
+            }
+        } else if (bytes != null) {
+            getResponse().setContentLength(bytes.size());
+            bytes.writeTo(getResponse().getOutputStream());
+        }
+        getResponse().flushBuffer();
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor.runtime;
+
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.jsp.JspException;
+import jakarta.servlet.jsp.tagext.BodyTagSupport;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tag minifying its body, such as a header, footer or navigation fragment, once per JVM rather than on every request.
+ * <p>
+ * Minified fragments are cached by the cacheKey attribute, or by a hash of the body when it is not set. With a cacheKey
+ * the body is not even evaluated once its fragment is cached, so the key must identify everything the body depends on.
+ * <p>
+ * The compressor is configured by the context parameters of the web application prefixed with "htmlcompressor.", named
+ * like the html goal's parameters, plus htmlcompressor.poolSize and htmlcompressor.cacheSize as for
+ * {@link HtmlCompressorFilter}.
+ */
+public class CompressTag extends BodyTagSupport {
+
+    /** The Constant serialVersionUID. */
+    private static final long serialVersionUID = 1L;
+
+    /** The prefix of the context parameters configuring the compressor. */
+    static final String SETTINGS_PREFIX = "htmlcompressor.";
+
+    /** The context attribute holding the compressor cache. */
+    private static final String ATTRIBUTE = CompressTag.class.getName();
+
+    /** The lock guarding the creation of compressor caches. */
+    private static final Object LOCK = new Object();
+
+    /** The cache key. */
+    private String cacheKey;
+
+    /** Whether the fragment was written from the cache without evaluating the body. */
+    private boolean cached;
+
+    @Override
+    public int doStartTag() throws JspException {
+        cached = false;
+        if (cacheKey != null) {
+            String fragment = getCompressorCache().getCache().get("key:" + cacheKey);
+            if (fragment != null) {
+                write(fragment);
+                cached = true;
+                return SKIP_BODY;
+            }
+        }
+        return EVAL_BODY_BUFFERED;
+    }
+
+    @Override
+    public int doEndTag() throws JspException {
+        if (!cached && bodyContent != null) {
+            String body = bodyContent.getString();
+            String key = cacheKey != null ? "key:" + cacheKey : "hash:" + CompressorCache.hash(body);
+            try {
+                write(getCompressorCache().compress(key, body));
+            } catch (RuntimeException e) {
+                throw new JspException(e.getMessage(), e);
+            }
+        }
+        return EVAL_PAGE;
+    }
+
+    @Override
+    public void release() {
+        super.release();
+        cacheKey = null;
+        cached = false;
+    }
+
+    /**
+     * Write a fragment to the page.
+     *
+     * @param fragment
+     *            the fragment
+     *
+     * @throws JspException
+     *             if the fragment could not be written
+     */
+    private void write(String fragment) throws JspException {
+        try {
+            pageContext.getOut().write(fragment);
+        } catch (IOException e) {
+            throw new JspException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Gets the compressor cache of the web application, creating it on first use.
+     *
+     * @return the compressor cache
+     *
+     * @throws JspException
+     *             if the compressor settings are invalid
+     */
+    private CompressorCache getCompressorCache() throws JspException {
+        ServletContext context = pageContext.getServletContext();
+        synchronized (LOCK) {
+            CompressorCache compressorCache = (CompressorCache) context.getAttribute(ATTRIBUTE);
+            if (compressorCache == null) {
+                Map<String, String> settings = new HashMap<>();
+                for (String name : Collections.list(context.getInitParameterNames())) {
+                    if (name.startsWith(SETTINGS_PREFIX)) {
+                        settings.put(name.substring(SETTINGS_PREFIX.length()), context.getInitParameter(name));
+                    }
+                }
+                try {
+                    compressorCache = CompressorCache.create(settings);
+                } catch (RuntimeException e) {
+                    throw new JspException(e.getMessage(), e);
+                }
+                context.setAttribute(ATTRIBUTE, compressorCache);
+            }
+            return compressorCache;
+        }
+    }
+
+    /**
+     * Gets the cache key.
+     *
+     * @return the cache key
+     */
+    public String getCacheKey() {
+        return cacheKey;
+    }
+
+    /**
+     * Sets the cache key.
+     *
+     * @param cacheKey
+     *            the new cache key
+     */
+    public void setCacheKey(String cacheKey) {
+        this.cacheKey = cacheKey;
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor.runtime;
+
+import com.googlecode.htmlcompressor.compressor.HtmlCompressor;
+import com.tunyk.mvn.plugins.htmlcompressor.CompressorPool;
+import com.tunyk.mvn.plugins.htmlcompressor.HtmlCompressorFactory;
+import com.tunyk.mvn.plugins.htmlcompressor.LruCache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Pooled compressors and the cache of their results, shared by the filter and the tag library.
+ */
+class CompressorCache {
+
+    /** The default cache size in characters. */
+    private static final long DEFAULT_CACHE_SIZE = 16_000_000;
+
+    /** The factory. */
+    private final HtmlCompressorFactory factory;
+
+    /** The compressors. */
+    private final CompressorPool<HtmlCompressor> pool;
+
+    /** The minified content. */
+    private final LruCache<String, String> cache;
+
+    /**
+     * Instantiates a new compressor cache.
+     *
+     * @param factory
+     *            the factory
+     * @param poolSize
+     *            the max number of idle compressors kept
+     * @param cacheSize
+     *            the max number of minified characters cached
+     */
+    private CompressorCache(HtmlCompressorFactory factory, int poolSize, long cacheSize) {
+        this.factory = factory;
+        // Fail on invalid patterns or externs at startup rather than on the first request
+        HtmlCompressor first = factory.get();
+        this.pool = new CompressorPool<>(factory, poolSize);
+        this.pool.release(first);
+        this.cache = new LruCache<>(cacheSize, String::length);
+    }
+
+    /**
+     * Create a compressor cache from string settings named like the html goal's parameters, plus poolSize and
+     * cacheSize.
+     *
+     * @param settings
+     *            the settings
+     *
+     * @return the compressor cache
+     *
+     * @throws IllegalArgumentException
+     *             if a setting is unknown or invalid
+     */
+    static CompressorCache create(Map<String, String> settings) {
+        Map<String, String> properties = new HashMap<>(settings);
+        String poolSize = properties.remove("poolSize");
+        String cacheSize = properties.remove("cacheSize");
+        return new CompressorCache(HtmlCompressorFactory.fromProperties(properties),
+                poolSize == null ? Runtime.getRuntime().availableProcessors() : Integer.parseInt(poolSize.trim()),
+                cacheSize == null ? DEFAULT_CACHE_SIZE : Long.parseLong(cacheSize.trim()));
+    }
+
+    /**
+     * Minify content, or get it from the cache.
+     *
+     * @param key
+     *            the cache key
+     * @param content
+     *            the content
+     *
+     * @return the minified content
+     */
+    String compress(String key, String content) {
+        return cache.computeIfAbsent(key, k -> pool.apply(compressor -> compressor.compress(content)));
+    }
+
+    /**
+     * Hash content, for cache keys of content without a key of its own.
+     *
+     * @param content
+     *            the content
+     *
+     * @return the hash
+     */
+    static String hash(String content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                sb.append(Character.forDigit(b >> 4 & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Gets the factory.
+     *
+     * @return the factory
+     */
+    HtmlCompressorFactory getFactory() {
+        return factory;
+    }
+
+    /**
+     * Gets the cache.
+     *
+     * @return the cache
+     */
+    LruCache<String, String> getCache() {
+        return cache;
+    }
+}
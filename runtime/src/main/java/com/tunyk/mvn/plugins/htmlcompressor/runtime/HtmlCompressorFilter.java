@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor.runtime;
+
+import com.tunyk.mvn.plugins.htmlcompressor.HtmlCompressorFactory;
+import com.tunyk.mvn.plugins.htmlcompressor.LruCache;
+import com.tunyk.mvn.plugins.htmlcompressor.StreamingHtmlMinifier;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.FilterConfig;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minifies the HTML responses of dynamic pages, such as JSPs, with the html goal's settings.
+ * <p>
+ * The init parameters are named like the html goal's parameters, see {@link HtmlCompressorFactory#fromProperties}.
+ * A few more control the filter itself:
+ * <ul>
+ * <li>poolSize: the max number of idle compressors kept (default is the number of available processors)</li>
+ * <li>cacheSize: the max number of minified characters cached (default is 16000000, 0 disables the cache)</li>
+ * <li>streaming: minify while the page is written instead of once it is complete (default is false)</li>
+ * <li>preserveDelimiters: comma separated pairs of opening and closing delimiters, such as "{{ }}", of regions the
+ * streaming minifier keeps unchanged</li>
+ * </ul>
+ * Minified pages are cached by URL and ETag, or by URL and a hash of the page when no ETag is set, so a hot page is
+ * minified once. Only successful responses are minified; other bodies are passed on as they are written. When the
+ * application starts asynchronous processing, the body is passed on unchanged, as not every container lets a filter
+ * write once the asynchronous request completes. Map the filter to the ASYNC dispatcher type as well to minify pages
+ * rendered by {@link jakarta.servlet.AsyncContext#dispatch()}.
+ * <p>
+ * In streaming mode pages are neither held back nor cached, so memory and time to first byte do not grow with the
+ * page. Only comments and whitespace are removed, and regular expression preserve patterns are not applied, see
+ * {@link StreamingHtmlMinifier}.
+ */
+public class HtmlCompressorFilter implements Filter {
+
+    /** The compressors and minified pages. */
+    private CompressorCache compressorCache;
+
+    /** Whether pages are minified while written. */
+    private boolean streaming;
+
+    /** The opening and closing delimiters of the regions the streaming minifier keeps unchanged. */
+    private final List<String[]> preserveDelimiters = new ArrayList<>();
+
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+        Map<String, String> settings = new HashMap<>();
+        for (String name : Collections.list(filterConfig.getInitParameterNames())) {
+            settings.put(name, filterConfig.getInitParameter(name));
+        }
+        streaming = Boolean.parseBoolean(settings.remove("streaming"));
+        String delimiters = settings.remove("preserveDelimiters");
+        if (delimiters != null) {
+            for (String pair : delimiters.split(",")) {
+                String[] parts = pair.trim().split("\\s+");
+                if (parts.length != 2) {
+                    throw new ServletException("Invalid preserve delimiters: " + pair.trim());
+                }
+                preserveDelimiters.add(parts);
+            }
+        }
+        try {
+            compressorCache = CompressorCache.create(settings);
+        } catch (RuntimeException e) {
+            throw new ServletException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        if (!(request instanceof HttpServletRequest) || !(response instanceof HttpServletResponse)
+                || request.isAsyncStarted()
+                || streaming && !compressorCache.getFactory().isEnabled()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (streaming) {
+            StreamingResponseWrapper wrapper = new StreamingResponseWrapper((HttpServletResponse) response,
+                    this::createStreamingMinifier);
+            chain.doFilter(request, wrapper);
+            if (request.isAsyncStarted()) {
+                wrapper.passThrough();
+            } else {
+                wrapper.finish();
+            }
+            return;
+        }
+        BufferedResponseWrapper wrapper = new BufferedResponseWrapper((HttpServletResponse) response);
+        chain.doFilter(request, wrapper);
+        if (request.isAsyncStarted()) {
+            wrapper.passThrough();
+        } else {
+            writeBody((HttpServletRequest) request, wrapper);
+        }
+    }
+
+    /**
+     * Write the held back body of a page, minified if it is a successful HTML response.
+     *
+     * @param request
+     *            the request
+     * @param wrapper
+     *            the response wrapper
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private void writeBody(HttpServletRequest request, BufferedResponseWrapper wrapper) throws IOException {
+        if (!wrapper.hasBody()) {
+            return;
+        }
+        if (!wrapper.isHtml() || wrapper.getStatus() != HttpServletResponse.SC_OK) {
+            wrapper.writeUnchanged();
+            return;
+        }
+        String page = wrapper.getText();
+        String key = getCacheKey(request, wrapper, page);
+        wrapper.writeText(compressorCache.compress(key, page));
+    }
+
+    /**
+     * Creates a streaming minifier.
+     *
+     * @param out
+     *            the writer receiving the minified content
+     *
+     * @return the streaming minifier
+     */
+    private StreamingHtmlMinifier createStreamingMinifier(Writer out) {
+        StreamingHtmlMinifier minifier = compressorCache.getFactory().createStreamingMinifier(out);
+        for (String[] pair : preserveDelimiters) {
+            minifier.addPreserveDelimiters(pair[0], pair[1]);
+        }
+        return minifier;
+    }
+
+    /**
+     * Gets the cache key of a page.
+     *
+     * @param request
+     *            the request
+     * @param response
+     *            the response
+     * @param page
+     *            the page
+     *
+     * @return the cache key
+     */
+    private static String getCacheKey(HttpServletRequest request, HttpServletResponse response, String page) {
+        StringBuilder key = new StringBuilder(request.getRequestURL());
+        if (request.getQueryString() != null) {
+            key.append('?').append(request.getQueryString());
+        }
+        String etag = response.getHeader("ETag");
+        return key.append('#').append(etag != null ? etag : CompressorCache.hash(page)).toString();
+    }
+
+    @Override
+    public void destroy() {
+        compressorCache.getCache().clear();
+    }
+
+    /**
+     * Gets the cache.
+     *
+     * @return the cache
+     */
+    public LruCache<String, String> getCache() {
+        return compressorCache.getCache();
+    }
+}
@@ -0,0 +1,343 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor.runtime;
+
+import com.tunyk.mvn.plugins.htmlcompressor.StreamingHtmlMinifier;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.function.Function;
+
+/**
+ * Response wrapper minifying the body as it is written, instead of holding it back.
+ * <p>
+ * Whether the body is minified is decided when the writer or output stream is first requested, from the content type
+ * and status set by then. Bytes written to the output stream are decoded with the response charset. Flushes pass on
+ * everything minified so far, so the first bytes reach the client as early as without the filter. Once
+ * {@link #passThrough()} is called or a write listener is set, the body is passed on unchanged.
+ */
+class StreamingResponseWrapper extends HttpServletResponseWrapper {
+
+    /** The size of the decoding buffers. */
+    private static final int BUFFER_SIZE = 8192;
+
+    /** Creates the minifier around the response writer. */
+    private final Function<Writer, StreamingHtmlMinifier> minifierFactory;
+
+    /** The minifier, null until the body is known to be HTML. */
+    private StreamingHtmlMinifier minifier;
+
+    /** Whether the body is passed on unchanged from now on. */
+    private boolean passThrough;
+
+    /** The writer. */
+    private PrintWriter writer;
+
+    /** The output stream. */
+    private DecodingOutputStream outputStream;
+
+    /**
+     * Instantiates a new streaming response wrapper.
+     *
+     * @param response
+     *            the response
+     * @param minifierFactory
+     *            creates the minifier around the response writer
+     */
+    StreamingResponseWrapper(HttpServletResponse response, Function<Writer, StreamingHtmlMinifier> minifierFactory) {
+        super(response);
+        this.minifierFactory = minifierFactory;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (outputStream != null) {
+            throw new IllegalStateException("getOutputStream() has already been called");
+        }
+        if (writer == null) {
+            if (isMinified()) {
+                Writer out = super.getWriter();
+                minifier = minifierFactory.apply(out);
+                writer = new PrintWriter(new Writer() {
+
+                    @Override
+                    public void write(char[] cbuf, int off, int len) throws IOException {
+                        target().write(cbuf, off, len);
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        target().flush();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        target().close();
+                    }
+
+                    /**
+                     * Gets the writer the body goes to.
+                     *
+                     * @return the writer
+                     */
+                    private Writer target() {
+                        return passThrough ? out : minifier;
+                    }
+                });
+            } else {
+                writer = super.getWriter();
+            }
+        }
+        return writer;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called");
+        }
+        if (outputStream != null) {
+            return outputStream;
+        }
+        if (!isMinified()) {
+            return super.getOutputStream();
+        }
+        Charset charset = Charset.forName(getCharacterEncoding());
+        minifier = minifierFactory.apply(new OutputStreamWriter(super.getOutputStream(), charset));
+        outputStream = new DecodingOutputStream(charset);
+        return outputStream;
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        if (!isHtml()) {
+            super.setContentLength(len);
+        }
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        if (!isHtml()) {
+            super.setContentLengthLong(len);
+        }
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (outputStream != null) {
+            outputStream.flush();
+        } else if (writer != null) {
+            writer.flush();
+        }
+        super.flushBuffer();
+    }
+
+    /**
+     * Write out what the minifier holds back, once the body is complete.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    void finish() throws IOException {
+        if (minifier == null || passThrough) {
+            return;
+        }
+        if (outputStream != null) {
+            outputStream.decode(true);
+        }
+        minifier.finish();
+    }
+
+    /**
+     * Write out what the minifier holds back, and pass on anything written afterwards unchanged.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    void passThrough() throws IOException {
+        if (!passThrough) {
+            finish();
+            passThrough = true;
+        }
+    }
+
+    /**
+     * Checks if the body is to be minified.
+     *
+     * @return true, if the body is HTML and the status successful
+     */
+    private boolean isMinified() {
+        return !passThrough && isHtml() && getStatus() == HttpServletResponse.SC_OK;
+    }
+
+    /**
+     * Checks if the body is HTML.
+     *
+     * @return true, if is html
+     */
+    private boolean isHtml() {
+        String contentType = getContentType();
+        return contentType != null && contentType.regionMatches(true, 0, "text/html", 0, 9);
+    }
+
+    /**
+     * Output stream decoding the bytes into the minifier.
+     */
+    private class DecodingOutputStream extends ServletOutputStream {
+
+        /** The decoder. */
+        private final CharsetDecoder decoder;
+
+        /** The bytes not decoded yet, such as an incomplete multibyte sequence. */
+        private final ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+
+        /** The decoded characters. */
+        private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+
+        /** Whether the stream is closed. */
+        private boolean closed;
+
+        /**
+         * Instantiates a new decoding output stream.
+         *
+         * @param charset
+         *            the charset
+         */
+        DecodingOutputStream(Charset charset) {
+            decoder = charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (passThrough) {
+                getResponse().getOutputStream().write(b);
+                return;
+            }
+            if (!bytes.hasRemaining()) {
+                decode(false);
+            }
+            bytes.put((byte) b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (passThrough) {
+                getResponse().getOutputStream().write(b, off, len);
+                return;
+            }
+            while (len > 0) {
+                int n = Math.min(len, bytes.remaining());
+                bytes.put(b, off, n);
+                off += n;
+                len -= n;
+                decode(false);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (passThrough) {
+                getResponse().getOutputStream().flush();
+                return;
+            }
+            decode(false);
+            minifier.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (passThrough) {
+                getResponse().getOutputStream().close();
+                return;
+            }
+            if (closed) {
+                return;
+            }
+            decode(true);
+            closed = true;
+            minifier.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            try {
+                return !passThrough || getResponse().getOutputStream().isReady();
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            try {
+                // Non-blocking output cannot be minified by the blocking minifier, so it is passed on unminified
+                passThrough();
+                getResponse().getOutputStream().setWriteListener(writeListener);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        /**
+         * Decode the buffered bytes into the minifier.
+         *
+         * @param end
+         *            whether no more bytes follow
+         *
+         * @throws IOException
+         *             Signals that an I/O exception has occurred.
+         */
+        void decode(boolean end) throws IOException {
+            if (closed) {
+                return;
+            }
+            bytes.flip();
+            CoderResult result;
+            do {
+                result = decoder.decode(bytes, chars, end);
+                minifier.write(chars.array(), 0, chars.position());
+                chars.clear();
+            } while (result.isOverflow());
+            if (end) {
+                while (decoder.flush(chars).isOverflow()) {
+                    minifier.write(chars.array(), 0, chars.position());
+                    chars.clear();
+                }
+                minifier.write(chars.array(), 0, chars.position());
+                chars.clear();
+                decoder.reset();
+            }
+            bytes.compact();
+        }
+    }
+}
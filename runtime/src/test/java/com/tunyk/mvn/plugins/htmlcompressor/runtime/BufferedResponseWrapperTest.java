@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor.runtime;
+
+import jakarta.servlet.WriteListener;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class BufferedResponseWrapperTest.
+ */
+class BufferedResponseWrapperTest {
+
+    /** The Constant LOG. */
+    private static final Logger LOG = LoggerFactory.getLogger(BufferedResponseWrapperTest.class);
+
+    /**
+     * Sets the up class.
+     */
+    @BeforeAll
+    static void setUpClass() {
+        LOG.info("Setting up class...");
+    }
+
+    /**
+     * Tear down class.
+     */
+    @AfterAll
+    static void tearDownClass() {
+        LOG.info("Test finished.");
+    }
+
+    /**
+     * Sets the up.
+     */
+    @BeforeEach
+    void setUp() {
+        LOG.info("Setting up data for testing...");
+    }
+
+    /**
+     * Test buffering is decided on the first write.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void testBufferingDecision() throws Exception {
+        LOG.info("Testing buffering decision...");
+
+        StubResponse response = new StubResponse();
+        BufferedResponseWrapper wrapper = new BufferedResponseWrapper(response);
+        wrapper.setContentType("text/html");
+        wrapper.setContentLength(100);
+        wrapper.getWriter().write("<p>held</p>");
+        wrapper.flushBuffer();
+        // Set after the first write, so the body stays held back
+        wrapper.setContentType("text/plain");
+        Assertions.assertEquals("", response.getText());
+        Assertions.assertEquals(-1, response.getContentLength());
+        Assertions.assertFalse(response.isCommitted());
+        Assertions.assertTrue(wrapper.hasBody());
+        Assertions.assertEquals("<p>held</p>", wrapper.getText());
+
+        response = new StubResponse();
+        wrapper = new BufferedResponseWrapper(response);
+        wrapper.getOutputStream().write("plain".getBytes(StandardCharsets.UTF_8));
+        // Set after the first write, so the body is still passed on
+        wrapper.setContentType("text/html");
+        wrapper.getOutputStream().write(" text".getBytes(StandardCharsets.UTF_8));
+        Assertions.assertEquals("plain text", response.getText());
+        Assertions.assertFalse(wrapper.hasBody());
+
+        response = new StubResponse();
+        wrapper = new BufferedResponseWrapper(response);
+        wrapper.setContentType("text/html");
+        wrapper.setStatus(500);
+        wrapper.getWriter().write("<p>error</p>");
+        wrapper.getWriter().flush();
+        Assertions.assertEquals("<p>error</p>", response.getText());
+        Assertions.assertFalse(wrapper.hasBody());
+
+        LOG.info("Passed");
+    }
+
+    /**
+     * Test reset.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void testReset() throws Exception {
+        LOG.info("Testing reset...");
+
+        StubResponse response = new StubResponse();
+        BufferedResponseWrapper wrapper = new BufferedResponseWrapper(response);
+        wrapper.setContentType("text/html");
+        wrapper.getOutputStream().write("<p>discarded</p>".getBytes(StandardCharsets.UTF_8));
+        wrapper.resetBuffer();
+        Assertions.assertEquals("", wrapper.getText());
+        Assertions.assertTrue(wrapper.hasBody());
+
+        wrapper.getOutputStream().write("<p>discarded</p>".getBytes(StandardCharsets.UTF_8));
+        wrapper.reset();
+        Assertions.assertNull(response.getContentType());
+        // The decision is taken again for the body written after the reset
+        wrapper.setContentType("application/octet-stream");
+        wrapper.getOutputStream().write("download".getBytes(StandardCharsets.UTF_8));
+        Assertions.assertEquals("download", response.getText());
+        Assertions.assertFalse(wrapper.hasBody());
+        Assertions.assertEquals("", wrapper.getText());
+
+        LOG.info("Passed");
+    }
+
+    /**
+     * Test errors, redirects and passing through.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void testSentAndPassThrough() throws Exception {
+        LOG.info("Testing sent and pass through...");
+
+        StubResponse response = new StubResponse();
+        BufferedResponseWrapper wrapper = new BufferedResponseWrapper(response);
+        wrapper.setContentType("text/html");
+        wrapper.getWriter().write("<p>page</p>");
+        wrapper.sendRedirect("/elsewhere");
+        Assertions.assertFalse(wrapper.hasBody());
+        Assertions.assertEquals(302, response.getStatus());
+
+        response = new StubResponse();
+        wrapper = new BufferedResponseWrapper(response);
+        wrapper.setContentType("text/html");
+        wrapper.getWriter().write("<p>  held  </p>");
+        wrapper.passThrough();
+        wrapper.getWriter().write("<p>  later  </p>");
+        Assertions.assertEquals("<p>  held  </p><p>  later  </p>", response.getText());
+        Assertions.assertFalse(wrapper.hasBody());
+
+        response = new StubResponse();
+        wrapper = new BufferedResponseWrapper(response);
+        wrapper.setContentType("text/html; charset=ISO-8859-1");
+        wrapper.setCharacterEncoding("ISO-8859-1");
+        wrapper.getOutputStream().write("<p>h\u00e9ld</p>".getBytes(StandardCharsets.ISO_8859_1));
+        wrapper.writeUnchanged();
+        Assertions.assertEquals("<p>h\u00e9ld</p>", response.getText());
+        Assertions.assertEquals(11, response.getContentLength());
+        Assertions.assertTrue(response.isCommitted());
+
+        LOG.info("Passed");
+    }
+
+    /**
+     * Test output driven by a write listener is passed on unminified.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void testWriteListener() throws Exception {
+        LOG.info("Testing write listener...");
+
+        StubResponse response = new StubResponse();
+        BufferedResponseWrapper wrapper = new BufferedResponseWrapper(response);
+        wrapper.setContentType("text/html");
+        WriteListener listener = Mockito.mock(WriteListener.class);
+        wrapper.getOutputStream().setWriteListener(listener);
+        Assertions.assertSame(listener, response.getWriteListener());
+        Assertions.assertTrue(wrapper.getOutputStream().isReady());
+        wrapper.getOutputStream().write("<p>  async  </p>".getBytes(StandardCharsets.UTF_8));
+        Assertions.assertEquals("<p>  async  </p>", response.getText());
+        Assertions.assertFalse(wrapper.hasBody());
+
+        LOG.info("Passed");
+    }
+}
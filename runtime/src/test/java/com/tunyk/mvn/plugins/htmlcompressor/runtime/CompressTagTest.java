@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor.runtime;
+
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.jsp.JspException;
+import jakarta.servlet.jsp.JspWriter;
+import jakarta.servlet.jsp.PageContext;
+import jakarta.servlet.jsp.tagext.BodyContent;
+import jakarta.servlet.jsp.tagext.BodyTag;
+import jakarta.servlet.jsp.tagext.Tag;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class CompressTagTest.
+ */
+class CompressTagTest {
+
+    /** The Constant LOG. */
+    private static final Logger LOG = LoggerFactory.getLogger(CompressTagTest.class);
+
+    /** The Constant FRAGMENT. */
+    private static final String FRAGMENT = "<nav>\n  <!-- menu -->\n  <a href=\"/\">  home  </a>\n</nav>";
+
+    /** The Constant MINIFIED. */
+    private static final String MINIFIED = "<nav><a href=\"/\"> home </a></nav>";
+
+    /**
+     * Sets the up class.
+     */
+    @BeforeAll
+    static void setUpClass() {
+        LOG.info("Setting up class...");
+    }
+
+    /**
+     * Tear down class.
+     */
+    @AfterAll
+    static void tearDownClass() {
+        LOG.info("Test finished.");
+    }
+
+    /**
+     * Sets the up.
+     */
+    @BeforeEach
+    void setUp() {
+        LOG.info("Setting up data for testing...");
+    }
+
+    /**
+     * Test fragments without a cache key are cached by hash.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void testHashKey() throws Exception {
+        LOG.info("Testing hash key...");
+
+        PageContext pageContext = createPageContext(Map.of("htmlcompressor.removeIntertagSpaces", "true"));
+        CompressTag tag = new CompressTag();
+        tag.setPageContext(pageContext);
+        Assertions.assertEquals(BodyTag.EVAL_BODY_BUFFERED, tag.doStartTag());
+        tag.setBodyContent(createBodyContent(FRAGMENT));
+        Assertions.assertEquals(Tag.EVAL_PAGE, tag.doEndTag());
+        Mockito.verify(pageContext.getOut()).write(MINIFIED);
+
+        CompressorCache compressorCache = (CompressorCache) pageContext.getServletContext()
+                .getAttribute(CompressTag.class.getName());
+        Assertions.assertEquals(MINIFIED, compressorCache.getCache().get("hash:" + CompressorCache.hash(FRAGMENT)));
+        Assertions.assertEquals(1, compressorCache.getCache().size());
+
+        LOG.info("Passed");
+    }
+
+    /**
+     * Test a cached fragment skips the body.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void testCacheHit() throws Exception {
+        LOG.info("Testing cache hit...");
+
+        PageContext pageContext = createPageContext(Map.of("htmlcompressor.removeIntertagSpaces", "true"));
+        CompressTag tag = new CompressTag();
+        tag.setPageContext(pageContext);
+        tag.setCacheKey("nav");
+        Assertions.assertEquals(BodyTag.EVAL_BODY_BUFFERED, tag.doStartTag());
+        tag.setBodyContent(createBodyContent(FRAGMENT));
+        tag.doEndTag();
+
+        CompressTag other = new CompressTag();
+        other.setPageContext(pageContext);
+        other.setCacheKey("nav");
+        Assertions.assertEquals(Tag.SKIP_BODY, other.doStartTag());
+        Assertions.assertEquals(Tag.EVAL_PAGE, other.doEndTag());
+        Mockito.verify(pageContext.getOut(), Mockito.times(2)).write(MINIFIED);
+
+        CompressorCache compressorCache = (CompressorCache) pageContext.getServletContext()
+                .getAttribute(CompressTag.class.getName());
+        Assertions.assertEquals(MINIFIED, compressorCache.getCache().get("key:nav"));
+
+        LOG.info("Passed");
+    }
+
+    /**
+     * Test a tag handler reused by the container.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void testReuse() throws Exception {
+        LOG.info("Testing reuse...");
+
+        PageContext pageContext = createPageContext(Map.of());
+        CompressTag tag = new CompressTag();
+        tag.setPageContext(pageContext);
+        tag.setCacheKey("cached");
+        tag.doStartTag();
+        tag.setBodyContent(createBodyContent("<p>  cached  </p>"));
+        tag.doEndTag();
+        Assertions.assertEquals(Tag.SKIP_BODY, tag.doStartTag());
+        tag.doEndTag();
+
+        // Reused with another key, the body is evaluated again
+        tag.setCacheKey("other");
+        Assertions.assertEquals(BodyTag.EVAL_BODY_BUFFERED, tag.doStartTag());
+
+        tag.release();
+        Assertions.assertNull(tag.getCacheKey());
+        tag.setPageContext(pageContext);
+        Assertions.assertEquals(BodyTag.EVAL_BODY_BUFFERED, tag.doStartTag());
+        tag.setBodyContent(createBodyContent("<p>  hashed  </p>"));
+        tag.doEndTag();
+        JspWriter out = pageContext.getOut();
+        Mockito.verify(out, Mockito.times(2)).write("<p> cached </p>");
+        Mockito.verify(out).write("<p> hashed </p>");
+
+        LOG.info("Passed");
+    }
+
+    /**
+     * Test invalid settings.
+     */
+    @Test
+    void testInvalidSettings() {
+        LOG.info("Testing invalid settings...");
+
+        for (Map<String, String> settings : List.of(Map.of("htmlcompressor.removeEverything", "true"),
+                Map.of("htmlcompressor.closureBatch", "true"), Map.of("htmlcompressor.poolSize", "many"))) {
+            CompressTag tag = new CompressTag();
+            tag.setPageContext(createPageContext(settings));
+            tag.setCacheKey("key");
+            Assertions.assertThrows(JspException.class, tag::doStartTag, settings.toString());
+        }
+
+        LOG.info("Passed");
+    }
+
+    /**
+     * Creates a page context whose servlet context has the given init parameters.
+     *
+     * @param initParameters
+     *            the init parameters
+     *
+     * @return the page context
+     */
+    private static PageContext createPageContext(Map<String, String> initParameters) {
+        Map<String, Object> attributes = new HashMap<>();
+        ServletContext context = Mockito.mock(ServletContext.class);
+        Mockito.when(context.getInitParameterNames())
+                .thenAnswer(invocation -> Collections.enumeration(initParameters.keySet()));
+        Mockito.when(context.getInitParameter(Mockito.anyString()))
+                .thenAnswer(invocation -> initParameters.get(invocation.getArgument(0, String.class)));
+        Mockito.when(context.getAttribute(Mockito.anyString()))
+                .thenAnswer(invocation -> attributes.get(invocation.getArgument(0, String.class)));
+        Mockito.doAnswer(invocation -> attributes.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(context).setAttribute(Mockito.anyString(), Mockito.any());
+
+        PageContext pageContext = Mockito.mock(PageContext.class);
+        JspWriter out = Mockito.mock(JspWriter.class);
+        Mockito.when(pageContext.getServletContext()).thenReturn(context);
+        Mockito.when(pageContext.getOut()).thenReturn(out);
+        return pageContext;
+    }
+
+    /**
+     * Creates a body content.
+     *
+     * @param body
+     *            the body
+     *
+     * @return the body content
+     */
+    private static BodyContent createBodyContent(String body) {
+        BodyContent bodyContent = Mockito.mock(BodyContent.class);
+        Mockito.when(bodyContent.getString()).thenReturn(body);
+        return bodyContent;
+    }
+}
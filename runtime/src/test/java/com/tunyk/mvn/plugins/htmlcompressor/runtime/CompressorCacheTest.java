@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor.runtime;
+
+import java.util.Map;
+
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class CompressorCacheTest.
+ */
+class CompressorCacheTest {
+
+    /** The Constant LOG. */
+    private static final Logger LOG = LoggerFactory.getLogger(CompressorCacheTest.class);
+
+    /**
+     * Sets the up class.
+     */
+    @BeforeAll
+    static void setUpClass() {
+        LOG.info("Setting up class...");
+    }
+
+    /**
+     * Tear down class.
+     */
+    @AfterAll
+    static void tearDownClass() {
+        LOG.info("Test finished.");
+    }
+
+    /**
+     * Sets the up.
+     */
+    @BeforeEach
+    void setUp() {
+        LOG.info("Setting up data for testing...");
+    }
+
+    /**
+     * Test compress.
+     */
+    @Test
+    void testCompress() {
+        LOG.info("Testing compress...");
+
+        CompressorCache compressorCache = CompressorCache
+                .create(Map.of("removeIntertagSpaces", "true", "poolSize", "1", "cacheSize", "1000"));
+        Assertions.assertEquals("<p>a</p><p>b</p>", compressorCache.compress("k", "<p>a</p>\n  <p>b</p>"));
+        // Served by key, so changed content under the same key is not minified again
+        Assertions.assertEquals("<p>a</p><p>b</p>", compressorCache.compress("k", "<p>changed</p>"));
+        Assertions.assertEquals(1, compressorCache.getCache().getHitCount());
+
+        CompressorCache uncached = CompressorCache.create(Map.of("cacheSize", "0"));
+        Assertions.assertEquals("<p>x</p>", uncached.compress("k", "<!-- c --><p>x</p>"));
+        Assertions.assertEquals(0, uncached.getCache().size());
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> CompressorCache.create(Map.of("removeEverything", "true")));
+        Assertions.assertThrows(NumberFormatException.class, () -> CompressorCache.create(Map.of("poolSize", "x")));
+
+        LOG.info("Passed");
+    }
+
+    /**
+     * Test hash.
+     */
+    @Test
+    void testHash() {
+        LOG.info("Testing hash...");
+
+        Assertions.assertEquals("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855",
+                CompressorCache.hash(""));
+        Assertions.assertEquals(CompressorCache.hash("<p>h\u00e9llo</p>"), CompressorCache.hash("<p>h\u00e9llo</p>"));
+        Assertions.assertNotEquals(CompressorCache.hash("<p>a</p>"), CompressorCache.hash("<p>b</p>"));
+
+        LOG.info("Passed");
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor.runtime;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.FilterConfig;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class HtmlCompressorFilterTest.
+ */
+class HtmlCompressorFilterTest {
+
+    /** The Constant LOG. */
+    private static final Logger LOG = LoggerFactory.getLogger(HtmlCompressorFilterTest.class);
+
+    /** The Constant PAGE. */
+    private static final String PAGE = "<html>\n  <body>\n    <!-- c -->\n    <p>  héllo  </p>\n  </body>\n</html>";
+
+    /** The Constant MINIFIED. */
+    private static final String MINIFIED = "<html><body><p> héllo </p></body></html>";
+
+    /**
+     * Sets the up class.
+     */
+    @BeforeAll
+    static void setUpClass() {
+        LOG.info("Setting up class...");
+    }
+
+    /**
+     * Tear down class.
+     */
+    @AfterAll
+    static void tearDownClass() {
+        LOG.info("Test finished.");
+    }
+
+    /**
+     * Sets the up.
+     */
+    @BeforeEach
+    void setUp() {
+        LOG.info("Setting up data for testing...");
+    }
+
+    /**
+     * Test minify and cache keys.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void testMinify() throws Exception {
+        LOG.info("Testing minify...");
+
+        HtmlCompressorFilter filter = createFilter(Map.of("removeIntertagSpaces", "true"));
+
+        StubResponse response = new StubResponse();
+        filter.doFilter(createRequest(null, false), response, (req, res) -> {
+            res.setContentType("text/html;charset=UTF-8");
+            res.setContentLength(PAGE.length());
+            res.getWriter().write(PAGE);
+        });
+        Assertions.assertEquals(MINIFIED, response.getText());
+        Assertions.assertEquals(MINIFIED.getBytes(StandardCharsets.UTF_8).length, response.getContentLength());
+        Assertions.assertEquals(MINIFIED,
+                filter.getCache().get("http://localhost/page#" + CompressorCache.hash(PAGE)));
+
+        // With an ETag the page is cached by it, so a changed page with the same ETag is served from the cache
+        FilterChain etagChain = (req, res) -> {
+            res.setContentType("text/html");
+            ((HttpServletResponse) res).setHeader("ETag", "\"v1\"");
+            res.getOutputStream().write(PAGE.getBytes(StandardCharsets.UTF_8));
+        };
+        response = new StubResponse();
+        filter.doFilter(createRequest("a=1", false), response, etagChain);
+        Assertions.assertEquals(MINIFIED, response.getText());
+        Assertions.assertEquals(MINIFIED, filter.getCache().get("http://localhost/page?a=1#\"v1\""));
+
+        response = new StubResponse();
+        filter.doFilter(createRequest("a=1", false), response, (req, res) -> {
+            res.setContentType("text/html");
+            ((HttpServletResponse) res).setHeader("ETag", "\"v1\"");
+            res.getWriter().write("<p>changed</p>");
+        });
+        Assertions.assertEquals(MINIFIED, response.getText());
+        Assertions.assertEquals(2, filter.getCache().size());
+
+        filter.destroy();
+        Assertions.assertEquals(0, filter.getCache().size());
+
+        LOG.info("Passed");
+    }
+
+    /**
+     * Test responses passed on unchanged.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void testPassThrough() throws Exception {
+        LOG.info("Testing pass through...");
+
+        HtmlCompressorFilter filter = createFilter(Map.of("removeIntertagSpaces", "true"));
+
+        StubResponse response = new StubResponse();
+        filter.doFilter(createRequest(null, false), response, (req, res) -> {
+            ((HttpServletResponse) res).setStatus(404);
+            res.setContentType("text/html");
+            res.getWriter().write(PAGE);
+        });
+        Assertions.assertEquals(PAGE, response.getText());
+
+        String json = "{ \"key\" : 1 }";
+        response = new StubResponse();
+        filter.doFilter(createRequest(null, false), response, (req, res) -> {
+            res.setContentType("application/json");
+            res.setContentLength(json.length());
+            res.getOutputStream().write(json.getBytes(StandardCharsets.UTF_8));
+        });
+        Assertions.assertEquals(json, response.getText());
+        Assertions.assertEquals(json.length(), response.getContentLength());
+
+        response = new StubResponse();
+        filter.doFilter(createRequest(null, false), response, (req, res) -> {
+            res.setContentType("text/html");
+            ((HttpServletResponse) res).sendError(500);
+        });
+        Assertions.assertEquals(500, response.getStatus());
+        Assertions.assertEquals("", response.getText());
+        Assertions.assertEquals(0, filter.getCache().size());
+
+        LOG.info("Passed");
+    }
+
+    /**
+     * Test the asynchronous path.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void testAsync() throws Exception {
+        LOG.info("Testing async...");
+
+        for (String streaming : new String[] { "false", "true" }) {
+            HtmlCompressorFilter filter = createFilter(Map.of("removeIntertagSpaces", "true", "streaming", streaming));
+            AtomicReference<ServletResponse> wrapper = new AtomicReference<>();
+            StubResponse response = new StubResponse();
+            filter.doFilter(createRequest(null, true), response, (req, res) -> {
+                res.setContentType("text/html");
+                res.getWriter().write("<p>  before  </p>");
+                wrapper.set(res);
+            });
+            // Written later by the application thread, then completed
+            wrapper.get().getWriter().write("\n\n<p>  after  </p>");
+            wrapper.get().getWriter().flush();
+            Assertions.assertTrue(response.getText().endsWith("</p>\n\n<p>  after  </p>"), streaming);
+            Assertions.assertEquals(0, filter.getCache().size());
+        }
+
+        LOG.info("Passed");
+    }
+
+    /**
+     * Test streaming.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void testStreaming() throws Exception {
+        LOG.info("Testing streaming...");
+
+        HtmlCompressorFilter filter = createFilter(Map.of("streaming", "true", "preserveDelimiters", "{{ }}"));
+        StubResponse response = new StubResponse();
+        filter.doFilter(createRequest(null, false), response, (req, res) -> {
+            res.setContentType("text/html");
+            res.getWriter().write("<p>  {{  a  }}  </p>\n\n<!-- c --><p>  b  </p>");
+        });
+        Assertions.assertEquals("<p> {{  a  }} </p> <p> b </p>", response.getText());
+        Assertions.assertEquals(0, filter.getCache().size());
+
+        Assertions.assertThrows(ServletException.class,
+                () -> createFilter(Map.of("streaming", "true", "preserveDelimiters", "{{")));
+        Assertions.assertThrows(ServletException.class, () -> createFilter(Map.of("closureBatch", "true")));
+
+        LOG.info("Passed");
+    }
+
+    /**
+     * Creates an initialized filter.
+     *
+     * @param initParameters
+     *            the init parameters
+     *
+     * @return the filter
+     *
+     * @throws ServletException
+     *             the servlet exception
+     */
+    static HtmlCompressorFilter createFilter(Map<String, String> initParameters) throws ServletException {
+        Map<String, String> parameters = new HashMap<>(initParameters);
+        FilterConfig config = Mockito.mock(FilterConfig.class);
+        Mockito.when(config.getInitParameterNames())
+                .thenAnswer(invocation -> Collections.enumeration(parameters.keySet()));
+        Mockito.when(config.getInitParameter(Mockito.anyString()))
+                .thenAnswer(invocation -> parameters.get(invocation.getArgument(0, String.class)));
+        HtmlCompressorFilter filter = new HtmlCompressorFilter();
+        filter.init(config);
+        return filter;
+    }
+
+    /**
+     * Creates a request of http://localhost/page.
+     *
+     * @param queryString
+     *            the query string, may be null
+     * @param async
+     *            whether the application starts asynchronous processing
+     *
+     * @return the request
+     */
+    static HttpServletRequest createRequest(String queryString, boolean async) {
+        HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+        Mockito.when(request.getRequestURL()).thenAnswer(invocation -> new StringBuffer("http://localhost/page"));
+        Mockito.when(request.getQueryString()).thenReturn(queryString);
+        Mockito.when(request.isAsyncStarted()).thenReturn(false, async);
+        return request;
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor.runtime;
+
+import com.tunyk.mvn.plugins.htmlcompressor.HtmlCompressorFactory;
+
+import jakarta.servlet.WriteListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class StreamingResponseWrapperTest.
+ */
+class StreamingResponseWrapperTest {
+
+    /** The Constant LOG. */
+    private static final Logger LOG = LoggerFactory.getLogger(StreamingResponseWrapperTest.class);
+
+    /**
+     * Sets the up class.
+     */
+    @BeforeAll
+    static void setUpClass() {
+        LOG.info("Setting up class...");
+    }
+
+    /**
+     * Tear down class.
+     */
+    @AfterAll
+    static void tearDownClass() {
+        LOG.info("Test finished.");
+    }
+
+    /**
+     * Sets the up.
+     */
+    @BeforeEach
+    void setUp() {
+        LOG.info("Setting up data for testing...");
+    }
+
+    /** The factory. */
+    private final HtmlCompressorFactory factory = HtmlCompressorFactory.fromProperties(Map.of());
+
+    /**
+     * Test minifying bytes split within characters.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void testOutputStream() throws Exception {
+        LOG.info("Testing output stream...");
+
+        StubResponse response = new StubResponse();
+        StreamingResponseWrapper wrapper = new StreamingResponseWrapper(response, factory::createStreamingMinifier);
+        wrapper.setContentType("text/html");
+        wrapper.setContentLength(100);
+        byte[] page = "<!-- c --><p>  h\u00e9llo  \u20ac  </p>".getBytes(StandardCharsets.UTF_8);
+        for (byte b : page) {
+            wrapper.getOutputStream().write(b);
+        }
+        wrapper.finish();
+        Assertions.assertEquals("<p> h\u00e9llo \u20ac </p>", response.getText());
+        Assertions.assertEquals(-1, response.getContentLength());
+
+        LOG.info("Passed");
+    }
+
+    /**
+     * Test bodies that are not minified.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void testNotMinified() throws Exception {
+        LOG.info("Testing not minified...");
+
+        StubResponse response = new StubResponse();
+        StreamingResponseWrapper wrapper = new StreamingResponseWrapper(response, factory::createStreamingMinifier);
+        wrapper.setContentType("text/plain");
+        wrapper.setContentLength(10);
+        wrapper.getWriter().write("  plain  ");
+        wrapper.finish();
+        Assertions.assertEquals("  plain  ", response.getText());
+        Assertions.assertEquals(10, response.getContentLength());
+
+        response = new StubResponse();
+        wrapper = new StreamingResponseWrapper(response, factory::createStreamingMinifier);
+        wrapper.setContentType("text/html");
+        wrapper.setStatus(404);
+        wrapper.getOutputStream().write("<p>  missing  </p>".getBytes(StandardCharsets.UTF_8));
+        wrapper.finish();
+        Assertions.assertEquals("<p>  missing  </p>", response.getText());
+
+        LOG.info("Passed");
+    }
+
+    /**
+     * Test flushing and passing through.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void testFlushAndPassThrough() throws Exception {
+        LOG.info("Testing flush and pass through...");
+
+        StubResponse response = new StubResponse();
+        StreamingResponseWrapper wrapper = new StreamingResponseWrapper(response, factory::createStreamingMinifier);
+        wrapper.setContentType("text/html");
+        wrapper.getWriter().write("<p>  first  </p>  ");
+        wrapper.flushBuffer();
+        Assertions.assertTrue(response.getText().startsWith("<p> first </p>"));
+        Assertions.assertTrue(response.isCommitted());
+
+        wrapper.passThrough();
+        wrapper.getWriter().write("<p>  later  </p>");
+        wrapper.getWriter().flush();
+        Assertions.assertTrue(response.getText().endsWith("</p><p>  later  </p>"), response.getText());
+
+        LOG.info("Passed");
+    }
+
+    /**
+     * Test output driven by a write listener is passed on unminified.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void testWriteListener() throws Exception {
+        LOG.info("Testing write listener...");
+
+        StubResponse response = new StubResponse();
+        StreamingResponseWrapper wrapper = new StreamingResponseWrapper(response, factory::createStreamingMinifier);
+        wrapper.setContentType("text/html");
+        WriteListener listener = Mockito.mock(WriteListener.class);
+        wrapper.getOutputStream().setWriteListener(listener);
+        Assertions.assertSame(listener, response.getWriteListener());
+        Assertions.assertTrue(wrapper.getOutputStream().isReady());
+        wrapper.getOutputStream().write("<p>  async  </p>".getBytes(StandardCharsets.UTF_8));
+        Assertions.assertEquals("<p>  async  </p>", response.getText());
+        wrapper.finish();
+        Assertions.assertEquals("<p>  async  </p>", response.getText());
+
+        LOG.info("Passed");
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor.runtime;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.mockito.Mockito;
+
+/**
+ * Response recording the status, headers and body written to it, standing in for the container's response.
+ */
+class StubResponse extends HttpServletResponseWrapper {
+
+    /** The status. */
+    private int status = SC_OK;
+
+    /** The content type. */
+    private String contentType;
+
+    /** The character encoding. */
+    private String characterEncoding = "UTF-8";
+
+    /** The content length, -1 if not set. */
+    private long contentLength = -1;
+
+    /** The headers. */
+    private final Map<String, String> headers = new HashMap<>();
+
+    /** The body. */
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+    /** The writer. */
+    private PrintWriter writer;
+
+    /** The output stream. */
+    private ServletOutputStream outputStream;
+
+    /** The write listener, null until one is set. */
+    private WriteListener writeListener;
+
+    /** Whether the response is committed. */
+    private boolean committed;
+
+    /**
+     * Instantiates a new stub response.
+     */
+    StubResponse() {
+        super(Mockito.mock(HttpServletResponse.class));
+    }
+
+    @Override
+    public int getStatus() {
+        return status;
+    }
+
+    @Override
+    public void setStatus(int sc) {
+        status = sc;
+    }
+
+    @Override
+    public void sendError(int sc) {
+        sendError(sc, null);
+    }
+
+    @Override
+    public void sendError(int sc, String msg) {
+        status = sc;
+        committed = true;
+    }
+
+    @Override
+    public void sendRedirect(String location) {
+        status = SC_FOUND;
+        headers.put("Location", location);
+        committed = true;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public void setContentType(String type) {
+        contentType = type;
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return characterEncoding;
+    }
+
+    @Override
+    public void setCharacterEncoding(String charset) {
+        characterEncoding = charset;
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        contentLength = len;
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        contentLength = len;
+    }
+
+    @Override
+    public String getHeader(String name) {
+        return headers.get(name);
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        headers.put(name, value);
+    }
+
+    @Override
+    public boolean containsHeader(String name) {
+        return headers.containsKey(name);
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        if (outputStream != null) {
+            throw new IllegalStateException("getOutputStream() has already been called");
+        }
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(body, Charset.forName(characterEncoding)));
+        }
+        return writer;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called");
+        }
+        if (outputStream == null) {
+            outputStream = new ServletOutputStream() {
+
+                @Override
+                public void write(int b) {
+                    body.write(b);
+                }
+
+                @Override
+                public void flush() {
+                    committed = true;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener listener) {
+                    writeListener = listener;
+                }
+            };
+        }
+        return outputStream;
+    }
+
+    @Override
+    public void flushBuffer() {
+        if (writer != null) {
+            writer.flush();
+        }
+        committed = true;
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return committed;
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (committed) {
+            throw new IllegalStateException("Response is committed");
+        }
+        if (writer != null) {
+            writer.flush();
+        }
+        body.reset();
+    }
+
+    @Override
+    public void reset() {
+        resetBuffer();
+        status = SC_OK;
+        contentType = null;
+        contentLength = -1;
+        headers.clear();
+    }
+
+    /**
+     * Gets the body written so far.
+     *
+     * @return the body
+     */
+    String getText() {
+        if (writer != null) {
+            writer.flush();
+        }
+        return new String(body.toByteArray(), Charset.forName(characterEncoding));
+    }
+
+    /**
+     * Gets the content length.
+     *
+     * @return the content length, -1 if not set
+     */
+    long getContentLength() {
+        return contentLength;
+    }
+
+    /**
+     * Gets the write listener.
+     *
+     * @return the write listener, null if none was set
+     */
+    WriteListener getWriteListener() {
+        return writeListener;
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import com.googlecode.htmlcompressor.compressor.Compressor;
+
+import java.io.IOException;
+
+/**
+ * A compressor that replaces each block by a placeholder and optimizes all collected blocks together once every file
+ * has been compressed.
+ */
+public interface BatchCompressor extends Compressor {
+
+    /**
+     * Compile all blocks collected since the last compilation.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    void compile() throws IOException;
+
+    /**
+     * Substitute the compiled blocks for the placeholders in the given content.
+     *
+     * @param content
+     *            the compressed content
+     *
+     * @return the content with optimized blocks
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    String resolve(String content) throws IOException;
+}
@@ -0,0 +1,343 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Benchmark the html goal's configured compression on the project's own templates.
+ * <p>
+ * The source files are read once, then compressed in memory for the warm-up and measured iterations at each thread
+ * count, without writing any output. Each thread uses its own compressor, and Closure compiles every file on its own
+ * even when closureBatch is set.
+ */
+@Mojo(name = "bench", requiresProject = false, threadSafe = true)
+public class BenchMojo extends HtmlCompressorMojo {
+
+    /** The default file extensions. */
+    private static final String[] FILE_EXT = { "htm", "html" };
+
+    /** the number of warm-up iterations at each thread count (default is 3). */
+    @Parameter(property = "htmlcompressor.benchWarmups", defaultValue = "3")
+    private int benchWarmups = 3;
+
+    /** the number of measured iterations at each thread count (default is 5). */
+    @Parameter(property = "htmlcompressor.benchIterations", defaultValue = "5")
+    private int benchIterations = 5;
+
+    /** the thread counts to measure (default is 1 and the number of available processors). */
+    @Parameter(property = "htmlcompressor.benchThreads")
+    private int[] benchThreads;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        if (getSkip()) {
+            getLog().info("HtmlCompressor bench is skipped");
+            return;
+        }
+        if (benchWarmups < 0) {
+            throw new MojoExecutionException("benchWarmups must not be negative");
+        }
+        if (benchIterations < 1) {
+            throw new MojoExecutionException("benchIterations must be at least 1");
+        }
+        if (!Files.exists(Path.of(getSrcFolder()))) {
+            getLog().warn("Compressor folder does not exist, skipping benchmark of " + getSrcFolder());
+            return;
+        }
+
+        String[] fileExtensions = getConfiguredFileExtensions();
+        Charset charset = Charset.forName(getEncoding());
+        List<String> contents;
+        try {
+            FileTool fileTool = new FileTool(getSrcFolder(),
+                    fileExtensions == null || fileExtensions.length == 0 ? FILE_EXT : fileExtensions, true);
+            fileTool.setFileEncoding(charset);
+            contents = new ArrayList<>(fileTool.getFiles().values());
+        } catch (IOException e) {
+            throw new MojoExecutionException(e.getMessage());
+        }
+        if (contents.isEmpty()) {
+            getLog().warn("No files to benchmark in " + getSrcFolder());
+            return;
+        }
+        long inputBytes = 0;
+        for (String content : contents) {
+            inputBytes += content.getBytes(charset).length;
+        }
+
+        int[] threadCounts = benchThreads == null || benchThreads.length == 0
+                ? new int[] { 1, Runtime.getRuntime().availableProcessors() }
+                : benchThreads;
+        threadCounts = Arrays.stream(threadCounts).filter(threads -> threads > 0).distinct().sorted().toArray();
+
+        getLog().info(
+                "Benchmarking " + contents.size() + " files of " + FileTool.humanReadableByteCount(inputBytes, true)
+                        + " with " + benchWarmups + " warm-up and " + benchIterations + " measured iterations");
+        List<Result> results = new ArrayList<>();
+        for (int threads : threadCounts) {
+            results.add(run(contents, threads));
+        }
+        for (String line : format(results, contents.size(), inputBytes)) {
+            getLog().info(line);
+        }
+    }
+
+    /**
+     * Run the iterations at one thread count.
+     *
+     * @param contents
+     *            the file contents
+     * @param threads
+     *            the thread count
+     *
+     * @return the result
+     *
+     * @throws MojoExecutionException
+     *             the mojo execution exception
+     */
+    private Result run(List<String> contents, int threads) throws MojoExecutionException {
+        List<com.googlecode.htmlcompressor.compressor.HtmlCompressor> compressors = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            compressors.add(createHtmlCompressorHandler(false));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            long[] nanos = new long[benchIterations];
+            long outputSize = 0;
+            for (int iteration = -benchWarmups; iteration < benchIterations; iteration++) {
+                long start = System.nanoTime();
+                outputSize = compressAll(executor, compressors, contents);
+                if (iteration >= 0) {
+                    nanos[iteration] = System.nanoTime() - start;
+                }
+            }
+            return new Result(threads, nanos, outputSize);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Compress all files once, the threads taking the next file as they finish one.
+     *
+     * @param executor
+     *            the executor
+     * @param compressors
+     *            the compressor of each thread
+     * @param contents
+     *            the file contents
+     *
+     * @return the compressed size in characters
+     *
+     * @throws MojoExecutionException
+     *             the mojo execution exception
+     */
+    private static long compressAll(ExecutorService executor,
+            List<com.googlecode.htmlcompressor.compressor.HtmlCompressor> compressors, List<String> contents)
+            throws MojoExecutionException {
+        AtomicInteger next = new AtomicInteger();
+        List<Future<Long>> futures = new ArrayList<>();
+        for (com.googlecode.htmlcompressor.compressor.HtmlCompressor compressor : compressors) {
+            futures.add(executor.submit(() -> {
+                long size = 0;
+                for (int i = next.getAndIncrement(); i < contents.size(); i = next.getAndIncrement()) {
+                    size += compressor.compress(contents.get(i)).length();
+                }
+                return size;
+            }));
+        }
+        long size = 0;
+        try {
+            for (Future<Long> future : futures) {
+                size += future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException(e.getMessage());
+        } catch (ExecutionException e) {
+            throw new MojoExecutionException(e.getCause().getMessage());
+        }
+        return size;
+    }
+
+    /**
+     * Format the results as a table. Speedup and efficiency are relative to the smallest thread count.
+     *
+     * @param results
+     *            the results, by ascending thread count
+     * @param files
+     *            the number of files
+     * @param inputBytes
+     *            the input size in bytes
+     *
+     * @return the lines of the table
+     */
+    static List<String> format(List<Result> results, int files, long inputBytes) {
+        List<String> lines = new ArrayList<>();
+        String format = "%8s%12s%12s%12s%10s%12s%12s";
+        lines.add(String.format(Locale.ROOT, format, "Threads", "Median ms", "Files/s", "MB/s", "Speedup", "Efficiency",
+                "Output"));
+        Result baseline = results.get(0);
+        for (Result result : results) {
+            double seconds = result.getMedianNanos() / 1e9;
+            double speedup = (double) baseline.getMedianNanos() / result.getMedianNanos();
+            lines.add(String.format(Locale.ROOT, format, result.getThreads(),
+                    TimeUnit.NANOSECONDS.toMillis(result.getMedianNanos()),
+                    String.format(Locale.ROOT, "%.1f", files / seconds),
+                    String.format(Locale.ROOT, "%.2f", inputBytes / 1e6 / seconds),
+                    String.format(Locale.ROOT, "%.2f", speedup),
+                    String.format(Locale.ROOT, "%.0f%%", 100 * speedup * baseline.getThreads() / result.getThreads()),
+                    FileTool.humanReadableByteCount(result.getOutputSize(), true)));
+        }
+        return lines;
+    }
+
+    /**
+     * Gets the bench warmups.
+     *
+     * @return the bench warmups
+     */
+    public Integer getBenchWarmups() {
+        return benchWarmups;
+    }
+
+    /**
+     * Sets the bench warmups.
+     *
+     * @param benchWarmups
+     *            the new bench warmups
+     */
+    public void setBenchWarmups(Integer benchWarmups) {
+        this.benchWarmups = benchWarmups;
+    }
+
+    /**
+     * Gets the bench iterations.
+     *
+     * @return the bench iterations
+     */
+    public Integer getBenchIterations() {
+        return benchIterations;
+    }
+
+    /**
+     * Sets the bench iterations.
+     *
+     * @param benchIterations
+     *            the new bench iterations
+     */
+    public void setBenchIterations(Integer benchIterations) {
+        this.benchIterations = benchIterations;
+    }
+
+    /**
+     * Gets the bench threads.
+     *
+     * @return the bench threads
+     */
+    public int[] getBenchThreads() {
+        return benchThreads;
+    }
+
+    /**
+     * Sets the bench threads.
+     *
+     * @param benchThreads
+     *            the new bench threads
+     */
+    public void setBenchThreads(int[] benchThreads) {
+        this.benchThreads = benchThreads;
+    }
+
+    /**
+     * The measurements at one thread count.
+     */
+    static final class Result {
+
+        /** The thread count. */
+        private final int threads;
+
+        /** The time of each measured iteration. */
+        private final long[] nanos;
+
+        /** The compressed size in characters, equal to bytes for ASCII content. */
+        private final long outputSize;
+
+        /**
+         * Instantiates a new result.
+         *
+         * @param threads
+         *            the thread count
+         * @param nanos
+         *            the time of each measured iteration
+         * @param outputSize
+         *            the compressed size in characters
+         */
+        Result(int threads, long[] nanos, long outputSize) {
+            this.threads = threads;
+            this.nanos = nanos.clone();
+            this.outputSize = outputSize;
+        }
+
+        /**
+         * Gets the threads.
+         *
+         * @return the threads
+         */
+        int getThreads() {
+            return threads;
+        }
+
+        /**
+         * Gets the median time of the measured iterations.
+         *
+         * @return the median nanos
+         */
+        long getMedianNanos() {
+            return Math.max(1, CompressionHistory.percentile(nanos, 50));
+        }
+
+        /**
+         * Gets the output size.
+         *
+         * @return the output size
+         */
+        long getOutputSize() {
+            return outputSize;
+        }
+    }
+}
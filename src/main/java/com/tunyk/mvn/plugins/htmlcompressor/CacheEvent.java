@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for a lookup in a compression cache.
+ */
+@Name("com.tunyk.htmlcompressor.Cache")
+@Label("Cache Lookup")
+@Category("HTML Compressor")
+@Description("Hit or miss in a cache of compressed content")
+@StackTrace(false)
+public class CacheEvent extends Event {
+
+    /** The cache. */
+    @Label("Cache")
+    String cache;
+
+    /** The key. */
+    @Label("Key")
+    String key;
+
+    /** The hit. */
+    @Label("Hit")
+    boolean hit;
+
+    /**
+     * Record a lookup if events are recorded.
+     *
+     * @param cache
+     *            the cache
+     * @param key
+     *            the key
+     * @param hit
+     *            the hit
+     */
+    static void lookup(String cache, String key, boolean hit) {
+        CacheEvent event = new CacheEvent();
+        if (event.shouldCommit()) {
+            event.cache = cache;
+            event.key = key;
+            event.hit = hit;
+            event.commit();
+        }
+    }
+}
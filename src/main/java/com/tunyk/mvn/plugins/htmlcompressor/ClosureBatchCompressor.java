@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import com.google.javascript.jscomp.CompilationLevel;
+import com.google.javascript.jscomp.Compiler;
+import com.google.javascript.jscomp.CompilerOptions;
+import com.google.javascript.jscomp.JSChunk;
+import com.google.javascript.jscomp.Result;
+import com.google.javascript.jscomp.SourceFile;
+import com.google.javascript.jscomp.WarningLevel;
+import com.googlecode.htmlcompressor.compressor.ClosureJavaScriptCompressor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Collects inline scripts from every compressed file and optimizes them in a single Closure compilation.
+ * <p>
+ * During compression each script block is replaced by a placeholder. Once all files have been compressed,
+ * {@link #compile()} compiles every collected block as its own chunk, so the fixed compiler setup cost is paid once per
+ * build rather than once per block, and {@link #resolve(String)} substitutes the optimized blocks back into the pages.
+ * Only simple and whitespace only compilations can be batched: advanced mode would treat the blocks of all pages as one
+ * program and rename or remove their globals across pages. Placeholders carry the number of their compressor, so
+ * content holding another instance's placeholders resolves unchanged.
+ */
+public class ClosureBatchCompressor implements BatchCompressor {
+
+    /** The Constant INSTANCES, numbering the compressors. */
+    private static final AtomicLong INSTANCES = new AtomicLong();
+
+    /** The placeholder prefix of this compressor. */
+    private final String placeholder = "%%%~CLOSURE~BATCH~" + INSTANCES.getAndIncrement() + "~";
+
+    /** The placeholder pattern of this compressor. */
+    private final Pattern placeholderPattern = Pattern.compile(Pattern.quote(placeholder) + "(\\d+)~%%%");
+
+    /** The closure compressor supplying the compiler configuration and the per block fallback. */
+    private final ClosureJavaScriptCompressor closureCompressor;
+
+    /** The collected script blocks. */
+    private final List<String> sources = new ArrayList<>();
+
+    /** The compiled script blocks. */
+    private final List<String> compiled = new ArrayList<>();
+
+    /**
+     * Instantiates a new closure batch compressor.
+     *
+     * @param closureCompressor
+     *            the configured closure compressor
+     *
+     * @throws IllegalArgumentException
+     *             if the closure compressor uses advanced optimizations
+     */
+    public ClosureBatchCompressor(ClosureJavaScriptCompressor closureCompressor) {
+        if (closureCompressor.getCompilationLevel() == CompilationLevel.ADVANCED_OPTIMIZATIONS) {
+            throw new IllegalArgumentException("Advanced closure compilations cannot be batched");
+        }
+        this.closureCompressor = closureCompressor;
+    }
+
+    @Override
+    public synchronized String compress(String source) {
+        sources.add(source);
+        return placeholder + (sources.size() - 1) + "~%%%";
+    }
+
+    /**
+     * Compile all script blocks collected since the last compilation in a single Closure run.
+     * <p>
+     * If the batch fails to compile, every block is compiled on its own instead so that one broken script only affects
+     * itself.
+     */
+    @Override
+    public synchronized void compile() {
+        if (compiled.size() == sources.size()) {
+            return;
+        }
+        List<String> pending = new ArrayList<>(sources.subList(compiled.size(), sources.size()));
+
+        CompilerOptions options = new CompilerOptions();
+        CompilationLevel level = closureCompressor.getCompilationLevel();
+        level.setOptionsForCompilationLevel(options);
+        WarningLevel warningLevel = closureCompressor.getWarningLevel();
+        if (warningLevel != null) {
+            warningLevel.setOptionsForWarningLevel(options);
+        }
+        options.setCrossChunkCodeMotion(false);
+        options.setCrossChunkMethodMotion(false);
+
+        List<SourceFile> externs = List.of(SourceFile.fromCode("externs.js", ""));
+
+        JSChunk root = new JSChunk("root");
+        root.add(SourceFile.fromCode("root.js", ""));
+        List<JSChunk> chunks = new ArrayList<>();
+        chunks.add(root);
+        for (int i = 0; i < pending.size(); i++) {
+            JSChunk chunk = new JSChunk("block" + i);
+            chunk.add(SourceFile.fromCode("block" + i + ".js", pending.get(i)));
+            chunk.addDependency(root);
+            chunks.add(chunk);
+        }
+
+        Compiler compiler = new Compiler();
+        compiler.disableThreads();
+        Result result = compiler.compileChunks(externs, chunks, options);
+        if (result.success) {
+            for (int i = 1; i < chunks.size(); i++) {
+                compiled.add(compiler.toSource(chunks.get(i)));
+            }
+        } else {
+            for (String source : pending) {
+                compiled.add(closureCompressor.compress(source));
+            }
+        }
+    }
+
+    /**
+     * Substitute the compiled script blocks for the placeholders in the given content.
+     *
+     * @param content
+     *            the compressed content
+     *
+     * @return the content with optimized script blocks
+     */
+    @Override
+    public synchronized String resolve(String content) {
+        Matcher matcher = placeholderPattern.matcher(content);
+        if (!matcher.find()) {
+            return content;
+        }
+        compile();
+        StringBuilder sb = new StringBuilder(content.length());
+        do {
+            matcher.appendReplacement(sb, Matcher.quoteReplacement(compiled.get(Integer.parseInt(matcher.group(1)))));
+        } while (matcher.find());
+        matcher.appendTail(sb);
+        return sb.toString();
+    }
+}
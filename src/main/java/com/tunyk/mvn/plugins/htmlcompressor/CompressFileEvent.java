@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for the compression of one file.
+ */
+@Name("com.tunyk.htmlcompressor.CompressFile")
+@Label("Compress File")
+@Category("HTML Compressor")
+@Description("Compression of a single file")
+public class CompressFileEvent extends Event {
+
+    /** The path. */
+    @Label("Path")
+    String path;
+
+    /** The compressor. */
+    @Label("Compressor")
+    String compressor;
+
+    /** The size in. */
+    @Label("Size In")
+    @Description("Characters before compression")
+    long sizeIn;
+
+    /** The size out. */
+    @Label("Size Out")
+    @Description("Characters after compression")
+    long sizeOut;
+
+    /**
+     * Commit the event if it is recorded.
+     *
+     * @param path
+     *            the path
+     * @param compressor
+     *            the compressor
+     * @param content
+     *            the content
+     * @param compressed
+     *            the compressed content
+     */
+    void commit(String path, String compressor, String content, String compressed) {
+        commit(path, compressor, content.length(), compressed.length());
+    }
+
+    /**
+     * Commit the event if it is recorded.
+     *
+     * @param path
+     *            the path
+     * @param compressor
+     *            the compressor
+     * @param sizeIn
+     *            the characters before compression
+     * @param sizeOut
+     *            the characters after compression
+     */
+    void commit(String path, String compressor, long sizeIn, long sizeOut) {
+        if (shouldCommit()) {
+            this.path = path;
+            this.compressor = compressor;
+            this.sizeIn = sizeIn;
+            this.sizeOut = sizeOut;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,519 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ProtocolFamily;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a configured {@link CompressionService} warm behind a local socket, so that short command line invocations do
+ * not pay for JVM and compressor startup each time.
+ * <p>
+ * Each connection carries one request: a line naming the type, {@code html} or {@code xml}, optionally followed by
+ * {@code options=<fingerprint>} and {@code token=<token>} fields, then the content in the encoding of the options up to
+ * the end of the output. The response is a line {@code OK} followed by the compressed content, or a line {@code ERROR}
+ * and the message. Requests whose options fingerprint differs from the daemon's are refused rather than compressed with
+ * other options. A {@code stop} request shuts the daemon down.
+ * <p>
+ * Unix domain sockets need Java 16 or later and are reached reflectively, as the plugin targets Java 11. The socket is
+ * bound in a private directory and then moved to the endpoint, so other users never get to connect. Older runtimes, or
+ * an explicit port, listen on a TCP port of the loopback interface instead; the endpoint is then an owner-only file
+ * holding the port and a random token that every request has to present.
+ */
+public class CompressionDaemon implements Closeable {
+
+    /** The max size of the content of a request. */
+    public static final int MAX_CONTENT = 64 * 1024 * 1024;
+
+    /** The max length of the request line. */
+    private static final int MAX_LINE = 256;
+
+    /** The permissions of the directory holding the default endpoint. */
+    private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rwx------");
+
+    /** The compression service. */
+    private final CompressionService service;
+
+    /** The options fingerprint of the service. */
+    private final String fingerprint;
+
+    /** The server channel. */
+    private final ServerSocketChannel server;
+
+    /** The endpoint, the socket file or the file holding the TCP port and token. */
+    private final Path endpoint;
+
+    /** The token expected from TCP clients, null for a Unix domain socket. */
+    private final String token;
+
+    /** The connection handlers, one per processor. */
+    private final ExecutorService workers = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "htmlcompressor-daemon");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    /**
+     * Instantiates a new compression daemon bound to a Unix domain socket, or to a loopback TCP port when a port is
+     * given or the runtime lacks Unix domain sockets.
+     *
+     * @param service
+     *            the compression service
+     * @param endpoint
+     *            the socket file, or the file receiving the TCP port and token
+     * @param port
+     *            the TCP port, 0 for any free port, negative for a Unix domain socket when supported
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public CompressionDaemon(CompressionService service, Path endpoint, int port) throws IOException {
+        this.service = service;
+        this.fingerprint = fingerprint(service.getOptions());
+        this.endpoint = endpoint.toAbsolutePath();
+        Path parent = this.endpoint.getParent();
+        if (port < 0 && isUnixSupported()) {
+            this.server = open(ServerSocketChannel.class);
+            // Temporary directories are owner-only, so nobody connects before the socket is in place
+            Path directory = Files.createTempDirectory(parent, ".htmlcompressor-");
+            try {
+                Path socket = directory.resolve("daemon");
+                this.server.bind(unixAddress(socket));
+                Files.move(socket, this.endpoint, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                this.server.close();
+                throw e;
+            } finally {
+                Files.deleteIfExists(directory.resolve("daemon"));
+                Files.delete(directory);
+            }
+            this.token = null;
+        } else {
+            this.server = ServerSocketChannel.open();
+            this.server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), Math.max(port, 0)));
+            byte[] random = new byte[16];
+            new SecureRandom().nextBytes(random);
+            this.token = hex(random);
+            // Temporary files are owner-only, and the move publishes the port and token at once
+            Path file = Files.createTempFile(parent, ".htmlcompressor-", ".tmp");
+            try {
+                Files.writeString(file, ((InetSocketAddress) server.getLocalAddress()).getPort() + " " + token);
+                Files.move(file, this.endpoint, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                this.server.close();
+                Files.deleteIfExists(file);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Gets the default endpoint, in a directory of the temporary directory that only the current user may access. The
+     * directory is created when missing.
+     *
+     * @return the default endpoint
+     *
+     * @throws IOException
+     *             if the directory could not be created, or belongs to another user or is open to others
+     */
+    public static Path defaultEndpoint() throws IOException {
+        String user = System.getProperty("user.name");
+        Path directory = Path.of(System.getProperty("java.io.tmpdir"), "htmlcompressor-" + user);
+        try {
+            Files.createDirectory(directory, PosixFilePermissions.asFileAttribute(OWNER_ONLY));
+        } catch (FileAlreadyExistsException e) {
+            // Checked below
+        } catch (UnsupportedOperationException e) {
+            // Not a POSIX file system, the permissions of the user's temporary directory apply
+            Files.createDirectories(directory);
+        }
+        PosixFileAttributeView view = Files.getFileAttributeView(directory, PosixFileAttributeView.class,
+                LinkOption.NOFOLLOW_LINKS);
+        if (view != null) {
+            PosixFileAttributes attributes = view.readAttributes();
+            if (!attributes.isDirectory() || !user.equals(attributes.owner().getName())
+                    || !OWNER_ONLY.equals(attributes.permissions())) {
+                throw new IOException(directory + " must be a directory accessible to " + user + " only");
+            }
+        }
+        return directory.resolve("daemon");
+    }
+
+    /**
+     * Serve requests until the daemon is closed or a stop request arrives.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public void serve() throws IOException {
+        try {
+            while (server.isOpen()) {
+                SocketChannel channel = server.accept();
+                workers.execute(() -> handle(channel));
+            }
+        } catch (ClosedChannelException e) {
+            // Closed by a stop request or close()
+        }
+    }
+
+    /**
+     * Handle one request.
+     *
+     * @param channel
+     *            the channel
+     */
+    private void handle(SocketChannel channel) {
+        try (SocketChannel c = channel;
+                InputStream in = Channels.newInputStream(c);
+                OutputStream out = Channels.newOutputStream(c)) {
+            String[] line = readLine(in).split(" ", -1);
+            String type = line[0];
+            Map<String, String> fields = new HashMap<>();
+            for (int i = 1; i < line.length; i++) {
+                int equals = line[i].indexOf('=');
+                if (equals > 0) {
+                    fields.put(line[i].substring(0, equals), line[i].substring(equals + 1));
+                }
+            }
+            if (token != null && !MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8),
+                    fields.getOrDefault("token", "").getBytes(StandardCharsets.UTF_8))) {
+                refuse(in, out, "Missing or wrong token");
+                return;
+            }
+            if ("stop".equals(type)) {
+                answer(out, "OK");
+                close();
+                return;
+            }
+            String options = fields.get("options");
+            if (options != null && !options.equals(fingerprint)) {
+                refuse(in, out, "Options differ from the daemon's, restart it with the same options");
+                return;
+            }
+            byte[] content = in.readNBytes(MAX_CONTENT + 1);
+            if (content.length > MAX_CONTENT) {
+                refuse(in, out, "Content exceeds " + MAX_CONTENT + " bytes");
+                return;
+            }
+            byte[] result;
+            try {
+                if ("html".equals(type)) {
+                    result = service.compressHtml(content);
+                } else if ("xml".equals(type)) {
+                    result = service.compressXml(content);
+                } else {
+                    throw new IllegalArgumentException("Unknown request type: " + type);
+                }
+            } catch (RuntimeException e) {
+                answer(out, "ERROR " + e.getMessage());
+                return;
+            }
+            answer(out, "OK");
+            out.write(result);
+        } catch (IOException e) {
+            // The client went away, nothing to answer
+        }
+    }
+
+    /**
+     * Refuse a request. The rest of the content is read, up to the max size, so that closing the connection does not
+     * reset it before the client got the answer.
+     *
+     * @param in
+     *            the input
+     * @param out
+     *            the output
+     * @param message
+     *            the message
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private static void refuse(InputStream in, OutputStream out, String message) throws IOException {
+        answer(out, "ERROR " + message);
+        in.skip(MAX_CONTENT);
+    }
+
+    /**
+     * Send a request to a running daemon.
+     *
+     * @param endpoint
+     *            the socket file, or the file holding the TCP port and token
+     * @param type
+     *            the request type
+     * @param options
+     *            the options the content is to be compressed with, null to accept the daemon's
+     * @param content
+     *            the content
+     * @param out
+     *            the stream receiving the compressed content
+     *
+     * @throws ConnectException
+     *             if no daemon could be reached
+     * @throws IOException
+     *             if the daemon refused the request or failed to compress the content
+     */
+    public static void request(Path endpoint, String type, CompressionOptions options, byte[] content, OutputStream out)
+            throws IOException {
+        if (content.length > MAX_CONTENT) {
+            throw new IOException("Content exceeds " + MAX_CONTENT + " bytes");
+        }
+        StringBuilder line = new StringBuilder(type);
+        if (options != null) {
+            line.append(" options=").append(fingerprint(options));
+        }
+        SocketChannel channel;
+        try {
+            if (isUnixSupported() && !Files.isRegularFile(endpoint)) {
+                channel = open(SocketChannel.class);
+                try {
+                    channel.connect(unixAddress(endpoint));
+                } catch (IOException e) {
+                    channel.close();
+                    throw e;
+                }
+            } else {
+                String[] tcp = Files.readString(endpoint, StandardCharsets.UTF_8).trim().split(" ", -1);
+                if (tcp.length != 2 || !tcp[0].matches("\\d{1,5}")) {
+                    throw new IOException("Malformed endpoint file");
+                }
+                line.append(" token=").append(tcp[1]);
+                channel = SocketChannel
+                        .open(new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(tcp[0])));
+            }
+        } catch (IOException e) {
+            ConnectException connect = new ConnectException(endpoint + ": " + e.getMessage());
+            connect.initCause(e);
+            throw connect;
+        }
+        try (SocketChannel c = channel;
+                InputStream in = Channels.newInputStream(c)) {
+            OutputStream request = Channels.newOutputStream(c);
+            answer(request, line.toString());
+            request.write(content);
+            c.shutdownOutput();
+            String status = readLine(in);
+            if (!"OK".equals(status)) {
+                throw new IOException(
+                        status.startsWith("ERROR ") ? status.substring(6) : "Unexpected response: " + status);
+            }
+            in.transferTo(out);
+        }
+    }
+
+    /**
+     * Write a request or status line.
+     *
+     * @param out
+     *            the output
+     * @param line
+     *            the line
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private static void answer(OutputStream out, String line) throws IOException {
+        out.write((line + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Read a request or status line.
+     *
+     * @param in
+     *            the input
+     *
+     * @return the line
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != '\n') {
+            if (b < 0 || line.size() == MAX_LINE) {
+                throw new IOException("Malformed request or response line");
+            }
+            line.write(b);
+        }
+        return line.toString(StandardCharsets.UTF_8).trim();
+    }
+
+    /**
+     * Fingerprint options, so that clients and the daemon can tell whether they compress alike. Settings left to their
+     * defaults differ from settings given their default value.
+     *
+     * @param options
+     *            the options
+     *
+     * @return the fingerprint
+     */
+    static String fingerprint(CompressionOptions options) {
+        String canonical = new TreeMap<>(options.getHtmlSettings()) + " xml=" + options.isXmlEnabled() + ","
+                + options.isXmlRemoveComments() + "," + options.isXmlRemoveIntertagSpaces();
+        try {
+            return hex(MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Encode bytes as hexadecimal digits.
+     *
+     * @param bytes
+     *            the bytes
+     *
+     * @return the hexadecimal digits
+     */
+    private static String hex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Checks if the runtime supports Unix domain sockets.
+     *
+     * @return true, if Unix domain sockets are supported
+     */
+    public static boolean isUnixSupported() {
+        try {
+            Class.forName("java.net.UnixDomainSocketAddress");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Creates the address of a Unix domain socket.
+     *
+     * @param socket
+     *            the socket file
+     *
+     * @return the address
+     *
+     * @throws IOException
+     *             if the address could not be created
+     */
+    private static SocketAddress unixAddress(Path socket) throws IOException {
+        try {
+            return (SocketAddress) Class.forName("java.net.UnixDomainSocketAddress").getMethod("of", Path.class)
+                    .invoke(null, socket);
+        } catch (ReflectiveOperationException e) {
+            throw new IOException("Unix domain sockets are not available: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Open a Unix domain socket channel.
+     *
+     * @param <T>
+     *            the channel type
+     * @param type
+     *            the channel type, ServerSocketChannel or SocketChannel
+     *
+     * @return the channel
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private static <T> T open(Class<T> type) throws IOException {
+        ProtocolFamily unix = StandardProtocolFamily.valueOf("UNIX");
+        try {
+            return type.cast(type.getMethod("open", ProtocolFamily.class).invoke(null, unix));
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IOException("Unix domain sockets are not available: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Gets the endpoint.
+     *
+     * @return the socket file, or the file holding the TCP port and token
+     */
+    public Path getEndpoint() {
+        return endpoint;
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+        workers.shutdown();
+        Files.deleteIfExists(endpoint);
+    }
+
+    /**
+     * Wait for the running requests to finish after the daemon was closed.
+     *
+     * @param timeoutMillis
+     *            the timeout in milliseconds
+     *
+     * @return true, if all requests finished
+     *
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    public boolean awaitTermination(long timeoutMillis) throws InterruptedException {
+        return workers.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+}
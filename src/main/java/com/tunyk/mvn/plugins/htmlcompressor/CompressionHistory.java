@@ -0,0 +1,522 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Append-only history of the aggregate figures of each build.
+ * <p>
+ * Every build appends a single JSON line, so the file can be shared by several projects and builds, and is cheap to
+ * grow. Lines that cannot be parsed, such as one cut short by a crash, are skipped when reading.
+ */
+public class CompressionHistory {
+
+    /** The history file. */
+    private final Path file;
+
+    /**
+     * Instantiates a new compression history.
+     *
+     * @param file
+     *            the history file
+     */
+    public CompressionHistory(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Append an entry, holding a lock on the file so concurrent builds do not interleave.
+     *
+     * @param entry
+     *            the entry
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public void append(Entry entry) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        ByteBuffer line = ByteBuffer.wrap((entry.toJson().toString() + "\n").getBytes(StandardCharsets.UTF_8));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+                FileLock lock = channel.lock()) {
+            while (line.hasRemaining()) {
+                channel.write(line);
+            }
+        }
+    }
+
+    /**
+     * Read the entries of a project and goal.
+     *
+     * @param project
+     *            the project as groupId:artifactId, or null for all projects
+     * @param goal
+     *            the goal, or null for all goals
+     *
+     * @return the entries, oldest first
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public List<Entry> read(String project, String goal) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        if (!Files.isRegularFile(file)) {
+            return entries;
+        }
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            Entry entry;
+            try {
+                entry = Entry.fromJson(new JSONObject(line));
+            } catch (JSONException e) {
+                continue;
+            }
+            if ((project == null || project.equals(entry.getProject()))
+                    && (goal == null || goal.equals(entry.getGoal()))) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Format the trends of the entries: the builds per version, and percentiles of each figure.
+     *
+     * @param entries
+     *            the entries, oldest first
+     *
+     * @return the lines of the report
+     */
+    public static List<String> formatTrends(List<Entry> entries) {
+        List<String> lines = new ArrayList<>();
+        if (entries.isEmpty()) {
+            lines.add("No builds recorded.");
+            return lines;
+        }
+
+        Map<String, List<Entry>> byVersion = new LinkedHashMap<>();
+        for (Entry entry : entries) {
+            byVersion.computeIfAbsent(entry.getVersion(), version -> new ArrayList<>()).add(entry);
+        }
+        String format = "%-20s%8s%8s%12s%8s%10s%10s  %s";
+        lines.add(String.format(Locale.ROOT, format, "Version", "Builds", "Files", "Output", "Ratio", "p50 ms",
+                "p90 ms", "Last commit"));
+        for (Map.Entry<String, List<Entry>> version : byVersion.entrySet()) {
+            List<Entry> builds = version.getValue();
+            Entry last = builds.get(builds.size() - 1);
+            long[] wall = builds.stream().mapToLong(Entry::getWallNanos).toArray();
+            lines.add(String.format(Locale.ROOT, format, version.getKey(), builds.size(), last.getFiles(),
+                    FileTool.humanReadableByteCount(last.getCompressedSize(), true),
+                    String.format(Locale.ROOT, "%.3f", last.getRatio()),
+                    TimeUnit.NANOSECONDS.toMillis(percentile(wall, 50)),
+                    TimeUnit.NANOSECONDS.toMillis(percentile(wall, 90)),
+                    last.getCommit() == null ? "" : last.getCommit()));
+        }
+
+        format = "%-20s%10s%10s%10s%10s%10s";
+        lines.add(String.format(Locale.ROOT, format, "Figure", "p50", "p90", "p95", "max", "last"));
+        lines.add(formatPercentiles(format, "run ms", entries.stream().mapToLong(Entry::getWallNanos).toArray()));
+        lines.add(formatPercentiles(format, "files ms", entries.stream().mapToLong(Entry::getFileNanos).toArray()));
+        for (PhaseTimer.Phase phase : PhaseTimer.Phase.values()) {
+            lines.add(formatPercentiles(format, phase.name().toLowerCase(Locale.ROOT) + " ms",
+                    entries.stream().mapToLong(entry -> entry.getPhaseNanos(phase)).toArray()));
+        }
+        return lines;
+    }
+
+    /**
+     * Format the percentiles of a figure in milliseconds.
+     *
+     * @param format
+     *            the line format
+     * @param label
+     *            the label
+     * @param nanos
+     *            the figures in nanoseconds, oldest first
+     *
+     * @return the line
+     */
+    private static String formatPercentiles(String format, String label, long[] nanos) {
+        return String.format(Locale.ROOT, format, label, TimeUnit.NANOSECONDS.toMillis(percentile(nanos, 50)),
+                TimeUnit.NANOSECONDS.toMillis(percentile(nanos, 90)),
+                TimeUnit.NANOSECONDS.toMillis(percentile(nanos, 95)),
+                TimeUnit.NANOSECONDS.toMillis(percentile(nanos, 100)),
+                TimeUnit.NANOSECONDS.toMillis(nanos[nanos.length - 1]));
+    }
+
+    /**
+     * The nearest-rank percentile of some values.
+     *
+     * @param values
+     *            the values, not empty
+     * @param percentile
+     *            the percentile, between 0 and 100
+     *
+     * @return the percentile
+     */
+    public static long percentile(long[] values, double percentile) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+        return sorted[Math.max(0, Math.min(rank, sorted.length) - 1)];
+    }
+
+    /**
+     * Read the commit checked out in the git repository holding a directory.
+     *
+     * @param directory
+     *            the directory
+     *
+     * @return the commit, or null if the directory is not in a git repository
+     */
+    public static String readGitCommit(Path directory) {
+        try {
+            for (Path dir = directory.toAbsolutePath(); dir != null; dir = dir.getParent()) {
+                Path gitDir = dir.resolve(".git");
+                if (Files.isRegularFile(gitDir)) {
+                    // Worktrees and submodules point to their git directory
+                    String target = Files.readString(gitDir, StandardCharsets.UTF_8).trim();
+                    if (!target.startsWith("gitdir:")) {
+                        return null;
+                    }
+                    gitDir = dir.resolve(target.substring("gitdir:".length()).trim());
+                } else if (!Files.isDirectory(gitDir)) {
+                    continue;
+                }
+                String head = Files.readString(gitDir.resolve("HEAD"), StandardCharsets.UTF_8).trim();
+                if (!head.startsWith("ref:")) {
+                    return head;
+                }
+                // Worktrees keep their HEAD but share the branches of the main repository
+                Path commonDir = gitDir;
+                Path commonDirFile = gitDir.resolve("commondir");
+                if (Files.isRegularFile(commonDirFile)) {
+                    commonDir = gitDir.resolve(Files.readString(commonDirFile, StandardCharsets.UTF_8).trim());
+                }
+                String ref = head.substring("ref:".length()).trim();
+                for (Path refFile : List.of(gitDir.resolve(ref), commonDir.resolve(ref))) {
+                    if (Files.isRegularFile(refFile)) {
+                        return Files.readString(refFile, StandardCharsets.UTF_8).trim();
+                    }
+                }
+                Path packedRefs = commonDir.resolve("packed-refs");
+                if (Files.isRegularFile(packedRefs)) {
+                    for (String line : Files.readAllLines(packedRefs, StandardCharsets.UTF_8)) {
+                        if (line.endsWith(" " + ref)) {
+                            return line.substring(0, line.indexOf(' '));
+                        }
+                    }
+                }
+                return null;
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        return null;
+    }
+
+    /**
+     * The aggregate figures of one build.
+     */
+    public static final class Entry {
+
+        /** The time of the build in milliseconds since the epoch. */
+        private final long timestamp;
+
+        /** The project as groupId:artifactId, may be null. */
+        private final String project;
+
+        /** The goal. */
+        private final String goal;
+
+        /** The project version. */
+        private final String version;
+
+        /** The commit, may be null. */
+        private final String commit;
+
+        /** The number of files. */
+        private final long files;
+
+        /** The original size. */
+        private final long originalSize;
+
+        /** The compressed size. */
+        private final long compressedSize;
+
+        /** The compression time summed over all files. */
+        private final long fileNanos;
+
+        /** The wall time of the run. */
+        private final long wallNanos;
+
+        /** The wall time of each phase. */
+        private final EnumMap<PhaseTimer.Phase, Long> phaseNanos = new EnumMap<>(PhaseTimer.Phase.class);
+
+        /**
+         * Instantiates a new entry.
+         *
+         * @param timestamp
+         *            the time of the build in milliseconds since the epoch
+         * @param project
+         *            the project as groupId:artifactId, may be null
+         * @param goal
+         *            the goal
+         * @param version
+         *            the project version
+         * @param commit
+         *            the commit, may be null
+         * @param files
+         *            the number of files
+         * @param originalSize
+         *            the original size
+         * @param compressedSize
+         *            the compressed size
+         * @param fileNanos
+         *            the compression time summed over all files
+         * @param wallNanos
+         *            the wall time of the run
+         * @param phaseNanos
+         *            the wall time of each phase, missing phases are zero
+         */
+        public Entry(long timestamp, String project, String goal, String version, String commit, long files,
+                long originalSize, long compressedSize, long fileNanos, long wallNanos,
+                Map<PhaseTimer.Phase, Long> phaseNanos) {
+            this.timestamp = timestamp;
+            this.project = project;
+            this.goal = goal;
+            this.version = version;
+            this.commit = commit;
+            this.files = files;
+            this.originalSize = originalSize;
+            this.compressedSize = compressedSize;
+            this.fileNanos = fileNanos;
+            this.wallNanos = wallNanos;
+            for (PhaseTimer.Phase phase : PhaseTimer.Phase.values()) {
+                this.phaseNanos.put(phase, phaseNanos.getOrDefault(phase, 0L));
+            }
+        }
+
+        /**
+         * Create the entry of a run.
+         *
+         * @param project
+         *            the project as groupId:artifactId
+         * @param goal
+         *            the goal
+         * @param version
+         *            the project version
+         * @param commit
+         *            the commit, may be null
+         * @param statistics
+         *            the statistics of the run
+         * @param phaseTimer
+         *            the phase timer of the run
+         * @param wallNanos
+         *            the wall time of the run
+         *
+         * @return the entry
+         */
+        public static Entry of(String project, String goal, String version, String commit,
+                CompressionStatistics statistics, PhaseTimer phaseTimer, long wallNanos) {
+            CompressionStatistics.Rollup total = statistics.getTotal();
+            Map<PhaseTimer.Phase, Long> phaseNanos = new EnumMap<>(PhaseTimer.Phase.class);
+            for (PhaseTimer.Phase phase : PhaseTimer.Phase.values()) {
+                phaseNanos.put(phase, phaseTimer.getWallNanos(phase));
+            }
+            return new Entry(System.currentTimeMillis(), project, goal, version, commit, total.getFileCount(),
+                    total.get(CompressionStatistics.Metric.ORIGINAL_SIZE),
+                    total.get(CompressionStatistics.Metric.COMPRESSED_SIZE),
+                    total.get(CompressionStatistics.Metric.TIME_NANOS), wallNanos, phaseNanos);
+        }
+
+        /**
+         * Convert to JSON.
+         *
+         * @return the JSON object
+         */
+        public JSONObject toJson() {
+            JSONObject phases = new JSONObject();
+            for (PhaseTimer.Phase phase : PhaseTimer.Phase.values()) {
+                phases.put(phase.name().toLowerCase(Locale.ROOT), phaseNanos.get(phase));
+            }
+            return new JSONObject().put("time", timestamp).put("project", project).put("goal", goal)
+                    .put("version", version).put("commit", commit).put("files", files).put("in", originalSize)
+                    .put("out", compressedSize).put("fileNanos", fileNanos).put("wallNanos", wallNanos)
+                    .put("phases", phases);
+        }
+
+        /**
+         * Create from JSON.
+         *
+         * @param json
+         *            the JSON object
+         *
+         * @return the entry
+         */
+        public static Entry fromJson(JSONObject json) {
+            Map<PhaseTimer.Phase, Long> phaseNanos = new EnumMap<>(PhaseTimer.Phase.class);
+            JSONObject phases = json.optJSONObject("phases");
+            if (phases != null) {
+                for (PhaseTimer.Phase phase : PhaseTimer.Phase.values()) {
+                    phaseNanos.put(phase, phases.optLong(phase.name().toLowerCase(Locale.ROOT)));
+                }
+            }
+            return new Entry(json.getLong("time"), json.optString("project", null), json.getString("goal"),
+                    json.optString("version", "unknown"), json.optString("commit", null), json.getLong("files"),
+                    json.getLong("in"), json.getLong("out"), json.getLong("fileNanos"), json.getLong("wallNanos"),
+                    phaseNanos);
+        }
+
+        /**
+         * Gets the timestamp.
+         *
+         * @return the timestamp
+         */
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        /**
+         * Gets the project.
+         *
+         * @return the project as groupId:artifactId, null for entries recorded without one
+         */
+        public String getProject() {
+            return project;
+        }
+
+        /**
+         * Gets the goal.
+         *
+         * @return the goal
+         */
+        public String getGoal() {
+            return goal;
+        }
+
+        /**
+         * Gets the version.
+         *
+         * @return the version
+         */
+        public String getVersion() {
+            return version;
+        }
+
+        /**
+         * Gets the commit.
+         *
+         * @return the commit
+         */
+        public String getCommit() {
+            return commit;
+        }
+
+        /**
+         * Gets the files.
+         *
+         * @return the files
+         */
+        public long getFiles() {
+            return files;
+        }
+
+        /**
+         * Gets the original size.
+         *
+         * @return the original size
+         */
+        public long getOriginalSize() {
+            return originalSize;
+        }
+
+        /**
+         * Gets the compressed size.
+         *
+         * @return the compressed size
+         */
+        public long getCompressedSize() {
+            return compressedSize;
+        }
+
+        /**
+         * Gets the compressed to original size ratio.
+         *
+         * @return the ratio
+         */
+        public double getRatio() {
+            return originalSize == 0 ? 1 : (double) compressedSize / originalSize;
+        }
+
+        /**
+         * Gets the compression time summed over all files.
+         *
+         * @return the file nanos
+         */
+        public long getFileNanos() {
+            return fileNanos;
+        }
+
+        /**
+         * Gets the wall time of the run.
+         *
+         * @return the wall nanos
+         */
+        public long getWallNanos() {
+            return wallNanos;
+        }
+
+        /**
+         * Gets the wall time of a phase.
+         *
+         * @param phase
+         *            the phase
+         *
+         * @return the phase nanos
+         */
+        public long getPhaseNanos(PhaseTimer.Phase phase) {
+            return phaseNanos.get(phase);
+        }
+    }
+}
@@ -0,0 +1,663 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable settings of a {@link CompressionService}.
+ * <p>
+ * HTML settings are named like the html goal's parameters, see {@link HtmlCompressorFactory#fromProperties}, and are
+ * checked when the options are built. The builder has a typed setter for each of them except closureBatch, which the
+ * service cannot honour. XML settings are named like the xml goal's parameters. The encoding applies to byte entry
+ * points and preserve pattern files.
+ */
+public final class CompressionOptions {
+
+    /** The html settings. */
+    private final Map<String, String> htmlSettings;
+
+    /** The xml enabled. */
+    private final boolean xmlEnabled;
+
+    /** The xml remove comments. */
+    private final boolean xmlRemoveComments;
+
+    /** The xml remove intertag spaces. */
+    private final boolean xmlRemoveIntertagSpaces;
+
+    /** The charset. */
+    private final Charset charset;
+
+    /**
+     * Instantiates new compression options.
+     *
+     * @param builder
+     *            the builder
+     */
+    private CompressionOptions(Builder builder) {
+        this.htmlSettings = Collections.unmodifiableMap(new LinkedHashMap<>(builder.htmlSettings));
+        this.xmlEnabled = builder.xmlEnabled;
+        this.xmlRemoveComments = builder.xmlRemoveComments;
+        this.xmlRemoveIntertagSpaces = builder.xmlRemoveIntertagSpaces;
+        this.charset = Charset.forName(htmlSettings.getOrDefault("encoding", "UTF-8"));
+    }
+
+    /**
+     * Creates a builder with the goals' defaults.
+     *
+     * @return the builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates a builder starting from these options.
+     *
+     * @return the builder
+     */
+    public Builder toBuilder() {
+        Builder builder = new Builder();
+        builder.htmlSettings.putAll(htmlSettings);
+        builder.xmlEnabled = xmlEnabled;
+        builder.xmlRemoveComments = xmlRemoveComments;
+        builder.xmlRemoveIntertagSpaces = xmlRemoveIntertagSpaces;
+        return builder;
+    }
+
+    /**
+     * Creates a factory of html compressors with these options.
+     *
+     * @return the factory
+     */
+    HtmlCompressorFactory createHtmlCompressorFactory() {
+        return HtmlCompressorFactory.fromProperties(htmlSettings);
+    }
+
+    /**
+     * Creates an xml compressor with these options.
+     *
+     * @return the xml compressor
+     */
+    com.googlecode.htmlcompressor.compressor.XmlCompressor createXmlCompressor() {
+        com.googlecode.htmlcompressor.compressor.XmlCompressor xmlCompressor = new com.googlecode.htmlcompressor.compressor.XmlCompressor();
+        xmlCompressor.setEnabled(xmlEnabled);
+        xmlCompressor.setRemoveComments(xmlRemoveComments);
+        xmlCompressor.setRemoveIntertagSpaces(xmlRemoveIntertagSpaces);
+        return xmlCompressor;
+    }
+
+    /**
+     * Gets the html settings.
+     *
+     * @return the html settings
+     */
+    public Map<String, String> getHtmlSettings() {
+        return htmlSettings;
+    }
+
+    /**
+     * Checks if is xml enabled.
+     *
+     * @return true, if is xml enabled
+     */
+    public boolean isXmlEnabled() {
+        return xmlEnabled;
+    }
+
+    /**
+     * Checks if is xml remove comments.
+     *
+     * @return true, if is xml remove comments
+     */
+    public boolean isXmlRemoveComments() {
+        return xmlRemoveComments;
+    }
+
+    /**
+     * Checks if is xml remove intertag spaces.
+     *
+     * @return true, if is xml remove intertag spaces
+     */
+    public boolean isXmlRemoveIntertagSpaces() {
+        return xmlRemoveIntertagSpaces;
+    }
+
+    /**
+     * Gets the charset.
+     *
+     * @return the charset
+     */
+    public Charset getCharset() {
+        return charset;
+    }
+
+    @Override
+    public String toString() {
+        return "CompressionOptions [html=" + htmlSettings + ", xmlEnabled=" + xmlEnabled + ", xmlRemoveComments="
+                + xmlRemoveComments + ", xmlRemoveIntertagSpaces=" + xmlRemoveIntertagSpaces + "]";
+    }
+
+    /**
+     * Builder of compression options.
+     */
+    public static final class Builder {
+
+        /** The html settings. */
+        private final Map<String, String> htmlSettings = new LinkedHashMap<>();
+
+        /** The xml enabled. */
+        private boolean xmlEnabled = true;
+
+        /** The xml remove comments. */
+        private boolean xmlRemoveComments = true;
+
+        /** The xml remove intertag spaces. */
+        private boolean xmlRemoveIntertagSpaces = true;
+
+        /**
+         * Instantiates a new builder.
+         */
+        private Builder() {
+        }
+
+        /**
+         * Set an html setting. Arrays are joined into the list format of {@link HtmlCompressorFactory#fromProperties}.
+         *
+         * @param name
+         *            the name of the html goal's parameter
+         * @param value
+         *            the value, null to restore the default
+         *
+         * @return the builder
+         */
+        public Builder html(String name, Object value) {
+            if (value == null) {
+                htmlSettings.remove(name);
+            } else if (value instanceof Object[]) {
+                String separator = "preservePatterns".equals(name) ? "\n" : ",";
+                htmlSettings.put(name,
+                        Arrays.stream((Object[]) value)
+                                .map(item -> item instanceof File ? ((File) item).getPath() : String.valueOf(item))
+                                .collect(Collectors.joining(separator)));
+            } else {
+                htmlSettings.put(name, String.valueOf(value));
+            }
+            return this;
+        }
+
+        /**
+         * Set html settings.
+         *
+         * @param settings
+         *            the settings, named like the html goal's parameters
+         *
+         * @return the builder
+         */
+        public Builder html(Map<String, String> settings) {
+            htmlSettings.putAll(settings);
+            return this;
+        }
+
+        /**
+         * Sets the enabled.
+         *
+         * @param enabled
+         *            the new enabled
+         *
+         * @return the builder
+         */
+        public Builder enabled(boolean enabled) {
+            return html("enabled", enabled);
+        }
+
+        /**
+         * Sets the remove comments.
+         *
+         * @param removeComments
+         *            the new remove comments
+         *
+         * @return the builder
+         */
+        public Builder removeComments(boolean removeComments) {
+            return html("removeComments", removeComments);
+        }
+
+        /**
+         * Sets the remove multi spaces.
+         *
+         * @param removeMultiSpaces
+         *            the new remove multi spaces
+         *
+         * @return the builder
+         */
+        public Builder removeMultiSpaces(boolean removeMultiSpaces) {
+            return html("removeMultiSpaces", removeMultiSpaces);
+        }
+
+        /**
+         * Sets the remove intertag spaces.
+         *
+         * @param removeIntertagSpaces
+         *            the new remove intertag spaces
+         *
+         * @return the builder
+         */
+        public Builder removeIntertagSpaces(boolean removeIntertagSpaces) {
+            return html("removeIntertagSpaces", removeIntertagSpaces);
+        }
+
+        /**
+         * Sets the remove quotes.
+         *
+         * @param removeQuotes
+         *            the new remove quotes
+         *
+         * @return the builder
+         */
+        public Builder removeQuotes(boolean removeQuotes) {
+            return html("removeQuotes", removeQuotes);
+        }
+
+        /**
+         * Sets the simple doctype.
+         *
+         * @param simpleDoctype
+         *            the new simple doctype
+         *
+         * @return the builder
+         */
+        public Builder simpleDoctype(boolean simpleDoctype) {
+            return html("simpleDoctype", simpleDoctype);
+        }
+
+        /**
+         * Sets the remove script attributes.
+         *
+         * @param removeScriptAttributes
+         *            the new remove script attributes
+         *
+         * @return the builder
+         */
+        public Builder removeScriptAttributes(boolean removeScriptAttributes) {
+            return html("removeScriptAttributes", removeScriptAttributes);
+        }
+
+        /**
+         * Sets the remove style attributes.
+         *
+         * @param removeStyleAttributes
+         *            the new remove style attributes
+         *
+         * @return the builder
+         */
+        public Builder removeStyleAttributes(boolean removeStyleAttributes) {
+            return html("removeStyleAttributes", removeStyleAttributes);
+        }
+
+        /**
+         * Sets the remove link attributes.
+         *
+         * @param removeLinkAttributes
+         *            the new remove link attributes
+         *
+         * @return the builder
+         */
+        public Builder removeLinkAttributes(boolean removeLinkAttributes) {
+            return html("removeLinkAttributes", removeLinkAttributes);
+        }
+
+        /**
+         * Sets the remove form attributes.
+         *
+         * @param removeFormAttributes
+         *            the new remove form attributes
+         *
+         * @return the builder
+         */
+        public Builder removeFormAttributes(boolean removeFormAttributes) {
+            return html("removeFormAttributes", removeFormAttributes);
+        }
+
+        /**
+         * Sets the remove input attributes.
+         *
+         * @param removeInputAttributes
+         *            the new remove input attributes
+         *
+         * @return the builder
+         */
+        public Builder removeInputAttributes(boolean removeInputAttributes) {
+            return html("removeInputAttributes", removeInputAttributes);
+        }
+
+        /**
+         * Sets the simple boolean attributes.
+         *
+         * @param simpleBooleanAttributes
+         *            the new simple boolean attributes
+         *
+         * @return the builder
+         */
+        public Builder simpleBooleanAttributes(boolean simpleBooleanAttributes) {
+            return html("simpleBooleanAttributes", simpleBooleanAttributes);
+        }
+
+        /**
+         * Sets the remove javascript protocol.
+         *
+         * @param removeJavaScriptProtocol
+         *            the new remove javascript protocol
+         *
+         * @return the builder
+         */
+        public Builder removeJavaScriptProtocol(boolean removeJavaScriptProtocol) {
+            return html("removeJavaScriptProtocol", removeJavaScriptProtocol);
+        }
+
+        /**
+         * Sets the remove http protocol.
+         *
+         * @param removeHttpProtocol
+         *            the new remove http protocol
+         *
+         * @return the builder
+         */
+        public Builder removeHttpProtocol(boolean removeHttpProtocol) {
+            return html("removeHttpProtocol", removeHttpProtocol);
+        }
+
+        /**
+         * Sets the remove https protocol.
+         *
+         * @param removeHttpsProtocol
+         *            the new remove https protocol
+         *
+         * @return the builder
+         */
+        public Builder removeHttpsProtocol(boolean removeHttpsProtocol) {
+            return html("removeHttpsProtocol", removeHttpsProtocol);
+        }
+
+        /**
+         * Sets the compress css.
+         *
+         * @param compressCss
+         *            the new compress css
+         *
+         * @return the builder
+         */
+        public Builder compressCss(boolean compressCss) {
+            return html("compressCss", compressCss);
+        }
+
+        /**
+         * Sets the preserve line breaks.
+         *
+         * @param preserveLineBreaks
+         *            the new preserve line breaks
+         *
+         * @return the builder
+         */
+        public Builder preserveLineBreaks(boolean preserveLineBreaks) {
+            return html("preserveLineBreaks", preserveLineBreaks);
+        }
+
+        /**
+         * Sets the yui css line break.
+         *
+         * @param yuiCssLineBreak
+         *            the new yui css line break
+         *
+         * @return the builder
+         */
+        public Builder yuiCssLineBreak(int yuiCssLineBreak) {
+            return html("yuiCssLineBreak", yuiCssLineBreak);
+        }
+
+        /**
+         * Sets the compress javascript.
+         *
+         * @param compressJavaScript
+         *            the new compress javascript
+         *
+         * @return the builder
+         */
+        public Builder compressJavaScript(boolean compressJavaScript) {
+            return html("compressJavaScript", compressJavaScript);
+        }
+
+        /**
+         * Sets the js compressor.
+         *
+         * @param jsCompressor
+         *            the new js compressor
+         *
+         * @return the builder
+         */
+        public Builder jsCompressor(String jsCompressor) {
+            return html("jsCompressor", jsCompressor);
+        }
+
+        /**
+         * Sets the yui js no munge.
+         *
+         * @param yuiJsNoMunge
+         *            the new yui js no munge
+         *
+         * @return the builder
+         */
+        public Builder yuiJsNoMunge(boolean yuiJsNoMunge) {
+            return html("yuiJsNoMunge", yuiJsNoMunge);
+        }
+
+        /**
+         * Sets the yui js preserve all semicolons.
+         *
+         * @param yuiJsPreserveAllSemiColons
+         *            the new yui js preserve all semicolons
+         *
+         * @return the builder
+         */
+        public Builder yuiJsPreserveAllSemiColons(boolean yuiJsPreserveAllSemiColons) {
+            return html("yuiJsPreserveAllSemiColons", yuiJsPreserveAllSemiColons);
+        }
+
+        /**
+         * Sets the yui js line break.
+         *
+         * @param yuiJsLineBreak
+         *            the new yui js line break
+         *
+         * @return the builder
+         */
+        public Builder yuiJsLineBreak(int yuiJsLineBreak) {
+            return html("yuiJsLineBreak", yuiJsLineBreak);
+        }
+
+        /**
+         * Sets the yui js disable optimizations.
+         *
+         * @param yuiJsDisableOptimizations
+         *            the new yui js disable optimizations
+         *
+         * @return the builder
+         */
+        public Builder yuiJsDisableOptimizations(boolean yuiJsDisableOptimizations) {
+            return html("yuiJsDisableOptimizations", yuiJsDisableOptimizations);
+        }
+
+        /**
+         * Sets the closure opt level.
+         *
+         * @param closureOptLevel
+         *            the new closure opt level
+         *
+         * @return the builder
+         */
+        public Builder closureOptLevel(String closureOptLevel) {
+            return html("closureOptLevel", closureOptLevel);
+        }
+
+        /**
+         * Sets the closure custom externs only.
+         *
+         * @param closureCustomExternsOnly
+         *            the new closure custom externs only
+         *
+         * @return the builder
+         */
+        public Builder closureCustomExternsOnly(boolean closureCustomExternsOnly) {
+            return html("closureCustomExternsOnly", closureCustomExternsOnly);
+        }
+
+        /**
+         * Sets the closure externs.
+         *
+         * @param closureExterns
+         *            the new closure externs
+         *
+         * @return the builder
+         */
+        public Builder closureExterns(String[] closureExterns) {
+            return html("closureExterns", closureExterns);
+        }
+
+        /**
+         * Sets the generate statistics.
+         *
+         * @param generateStatistics
+         *            the new generate statistics
+         *
+         * @return the builder
+         */
+        public Builder generateStatistics(boolean generateStatistics) {
+            return html("generateStatistics", generateStatistics);
+        }
+
+        /**
+         * Sets the predefined preserve patterns.
+         *
+         * @param predefinedPreservePatterns
+         *            the new predefined preserve patterns
+         *
+         * @return the builder
+         */
+        public Builder predefinedPreservePatterns(String[] predefinedPreservePatterns) {
+            return html("predefinedPreservePatterns", predefinedPreservePatterns);
+        }
+
+        /**
+         * Sets the preserve patterns.
+         *
+         * @param preservePatterns
+         *            the new preserve patterns
+         *
+         * @return the builder
+         */
+        public Builder preservePatterns(String[] preservePatterns) {
+            return html("preservePatterns", preservePatterns);
+        }
+
+        /**
+         * Sets the preserve pattern files.
+         *
+         * @param preservePatternFiles
+         *            the new preserve pattern files
+         *
+         * @return the builder
+         */
+        public Builder preservePatternFiles(File[] preservePatternFiles) {
+            return html("preservePatternFiles", preservePatternFiles);
+        }
+
+        /**
+         * Sets the encoding.
+         *
+         * @param encoding
+         *            the new encoding
+         *
+         * @return the builder
+         */
+        public Builder encoding(String encoding) {
+            return html("encoding", encoding);
+        }
+
+        /**
+         * Sets the xml enabled.
+         *
+         * @param xmlEnabled
+         *            the new xml enabled
+         *
+         * @return the builder
+         */
+        public Builder xmlEnabled(boolean xmlEnabled) {
+            this.xmlEnabled = xmlEnabled;
+            return this;
+        }
+
+        /**
+         * Sets the xml remove comments.
+         *
+         * @param xmlRemoveComments
+         *            the new xml remove comments
+         *
+         * @return the builder
+         */
+        public Builder xmlRemoveComments(boolean xmlRemoveComments) {
+            this.xmlRemoveComments = xmlRemoveComments;
+            return this;
+        }
+
+        /**
+         * Sets the xml remove intertag spaces.
+         *
+         * @param xmlRemoveIntertagSpaces
+         *            the new xml remove intertag spaces
+         *
+         * @return the builder
+         */
+        public Builder xmlRemoveIntertagSpaces(boolean xmlRemoveIntertagSpaces) {
+            this.xmlRemoveIntertagSpaces = xmlRemoveIntertagSpaces;
+            return this;
+        }
+
+        /**
+         * Build the options.
+         *
+         * @return the compression options
+         *
+         * @throws IllegalArgumentException
+         *             if an html setting is unknown or invalid, or closureBatch is enabled
+         */
+        public CompressionOptions build() {
+            // Fail on unknown names and unparsable values here rather than on first use
+            HtmlCompressorFactory.fromProperties(htmlSettings);
+            Charset.forName(htmlSettings.getOrDefault("encoding", "UTF-8"));
+            return new CompressionOptions(this);
+        }
+    }
+}
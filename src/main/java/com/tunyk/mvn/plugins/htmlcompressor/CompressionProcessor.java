@@ -0,0 +1,487 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reactive stage compressing documents on an executor, for pipelines that must not block their event loop threads.
+ * <p>
+ * Upstream documents are requested only as downstream demand allows, and at most {@code concurrency} of them are
+ * compressed at a time, so a slow subscriber slows the publisher down instead of filling memory. Results are emitted in
+ * completion order, which may differ from the document order when several are compressed at once. A document that fails
+ * to compress yields a failed result rather than ending the stream. The processor accepts a single subscriber;
+ * libraries such as Reactor and RxJava adapt it with their non-blocking {@link Flow} bridges.
+ */
+public class CompressionProcessor
+        implements Flow.Processor<CompressionProcessor.Document, CompressionProcessor.Result> {
+
+    /** The compression service. */
+    private final CompressionService service;
+
+    /** The executor running the compression. */
+    private final Executor executor;
+
+    /** The max number of documents compressed at a time. */
+    private final int concurrency;
+
+    /** The statistics of the delivered results. */
+    private final CompressionStatistics statistics = new CompressionStatistics();
+
+    /** The compressed results not delivered yet. */
+    private final Queue<Result> ready = new ConcurrentLinkedQueue<>();
+
+    /** The number of drain calls pending, so that only one thread delivers at a time. */
+    private final AtomicInteger wip = new AtomicInteger();
+
+    /** The upstream subscription. */
+    private Flow.Subscription upstream;
+
+    /** The downstream subscriber. */
+    private Flow.Subscriber<? super Result> downstream;
+
+    /** The downstream demand not requested from upstream yet. */
+    private long demand;
+
+    /** The documents requested from upstream and not delivered yet. */
+    private int inFlight;
+
+    /** The documents received from upstream and not delivered yet. */
+    private int active;
+
+    /** Whether upstream completed or failed. */
+    private boolean upstreamDone;
+
+    /** The upstream failure. */
+    private Throwable upstreamError;
+
+    /** Whether downstream cancelled. */
+    private boolean cancelled;
+
+    /** Whether downstream was sent its terminal signal. */
+    private boolean terminated;
+
+    /**
+     * Instantiates a new compression processor.
+     *
+     * @param service
+     *            the compression service
+     * @param executor
+     *            the executor running the compression
+     * @param concurrency
+     *            the max number of documents compressed at a time
+     */
+    public CompressionProcessor(CompressionService service, Executor executor, int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1");
+        }
+        this.service = service;
+        this.executor = executor;
+        this.concurrency = concurrency;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        synchronized (this) {
+            if (upstream != null) {
+                subscription.cancel();
+                return;
+            }
+            upstream = subscription;
+        }
+        requestMore();
+    }
+
+    @Override
+    public void onNext(Document document) {
+        synchronized (this) {
+            active++;
+        }
+        try {
+            executor.execute(() -> complete(compress(document)));
+        } catch (RejectedExecutionException e) {
+            complete(new Result(document, null, null, e));
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        synchronized (this) {
+            upstreamDone = true;
+            upstreamError = throwable;
+        }
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        synchronized (this) {
+            upstreamDone = true;
+        }
+        drain();
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super Result> subscriber) {
+        synchronized (this) {
+            if (downstream != null) {
+                subscriber.onSubscribe(new Flow.Subscription() {
+
+                    @Override
+                    public void request(long n) {
+                        // Rejected subscriber
+                    }
+
+                    @Override
+                    public void cancel() {
+                        // Rejected subscriber
+                    }
+                });
+                subscriber.onError(new IllegalStateException("CompressionProcessor accepts a single subscriber"));
+                return;
+            }
+            downstream = subscriber;
+        }
+        subscriber.onSubscribe(new Flow.Subscription() {
+
+            @Override
+            public void request(long n) {
+                if (n <= 0) {
+                    synchronized (CompressionProcessor.this) {
+                        upstreamDone = true;
+                        upstreamError = new IllegalArgumentException("Non-positive request: " + n);
+                    }
+                    cancelUpstream();
+                } else {
+                    synchronized (CompressionProcessor.this) {
+                        demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+                    }
+                    requestMore();
+                }
+                drain();
+            }
+
+            @Override
+            public void cancel() {
+                synchronized (CompressionProcessor.this) {
+                    cancelled = true;
+                }
+                cancelUpstream();
+                ready.clear();
+            }
+        });
+        drain();
+    }
+
+    /**
+     * Compress a document.
+     *
+     * @param document
+     *            the document
+     *
+     * @return the result
+     */
+    private Result compress(Document document) {
+        long start = System.nanoTime();
+        try {
+            String content = document.getType() == Type.XML ? service.compressXml(document.getContent())
+                    : service.compressHtml(document.getContent());
+            return new Result(document, content, new CompressionStatistics.FileStatistics(document.getPath(),
+                    document.getContent().length(), content.length(), System.nanoTime() - start), null);
+        } catch (RuntimeException e) {
+            return new Result(document, null, null, e);
+        }
+    }
+
+    /**
+     * Queue a result for delivery.
+     *
+     * @param result
+     *            the result
+     */
+    private void complete(Result result) {
+        ready.add(result);
+        drain();
+    }
+
+    /**
+     * Request as many documents from upstream as downstream demand and the concurrency allow.
+     */
+    private void requestMore() {
+        Flow.Subscription subscription;
+        int n;
+        synchronized (this) {
+            if (upstream == null || downstream == null || upstreamDone || cancelled) {
+                return;
+            }
+            n = (int) Math.min(demand, concurrency - inFlight);
+            if (n <= 0) {
+                return;
+            }
+            demand -= n;
+            inFlight += n;
+            subscription = upstream;
+        }
+        subscription.request(n);
+    }
+
+    /**
+     * Cancel the upstream subscription.
+     */
+    private void cancelUpstream() {
+        Flow.Subscription subscription;
+        synchronized (this) {
+            subscription = upstream;
+        }
+        if (subscription != null) {
+            subscription.cancel();
+        }
+    }
+
+    /**
+     * Deliver the compressed results and the terminal signal, from one thread at a time.
+     */
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        do {
+            Flow.Subscriber<? super Result> subscriber;
+            synchronized (this) {
+                subscriber = cancelled || terminated ? null : downstream;
+            }
+            if (subscriber != null) {
+                Result result;
+                while ((result = ready.poll()) != null) {
+                    synchronized (this) {
+                        inFlight--;
+                        active--;
+                        if (result.getStatistics() != null) {
+                            statistics.record(result.getStatistics());
+                        }
+                    }
+                    subscriber.onNext(result);
+                    requestMore();
+                }
+                Throwable error;
+                boolean terminal;
+                synchronized (this) {
+                    terminal = upstreamDone && active == 0 && ready.isEmpty() && !cancelled && !terminated;
+                    terminated |= terminal;
+                    error = upstreamError;
+                }
+                if (terminal) {
+                    if (error != null) {
+                        subscriber.onError(error);
+                    } else {
+                        subscriber.onComplete();
+                    }
+                }
+            }
+        } while (wip.decrementAndGet() != 0);
+    }
+
+    /**
+     * Gets the statistics of the results delivered so far.
+     *
+     * @return the statistics
+     */
+    public synchronized CompressionStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * The document types.
+     */
+    public enum Type {
+
+        /** Html. */
+        HTML,
+
+        /** Xml. */
+        XML
+    }
+
+    /**
+     * A document to compress.
+     */
+    public static final class Document {
+
+        /** The path. */
+        private final String path;
+
+        /** The content. */
+        private final String content;
+
+        /** The type. */
+        private final Type type;
+
+        /**
+         * Instantiates a new document, typed as XML when its path ends with .xml and as HTML otherwise.
+         *
+         * @param path
+         *            the path
+         * @param content
+         *            the content
+         */
+        public Document(String path, String content) {
+            this(path, content, path.toLowerCase(Locale.ROOT).endsWith(".xml") ? Type.XML : Type.HTML);
+        }
+
+        /**
+         * Instantiates a new document.
+         *
+         * @param path
+         *            the path
+         * @param content
+         *            the content
+         * @param type
+         *            the type
+         */
+        public Document(String path, String content, Type type) {
+            this.path = path;
+            this.content = content;
+            this.type = type;
+        }
+
+        /**
+         * Gets the path.
+         *
+         * @return the path
+         */
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * Gets the content.
+         *
+         * @return the content
+         */
+        public String getContent() {
+            return content;
+        }
+
+        /**
+         * Gets the type.
+         *
+         * @return the type
+         */
+        public Type getType() {
+            return type;
+        }
+    }
+
+    /**
+     * The result of compressing a document.
+     */
+    public static final class Result {
+
+        /** The document. */
+        private final Document document;
+
+        /** The compressed content. */
+        private final String content;
+
+        /** The statistics, sizes in characters. */
+        private final CompressionStatistics.FileStatistics statistics;
+
+        /** The failure. */
+        private final Throwable error;
+
+        /**
+         * Instantiates a new result.
+         *
+         * @param document
+         *            the document
+         * @param content
+         *            the compressed content
+         * @param statistics
+         *            the statistics
+         * @param error
+         *            the failure
+         */
+        Result(Document document, String content, CompressionStatistics.FileStatistics statistics, Throwable error) {
+            this.document = document;
+            this.content = content;
+            this.statistics = statistics;
+            this.error = error;
+        }
+
+        /**
+         * Gets the path.
+         *
+         * @return the path
+         */
+        public String getPath() {
+            return document.getPath();
+        }
+
+        /**
+         * Gets the document.
+         *
+         * @return the document
+         */
+        public Document getDocument() {
+            return document;
+        }
+
+        /**
+         * Gets the compressed content.
+         *
+         * @return the compressed content, null if the compression failed
+         */
+        public String getContent() {
+            return content;
+        }
+
+        /**
+         * Gets the statistics, with sizes in characters.
+         *
+         * @return the statistics, null if the compression failed
+         */
+        public CompressionStatistics.FileStatistics getStatistics() {
+            return statistics;
+        }
+
+        /**
+         * Gets the failure.
+         *
+         * @return the failure, null if the compression succeeded
+         */
+        public Throwable getError() {
+            return error;
+        }
+
+        /**
+         * Checks if the compression failed.
+         *
+         * @return true, if failed
+         */
+        public boolean isFailed() {
+            return error != null;
+        }
+    }
+}
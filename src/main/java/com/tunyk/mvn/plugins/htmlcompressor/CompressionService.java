@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import com.googlecode.htmlcompressor.compressor.HtmlCompressor;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * Thread-safe HTML and XML compression for use outside of Maven, such as in a publishing service.
+ * <p>
+ * Compressors are pooled, so concurrent callers never share an instance nor wait for one. Byte entry points use the
+ * encoding of the options.
+ */
+public class CompressionService {
+
+    /** The options. */
+    private final CompressionOptions options;
+
+    /** The html compressors. */
+    private final CompressorPool<HtmlCompressor> htmlPool;
+
+    /** The xml compressors. */
+    private final CompressorPool<com.googlecode.htmlcompressor.compressor.XmlCompressor> xmlPool;
+
+    /**
+     * Instantiates a new compression service keeping one idle compressor of each type per available processor.
+     *
+     * @param options
+     *            the options
+     */
+    public CompressionService(CompressionOptions options) {
+        this(options, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Instantiates a new compression service.
+     *
+     * @param options
+     *            the options
+     * @param poolSize
+     *            the max number of idle compressors of each type kept
+     *
+     * @throws java.io.UncheckedIOException
+     *             if a preserve pattern file or Closure extern could not be read
+     * @throws java.util.regex.PatternSyntaxException
+     *             if a preserve pattern is invalid
+     */
+    public CompressionService(CompressionOptions options, int poolSize) {
+        this.options = options;
+        HtmlCompressorFactory factory = options.createHtmlCompressorFactory();
+        // Fail on invalid patterns or externs now rather than on the first call
+        HtmlCompressor first = factory.get();
+        this.htmlPool = new CompressorPool<>(factory, poolSize);
+        this.htmlPool.release(first);
+        this.xmlPool = new CompressorPool<>(options::createXmlCompressor, poolSize);
+    }
+
+    /**
+     * Compress html.
+     *
+     * @param html
+     *            the html
+     *
+     * @return the compressed html
+     */
+    public String compressHtml(String html) {
+        return htmlPool.apply(compressor -> compressor.compress(html));
+    }
+
+    /**
+     * Compress html.
+     *
+     * @param html
+     *            the html, in the encoding of the options
+     *
+     * @return the compressed html, in the encoding of the options
+     */
+    public byte[] compressHtml(byte[] html) {
+        Charset charset = options.getCharset();
+        return compressHtml(new String(html, charset)).getBytes(charset);
+    }
+
+    /**
+     * Compress html. The remaining bytes of the buffer are read without moving its position.
+     *
+     * @param html
+     *            the html, in the encoding of the options
+     *
+     * @return the compressed html, in the encoding of the options, ready to be read
+     */
+    public ByteBuffer compressHtml(ByteBuffer html) {
+        Charset charset = options.getCharset();
+        return charset.encode(compressHtml(charset.decode(html.duplicate()).toString()));
+    }
+
+    /**
+     * Compress xml.
+     *
+     * @param xml
+     *            the xml
+     *
+     * @return the compressed xml
+     */
+    public String compressXml(String xml) {
+        return xmlPool.apply(compressor -> compressor.compress(xml));
+    }
+
+    /**
+     * Compress xml.
+     *
+     * @param xml
+     *            the xml, in the encoding of the options
+     *
+     * @return the compressed xml, in the encoding of the options
+     */
+    public byte[] compressXml(byte[] xml) {
+        Charset charset = options.getCharset();
+        return compressXml(new String(xml, charset)).getBytes(charset);
+    }
+
+    /**
+     * Compress xml. The remaining bytes of the buffer are read without moving its position.
+     *
+     * @param xml
+     *            the xml, in the encoding of the options
+     *
+     * @return the compressed xml, in the encoding of the options, ready to be read
+     */
+    public ByteBuffer compressXml(ByteBuffer xml) {
+        Charset charset = options.getCharset();
+        return charset.encode(compressXml(charset.decode(xml.duplicate()).toString()));
+    }
+
+    /**
+     * Gets the options.
+     *
+     * @return the options
+     */
+    public CompressionOptions getOptions() {
+        return options;
+    }
+}
@@ -0,0 +1,500 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import com.googlecode.htmlcompressor.compressor.HtmlCompressorStatistics;
+import com.googlecode.htmlcompressor.compressor.HtmlMetrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Per-file compression statistics with per-directory rollups.
+ * <p>
+ * Files may be recorded from several threads at once. Rollups are summed with {@link LongAdder}s, so recording never
+ * blocks on a lock held by another thread. Every directory containing a file, directly or through subdirectories, gets
+ * a rollup; the root directory "." holds the totals.
+ */
+public class CompressionStatistics {
+
+    /** The root directory. */
+    public static final String ROOT = ".";
+
+    /**
+     * The collected metrics.
+     */
+    public enum Metric {
+
+        /** The original size. */
+        ORIGINAL_SIZE("originalSize"),
+
+        /** The compressed size. */
+        COMPRESSED_SIZE("compressedSize"),
+
+        /** The original empty chars. */
+        ORIGINAL_EMPTY_CHARS("originalEmptyChars"),
+
+        /** The compressed empty chars. */
+        COMPRESSED_EMPTY_CHARS("compressedEmptyChars"),
+
+        /** The original inline script size. */
+        ORIGINAL_SCRIPT_SIZE("originalScriptSize"),
+
+        /** The compressed inline script size. */
+        COMPRESSED_SCRIPT_SIZE("compressedScriptSize"),
+
+        /** The original inline style size. */
+        ORIGINAL_STYLE_SIZE("originalStyleSize"),
+
+        /** The compressed inline style size. */
+        COMPRESSED_STYLE_SIZE("compressedStyleSize"),
+
+        /** The original inline event handler size. */
+        ORIGINAL_EVENT_SIZE("originalEventSize"),
+
+        /** The compressed inline event handler size. */
+        COMPRESSED_EVENT_SIZE("compressedEventSize"),
+
+        /** The preserved size. */
+        PRESERVED_SIZE("preservedSize"),
+
+        /** The compression time in nanoseconds. */
+        TIME_NANOS("timeNanos");
+
+        /** The name used in reports. */
+        private final String label;
+
+        /**
+         * Instantiates a new metric.
+         *
+         * @param label
+         *            the label
+         */
+        Metric(String label) {
+            this.label = label;
+        }
+
+        /**
+         * Gets the label.
+         *
+         * @return the label
+         */
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    /** The files by path. */
+    private final ConcurrentMap<String, FileStatistics> files = new ConcurrentHashMap<>();
+
+    /** The rollups by directory. */
+    private final ConcurrentMap<String, Rollup> directories = new ConcurrentHashMap<>();
+
+    /**
+     * Record the statistics of a file. Recording a file again replaces its statistics, in the rollups too.
+     *
+     * @param fileStatistics
+     *            the file statistics
+     */
+    public void record(FileStatistics fileStatistics) {
+        FileStatistics previous = files.put(fileStatistics.getFile(), fileStatistics);
+        String directory = fileStatistics.getFile();
+        do {
+            directory = parentOf(directory);
+            Rollup rollup = directories.computeIfAbsent(directory, Rollup::new);
+            rollup.add(fileStatistics);
+            if (previous != null) {
+                rollup.remove(previous);
+            }
+        } while (!ROOT.equals(directory));
+    }
+
+    /**
+     * Gets the files sorted by path.
+     *
+     * @return the files
+     */
+    public List<FileStatistics> getFiles() {
+        List<FileStatistics> list = new ArrayList<>(files.values());
+        list.sort((a, b) -> a.getFile().compareTo(b.getFile()));
+        return list;
+    }
+
+    /**
+     * Gets the directory rollups sorted by path.
+     *
+     * @return the directories
+     */
+    public List<Rollup> getDirectories() {
+        List<Rollup> list = new ArrayList<>(directories.values());
+        list.sort((a, b) -> a.getDirectory().compareTo(b.getDirectory()));
+        return list;
+    }
+
+    /**
+     * Gets the rollup of all files.
+     *
+     * @return the total
+     */
+    public Rollup getTotal() {
+        Rollup total = directories.get(ROOT);
+        return total == null ? new Rollup(ROOT) : total;
+    }
+
+    /**
+     * Write the statistics as JSON.
+     *
+     * @param path
+     *            the path
+     * @param charset
+     *            the charset
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public void writeJson(Path path, Charset charset) throws IOException {
+        JSONArray fileArray = new JSONArray();
+        for (FileStatistics file : getFiles()) {
+            JSONObject json = new JSONObject();
+            json.put("file", file.getFile());
+            for (Metric metric : Metric.values()) {
+                json.put(metric.getLabel(), file.get(metric));
+            }
+            fileArray.put(json);
+        }
+        JSONArray directoryArray = new JSONArray();
+        for (Rollup directory : getDirectories()) {
+            JSONObject json = new JSONObject();
+            json.put("directory", directory.getDirectory());
+            json.put("files", directory.getFileCount());
+            for (Metric metric : Metric.values()) {
+                json.put(metric.getLabel(), directory.get(metric));
+            }
+            directoryArray.put(json);
+        }
+        JSONObject json = new JSONObject();
+        json.put("files", fileArray);
+        json.put("directories", directoryArray);
+        write(path, json.toString(2), charset);
+    }
+
+    /**
+     * Write the statistics as CSV, one row per file followed by one row per directory.
+     *
+     * @param path
+     *            the path
+     * @param charset
+     *            the charset
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public void writeCsv(Path path, Charset charset) throws IOException {
+        StringBuilder sb = new StringBuilder("type,path,files");
+        for (Metric metric : Metric.values()) {
+            sb.append(',').append(metric.getLabel());
+        }
+        sb.append('\n');
+        for (FileStatistics file : getFiles()) {
+            sb.append("file,").append(csvField(file.getFile())).append(",1");
+            for (Metric metric : Metric.values()) {
+                sb.append(',').append(file.get(metric));
+            }
+            sb.append('\n');
+        }
+        for (Rollup directory : getDirectories()) {
+            sb.append("directory,").append(csvField(directory.getDirectory())).append(',')
+                    .append(directory.getFileCount());
+            for (Metric metric : Metric.values()) {
+                sb.append(',').append(directory.get(metric));
+            }
+            sb.append('\n');
+        }
+        write(path, sb.toString(), charset);
+    }
+
+    /**
+     * Write a report, creating its directory.
+     *
+     * @param path
+     *            the path
+     * @param content
+     *            the content
+     * @param charset
+     *            the charset
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private static void write(Path path, String content, Charset charset) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (Writer writer = Files.newBufferedWriter(path, charset)) {
+            writer.write(content);
+        }
+    }
+
+    /**
+     * Quote a CSV field if needed.
+     *
+     * @param value
+     *            the value
+     *
+     * @return the field
+     */
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Gets the parent directory of a relative path.
+     *
+     * @param path
+     *            the path
+     *
+     * @return the parent directory, "." for top level entries
+     */
+    private static String parentOf(String path) {
+        int slash = Math.max(path.lastIndexOf('/'), path.lastIndexOf('\\'));
+        return slash > 0 ? path.substring(0, slash) : ROOT;
+    }
+
+    /**
+     * The statistics of one file.
+     */
+    public static final class FileStatistics {
+
+        /** The file. */
+        private final String file;
+
+        /** The values by metric. */
+        private final EnumMap<Metric, Long> values = new EnumMap<>(Metric.class);
+
+        /**
+         * Instantiates file statistics from the sizes alone, for files that were copied or compressed without detailed
+         * metrics.
+         *
+         * @param file
+         *            the file
+         * @param originalSize
+         *            the original size
+         * @param compressedSize
+         *            the compressed size
+         * @param timeNanos
+         *            the time in nanoseconds
+         */
+        public FileStatistics(String file, long originalSize, long compressedSize, long timeNanos) {
+            this.file = file;
+            for (Metric metric : Metric.values()) {
+                values.put(metric, 0L);
+            }
+            values.put(Metric.ORIGINAL_SIZE, originalSize);
+            values.put(Metric.COMPRESSED_SIZE, compressedSize);
+            values.put(Metric.TIME_NANOS, timeNanos);
+        }
+
+        /**
+         * Instantiates file statistics from the metrics of the html compressor.
+         *
+         * @param file
+         *            the file
+         * @param statistics
+         *            the statistics of the html compressor for this file
+         * @param timeNanos
+         *            the time in nanoseconds
+         */
+        public FileStatistics(String file, HtmlCompressorStatistics statistics, long timeNanos) {
+            this(file, statistics.getOriginalMetrics().getFilesize(), statistics.getCompressedMetrics().getFilesize(),
+                    timeNanos);
+            HtmlMetrics original = statistics.getOriginalMetrics();
+            HtmlMetrics compressed = statistics.getCompressedMetrics();
+            values.put(Metric.ORIGINAL_EMPTY_CHARS, (long) original.getEmptyChars());
+            values.put(Metric.COMPRESSED_EMPTY_CHARS, (long) compressed.getEmptyChars());
+            values.put(Metric.ORIGINAL_SCRIPT_SIZE, (long) original.getInlineScriptSize());
+            values.put(Metric.COMPRESSED_SCRIPT_SIZE, (long) compressed.getInlineScriptSize());
+            values.put(Metric.ORIGINAL_STYLE_SIZE, (long) original.getInlineStyleSize());
+            values.put(Metric.COMPRESSED_STYLE_SIZE, (long) compressed.getInlineStyleSize());
+            values.put(Metric.ORIGINAL_EVENT_SIZE, (long) original.getInlineEventSize());
+            values.put(Metric.COMPRESSED_EVENT_SIZE, (long) compressed.getInlineEventSize());
+            values.put(Metric.PRESERVED_SIZE, (long) statistics.getPreservedSize());
+        }
+
+        /**
+         * Instantiates file statistics for a file whose content duplicates an already compressed file. The sizes are
+         * taken from that file, the time is zero as nothing was compressed again.
+         *
+         * @param file
+         *            the file
+         * @param source
+         *            the statistics of the file with the same content
+         */
+        public FileStatistics(String file, FileStatistics source) {
+            this.file = file;
+            values.putAll(source.values);
+            values.put(Metric.TIME_NANOS, 0L);
+        }
+
+        /**
+         * Copy these statistics with another compressed size, for content completed after it was compressed, such as
+         * resolved batch placeholders. The difference is accounted to the inline scripts.
+         *
+         * @param compressedSize
+         *            the compressed size
+         *
+         * @return the file statistics
+         */
+        FileStatistics withCompressedSize(long compressedSize) {
+            FileStatistics copy = new FileStatistics(file, this);
+            copy.values.put(Metric.TIME_NANOS, get(Metric.TIME_NANOS));
+            copy.values.put(Metric.COMPRESSED_SCRIPT_SIZE,
+                    get(Metric.COMPRESSED_SCRIPT_SIZE) + compressedSize - get(Metric.COMPRESSED_SIZE));
+            copy.values.put(Metric.COMPRESSED_SIZE, compressedSize);
+            return copy;
+        }
+
+        /**
+         * Gets the file.
+         *
+         * @return the file
+         */
+        public String getFile() {
+            return file;
+        }
+
+        /**
+         * Gets a metric.
+         *
+         * @param metric
+         *            the metric
+         *
+         * @return the value
+         */
+        public long get(Metric metric) {
+            return values.get(metric);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%s: %d -> %d", file, get(Metric.ORIGINAL_SIZE),
+                    get(Metric.COMPRESSED_SIZE));
+        }
+    }
+
+    /**
+     * The summed statistics of the files below a directory.
+     */
+    public static final class Rollup {
+
+        /** The directory. */
+        private final String directory;
+
+        /** The file count. */
+        private final LongAdder fileCount = new LongAdder();
+
+        /** The sums by metric. */
+        private final EnumMap<Metric, LongAdder> sums = new EnumMap<>(Metric.class);
+
+        /**
+         * Instantiates a new rollup.
+         *
+         * @param directory
+         *            the directory
+         */
+        public Rollup(String directory) {
+            this.directory = directory;
+            for (Metric metric : Metric.values()) {
+                sums.put(metric, new LongAdder());
+            }
+        }
+
+        /**
+         * Add a file.
+         *
+         * @param fileStatistics
+         *            the file statistics
+         */
+        void add(FileStatistics fileStatistics) {
+            fileCount.increment();
+            for (Metric metric : Metric.values()) {
+                sums.get(metric).add(fileStatistics.get(metric));
+            }
+        }
+
+        /**
+         * Remove a file replaced by a later record.
+         *
+         * @param fileStatistics
+         *            the file statistics
+         */
+        void remove(FileStatistics fileStatistics) {
+            fileCount.decrement();
+            for (Metric metric : Metric.values()) {
+                sums.get(metric).add(-fileStatistics.get(metric));
+            }
+        }
+
+        /**
+         * Gets the directory.
+         *
+         * @return the directory
+         */
+        public String getDirectory() {
+            return directory;
+        }
+
+        /**
+         * Gets the file count.
+         *
+         * @return the file count
+         */
+        public long getFileCount() {
+            return fileCount.sum();
+        }
+
+        /**
+         * Gets the sum of a metric.
+         *
+         * @param metric
+         *            the metric
+         *
+         * @return the sum
+         */
+        public long get(Metric metric) {
+            return sums.get(metric).sum();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import com.googlecode.htmlcompressor.compressor.Compressor;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Enforces a per-file time budget on compression.
+ * <p>
+ * The regular expressions of the underlying compressor operate on plain strings and cannot observe interruption, so
+ * each file is compressed on a daemon worker thread. When the budget runs out the worker is interrupted and abandoned,
+ * and a fresh worker is used for the next file so that one runaway file cannot stall the remaining ones.
+ * <p>
+ * An abandoned worker cannot be stopped: it keeps its CPU until the compressor returns, and it keeps using the
+ * compressor. Compressors that are not thread-safe, such as the html compressor, must therefore not be used again after
+ * a timeout.
+ */
+public class CompressionWatchdog implements Closeable {
+
+    /** The timeout in milliseconds, 0 disables the watchdog. */
+    private final long timeout;
+
+    /** The fail on timeout. */
+    private final boolean failOnTimeout;
+
+    /** The timed out files. */
+    private final List<String> timedOutFiles = new ArrayList<>();
+
+    /** The executor. */
+    private ExecutorService executor;
+
+    /**
+     * Instantiates a new compression watchdog.
+     *
+     * @param timeout
+     *            the timeout in milliseconds, 0 or less disables the watchdog
+     * @param failOnTimeout
+     *            if true a timeout fails compression, otherwise the original content is returned
+     */
+    public CompressionWatchdog(long timeout, boolean failOnTimeout) {
+        this.timeout = timeout;
+        this.failOnTimeout = failOnTimeout;
+    }
+
+    /**
+     * Compress the content of a single file within the time budget.
+     *
+     * @param path
+     *            the path of the file, used for reporting
+     * @param content
+     *            the content
+     * @param compressor
+     *            the compressor
+     *
+     * @return the compressed content, or the original content if the budget ran out and failOnTimeout is false, in
+     *         which case the compressor may still be in use by the abandoned worker
+     *
+     * @throws IOException
+     *             if the budget ran out and failOnTimeout is true, or the calling thread was interrupted
+     */
+    public String compress(String path, String content, Compressor compressor) throws IOException {
+        if (timeout <= 0) {
+            return compressor.compress(content);
+        }
+
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "htmlcompressor-watchdog");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        Future<String> future = executor.submit(() -> compressor.compress(content));
+        try {
+            return future.get(timeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            executor.shutdownNow();
+            executor = null;
+            if (failOnTimeout) {
+                throw new IOException("Compression of " + path + " exceeded " + timeout + " ms", e);
+            }
+            timedOutFiles.add(path);
+            return content;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IOException("Compression of " + path + " failed", e.getCause());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Compression of " + path + " was interrupted");
+        }
+    }
+
+    /**
+     * Gets the files whose compression timed out and were copied through unchanged.
+     *
+     * @return the timed out files
+     */
+    public List<String> getTimedOutFiles() {
+        return timedOutFiles;
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+}
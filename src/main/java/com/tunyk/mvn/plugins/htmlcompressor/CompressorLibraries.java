@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import com.googlecode.htmlcompressor.compressor.Compressor;
+
+import java.util.Map;
+
+/**
+ * Creates the compressors backed by Closure, YUI and Rhino.
+ * <p>
+ * The instance returned by {@link #get()} lives in an {@link IsolatingClassLoader}, created on first use, so none of
+ * those libraries is loaded until a configuration really compresses JavaScript or CSS, and none of them is visible to
+ * the classes that use the plugin. Callers only see the {@link Compressor} and {@link BatchCompressor} interfaces.
+ */
+public interface CompressorLibraries {
+
+    /**
+     * Gets the compressor libraries, loading them on first use.
+     *
+     * @return the compressor libraries
+     */
+    static CompressorLibraries get() {
+        return IsolatingClassLoader.getLibraries();
+    }
+
+    /**
+     * Creates a yui JavaScript compressor.
+     *
+     * @param noMunge
+     *            the yui js no munge
+     * @param preserveAllSemiColons
+     *            the yui js preserve all semi colons
+     * @param lineBreak
+     *            the yui js line break
+     * @param disableOptimizations
+     *            the yui js disable optimizations
+     *
+     * @return the compressor
+     */
+    Compressor createYuiJavaScriptCompressor(boolean noMunge, boolean preserveAllSemiColons, int lineBreak,
+            boolean disableOptimizations);
+
+    /**
+     * Creates a yui CSS compressor.
+     *
+     * @param lineBreak
+     *            the yui css line break
+     *
+     * @return the compressor
+     */
+    Compressor createYuiCssCompressor(int lineBreak);
+
+    /**
+     * Creates a closure compressor.
+     *
+     * @param compilationLevel
+     *            the closure opt level, "simple", "advanced" or "whitespace"
+     * @param externs
+     *            the extern sources by name of advanced compilations, which replace the built-in externs
+     * @param batch
+     *            whether the compressor is a {@link BatchCompressor}, which advanced compilations never are
+     *
+     * @return the compressor
+     */
+    Compressor createClosureCompressor(String compilationLevel, Map<String, String> externs, boolean batch);
+
+    /**
+     * Gets the built-in browser externs of Closure.
+     *
+     * @return the extern sources by name
+     *
+     * @throws java.io.UncheckedIOException
+     *             if the externs could not be read
+     */
+    Map<String, String> getBuiltinExterns();
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Pool of compressor instances for callers on many threads.
+ * <p>
+ * Compressors are not thread-safe and costly to configure, so each one is used by a single caller at a time and kept
+ * for reuse afterwards. Callers never wait: when every pooled instance is busy a new one is created, and instances
+ * beyond the max idle count are dropped on release.
+ *
+ * @param <T>
+ *            the compressor type
+ */
+public class CompressorPool<T> {
+
+    /** The compressor factory. */
+    private final Supplier<? extends T> factory;
+
+    /** The idle compressors. */
+    private final BlockingQueue<T> idle;
+
+    /**
+     * Instantiates a new compressor pool.
+     *
+     * @param factory
+     *            the compressor factory
+     * @param maxIdle
+     *            the max number of idle compressors kept
+     */
+    public CompressorPool(Supplier<? extends T> factory, int maxIdle) {
+        this.factory = factory;
+        this.idle = new ArrayBlockingQueue<>(Math.max(1, maxIdle));
+    }
+
+    /**
+     * Borrow a compressor, which must be released after use.
+     *
+     * @return the compressor
+     */
+    public T borrow() {
+        T compressor = idle.poll();
+        return compressor != null ? compressor : factory.get();
+    }
+
+    /**
+     * Release a borrowed compressor.
+     *
+     * @param compressor
+     *            the compressor
+     */
+    public void release(T compressor) {
+        idle.offer(compressor);
+    }
+
+    /**
+     * Run some work with a pooled compressor. A compressor that failed is dropped rather than reused, as it may be left
+     * in an inconsistent state.
+     *
+     * @param <R>
+     *            the result type
+     * @param work
+     *            the work
+     *
+     * @return the result of the work
+     */
+    public <R> R apply(Function<? super T, R> work) {
+        T compressor = borrow();
+        R result = work.apply(compressor);
+        release(compressor);
+        return result;
+    }
+
+    /**
+     * Gets the number of idle compressors.
+     *
+     * @return the idle count
+     */
+    public int getIdleCount() {
+        return idle.size();
+    }
+}
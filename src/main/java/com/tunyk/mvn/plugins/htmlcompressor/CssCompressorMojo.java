@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import com.googlecode.htmlcompressor.compressor.Compressor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Supplier;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Compress standalone CSS files.
+ */
+@Mojo(name = "css", defaultPhase = LifecyclePhase.COMPILE, requiresProject = false, threadSafe = true)
+public class CssCompressorMojo extends AbstractMojo {
+
+    /** file extensions to be processed (default is css). */
+    @Parameter(property = "htmlcompressor.fileExtensions")
+    private String[] fileExtensions;
+
+    /** if false all compression is off (default is true). */
+    @Parameter(property = "htmlcompressor.enabled", defaultValue = "true")
+    private boolean enabled = true;
+
+    /** Skip run of plugin. */
+    @Parameter(defaultValue = "false", alias = "skip", property = "skip")
+    private boolean skip;
+
+    /**
+     * source folder where css files are located.
+     */
+    @Parameter(property = "htmlcompressor.srcFolder", defaultValue = "${project.basedir}/src/main/resources")
+    private String srcFolder = "src/main/resources";
+
+    /**
+     * target folder where compressed css files will be placed.
+     */
+    @Parameter(property = "htmlcompressor.targetFolder", defaultValue = "${project.build.directory}/classes")
+    private String targetFolder = "target/classes";
+
+    /** Charset encoding for files to read and create. */
+    @Parameter(property = "htmlcompressor.encoding", defaultValue = "UTF-8")
+    private String encoding = "UTF-8";
+
+    /** number of files compressed in parallel, 0 uses one thread per available processor (default is 0). */
+    @Parameter(property = "htmlcompressor.threads", defaultValue = "0")
+    private int threads;
+
+    /**
+     * Hard link files whose content duplicates an already written file instead of copying it, where the file system
+     * supports links.
+     */
+    @Parameter(property = "htmlcompressor.linkDuplicates", defaultValue = "false")
+    private boolean linkDuplicates;
+
+    /** --line-break param for Yahoo YUI Compressor. */
+    @Parameter(property = "htmlcompressor.yuiCssLineBreak", defaultValue = "-1")
+    private int yuiCssLineBreak = -1;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        // Check if plugin run should be skipped
+        if (this.skip) {
+            getLog().info("CssCompressor is skipped");
+            return;
+        }
+
+        if (!enabled) {
+            getLog().info("CSS compression was turned off.");
+            return;
+        }
+
+        if (!Files.exists(Path.of(srcFolder))) {
+            getLog().warn("Compressor folder does not exist, skipping compression of " + srcFolder);
+            return;
+        }
+
+        Supplier<Compressor> cssCompressorFactory = () -> CompressorLibraries.get()
+                .createYuiCssCompressor(yuiCssLineBreak);
+
+        getLog().info("Compressing " + srcFolder);
+        ResourceCompressor resourceCompressor = new ResourceCompressor(srcFolder, targetFolder,
+                fileExtensions == null || fileExtensions.length == 0 ? new String[] { "css" } : fileExtensions,
+                cssCompressorFactory);
+        resourceCompressor.setFileEncoding(Charset.forName(encoding));
+        resourceCompressor.setThreads(threads);
+        resourceCompressor.setLinkDuplicates(linkDuplicates);
+
+        int files;
+        try {
+            files = resourceCompressor.compress();
+        } catch (IOException | UncheckedIOException e) {
+            throw new MojoExecutionException(e.getMessage());
+        }
+
+        getLog().info("CSS compression completed for " + files + " files.");
+    }
+
+    /**
+     * Gets the file extensions.
+     *
+     * @return the file extensions
+     */
+    public String[] getFileExtensions() {
+        return fileExtensions;
+    }
+
+    /**
+     * Sets the file extensions.
+     *
+     * @param fileExtensions
+     *            the new file extensions
+     */
+    public void setFileExtensions(String[] fileExtensions) {
+        this.fileExtensions = fileExtensions;
+    }
+
+    /**
+     * Gets the enabled.
+     *
+     * @return the enabled
+     */
+    public Boolean getEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets the enabled.
+     *
+     * @param enabled
+     *            the new enabled
+     */
+    public void setEnabled(Boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets the src folder.
+     *
+     * @return the src folder
+     */
+    public String getSrcFolder() {
+        return srcFolder;
+    }
+
+    /**
+     * Sets the src folder.
+     *
+     * @param srcFolder
+     *            the new src folder
+     */
+    public void setSrcFolder(String srcFolder) {
+        this.srcFolder = srcFolder;
+    }
+
+    /**
+     * Gets the target folder.
+     *
+     * @return the target folder
+     */
+    public String getTargetFolder() {
+        return targetFolder;
+    }
+
+    /**
+     * Sets the target folder.
+     *
+     * @param targetFolder
+     *            the new target folder
+     */
+    public void setTargetFolder(String targetFolder) {
+        this.targetFolder = targetFolder;
+    }
+
+    /**
+     * Gets the encoding.
+     *
+     * @return the encoding
+     */
+    public String getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * Sets the encoding.
+     *
+     * @param encoding
+     *            the new encoding
+     */
+    public void setEncoding(String encoding) {
+        this.encoding = encoding;
+    }
+
+    /**
+     * Gets the threads.
+     *
+     * @return the threads
+     */
+    public Integer getThreads() {
+        return threads;
+    }
+
+    /**
+     * Sets the threads.
+     *
+     * @param threads
+     *            the new threads
+     */
+    public void setThreads(Integer threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Gets the link duplicates.
+     *
+     * @return the link duplicates
+     */
+    public Boolean getLinkDuplicates() {
+        return linkDuplicates;
+    }
+
+    /**
+     * Sets the link duplicates.
+     *
+     * @param linkDuplicates
+     *            the new link duplicates
+     */
+    public void setLinkDuplicates(Boolean linkDuplicates) {
+        this.linkDuplicates = linkDuplicates;
+    }
+
+    /**
+     * Gets the yui css line break.
+     *
+     * @return the yui css line break
+     */
+    public Integer getYuiCssLineBreak() {
+        return yuiCssLineBreak;
+    }
+
+    /**
+     * Sets the yui css line break.
+     *
+     * @param yuiCssLineBreak
+     *            the new yui css line break
+     */
+    public void setYuiCssLineBreak(Integer yuiCssLineBreak) {
+        this.yuiCssLineBreak = yuiCssLineBreak;
+    }
+}
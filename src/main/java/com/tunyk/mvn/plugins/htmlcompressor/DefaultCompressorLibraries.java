@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import com.google.javascript.jscomp.AbstractCommandLineRunner;
+import com.google.javascript.jscomp.CompilationLevel;
+import com.google.javascript.jscomp.CompilerOptions;
+import com.google.javascript.jscomp.SourceFile;
+import com.googlecode.htmlcompressor.compressor.ClosureJavaScriptCompressor;
+import com.googlecode.htmlcompressor.compressor.Compressor;
+import com.googlecode.htmlcompressor.compressor.YuiCssCompressor;
+import com.googlecode.htmlcompressor.compressor.YuiJavaScriptCompressor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * The compressor libraries, defined by the {@link IsolatingClassLoader} together with Closure, YUI and Rhino. It is
+ * public only so that the isolating class loader can instantiate it; use {@link CompressorLibraries#get()} instead.
+ */
+public class DefaultCompressorLibraries implements CompressorLibraries {
+
+    @Override
+    public Compressor createYuiJavaScriptCompressor(boolean noMunge, boolean preserveAllSemiColons, int lineBreak,
+            boolean disableOptimizations) {
+        YuiJavaScriptCompressor yuiCompressor = new YuiJavaScriptCompressor();
+        yuiCompressor.setNoMunge(noMunge);
+        yuiCompressor.setPreserveAllSemiColons(preserveAllSemiColons);
+        yuiCompressor.setLineBreak(lineBreak);
+        yuiCompressor.setDisableOptimizations(disableOptimizations);
+        return yuiCompressor;
+    }
+
+    @Override
+    public Compressor createYuiCssCompressor(int lineBreak) {
+        YuiCssCompressor yuiCssCompressor = new YuiCssCompressor();
+        yuiCssCompressor.setLineBreak(lineBreak);
+        return yuiCssCompressor;
+    }
+
+    @Override
+    public Compressor createClosureCompressor(String compilationLevel, Map<String, String> externs, boolean batch) {
+        ClosureJavaScriptCompressor closureCompressor = new ClosureJavaScriptCompressor();
+        if (ClosureJavaScriptCompressor.COMPILATION_LEVEL_ADVANCED.equalsIgnoreCase(compilationLevel)) {
+            closureCompressor.setCompilationLevel(CompilationLevel.ADVANCED_OPTIMIZATIONS);
+            closureCompressor.setCustomExternsOnly(true);
+            List<SourceFile> externFiles = new ArrayList<>();
+            for (Entry<String, String> extern : externs.entrySet()) {
+                externFiles.add(SourceFile.fromCode(extern.getKey(), extern.getValue()));
+            }
+            closureCompressor.setExterns(externFiles);
+        } else if (ClosureJavaScriptCompressor.COMPILATION_LEVEL_WHITESPACE.equalsIgnoreCase(compilationLevel)) {
+            closureCompressor.setCompilationLevel(CompilationLevel.WHITESPACE_ONLY);
+        } else {
+            closureCompressor.setCompilationLevel(CompilationLevel.SIMPLE_OPTIMIZATIONS);
+        }
+        if (batch && closureCompressor.getCompilationLevel() != CompilationLevel.ADVANCED_OPTIMIZATIONS) {
+            return new ClosureBatchCompressor(closureCompressor);
+        }
+        return closureCompressor;
+    }
+
+    @Override
+    public Map<String, String> getBuiltinExterns() {
+        Map<String, String> sources = new LinkedHashMap<>();
+        try {
+            for (SourceFile extern : AbstractCommandLineRunner.getBuiltinExterns(CompilerOptions.Environment.BROWSER)) {
+                sources.put(extern.getName(), extern.getCode());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return sources;
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for a file read or written by {@link FileTool}.
+ */
+@Name("com.tunyk.htmlcompressor.FileIo")
+@Label("File I/O")
+@Category("HTML Compressor")
+@Description("File read, written, copied or linked by the compressor")
+public class FileIoEvent extends Event {
+
+    /** The path. */
+    @Label("Path")
+    String path;
+
+    /** The operation, one of read, write, copy, link or sprite. */
+    @Label("Operation")
+    String operation;
+
+    /** The bytes. */
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    /**
+     * Commit the event if it is recorded.
+     *
+     * @param path
+     *            the path
+     * @param operation
+     *            the operation
+     * @param bytes
+     *            the bytes
+     */
+    void commit(Object path, String operation, long bytes) {
+        if (shouldCommit()) {
+            this.path = String.valueOf(path);
+            this.operation = operation;
+            this.bytes = bytes;
+            commit();
+        }
+    }
+}
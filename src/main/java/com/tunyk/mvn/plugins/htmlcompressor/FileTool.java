@@ -19,10 +19,16 @@
 package com.tunyk.mvn.plugins.htmlcompressor;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -52,6 +58,12 @@ public class FileTool {
     /** The file encoding. */
     private Charset fileEncoding;
 
+    /** The link duplicates. */
+    private boolean linkDuplicates;
+
+    /** The phase timer. */
+    private PhaseTimer phaseTimer = new PhaseTimer();
+
     /**
      * Instantiates a new file tool.
      *
@@ -81,28 +93,55 @@ public class FileTool {
      */
     public ConcurrentMap<String, String> getFiles() throws IOException {
         ConcurrentMap<String, String> map = new ConcurrentHashMap<>();
-        Path rootDir = Path.of(rootDirPath);
-        List<Path> paths;
-        try (Stream<Path> walk = Files.walk(rootDir)) {
-            paths = walk.map(Path::normalize).filter(Files::isRegularFile)
-                    .filter(path -> Arrays.stream(fileExtensions).anyMatch(path.getFileName().toString()::endsWith))
-                    .collect(Collectors.toList());
+        for (Entry<String, Path> entry : getFilePaths().entrySet()) {
+            try (PhaseTimer.Split split = phaseTimer.start(PhaseTimer.Phase.READ)) {
+                FileIoEvent event = new FileIoEvent();
+                event.begin();
+                byte[] bytes = Files.readAllBytes(entry.getValue());
+                event.commit(entry.getValue(), "read", bytes.length);
+                split.addSize(bytes.length);
+                map.put(entry.getKey(), decode(bytes));
+            }
         }
-        int truncationIndex = 0;
-        for (Path path : paths) {
-            String normalizedFilePath = path.toFile().getCanonicalPath().replace("\\", "/");
-            if (truncationIndex == 0) {
-                truncationIndex = normalizedFilePath.indexOf(rootDirPath) + rootDirPath.length() + 1;
+        return map;
+    }
+
+    /**
+     * Gets the file paths without reading their contents, for compressors that stream each file.
+     *
+     * @return the file paths keyed by their path relative to the root dir
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public Map<String, Path> getFilePaths() throws IOException {
+        Map<String, Path> map = new LinkedHashMap<>();
+        try (PhaseTimer.Split split = phaseTimer.start(PhaseTimer.Phase.SCAN)) {
+            Path rootDir = Path.of(rootDirPath);
+            List<Path> paths;
+            try (Stream<Path> walk = Files.walk(rootDir)) {
+                paths = walk.map(Path::normalize).filter(Files::isRegularFile)
+                        .filter(path -> Arrays.stream(fileExtensions).anyMatch(path.getFileName().toString()::endsWith))
+                        .collect(Collectors.toList());
+            }
+            int truncationIndex = 0;
+            for (Path path : paths) {
+                String normalizedFilePath = path.toFile().getCanonicalPath().replace("\\", "/");
+                if (truncationIndex == 0) {
+                    truncationIndex = normalizedFilePath.indexOf(rootDirPath) + rootDirPath.length() + 1;
+                }
+                map.put(normalizedFilePath.substring(truncationIndex), path);
             }
-            String key = normalizedFilePath.substring(truncationIndex);
-            String value = Files.readString(path, getFileEncoding());
-            map.put(key, value);
         }
         return map;
     }
 
     /**
      * Write files.
+     * <p>
+     * Entries sharing the same content instance, as produced by deduplicated compression, are encoded once; further
+     * copies are hard linked to the first written file when linkDuplicates is set and the file system supports it, or
+     * copied otherwise.
      *
      * @param map
      *            the map
@@ -113,13 +152,88 @@ public class FileTool {
      *             Signals that an I/O exception has occurred.
      */
     public void writeFiles(Map<String, String> map, String targetDir) throws IOException {
+        IdentityHashMap<String, Path> written = new IdentityHashMap<>();
         for (Entry<String, String> entry : map.entrySet()) {
-            Path path = Path.of(targetDir + '/' + entry.getKey());
-            Files.createDirectories(path.getParent());
-            Files.writeString(path, entry.getValue(), getFileEncoding());
+            try (PhaseTimer.Split split = phaseTimer.start(PhaseTimer.Phase.WRITE)) {
+                Path path = Path.of(targetDir + '/' + entry.getKey());
+                Files.createDirectories(path.getParent());
+                if (linkDuplicates) {
+                    // Never write through an existing hard link, it would change every file sharing it
+                    Files.deleteIfExists(path);
+                }
+                Path original = written.get(entry.getValue());
+                FileIoEvent event = new FileIoEvent();
+                event.begin();
+                if (original == null) {
+                    byte[] bytes = encode(entry.getValue());
+                    Files.write(path, bytes);
+                    event.commit(path, "write", bytes.length);
+                    split.addSize(bytes.length);
+                    written.put(entry.getValue(), path);
+                } else if (linkDuplicates && createLink(path, original)) {
+                    event.commit(path, "link", 0);
+                } else {
+                    Files.copy(original, path, StandardCopyOption.REPLACE_EXISTING);
+                    event.commit(path, "copy", 0);
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a hard link to an already written file.
+     *
+     * @param link
+     *            the link
+     * @param existing
+     *            the existing file
+     *
+     * @return true, if the link was created
+     */
+    private static boolean createLink(Path link, Path existing) {
+        try {
+            Files.createLink(link, existing);
+            return true;
+        } catch (UnsupportedOperationException | IOException e) {
+            return false;
         }
     }
 
+    /**
+     * Decode file contents, failing on malformed input rather than replacing it.
+     *
+     * @param bytes
+     *            the bytes
+     *
+     * @return the contents
+     *
+     * @throws IOException
+     *             Signals that the bytes are not valid in the file encoding.
+     */
+    private String decode(byte[] bytes) throws IOException {
+        return getFileEncoding().newDecoder().onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT).decode(ByteBuffer.wrap(bytes)).toString();
+    }
+
+    /**
+     * Encode file contents, failing on characters the file encoding cannot represent rather than replacing them.
+     *
+     * @param contents
+     *            the contents
+     *
+     * @return the bytes
+     *
+     * @throws IOException
+     *             Signals that the contents cannot be encoded in the file encoding.
+     */
+    private byte[] encode(String contents) throws IOException {
+        ByteBuffer buffer = getFileEncoding().newEncoder().onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT).encode(CharBuffer.wrap(contents));
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
     /**
      * Write to json file.
      *
@@ -139,19 +253,26 @@ public class FileTool {
             throws IOException, JSONException {
         String replacePattern = "%s";
         Path path = Path.of(targetFile);
-        JSONObject json = new JSONObject();
-        for (Entry<String, String> entry : map.entrySet()) {
-            json.put(entry.getKey(), entry.getValue());
-        }
-        if (integrationCode == null) {
-            integrationCode = replacePattern;
-        }
-        if (integrationCode.indexOf(replacePattern) == -1) {
-            integrationCode += replacePattern;
+        try (PhaseTimer.Split split = phaseTimer.start(PhaseTimer.Phase.SPRITE)) {
+            JSONObject json = new JSONObject();
+            for (Entry<String, String> entry : map.entrySet()) {
+                json.put(entry.getKey(), entry.getValue());
+            }
+            if (integrationCode == null) {
+                integrationCode = replacePattern;
+            }
+            if (integrationCode.indexOf(replacePattern) == -1) {
+                integrationCode += replacePattern;
+            }
+            String contents = integrationCode.replaceFirst(replacePattern, Matcher.quoteReplacement(json.toString()));
+            Files.createDirectories(path.getParent());
+            byte[] bytes = encode(contents);
+            FileIoEvent event = new FileIoEvent();
+            event.begin();
+            Files.write(path, bytes);
+            event.commit(path, "sprite", bytes.length);
+            split.addSize(bytes.length);
         }
-        String contents = integrationCode.replaceFirst(replacePattern, Matcher.quoteReplacement(json.toString()));
-        Files.createDirectories(path.getParent());
-        Files.writeString(path, contents, getFileEncoding());
     }
 
     /**
@@ -273,4 +394,42 @@ public class FileTool {
     public void setFileEncoding(Charset fileEncoding) {
         this.fileEncoding = fileEncoding == null ? Charset.defaultCharset() : fileEncoding;
     }
+
+    /**
+     * Checks if is link duplicates.
+     *
+     * @return true, if is link duplicates
+     */
+    public boolean isLinkDuplicates() {
+        return linkDuplicates;
+    }
+
+    /**
+     * Sets the link duplicates.
+     *
+     * @param linkDuplicates
+     *            the new link duplicates
+     */
+    public void setLinkDuplicates(boolean linkDuplicates) {
+        this.linkDuplicates = linkDuplicates;
+    }
+
+    /**
+     * Gets the phase timer.
+     *
+     * @return the phase timer
+     */
+    public PhaseTimer getPhaseTimer() {
+        return phaseTimer;
+    }
+
+    /**
+     * Sets the phase timer.
+     *
+     * @param phaseTimer
+     *            the new phase timer
+     */
+    public void setPhaseTimer(PhaseTimer phaseTimer) {
+        this.phaseTimer = phaseTimer;
+    }
 }
@@ -18,12 +18,20 @@
  */
 package com.tunyk.mvn.plugins.htmlcompressor;
 
+import com.googlecode.htmlcompressor.compressor.Compressor;
+
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
 
 /**
  * The Class HtmlCompressor.
@@ -54,9 +62,33 @@ public class HtmlCompressor {
     /** The json integration file path. */
     private String jsonIntegrationFilePath;
 
+    /** The maximum time in milliseconds to spend compressing a single file, 0 disables the limit. */
+    private long fileTimeout;
+
+    /** The fail on timeout. */
+    private boolean failOnTimeout = true;
+
+    /** The files whose compression timed out and were copied through unchanged. */
+    private List<String> timedOutFiles = new ArrayList<>();
+
+    /** The link duplicates. */
+    private boolean linkDuplicates;
+
+    /** The number of files whose content duplicated an already compressed file. */
+    private int duplicateFiles;
+
+    /** The phase timer. */
+    private PhaseTimer phaseTimer = new PhaseTimer();
+
+    /** The per-file statistics of the last run. */
+    private CompressionStatistics statistics = new CompressionStatistics();
+
     /** The html compressor. */
     private com.googlecode.htmlcompressor.compressor.HtmlCompressor htmlCompressor;
 
+    /** The html compressor factory, replacing the html compressor after a timeout. */
+    private Supplier<com.googlecode.htmlcompressor.compressor.HtmlCompressor> htmlCompressorFactory;
+
     /**
      * Instantiates a new html compressor.
      *
@@ -106,14 +138,94 @@ public class HtmlCompressor {
 
         FileTool fileTool = new FileTool(srcDirPath, fileExtensions, true);
         fileTool.setFileEncoding(fileEncoding);
+        fileTool.setLinkDuplicates(linkDuplicates);
+        fileTool.setPhaseTimer(phaseTimer);
         ConcurrentMap<String, String> map = fileTool.getFiles();
 
+        // A compressor abandoned after a timeout may still be running, so the next file needs a new one
+        Supplier<com.googlecode.htmlcompressor.compressor.HtmlCompressor> factory = htmlCompressorFactory;
+        if (factory == null && htmlCompressor == null) {
+            factory = com.googlecode.htmlcompressor.compressor.HtmlCompressor::new;
+        }
         if (htmlCompressor == null) {
-            htmlCompressor = new com.googlecode.htmlcompressor.compressor.HtmlCompressor();
+            htmlCompressor = factory.get();
+        }
+        List<BatchCompressor> batchCompressors = new ArrayList<>();
+        addBatchCompressor(batchCompressors);
+
+        // The sources by path, as the map values are replaced by the compressed contents
+        Map<String, String> sources = new HashMap<>(map);
+        Map<String, CompressionStatistics.FileStatistics> contentStatistics = new HashMap<>();
+        Map<String, CompressFileEvent> contentEvents = new HashMap<>();
+        try (CompressionWatchdog watchdog = new CompressionWatchdog(fileTimeout, failOnTimeout)) {
+            // Identical sources are compressed once and share the compressed instance
+            Map<String, String> compressedContents = new HashMap<>();
+            duplicateFiles = 0;
+            for (Entry<String, String> key : map.entrySet()) {
+                String compressed = compressedContents.get(key.getValue());
+                CacheEvent.lookup("duplicate-content", key.getKey(), compressed != null);
+                if (compressed == null) {
+                    com.googlecode.htmlcompressor.compressor.HtmlCompressor handler = htmlCompressor;
+                    int timedOut = watchdog.getTimedOutFiles().size();
+                    CompressFileEvent event = new CompressFileEvent();
+                    event.begin();
+                    long start = System.nanoTime();
+                    compressed = watchdog.compress(key.getKey(), key.getValue(), createTimedCompressor(handler));
+                    long time = System.nanoTime() - start;
+                    event.end();
+                    compressedContents.put(key.getValue(), compressed);
+                    boolean fileTimedOut = watchdog.getTimedOutFiles().size() > timedOut;
+                    contentStatistics.put(key.getValue(), handler.getStatistics() == null || fileTimedOut
+                            ? new CompressionStatistics.FileStatistics(key.getKey(), key.getValue().length(),
+                                    compressed.length(), time)
+                            : new CompressionStatistics.FileStatistics(key.getKey(), handler.getStatistics(), time));
+                    contentEvents.put(key.getValue(), event);
+                    if (fileTimedOut) {
+                        if (factory == null) {
+                            throw new IOException("Compression of " + key.getKey()
+                                    + " timed out and no html compressor factory is set to replace its compressor");
+                        }
+                        htmlCompressor = factory.get();
+                        addBatchCompressor(batchCompressors);
+                    }
+                } else {
+                    duplicateFiles++;
+                }
+                map.put(key.getKey(), compressed);
+            }
+            timedOutFiles = watchdog.getTimedOutFiles();
         }
 
+        if (!batchCompressors.isEmpty()) {
+            try (PhaseTimer.Split split = phaseTimer.start(PhaseTimer.Phase.COMPRESS)) {
+                for (BatchCompressor batchCompressor : batchCompressors) {
+                    batchCompressor.compile();
+                }
+            }
+        }
+
+        // Statistics and events are recorded once the batch placeholders are resolved, so they describe the written
+        // files. Each batch compressor only resolves its own placeholders.
+        statistics = new CompressionStatistics();
+        IdentityHashMap<String, String> resolvedContents = new IdentityHashMap<>();
         for (Entry<String, String> key : map.entrySet()) {
-            map.put(key.getKey(), htmlCompressor.compress(key.getValue()));
+            String source = sources.get(key.getKey());
+            String resolved = resolvedContents.get(key.getValue());
+            if (resolved == null) {
+                resolved = key.getValue();
+                for (BatchCompressor batchCompressor : batchCompressors) {
+                    resolved = batchCompressor.resolve(resolved);
+                }
+                resolvedContents.put(key.getValue(), resolved);
+                if (resolved.length() != key.getValue().length()) {
+                    contentStatistics.put(source, contentStatistics.get(source).withCompressedSize(resolved.length()));
+                }
+                contentEvents.get(source).commit(contentStatistics.get(source).getFile(), "html", source, resolved);
+            }
+            map.put(key.getKey(), resolved);
+            CompressionStatistics.FileStatistics fileStatistics = contentStatistics.get(source);
+            statistics.record(fileStatistics.getFile().equals(key.getKey()) ? fileStatistics
+                    : new CompressionStatistics.FileStatistics(key.getKey(), fileStatistics));
         }
 
         fileTool.writeFiles(map, targetDirPath);
@@ -124,6 +236,35 @@ public class HtmlCompressor {
         }
     }
 
+    /**
+     * Creates a compressor timing the given html compressor.
+     *
+     * @param handler
+     *            the html compressor
+     *
+     * @return the timed compressor
+     */
+    private Compressor createTimedCompressor(com.googlecode.htmlcompressor.compressor.HtmlCompressor handler) {
+        return content -> {
+            try (PhaseTimer.Split split = phaseTimer.start(PhaseTimer.Phase.COMPRESS)) {
+                split.addSize(content.length());
+                return handler.compress(content);
+            }
+        };
+    }
+
+    /**
+     * Add the batch compressor of the current html compressor, if it has one.
+     *
+     * @param batchCompressors
+     *            the batch compressors of this run
+     */
+    private void addBatchCompressor(List<BatchCompressor> batchCompressors) {
+        if (htmlCompressor.getJavaScriptCompressor() instanceof BatchCompressor) {
+            batchCompressors.add((BatchCompressor) htmlCompressor.getJavaScriptCompressor());
+        }
+    }
+
     /**
      * Gets the file extensions.
      *
@@ -275,4 +416,129 @@ public class HtmlCompressor {
     public void setHtmlCompressor(com.googlecode.htmlcompressor.compressor.HtmlCompressor htmlCompressor) {
         this.htmlCompressor = htmlCompressor;
     }
+
+    /**
+     * Gets the html compressor factory.
+     *
+     * @return the html compressor factory
+     */
+    public Supplier<com.googlecode.htmlcompressor.compressor.HtmlCompressor> getHtmlCompressorFactory() {
+        return htmlCompressorFactory;
+    }
+
+    /**
+     * Sets the html compressor factory. It creates the html compressor if none is set, and replaces it after a file
+     * timed out, as the abandoned compression cannot be stopped and may still be using it. Without a factory a timeout
+     * fails compression unless the default html compressor is used.
+     *
+     * @param htmlCompressorFactory
+     *            the new html compressor factory
+     */
+    public void setHtmlCompressorFactory(
+            Supplier<com.googlecode.htmlcompressor.compressor.HtmlCompressor> htmlCompressorFactory) {
+        this.htmlCompressorFactory = htmlCompressorFactory;
+    }
+
+    /**
+     * Gets the file timeout.
+     *
+     * @return the file timeout in milliseconds
+     */
+    public long getFileTimeout() {
+        return fileTimeout;
+    }
+
+    /**
+     * Sets the file timeout.
+     *
+     * @param fileTimeout
+     *            the new file timeout in milliseconds, 0 disables the limit
+     */
+    public void setFileTimeout(long fileTimeout) {
+        this.fileTimeout = fileTimeout;
+    }
+
+    /**
+     * Checks if is fail on timeout.
+     *
+     * @return true, if is fail on timeout
+     */
+    public boolean isFailOnTimeout() {
+        return failOnTimeout;
+    }
+
+    /**
+     * Sets the fail on timeout.
+     *
+     * @param failOnTimeout
+     *            the new fail on timeout
+     */
+    public void setFailOnTimeout(boolean failOnTimeout) {
+        this.failOnTimeout = failOnTimeout;
+    }
+
+    /**
+     * Gets the files whose compression timed out and were copied through unchanged.
+     *
+     * @return the timed out files
+     */
+    public List<String> getTimedOutFiles() {
+        return timedOutFiles;
+    }
+
+    /**
+     * Checks if is link duplicates.
+     *
+     * @return true, if is link duplicates
+     */
+    public boolean isLinkDuplicates() {
+        return linkDuplicates;
+    }
+
+    /**
+     * Sets the link duplicates.
+     *
+     * @param linkDuplicates
+     *            the new link duplicates
+     */
+    public void setLinkDuplicates(boolean linkDuplicates) {
+        this.linkDuplicates = linkDuplicates;
+    }
+
+    /**
+     * Gets the number of files whose content duplicated an already compressed file.
+     *
+     * @return the duplicate files
+     */
+    public int getDuplicateFiles() {
+        return duplicateFiles;
+    }
+
+    /**
+     * Gets the per-file statistics of the last run.
+     *
+     * @return the statistics
+     */
+    public CompressionStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Gets the phase timer.
+     *
+     * @return the phase timer
+     */
+    public PhaseTimer getPhaseTimer() {
+        return phaseTimer;
+    }
+
+    /**
+     * Sets the phase timer.
+     *
+     * @param phaseTimer
+     *            the new phase timer
+     */
+    public void setPhaseTimer(PhaseTimer phaseTimer) {
+        this.phaseTimer = phaseTimer;
+    }
 }
@@ -0,0 +1,296 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Command line entry point compressing HTML or XML outside of Maven.
+ * <p>
+ * Without arguments, or with {@code -}, standard input is compressed to standard output. With a source and a target
+ * directory, the matching files are compressed into the target keeping their relative paths. {@code --daemon} keeps a
+ * warm {@link CompressionDaemon} running, which {@code --connect} then uses for stream requests, compressing in-process
+ * when no daemon answers. A daemon started with other options refuses the request.
+ */
+public final class HtmlCompressorCli {
+
+    /** The exit code of a successful run. */
+    static final int EXIT_OK = 0;
+
+    /** The exit code of a failed run. */
+    static final int EXIT_FAILURE = 1;
+
+    /** The exit code of invalid arguments. */
+    static final int EXIT_USAGE = 2;
+
+    /** The usage. */
+    static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: htmlcompressor [options] [- | <source dir> <target dir>]",
+            "  --type=html|xml            content type (default html)",
+            "  --fileExtensions=a,b       extensions compressed in directory mode (default html,htm or xml)",
+            "  --daemon                   serve requests from a warm JVM until stopped",
+            "  --connect                  send the standard input to a running daemon",
+            "  --stop                     stop a running daemon",
+            "  --socket=<file>            daemon Unix domain socket, or file holding its TCP port and token",
+            "                             (default in a private directory of the temporary directory)",
+            "  --port=<port>              with --daemon, listen on a loopback TCP port, 0 for any free port",
+            "  --xmlRemoveComments=false  keep XML comments",
+            "  --xmlRemoveIntertagSpaces=false  keep spaces between XML tags",
+            "  --<name>[=<value>]         any html goal parameter, such as --removeIntertagSpaces",
+            "                             or --jsCompressor=closure; a bare name means true");
+
+    /**
+     * Prevent instantiation.
+     */
+    private HtmlCompressorCli() {
+        // Prevent instantiation
+    }
+
+    /**
+     * The main method.
+     *
+     * @param args
+     *            the arguments
+     */
+    public static void main(String[] args) {
+        System.exit(run(args, System.in, System.out, System.err));
+    }
+
+    /**
+     * Run the command line.
+     *
+     * @param args
+     *            the arguments
+     * @param in
+     *            the standard input
+     * @param out
+     *            the standard output
+     * @param err
+     *            the standard error
+     *
+     * @return the exit code
+     */
+    static int run(String[] args, InputStream in, PrintStream out, PrintStream err) {
+        CompressionOptions.Builder builder = CompressionOptions.builder();
+        List<String> paths = new ArrayList<>();
+        String type = "html";
+        String[] fileExtensions = null;
+        String mode = null;
+        Path socket = null;
+        int port = -1;
+        try {
+            for (String arg : args) {
+                if (!arg.startsWith("--")) {
+                    paths.add(arg);
+                    continue;
+                }
+                int equals = arg.indexOf('=');
+                String name = equals < 0 ? arg.substring(2) : arg.substring(2, equals);
+                String value = equals < 0 ? "true" : arg.substring(equals + 1);
+                switch (name) {
+                    case "help":
+                        out.println(USAGE);
+                        return EXIT_OK;
+                    case "type":
+                        type = value.toLowerCase(Locale.ROOT);
+                        if (!"html".equals(type) && !"xml".equals(type)) {
+                            throw new IllegalArgumentException("Unknown type: " + value);
+                        }
+                        break;
+                    case "fileExtensions":
+                        fileExtensions = value.split(",");
+                        break;
+                    case "daemon":
+                    case "connect":
+                    case "stop":
+                        if (mode != null) {
+                            throw new IllegalArgumentException("--" + mode + " and --" + name + " exclude each other");
+                        }
+                        mode = name;
+                        break;
+                    case "socket":
+                        socket = Path.of(value);
+                        break;
+                    case "port":
+                        port = Integer.parseInt(value);
+                        break;
+                    case "xmlRemoveComments":
+                        builder.xmlRemoveComments(Boolean.parseBoolean(value));
+                        break;
+                    case "xmlRemoveIntertagSpaces":
+                        builder.xmlRemoveIntertagSpaces(Boolean.parseBoolean(value));
+                        break;
+                    default:
+                        builder.html(name, value);
+                        break;
+                }
+            }
+            if (paths.size() > 2 || (paths.size() == 1 && !"-".equals(paths.get(0)))
+                    || (paths.size() == 2 && mode != null)) {
+                throw new IllegalArgumentException("Expected no path, - or a source and a target directory");
+            }
+            if (port >= 0 && !"daemon".equals(mode)) {
+                throw new IllegalArgumentException("--port only applies to --daemon, clients read it from --socket");
+            }
+            if (mode != null && socket == null) {
+                socket = CompressionDaemon.defaultEndpoint();
+            }
+            if ("stop".equals(mode)) {
+                CompressionDaemon.request(socket, "stop", null, new byte[0], out);
+                return EXIT_OK;
+            }
+            if ("connect".equals(mode)) {
+                byte[] content = in.readAllBytes();
+                CompressionOptions options = builder.build();
+                ByteArrayOutputStream result = new ByteArrayOutputStream();
+                try {
+                    CompressionDaemon.request(socket, type, options, content, result);
+                } catch (ConnectException e) {
+                    err.println("No daemon answered, compressing in-process: " + e.getMessage());
+                    return compressStream(new CompressionService(options, 1), type, content, out);
+                }
+                result.writeTo(out);
+                out.flush();
+                return EXIT_OK;
+            }
+            CompressionService service = new CompressionService(builder.build());
+            if ("daemon".equals(mode)) {
+                try (CompressionDaemon daemon = new CompressionDaemon(service, socket, port)) {
+                    err.println("Listening on " + daemon.getEndpoint());
+                    daemon.serve();
+                }
+                return EXIT_OK;
+            }
+            if (paths.size() == 2) {
+                if (fileExtensions == null) {
+                    fileExtensions = "xml".equals(type) ? new String[] { "xml" } : new String[] { "html", "htm" };
+                }
+                return compressDirectory(service, type, fileExtensions, Path.of(paths.get(0)), Path.of(paths.get(1)),
+                        out, err);
+            }
+            return compressStream(service, type, in.readAllBytes(), out);
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.println(USAGE);
+            return EXIT_USAGE;
+        } catch (IOException | UncheckedIOException | IllegalStateException e) {
+            err.println(e.getMessage());
+            return EXIT_FAILURE;
+        }
+    }
+
+    /**
+     * Compress content to the standard output.
+     *
+     * @param service
+     *            the compression service
+     * @param type
+     *            the type
+     * @param content
+     *            the content
+     * @param out
+     *            the standard output
+     *
+     * @return the exit code
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private static int compressStream(CompressionService service, String type, byte[] content, PrintStream out)
+            throws IOException {
+        out.write("xml".equals(type) ? service.compressXml(content) : service.compressHtml(content));
+        out.flush();
+        return EXIT_OK;
+    }
+
+    /**
+     * Compress the matching files of a directory into another.
+     *
+     * @param service
+     *            the compression service
+     * @param type
+     *            the type
+     * @param fileExtensions
+     *            the file extensions
+     * @param source
+     *            the source directory
+     * @param target
+     *            the target directory
+     * @param out
+     *            the standard output
+     * @param err
+     *            the standard error
+     *
+     * @return the exit code
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private static int compressDirectory(CompressionService service, String type, String[] fileExtensions, Path source,
+            Path target, PrintStream out, PrintStream err) throws IOException {
+        if (!Files.isDirectory(source)) {
+            throw new IllegalArgumentException("Not a directory: " + source);
+        }
+        List<String> suffixes = Arrays.stream(fileExtensions).map(String::trim)
+                .map(extension -> "." + extension.toLowerCase(Locale.ROOT)).collect(Collectors.toList());
+        List<Path> files;
+        try (Stream<Path> stream = Files.walk(source)) {
+            files = stream.filter(Files::isRegularFile).filter(path -> {
+                String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+                return suffixes.stream().anyMatch(name::endsWith);
+            }).collect(Collectors.toList());
+        }
+        AtomicLong inputBytes = new AtomicLong();
+        AtomicLong outputBytes = new AtomicLong();
+        AtomicLong failures = new AtomicLong();
+        files.parallelStream().forEach(file -> {
+            Path targetFile = target.resolve(source.relativize(file).toString());
+            try {
+                byte[] content = Files.readAllBytes(file);
+                byte[] result = "xml".equals(type) ? service.compressXml(content) : service.compressHtml(content);
+                Files.createDirectories(targetFile.getParent());
+                Files.write(targetFile, result);
+                inputBytes.addAndGet(content.length);
+                outputBytes.addAndGet(result.length);
+            } catch (IOException | RuntimeException e) {
+                failures.incrementAndGet();
+                synchronized (err) {
+                    err.println(file + ": " + e.getMessage());
+                }
+            }
+        });
+        out.println(String.format(Locale.ROOT, "Compressed %d files, %d to %d bytes", files.size() - failures.get(),
+                inputBytes.get(), outputBytes.get()));
+        return failures.get() == 0 ? EXIT_OK : EXIT_FAILURE;
+    }
+}
@@ -0,0 +1,1125 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import com.googlecode.htmlcompressor.compressor.HtmlCompressor;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Creates HTML compressors from the same settings as the html goal, so runtime integrations minify exactly as the build
+ * does.
+ * <p>
+ * Compressors are not safe to share between threads, so each caller gets its own instance. The preserve patterns and
+ * Closure externs are read and compiled once and shared by every instance.
+ */
+public class HtmlCompressorFactory implements Supplier<HtmlCompressor> {
+
+    /** The enabled. */
+    private boolean enabled = true;
+
+    /** The remove comments. */
+    private boolean removeComments = true;
+
+    /** The remove multi spaces. */
+    private boolean removeMultiSpaces = true;
+
+    /** The remove intertag spaces. */
+    private boolean removeIntertagSpaces;
+
+    /** The remove quotes. */
+    private boolean removeQuotes;
+
+    /** The simple doctype. */
+    private boolean simpleDoctype;
+
+    /** The remove script attributes. */
+    private boolean removeScriptAttributes;
+
+    /** The remove style attributes. */
+    private boolean removeStyleAttributes;
+
+    /** The remove link attributes. */
+    private boolean removeLinkAttributes;
+
+    /** The remove form attributes. */
+    private boolean removeFormAttributes;
+
+    /** The remove input attributes. */
+    private boolean removeInputAttributes;
+
+    /** The simple boolean attributes. */
+    private boolean simpleBooleanAttributes;
+
+    /** The remove java script protocol. */
+    private boolean removeJavaScriptProtocol;
+
+    /** The remove http protocol. */
+    private boolean removeHttpProtocol;
+
+    /** The remove https protocol. */
+    private boolean removeHttpsProtocol;
+
+    /** The compress css. */
+    private boolean compressCss;
+
+    /** The preserve line breaks. */
+    private boolean preserveLineBreaks;
+
+    /** The yui css line break. */
+    private int yuiCssLineBreak = -1;
+
+    /** The compress java script. */
+    private boolean compressJavaScript;
+
+    /** The js compressor, "yui" or "closure". */
+    private String jsCompressor = "yui";
+
+    /** The yui js no munge. */
+    private boolean yuiJsNoMunge;
+
+    /** The yui js preserve all semi colons. */
+    private boolean yuiJsPreserveAllSemiColons;
+
+    /** The yui js line break. */
+    private int yuiJsLineBreak = -1;
+
+    /** The yui js disable optimizations. */
+    private boolean yuiJsDisableOptimizations;
+
+    /** The closure opt level, "simple", "advanced" or "whitespace". */
+    private String closureOptLevel = "simple";
+
+    /** The closure custom externs only. */
+    private boolean closureCustomExternsOnly;
+
+    /** The closure externs. */
+    private String[] closureExterns;
+
+    /** Whether Closure compiles the scripts of all documents in one batch. */
+    private boolean closureBatch;
+
+    /** The generate statistics. */
+    private boolean generateStatistics;
+
+    /** The predefined preserve patterns and template languages. */
+    private String[] predefinedPreservePatterns;
+
+    /** The preserve patterns. */
+    private String[] preservePatterns;
+
+    /** The preserve pattern files. */
+    private File[] preservePatternFiles;
+
+    /** The encoding of the preserve pattern files. */
+    private String encoding = "UTF-8";
+
+    /** The resolved settings, created on first use and dropped on change. */
+    private Prepared prepared;
+
+    /**
+     * Creates a compressor.
+     *
+     * @return the compressor
+     *
+     * @throws UncheckedIOException
+     *             if a preserve pattern file or Closure extern could not be read
+     * @throws java.util.regex.PatternSyntaxException
+     *             if a preserve pattern is invalid
+     */
+    @Override
+    public HtmlCompressor get() {
+        Prepared resolved = prepare();
+        HtmlCompressor htmlCompressor = resolved.templateLanguages.isEmpty() ? new HtmlCompressor()
+                : new TemplateHtmlCompressor(resolved.templateLanguages);
+        htmlCompressor.setEnabled(enabled);
+        htmlCompressor.setRemoveComments(removeComments);
+        htmlCompressor.setRemoveMultiSpaces(removeMultiSpaces);
+        htmlCompressor.setRemoveIntertagSpaces(removeIntertagSpaces);
+        htmlCompressor.setRemoveQuotes(removeQuotes);
+        htmlCompressor.setSimpleDoctype(simpleDoctype);
+        htmlCompressor.setRemoveScriptAttributes(removeScriptAttributes);
+        htmlCompressor.setRemoveStyleAttributes(removeStyleAttributes);
+        htmlCompressor.setRemoveLinkAttributes(removeLinkAttributes);
+        htmlCompressor.setRemoveFormAttributes(removeFormAttributes);
+        htmlCompressor.setRemoveInputAttributes(removeInputAttributes);
+        htmlCompressor.setSimpleBooleanAttributes(simpleBooleanAttributes);
+        htmlCompressor.setRemoveJavaScriptProtocol(removeJavaScriptProtocol);
+        htmlCompressor.setRemoveHttpProtocol(removeHttpProtocol);
+        htmlCompressor.setRemoveHttpsProtocol(removeHttpsProtocol);
+        htmlCompressor.setCompressCss(compressCss);
+        htmlCompressor.setPreserveLineBreaks(preserveLineBreaks);
+        htmlCompressor.setYuiCssLineBreak(yuiCssLineBreak);
+        htmlCompressor.setCompressJavaScript(compressJavaScript);
+        htmlCompressor.setYuiJsNoMunge(yuiJsNoMunge);
+        htmlCompressor.setYuiJsPreserveAllSemiColons(yuiJsPreserveAllSemiColons);
+        htmlCompressor.setYuiJsLineBreak(yuiJsLineBreak);
+        htmlCompressor.setYuiJsDisableOptimizations(yuiJsDisableOptimizations);
+        htmlCompressor.setGenerateStatistics(generateStatistics);
+        // Compressors are always set, else HtmlCompressor would create YUI ones outside of the isolated libraries
+        if (compressJavaScript) {
+            htmlCompressor.setJavaScriptCompressor("closure".equalsIgnoreCase(jsCompressor)
+                    ? resolved.javaScriptCompressorFactory.createClosureCompressor(closureBatch)
+                    : resolved.javaScriptCompressorFactory.get());
+        }
+        if (compressCss) {
+            htmlCompressor.setCssCompressor(CompressorLibraries.get().createYuiCssCompressor(yuiCssLineBreak));
+        }
+        htmlCompressor.setPreservePatterns(new ArrayList<>(resolved.preservePatterns));
+        return htmlCompressor;
+    }
+
+    /**
+     * Creates a streaming minifier applying the comment, whitespace and line break settings. The predefined preserve
+     * patterns and template languages are mapped to preserve delimiters; regular expression preserve patterns need the
+     * whole page and are not applied.
+     *
+     * @param out
+     *            the writer receiving the minified content
+     *
+     * @return the streaming minifier
+     */
+    public StreamingHtmlMinifier createStreamingMinifier(Writer out) {
+        StreamingHtmlMinifier minifier = new StreamingHtmlMinifier(out);
+        minifier.setRemoveComments(removeComments);
+        minifier.setRemoveIntertagSpaces(removeIntertagSpaces);
+        minifier.setPreserveLineBreaks(preserveLineBreaks);
+        if (predefinedPreservePatterns != null) {
+            for (String pattern : predefinedPreservePatterns) {
+                if (pattern.equalsIgnoreCase("PHP_TAG_PATTERN")) {
+                    minifier.addPreserveDelimiters("<?php", "?>");
+                } else if (pattern.equalsIgnoreCase("SERVER_SCRIPT_TAG_PATTERN")
+                        || pattern.equalsIgnoreCase(TemplatePreserveTokenizer.Language.JSP.name())) {
+                    minifier.addPreserveDelimiters("<%", "%>");
+                }
+                if (pattern.equalsIgnoreCase(TemplatePreserveTokenizer.Language.JSP.name())) {
+                    minifier.addPreserveDelimiters("${", "}");
+                    minifier.addPreserveDelimiters("#{", "}");
+                } else if (pattern.equalsIgnoreCase(TemplatePreserveTokenizer.Language.VELOCITY.name())) {
+                    minifier.addPreserveDelimiters("#*", "*#");
+                    minifier.addPreserveDelimiters("#[[", "]]#");
+                } else if (pattern.equalsIgnoreCase(TemplatePreserveTokenizer.Language.THYMELEAF.name())) {
+                    minifier.addPreserveDelimiters("<!--/*", "*/-->");
+                    minifier.addPreserveDelimiters("[[", "]]");
+                    minifier.addPreserveDelimiters("[(", ")]");
+                }
+            }
+        }
+        return minifier;
+    }
+
+    /**
+     * Create a factory from string properties named like the html goal's parameters, such as the init parameters of a
+     * servlet filter. Lists are comma separated, except preservePatterns, which are separated by line breaks as regular
+     * expressions may contain commas. closureBatch cannot be enabled, as only the html goal compiles the collected
+     * scripts and resolves their placeholders.
+     *
+     * @param properties
+     *            the properties
+     *
+     * @return the factory
+     *
+     * @throws IllegalArgumentException
+     *             if a property is unknown or closureBatch is enabled
+     */
+    public static HtmlCompressorFactory fromProperties(Map<String, String> properties) {
+        HtmlCompressorFactory factory = new HtmlCompressorFactory();
+        for (Entry<String, String> property : properties.entrySet()) {
+            String value = property.getValue().trim();
+            switch (property.getKey()) {
+                case "enabled":
+                    factory.setEnabled(Boolean.parseBoolean(value));
+                    break;
+                case "removeComments":
+                    factory.setRemoveComments(Boolean.parseBoolean(value));
+                    break;
+                case "removeMultiSpaces":
+                    factory.setRemoveMultiSpaces(Boolean.parseBoolean(value));
+                    break;
+                case "removeIntertagSpaces":
+                    factory.setRemoveIntertagSpaces(Boolean.parseBoolean(value));
+                    break;
+                case "removeQuotes":
+                    factory.setRemoveQuotes(Boolean.parseBoolean(value));
+                    break;
+                case "simpleDoctype":
+                    factory.setSimpleDoctype(Boolean.parseBoolean(value));
+                    break;
+                case "removeScriptAttributes":
+                    factory.setRemoveScriptAttributes(Boolean.parseBoolean(value));
+                    break;
+                case "removeStyleAttributes":
+                    factory.setRemoveStyleAttributes(Boolean.parseBoolean(value));
+                    break;
+                case "removeLinkAttributes":
+                    factory.setRemoveLinkAttributes(Boolean.parseBoolean(value));
+                    break;
+                case "removeFormAttributes":
+                    factory.setRemoveFormAttributes(Boolean.parseBoolean(value));
+                    break;
+                case "removeInputAttributes":
+                    factory.setRemoveInputAttributes(Boolean.parseBoolean(value));
+                    break;
+                case "simpleBooleanAttributes":
+                    factory.setSimpleBooleanAttributes(Boolean.parseBoolean(value));
+                    break;
+                case "removeJavaScriptProtocol":
+                    factory.setRemoveJavaScriptProtocol(Boolean.parseBoolean(value));
+                    break;
+                case "removeHttpProtocol":
+                    factory.setRemoveHttpProtocol(Boolean.parseBoolean(value));
+                    break;
+                case "removeHttpsProtocol":
+                    factory.setRemoveHttpsProtocol(Boolean.parseBoolean(value));
+                    break;
+                case "compressCss":
+                    factory.setCompressCss(Boolean.parseBoolean(value));
+                    break;
+                case "preserveLineBreaks":
+                    factory.setPreserveLineBreaks(Boolean.parseBoolean(value));
+                    break;
+                case "yuiCssLineBreak":
+                    factory.setYuiCssLineBreak(Integer.parseInt(value));
+                    break;
+                case "compressJavaScript":
+                    factory.setCompressJavaScript(Boolean.parseBoolean(value));
+                    break;
+                case "jsCompressor":
+                    factory.setJsCompressor(value);
+                    break;
+                case "yuiJsNoMunge":
+                    factory.setYuiJsNoMunge(Boolean.parseBoolean(value));
+                    break;
+                case "yuiJsPreserveAllSemiColons":
+                    factory.setYuiJsPreserveAllSemiColons(Boolean.parseBoolean(value));
+                    break;
+                case "yuiJsLineBreak":
+                    factory.setYuiJsLineBreak(Integer.parseInt(value));
+                    break;
+                case "yuiJsDisableOptimizations":
+                    factory.setYuiJsDisableOptimizations(Boolean.parseBoolean(value));
+                    break;
+                case "closureOptLevel":
+                    factory.setClosureOptLevel(value);
+                    break;
+                case "closureCustomExternsOnly":
+                    factory.setClosureCustomExternsOnly(Boolean.parseBoolean(value));
+                    break;
+                case "closureExterns":
+                    factory.setClosureExterns(split(value, ","));
+                    break;
+                case "closureBatch":
+                    if (Boolean.parseBoolean(value)) {
+                        throw new IllegalArgumentException("closureBatch is only supported by the html goal");
+                    }
+                    break;
+                case "generateStatistics":
+                    factory.setGenerateStatistics(Boolean.parseBoolean(value));
+                    break;
+                case "predefinedPreservePatterns":
+                    factory.setPredefinedPreservePatterns(split(value, ","));
+                    break;
+                case "preservePatterns":
+                    factory.setPreservePatterns(split(value, "\\R"));
+                    break;
+                case "preservePatternFiles":
+                    String[] files = split(value, ",");
+                    File[] patternFiles = new File[files.length];
+                    for (int i = 0; i < files.length; i++) {
+                        patternFiles[i] = Path.of(files[i]).toFile();
+                    }
+                    factory.setPreservePatternFiles(patternFiles);
+                    break;
+                case "encoding":
+                    factory.setEncoding(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown html compressor setting " + property.getKey());
+            }
+        }
+        return factory;
+    }
+
+    /**
+     * Split a list, dropping blank items.
+     *
+     * @param value
+     *            the value
+     * @param separator
+     *            the separator pattern
+     *
+     * @return the items
+     */
+    private static String[] split(String value, String separator) {
+        return Pattern.compile(separator).splitAsStream(value).map(String::trim).filter(item -> !item.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    /**
+     * Resolve the template languages and compile the preserve patterns on first use.
+     *
+     * @return the resolved settings, which a concurrent change does not affect
+     */
+    private synchronized Prepared prepare() {
+        if (prepared != null) {
+            return prepared;
+        }
+        Set<TemplatePreserveTokenizer.Language> languages = EnumSet.noneOf(TemplatePreserveTokenizer.Language.class);
+        List<Pattern> patterns = new ArrayList<>();
+        if (predefinedPreservePatterns != null) {
+            for (String pattern : predefinedPreservePatterns) {
+                if (pattern.equalsIgnoreCase("PHP_TAG_PATTERN")) {
+                    patterns.add(HtmlCompressor.PHP_TAG_PATTERN);
+                } else if (pattern.equalsIgnoreCase("SERVER_SCRIPT_TAG_PATTERN")) {
+                    patterns.add(HtmlCompressor.SERVER_SCRIPT_TAG_PATTERN);
+                }
+                for (TemplatePreserveTokenizer.Language language : TemplatePreserveTokenizer.Language.values()) {
+                    if (pattern.equalsIgnoreCase(language.name())) {
+                        languages.add(language);
+                    }
+                }
+            }
+        }
+        if (preservePatterns != null) {
+            for (String preservePatternString : preservePatterns) {
+                if (!preservePatternString.isEmpty()) {
+                    patterns.add(Pattern.compile(preservePatternString));
+                }
+            }
+        }
+        if (preservePatternFiles != null) {
+            for (File file : preservePatternFiles) {
+                try {
+                    for (String line : Files.readAllLines(file.toPath(), Charset.forName(encoding))) {
+                        if (!line.isEmpty()) {
+                            patterns.add(Pattern.compile(line));
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+        JavaScriptCompressorFactory jsFactory = new JavaScriptCompressorFactory();
+        jsFactory.setJsCompressor(jsCompressor);
+        jsFactory.setYuiJsNoMunge(yuiJsNoMunge);
+        jsFactory.setYuiJsPreserveAllSemiColons(yuiJsPreserveAllSemiColons);
+        jsFactory.setYuiJsLineBreak(yuiJsLineBreak);
+        jsFactory.setYuiJsDisableOptimizations(yuiJsDisableOptimizations);
+        jsFactory.setClosureOptLevel(closureOptLevel);
+        jsFactory.setClosureCustomExternsOnly(closureCustomExternsOnly);
+        jsFactory.setClosureExterns(closureExterns);
+        prepared = new Prepared(Collections.unmodifiableSet(languages), Collections.unmodifiableList(patterns),
+                jsFactory);
+        return prepared;
+    }
+
+    /**
+     * Drop the resolved patterns and JavaScript settings after a change.
+     */
+    private synchronized void reset() {
+        prepared = null;
+    }
+
+    /**
+     * Checks if is enabled.
+     *
+     * @return true, if is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets the enabled.
+     *
+     * @param enabled
+     *            the new enabled
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Checks if is remove comments.
+     *
+     * @return true, if is remove comments
+     */
+    public boolean isRemoveComments() {
+        return removeComments;
+    }
+
+    /**
+     * Sets the remove comments.
+     *
+     * @param removeComments
+     *            the new remove comments
+     */
+    public void setRemoveComments(boolean removeComments) {
+        this.removeComments = removeComments;
+    }
+
+    /**
+     * Checks if is remove multi spaces.
+     *
+     * @return true, if is remove multi spaces
+     */
+    public boolean isRemoveMultiSpaces() {
+        return removeMultiSpaces;
+    }
+
+    /**
+     * Sets the remove multi spaces.
+     *
+     * @param removeMultiSpaces
+     *            the new remove multi spaces
+     */
+    public void setRemoveMultiSpaces(boolean removeMultiSpaces) {
+        this.removeMultiSpaces = removeMultiSpaces;
+    }
+
+    /**
+     * Checks if is remove intertag spaces.
+     *
+     * @return true, if is remove intertag spaces
+     */
+    public boolean isRemoveIntertagSpaces() {
+        return removeIntertagSpaces;
+    }
+
+    /**
+     * Sets the remove intertag spaces.
+     *
+     * @param removeIntertagSpaces
+     *            the new remove intertag spaces
+     */
+    public void setRemoveIntertagSpaces(boolean removeIntertagSpaces) {
+        this.removeIntertagSpaces = removeIntertagSpaces;
+    }
+
+    /**
+     * Checks if is remove quotes.
+     *
+     * @return true, if is remove quotes
+     */
+    public boolean isRemoveQuotes() {
+        return removeQuotes;
+    }
+
+    /**
+     * Sets the remove quotes.
+     *
+     * @param removeQuotes
+     *            the new remove quotes
+     */
+    public void setRemoveQuotes(boolean removeQuotes) {
+        this.removeQuotes = removeQuotes;
+    }
+
+    /**
+     * Checks if is simple doctype.
+     *
+     * @return true, if is simple doctype
+     */
+    public boolean isSimpleDoctype() {
+        return simpleDoctype;
+    }
+
+    /**
+     * Sets the simple doctype.
+     *
+     * @param simpleDoctype
+     *            the new simple doctype
+     */
+    public void setSimpleDoctype(boolean simpleDoctype) {
+        this.simpleDoctype = simpleDoctype;
+    }
+
+    /**
+     * Checks if is remove script attributes.
+     *
+     * @return true, if is remove script attributes
+     */
+    public boolean isRemoveScriptAttributes() {
+        return removeScriptAttributes;
+    }
+
+    /**
+     * Sets the remove script attributes.
+     *
+     * @param removeScriptAttributes
+     *            the new remove script attributes
+     */
+    public void setRemoveScriptAttributes(boolean removeScriptAttributes) {
+        this.removeScriptAttributes = removeScriptAttributes;
+    }
+
+    /**
+     * Checks if is remove style attributes.
+     *
+     * @return true, if is remove style attributes
+     */
+    public boolean isRemoveStyleAttributes() {
+        return removeStyleAttributes;
+    }
+
+    /**
+     * Sets the remove style attributes.
+     *
+     * @param removeStyleAttributes
+     *            the new remove style attributes
+     */
+    public void setRemoveStyleAttributes(boolean removeStyleAttributes) {
+        this.removeStyleAttributes = removeStyleAttributes;
+    }
+
+    /**
+     * Checks if is remove link attributes.
+     *
+     * @return true, if is remove link attributes
+     */
+    public boolean isRemoveLinkAttributes() {
+        return removeLinkAttributes;
+    }
+
+    /**
+     * Sets the remove link attributes.
+     *
+     * @param removeLinkAttributes
+     *            the new remove link attributes
+     */
+    public void setRemoveLinkAttributes(boolean removeLinkAttributes) {
+        this.removeLinkAttributes = removeLinkAttributes;
+    }
+
+    /**
+     * Checks if is remove form attributes.
+     *
+     * @return true, if is remove form attributes
+     */
+    public boolean isRemoveFormAttributes() {
+        return removeFormAttributes;
+    }
+
+    /**
+     * Sets the remove form attributes.
+     *
+     * @param removeFormAttributes
+     *            the new remove form attributes
+     */
+    public void setRemoveFormAttributes(boolean removeFormAttributes) {
+        this.removeFormAttributes = removeFormAttributes;
+    }
+
+    /**
+     * Checks if is remove input attributes.
+     *
+     * @return true, if is remove input attributes
+     */
+    public boolean isRemoveInputAttributes() {
+        return removeInputAttributes;
+    }
+
+    /**
+     * Sets the remove input attributes.
+     *
+     * @param removeInputAttributes
+     *            the new remove input attributes
+     */
+    public void setRemoveInputAttributes(boolean removeInputAttributes) {
+        this.removeInputAttributes = removeInputAttributes;
+    }
+
+    /**
+     * Checks if is simple boolean attributes.
+     *
+     * @return true, if is simple boolean attributes
+     */
+    public boolean isSimpleBooleanAttributes() {
+        return simpleBooleanAttributes;
+    }
+
+    /**
+     * Sets the simple boolean attributes.
+     *
+     * @param simpleBooleanAttributes
+     *            the new simple boolean attributes
+     */
+    public void setSimpleBooleanAttributes(boolean simpleBooleanAttributes) {
+        this.simpleBooleanAttributes = simpleBooleanAttributes;
+    }
+
+    /**
+     * Checks if is remove java script protocol.
+     *
+     * @return true, if is remove java script protocol
+     */
+    public boolean isRemoveJavaScriptProtocol() {
+        return removeJavaScriptProtocol;
+    }
+
+    /**
+     * Sets the remove java script protocol.
+     *
+     * @param removeJavaScriptProtocol
+     *            the new remove java script protocol
+     */
+    public void setRemoveJavaScriptProtocol(boolean removeJavaScriptProtocol) {
+        this.removeJavaScriptProtocol = removeJavaScriptProtocol;
+    }
+
+    /**
+     * Checks if is remove http protocol.
+     *
+     * @return true, if is remove http protocol
+     */
+    public boolean isRemoveHttpProtocol() {
+        return removeHttpProtocol;
+    }
+
+    /**
+     * Sets the remove http protocol.
+     *
+     * @param removeHttpProtocol
+     *            the new remove http protocol
+     */
+    public void setRemoveHttpProtocol(boolean removeHttpProtocol) {
+        this.removeHttpProtocol = removeHttpProtocol;
+    }
+
+    /**
+     * Checks if is remove https protocol.
+     *
+     * @return true, if is remove https protocol
+     */
+    public boolean isRemoveHttpsProtocol() {
+        return removeHttpsProtocol;
+    }
+
+    /**
+     * Sets the remove https protocol.
+     *
+     * @param removeHttpsProtocol
+     *            the new remove https protocol
+     */
+    public void setRemoveHttpsProtocol(boolean removeHttpsProtocol) {
+        this.removeHttpsProtocol = removeHttpsProtocol;
+    }
+
+    /**
+     * Checks if is compress css.
+     *
+     * @return true, if is compress css
+     */
+    public boolean isCompressCss() {
+        return compressCss;
+    }
+
+    /**
+     * Sets the compress css.
+     *
+     * @param compressCss
+     *            the new compress css
+     */
+    public void setCompressCss(boolean compressCss) {
+        this.compressCss = compressCss;
+    }
+
+    /**
+     * Checks if is preserve line breaks.
+     *
+     * @return true, if is preserve line breaks
+     */
+    public boolean isPreserveLineBreaks() {
+        return preserveLineBreaks;
+    }
+
+    /**
+     * Sets the preserve line breaks.
+     *
+     * @param preserveLineBreaks
+     *            the new preserve line breaks
+     */
+    public void setPreserveLineBreaks(boolean preserveLineBreaks) {
+        this.preserveLineBreaks = preserveLineBreaks;
+    }
+
+    /**
+     * Gets the yui css line break.
+     *
+     * @return the yui css line break
+     */
+    public int getYuiCssLineBreak() {
+        return yuiCssLineBreak;
+    }
+
+    /**
+     * Sets the yui css line break.
+     *
+     * @param yuiCssLineBreak
+     *            the new yui css line break
+     */
+    public void setYuiCssLineBreak(int yuiCssLineBreak) {
+        this.yuiCssLineBreak = yuiCssLineBreak;
+    }
+
+    /**
+     * Checks if is compress java script.
+     *
+     * @return true, if is compress java script
+     */
+    public boolean isCompressJavaScript() {
+        return compressJavaScript;
+    }
+
+    /**
+     * Sets the compress java script.
+     *
+     * @param compressJavaScript
+     *            the new compress java script
+     */
+    public void setCompressJavaScript(boolean compressJavaScript) {
+        this.compressJavaScript = compressJavaScript;
+    }
+
+    /**
+     * Gets the js compressor.
+     *
+     * @return the js compressor
+     */
+    public String getJsCompressor() {
+        return jsCompressor;
+    }
+
+    /**
+     * Sets the js compressor.
+     *
+     * @param jsCompressor
+     *            the new js compressor
+     */
+    public synchronized void setJsCompressor(String jsCompressor) {
+        this.jsCompressor = jsCompressor;
+        reset();
+    }
+
+    /**
+     * Checks if is yui js no munge.
+     *
+     * @return true, if is yui js no munge
+     */
+    public boolean isYuiJsNoMunge() {
+        return yuiJsNoMunge;
+    }
+
+    /**
+     * Sets the yui js no munge.
+     *
+     * @param yuiJsNoMunge
+     *            the new yui js no munge
+     */
+    public synchronized void setYuiJsNoMunge(boolean yuiJsNoMunge) {
+        this.yuiJsNoMunge = yuiJsNoMunge;
+        reset();
+    }
+
+    /**
+     * Checks if is yui js preserve all semi colons.
+     *
+     * @return true, if is yui js preserve all semi colons
+     */
+    public boolean isYuiJsPreserveAllSemiColons() {
+        return yuiJsPreserveAllSemiColons;
+    }
+
+    /**
+     * Sets the yui js preserve all semi colons.
+     *
+     * @param yuiJsPreserveAllSemiColons
+     *            the new yui js preserve all semi colons
+     */
+    public synchronized void setYuiJsPreserveAllSemiColons(boolean yuiJsPreserveAllSemiColons) {
+        this.yuiJsPreserveAllSemiColons = yuiJsPreserveAllSemiColons;
+        reset();
+    }
+
+    /**
+     * Gets the yui js line break.
+     *
+     * @return the yui js line break
+     */
+    public int getYuiJsLineBreak() {
+        return yuiJsLineBreak;
+    }
+
+    /**
+     * Sets the yui js line break.
+     *
+     * @param yuiJsLineBreak
+     *            the new yui js line break
+     */
+    public synchronized void setYuiJsLineBreak(int yuiJsLineBreak) {
+        this.yuiJsLineBreak = yuiJsLineBreak;
+        reset();
+    }
+
+    /**
+     * Checks if is yui js disable optimizations.
+     *
+     * @return true, if is yui js disable optimizations
+     */
+    public boolean isYuiJsDisableOptimizations() {
+        return yuiJsDisableOptimizations;
+    }
+
+    /**
+     * Sets the yui js disable optimizations.
+     *
+     * @param yuiJsDisableOptimizations
+     *            the new yui js disable optimizations
+     */
+    public synchronized void setYuiJsDisableOptimizations(boolean yuiJsDisableOptimizations) {
+        this.yuiJsDisableOptimizations = yuiJsDisableOptimizations;
+        reset();
+    }
+
+    /**
+     * Gets the closure opt level.
+     *
+     * @return the closure opt level
+     */
+    public String getClosureOptLevel() {
+        return closureOptLevel;
+    }
+
+    /**
+     * Sets the closure opt level.
+     *
+     * @param closureOptLevel
+     *            the new closure opt level
+     */
+    public synchronized void setClosureOptLevel(String closureOptLevel) {
+        this.closureOptLevel = closureOptLevel;
+        reset();
+    }
+
+    /**
+     * Checks if is closure custom externs only.
+     *
+     * @return true, if is closure custom externs only
+     */
+    public boolean isClosureCustomExternsOnly() {
+        return closureCustomExternsOnly;
+    }
+
+    /**
+     * Sets the closure custom externs only.
+     *
+     * @param closureCustomExternsOnly
+     *            the new closure custom externs only
+     */
+    public synchronized void setClosureCustomExternsOnly(boolean closureCustomExternsOnly) {
+        this.closureCustomExternsOnly = closureCustomExternsOnly;
+        reset();
+    }
+
+    /**
+     * Gets the closure externs.
+     *
+     * @return the closure externs
+     */
+    public String[] getClosureExterns() {
+        return closureExterns;
+    }
+
+    /**
+     * Sets the closure externs.
+     *
+     * @param closureExterns
+     *            the new closure externs
+     */
+    public synchronized void setClosureExterns(String[] closureExterns) {
+        this.closureExterns = closureExterns;
+        reset();
+    }
+
+    /**
+     * Checks if is closure batch.
+     *
+     * @return true, if is closure batch
+     */
+    public boolean isClosureBatch() {
+        return closureBatch;
+    }
+
+    /**
+     * Sets the closure batch.
+     *
+     * @param closureBatch
+     *            the new closure batch
+     */
+    public void setClosureBatch(boolean closureBatch) {
+        this.closureBatch = closureBatch;
+    }
+
+    /**
+     * Checks if is generate statistics.
+     *
+     * @return true, if is generate statistics
+     */
+    public boolean isGenerateStatistics() {
+        return generateStatistics;
+    }
+
+    /**
+     * Sets the generate statistics.
+     *
+     * @param generateStatistics
+     *            the new generate statistics
+     */
+    public void setGenerateStatistics(boolean generateStatistics) {
+        this.generateStatistics = generateStatistics;
+    }
+
+    /**
+     * Gets the predefined preserve patterns.
+     *
+     * @return the predefined preserve patterns
+     */
+    public String[] getPredefinedPreservePatterns() {
+        return predefinedPreservePatterns;
+    }
+
+    /**
+     * Sets the predefined preserve patterns.
+     *
+     * @param predefinedPreservePatterns
+     *            the new predefined preserve patterns
+     */
+    public synchronized void setPredefinedPreservePatterns(String[] predefinedPreservePatterns) {
+        this.predefinedPreservePatterns = predefinedPreservePatterns;
+        reset();
+    }
+
+    /**
+     * Gets the preserve patterns.
+     *
+     * @return the preserve patterns
+     */
+    public String[] getPreservePatterns() {
+        return preservePatterns;
+    }
+
+    /**
+     * Sets the preserve patterns.
+     *
+     * @param preservePatterns
+     *            the new preserve patterns
+     */
+    public synchronized void setPreservePatterns(String[] preservePatterns) {
+        this.preservePatterns = preservePatterns;
+        reset();
+    }
+
+    /**
+     * Gets the preserve pattern files.
+     *
+     * @return the preserve pattern files
+     */
+    public File[] getPreservePatternFiles() {
+        return preservePatternFiles;
+    }
+
+    /**
+     * Sets the preserve pattern files.
+     *
+     * @param preservePatternFiles
+     *            the new preserve pattern files
+     */
+    public synchronized void setPreservePatternFiles(File[] preservePatternFiles) {
+        this.preservePatternFiles = preservePatternFiles;
+        reset();
+    }
+
+    /**
+     * Gets the encoding.
+     *
+     * @return the encoding
+     */
+    public String getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * Sets the encoding.
+     *
+     * @param encoding
+     *            the new encoding
+     */
+    public synchronized void setEncoding(String encoding) {
+        this.encoding = encoding;
+        reset();
+    }
+
+    /**
+     * The settings resolved from the factory's configuration.
+     */
+    private static final class Prepared {
+
+        /** The template languages. */
+        private final Set<TemplatePreserveTokenizer.Language> templateLanguages;
+
+        /** The compiled preserve patterns. */
+        private final List<Pattern> preservePatterns;
+
+        /** The JavaScript compressor factory. */
+        private final JavaScriptCompressorFactory javaScriptCompressorFactory;
+
+        /**
+         * Instantiates new resolved settings.
+         *
+         * @param templateLanguages
+         *            the template languages
+         * @param preservePatterns
+         *            the compiled preserve patterns
+         * @param javaScriptCompressorFactory
+         *            the JavaScript compressor factory
+         */
+        private Prepared(Set<TemplatePreserveTokenizer.Language> templateLanguages, List<Pattern> preservePatterns,
+                JavaScriptCompressorFactory javaScriptCompressorFactory) {
+            this.templateLanguages = templateLanguages;
+            this.preservePatterns = preservePatterns;
+            this.javaScriptCompressorFactory = javaScriptCompressorFactory;
+        }
+    }
+}
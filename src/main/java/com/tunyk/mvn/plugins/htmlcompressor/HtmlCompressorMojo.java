@@ -18,21 +18,17 @@
  */
 package com.tunyk.mvn.plugins.htmlcompressor;
 
-import com.google.javascript.jscomp.CompilationLevel;
-import com.google.javascript.jscomp.SourceFile;
-import com.googlecode.htmlcompressor.compressor.ClosureJavaScriptCompressor;
 import com.googlecode.htmlcompressor.compressor.Compressor;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.regex.Pattern;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.PatternSyntaxException;
 
 import org.apache.maven.plugin.AbstractMojo;
@@ -51,6 +47,14 @@ public class HtmlCompressorMojo extends AbstractMojo {
     @Parameter(property = "htmlcompressor.htmlCompressionStatistics", defaultValue = "${project.build.directory}/htmlcompressor/html-compression-statistics.txt")
     private String htmlCompressionStatistics = "target/htmlcompressor/html-compression-statistics.txt";
 
+    /** file where per-file and per-directory statistics of html compression are stored as JSON. */
+    @Parameter(property = "htmlcompressor.htmlCompressionStatisticsJson", defaultValue = "${project.build.directory}/htmlcompressor/html-compression-statistics.json")
+    private String htmlCompressionStatisticsJson = "target/htmlcompressor/html-compression-statistics.json";
+
+    /** file where per-file and per-directory statistics of html compression are stored as CSV. */
+    @Parameter(property = "htmlcompressor.htmlCompressionStatisticsCsv", defaultValue = "${project.build.directory}/htmlcompressor/html-compression-statistics.csv")
+    private String htmlCompressionStatisticsCsv = "target/htmlcompressor/html-compression-statistics.csv";
+
     /**
      * file types to be processed.
      *
@@ -184,6 +188,8 @@ public class HtmlCompressorMojo extends AbstractMojo {
 
     /**
      * predefined patterns for most often used custom preservation rules: PHP_TAG_PATTERN and SERVER_SCRIPT_TAG_PATTERN.
+     * JSP, VELOCITY and THYMELEAF preserve the constructs of those template languages using a built-in tokenizer that
+     * finds them in a single scan.
      */
     @Parameter(property = "htmlcompressor.predefinedPreservePatterns")
     private String[] predefinedPreservePatterns;
@@ -248,6 +254,79 @@ public class HtmlCompressorMojo extends AbstractMojo {
     @Parameter(property = "htmlcompressor.closureExterns")
     private String[] closureExterns;
 
+    /**
+     * Compile the inline scripts of all files in a single Closure compilation instead of one compilation per script
+     * block. Only applies when jsCompressor is "closure" and closureOptLevel is not "advanced", whose renaming would
+     * treat the scripts of all pages as one program.
+     */
+    @Parameter(property = "htmlcompressor.closureBatch", defaultValue = "false")
+    private boolean closureBatch;
+
+    /**
+     * Hard link files whose content duplicates an already written file instead of copying it, where the file system
+     * supports links.
+     */
+    @Parameter(property = "htmlcompressor.linkDuplicates", defaultValue = "false")
+    private boolean linkDuplicates;
+
+    /**
+     * Maximum time in milliseconds to spend compressing a single file, 0 disables the limit.
+     */
+    @Parameter(property = "htmlcompressor.fileTimeout", defaultValue = "0")
+    private long fileTimeout;
+
+    /**
+     * If true a file exceeding fileTimeout fails the build, otherwise the original file is copied through unchanged.
+     */
+    @Parameter(property = "htmlcompressor.failOnTimeout", defaultValue = "true")
+    private boolean failOnTimeout = true;
+
+    /**
+     * OpenMetrics text file to write compression metrics to, for example in the node exporter textfile collector
+     * directory. No metrics are written if not set.
+     */
+    @Parameter(property = "htmlcompressor.metricsFile")
+    private String metricsFile;
+
+    /** number of slowest and most regressed files to report after each run, 0 disables the report (default is 10). */
+    @Parameter(property = "htmlcompressor.topFiles", defaultValue = "10")
+    private int topFiles = 10;
+
+    /** file keeping the per-file results of the last run, compared against by the next run. */
+    @Parameter(property = "htmlcompressor.lastRunFile", defaultValue = "${project.build.directory}/htmlcompressor/html-last-run.json")
+    private String lastRunFile = "target/htmlcompressor/html-last-run.json";
+
+    /** size and time budgets per glob, evaluated against the results of each file (see PerformanceBudget). */
+    @Parameter
+    private PerformanceBudget[] budgets;
+
+    /** if true a budget violation fails the build, otherwise it is logged as warning (default is true). */
+    @Parameter(property = "htmlcompressor.failOnBudget", defaultValue = "true")
+    private boolean failOnBudget = true;
+
+    /**
+     * append-only file recording the aggregate figures of each build for the trends goal, for example in a directory
+     * shared by all builds (default is none).
+     */
+    @Parameter(property = "htmlcompressor.historyFile")
+    private String historyFile;
+
+    /** the project the history is keyed by, as groupId:artifactId. */
+    @Parameter(defaultValue = "${project.groupId}:${project.artifactId}", readonly = true)
+    private String projectKey;
+
+    /** the project version the history is keyed by. */
+    @Parameter(defaultValue = "${project.version}", readonly = true)
+    private String projectVersion;
+
+    /** the commit the history is keyed by (default is the commit checked out in the project directory). */
+    @Parameter(property = "htmlcompressor.commit")
+    private String commit;
+
+    /** the project directory. */
+    @Parameter(defaultValue = "${project.basedir}", readonly = true)
+    private File baseDir;
+
     @Override
     public void execute() throws MojoExecutionException {
         // Check if plugin run should be skipped
@@ -269,157 +348,83 @@ public class HtmlCompressorMojo extends AbstractMojo {
         getLog().info("Compressing " + srcFolder);
         HtmlCompressor htmlCompressor = new HtmlCompressor(srcFolder, targetFolder);
 
-        // Deprecated
-        if (fileExt != null && fileExtensions == null) {
-            fileExtensions = fileExt;
-        }
+        fileExtensions = getConfiguredFileExtensions();
 
         htmlCompressor.setFileExtensions(fileExtensions);
         htmlCompressor.setFileEncoding(Charset.forName(encoding));
         htmlCompressor.setCreateJsonFile(javascriptHtmlSprite);
         htmlCompressor.setJsonIntegrationFilePath(javascriptHtmlSpriteIntegrationFile);
         htmlCompressor.setTargetJsonFilePath(javascriptHtmlSpriteTargetFile);
+        htmlCompressor.setFileTimeout(fileTimeout);
+        htmlCompressor.setFailOnTimeout(failOnTimeout);
+        htmlCompressor.setLinkDuplicates(linkDuplicates);
 
-        com.googlecode.htmlcompressor.compressor.HtmlCompressor htmlCompressorHandler = new com.googlecode.htmlcompressor.compressor.HtmlCompressor();
-        htmlCompressorHandler.setEnabled(enabled);
-        htmlCompressorHandler.setRemoveComments(removeComments);
-        htmlCompressorHandler.setRemoveMultiSpaces(removeMultiSpaces);
-        htmlCompressorHandler.setRemoveIntertagSpaces(removeIntertagSpaces);
-        htmlCompressorHandler.setRemoveQuotes(removeQuotes);
-        htmlCompressorHandler.setSimpleDoctype(simpleDoctype);
-        htmlCompressorHandler.setRemoveScriptAttributes(removeScriptAttributes);
-        htmlCompressorHandler.setRemoveStyleAttributes(removeStyleAttributes);
-        htmlCompressorHandler.setRemoveLinkAttributes(removeLinkAttributes);
-        htmlCompressorHandler.setRemoveFormAttributes(removeFormAttributes);
-        htmlCompressorHandler.setRemoveInputAttributes(removeInputAttributes);
-        htmlCompressorHandler.setSimpleBooleanAttributes(simpleBooleanAttributes);
-        htmlCompressorHandler.setRemoveJavaScriptProtocol(removeJavaScriptProtocol);
-        htmlCompressorHandler.setRemoveHttpProtocol(removeHttpProtocol);
-        htmlCompressorHandler.setRemoveHttpsProtocol(removeHttpsProtocol);
-        htmlCompressorHandler.setCompressCss(compressCss);
-        htmlCompressorHandler.setPreserveLineBreaks(preserveLineBreaks);
-        htmlCompressorHandler.setYuiCssLineBreak(yuiCssLineBreak);
-        htmlCompressorHandler.setCompressJavaScript(compressJavaScript);
-        htmlCompressorHandler.setYuiJsNoMunge(yuiJsNoMunge);
-        htmlCompressorHandler.setYuiJsPreserveAllSemiColons(yuiJsPreserveAllSemiColons);
-        htmlCompressorHandler.setYuiJsLineBreak(yuiJsLineBreak);
-        htmlCompressorHandler.setYuiJsDisableOptimizations(yuiJsDisableOptimizations);
-        htmlCompressorHandler.setGenerateStatistics(generateStatistics);
-
-        if (jsCompressor.equalsIgnoreCase("closure")) {
-            ClosureJavaScriptCompressor closureCompressor = new ClosureJavaScriptCompressor();
-            if (closureOptLevel != null
-                    && closureOptLevel.equalsIgnoreCase(ClosureJavaScriptCompressor.COMPILATION_LEVEL_ADVANCED)) {
-                closureCompressor.setCompilationLevel(CompilationLevel.ADVANCED_OPTIMIZATIONS);
-                closureCompressor.setCustomExternsOnly(closureCustomExternsOnly);
-                if (closureExterns.length > 0) {
-                    List<SourceFile> externs = new ArrayList<>();
-                    for (String externFile : closureExterns) {
-                        externs.add(SourceFile.fromFile(externFile));
-                    }
-                    closureCompressor.setExterns(externs);
-                }
-            } else if (closureOptLevel != null
-                    && closureOptLevel.equalsIgnoreCase(ClosureJavaScriptCompressor.COMPILATION_LEVEL_WHITESPACE)) {
-                closureCompressor.setCompilationLevel(CompilationLevel.WHITESPACE_ONLY);
-            } else {
-                closureCompressor.setCompilationLevel(CompilationLevel.SIMPLE_OPTIMIZATIONS);
-            }
-
-            htmlCompressorHandler.setJavaScriptCompressor(closureCompressor);
-        }
-
-        List<Pattern> preservePatternList = new ArrayList<>();
-        boolean phpTagPatternAdded = false;
-        boolean serverScriptTagPatternAdded = false;
-        if (predefinedPreservePatterns != null) {
-            for (String pattern : predefinedPreservePatterns) {
-                if (!phpTagPatternAdded && pattern.equalsIgnoreCase("PHP_TAG_PATTERN")) {
-                    preservePatternList.add(com.googlecode.htmlcompressor.compressor.HtmlCompressor.PHP_TAG_PATTERN);
-                    phpTagPatternAdded = true;
-                } else if (!serverScriptTagPatternAdded && pattern.equalsIgnoreCase("SERVER_SCRIPT_TAG_PATTERN")) {
-                    preservePatternList
-                            .add(com.googlecode.htmlcompressor.compressor.HtmlCompressor.SERVER_SCRIPT_TAG_PATTERN);
-                    serverScriptTagPatternAdded = true;
-                }
-            }
-        }
-        if (preservePatterns != null) {
-            for (String preservePatternString : preservePatterns) {
-                if (!preservePatternString.isEmpty()) {
-                    try {
-                        preservePatternList.add(Pattern.compile(preservePatternString));
-                    } catch (PatternSyntaxException e) {
-                        throw new MojoExecutionException(e.getMessage());
-                    }
-                }
-            }
-        }
-        if (preservePatternFiles != null) {
-            for (File file : preservePatternFiles) {
-                try {
-                    List<String> fileLines = Files.readAllLines(file.toPath(), Charset.forName(encoding));
-                    for (String line : fileLines) {
-                        if (!line.isEmpty()) {
-                            preservePatternList.add(Pattern.compile(line));
-                        }
-                    }
-                } catch (IOException | PatternSyntaxException e) {
-                    throw new MojoExecutionException(e.getMessage());
-                }
-            }
-        }
-        htmlCompressorHandler.setPreservePatterns(preservePatternList);
-        htmlCompressor.setHtmlCompressor(htmlCompressorHandler);
+        HtmlCompressorFactory htmlCompressorFactory = createHtmlCompressorFactory(closureBatch);
+        htmlCompressor.setHtmlCompressor(createHtmlCompressorHandler(htmlCompressorFactory));
+        htmlCompressor.setHtmlCompressorFactory(htmlCompressorFactory);
 
+        long start = System.nanoTime();
         try {
             htmlCompressor.compress();
         } catch (IOException e) {
             throw new MojoExecutionException(e.getMessage());
         }
-
+        long wallNanos = System.nanoTime() - start;
+        for (String file : htmlCompressor.getTimedOutFiles()) {
+            getLog().warn("Compression of " + file + " exceeded " + fileTimeout + " ms, copied original file");
+        }
+        if (htmlCompressor.getDuplicateFiles() > 0) {
+            getLog().info("Reused compressed output for " + htmlCompressor.getDuplicateFiles() + " duplicate files.");
+        }
+        RunReport runReport = new RunReport("html", getLog());
+        runReport.setMetricsFile(metricsFile);
+        runReport.setTopFiles(topFiles);
+        runReport.setLastRunFile(lastRunFile);
+        runReport.setHistory(historyFile, projectKey, projectVersion, commit,
+                baseDir != null ? baseDir.toPath() : null);
+        runReport.setBudgets(budgets, failOnBudget, Path.of(targetFolder));
+        runReport.report(htmlCompressor.getStatistics(), htmlCompressor.getPhaseTimer(),
+                htmlCompressor.getDuplicateFiles(), wallNanos);
         // The system of units (SI) as 1000 rather than 1024
         boolean systemOfUnits = true;
 
-        int origFilesizeBytes = -1;
-        try {
-            origFilesizeBytes = htmlCompressor.getHtmlCompressor().getStatistics().getOriginalMetrics().getFilesize();
-        } catch (NullPointerException e) {
+        if (!generateStatistics) {
+            getLog().info(htmlCompressor.getPhaseTimer().format());
+            getLog().info("HTML compression completed.");
+            return;
+        }
+
+        CompressionStatistics.Rollup total = htmlCompressor.getStatistics().getTotal();
+        if (total.getFileCount() == 0) {
             getLog().info("No files found to compress, HTML compression completed.");
             return;
         }
 
+        long origFilesizeBytes = total.get(CompressionStatistics.Metric.ORIGINAL_SIZE);
         String origFilesize = FileTool.humanReadableByteCount(origFilesizeBytes, systemOfUnits);
-        String origEmptyChars = String
-                .valueOf(htmlCompressor.getHtmlCompressor().getStatistics().getOriginalMetrics().getEmptyChars());
-        String origInlineEventSize = FileTool.humanReadableByteCount(
-                htmlCompressor.getHtmlCompressor().getStatistics().getOriginalMetrics().getInlineEventSize(),
-                systemOfUnits);
-        String origInlineScriptSize = FileTool.humanReadableByteCount(
-                htmlCompressor.getHtmlCompressor().getStatistics().getOriginalMetrics().getInlineScriptSize(),
-                systemOfUnits);
-        String origInlineStyleSize = FileTool.humanReadableByteCount(
-                htmlCompressor.getHtmlCompressor().getStatistics().getOriginalMetrics().getInlineStyleSize(),
-                systemOfUnits);
-
-        int compFilesizeBytes = htmlCompressor.getHtmlCompressor().getStatistics().getCompressedMetrics().getFilesize();
+        String origEmptyChars = String.valueOf(total.get(CompressionStatistics.Metric.ORIGINAL_EMPTY_CHARS));
+        String origInlineEventSize = FileTool
+                .humanReadableByteCount(total.get(CompressionStatistics.Metric.ORIGINAL_EVENT_SIZE), systemOfUnits);
+        String origInlineScriptSize = FileTool
+                .humanReadableByteCount(total.get(CompressionStatistics.Metric.ORIGINAL_SCRIPT_SIZE), systemOfUnits);
+        String origInlineStyleSize = FileTool
+                .humanReadableByteCount(total.get(CompressionStatistics.Metric.ORIGINAL_STYLE_SIZE), systemOfUnits);
+
+        long compFilesizeBytes = total.get(CompressionStatistics.Metric.COMPRESSED_SIZE);
         String compFilesize = FileTool.humanReadableByteCount(compFilesizeBytes, systemOfUnits);
-        String compEmptyChars = String
-                .valueOf(htmlCompressor.getHtmlCompressor().getStatistics().getCompressedMetrics().getEmptyChars());
-        String compInlineEventSize = FileTool.humanReadableByteCount(
-                htmlCompressor.getHtmlCompressor().getStatistics().getCompressedMetrics().getInlineEventSize(),
-                systemOfUnits);
-        String compInlineScriptSize = FileTool.humanReadableByteCount(
-                htmlCompressor.getHtmlCompressor().getStatistics().getCompressedMetrics().getInlineScriptSize(),
+        String compEmptyChars = String.valueOf(total.get(CompressionStatistics.Metric.COMPRESSED_EMPTY_CHARS));
+        String compInlineEventSize = FileTool
+                .humanReadableByteCount(total.get(CompressionStatistics.Metric.COMPRESSED_EVENT_SIZE), systemOfUnits);
+        String compInlineScriptSize = FileTool
+                .humanReadableByteCount(total.get(CompressionStatistics.Metric.COMPRESSED_SCRIPT_SIZE), systemOfUnits);
+        String compInlineStyleSize = FileTool
+                .humanReadableByteCount(total.get(CompressionStatistics.Metric.COMPRESSED_STYLE_SIZE), systemOfUnits);
+
+        String elapsedTime = FileTool
+                .getElapsedHMSTime(TimeUnit.NANOSECONDS.toMillis(total.get(CompressionStatistics.Metric.TIME_NANOS)));
+        String preservedSize = FileTool.humanReadableByteCount(total.get(CompressionStatistics.Metric.PRESERVED_SIZE),
                 systemOfUnits);
-        String compInlineStyleSize = FileTool.humanReadableByteCount(
-                htmlCompressor.getHtmlCompressor().getStatistics().getCompressedMetrics().getInlineStyleSize(),
-                systemOfUnits);
-
-        String elapsedTime = FileTool.getElapsedHMSTime(htmlCompressor.getHtmlCompressor().getStatistics().getTime());
-        String preservedSize = FileTool.humanReadableByteCount(
-                htmlCompressor.getHtmlCompressor().getStatistics().getPreservedSize(), systemOfUnits);
-        float compressionRatio = Float.valueOf(compFilesizeBytes) / Float.valueOf(origFilesizeBytes);
+        float compressionRatio = (float) compFilesizeBytes / (float) origFilesizeBytes;
         float spaceSavings = Float.valueOf(1) - compressionRatio;
 
         String format = "%-30s%-30s%-30s%-2s";
@@ -445,12 +450,21 @@ public class HtmlCompressorMojo extends AbstractMojo {
                         preservedSize, formatter.format(compressionRatio), formatter.format(spaceSavings * 100)),
                 "|")).append(eol);
         sb.append(hr).append(eol);
+        sb.append(htmlCompressor.getPhaseTimer().format());
 
         String statistics = sb.toString();
         getLog().info(statistics);
         try {
             Files.createDirectories(Path.of(htmlCompressionStatistics).getParent());
             Files.writeString(Path.of(htmlCompressionStatistics), statistics, Charset.forName(encoding));
+            if (htmlCompressionStatisticsJson != null && !htmlCompressionStatisticsJson.isEmpty()) {
+                htmlCompressor.getStatistics().writeJson(Path.of(htmlCompressionStatisticsJson),
+                        Charset.forName(encoding));
+            }
+            if (htmlCompressionStatisticsCsv != null && !htmlCompressionStatisticsCsv.isEmpty()) {
+                htmlCompressor.getStatistics().writeCsv(Path.of(htmlCompressionStatisticsCsv),
+                        Charset.forName(encoding));
+            }
         } catch (IOException e) {
             throw new MojoExecutionException(e.getMessage());
         }
@@ -458,6 +472,88 @@ public class HtmlCompressorMojo extends AbstractMojo {
         getLog().info("HTML compression completed.");
     }
 
+    /**
+     * Create the compressor configured by the plugin settings.
+     *
+     * @param batch
+     *            whether Closure compiles the scripts of all files in one batch
+     *
+     * @return the compressor
+     *
+     * @throws MojoExecutionException
+     *             the mojo execution exception
+     */
+    com.googlecode.htmlcompressor.compressor.HtmlCompressor createHtmlCompressorHandler(boolean batch)
+            throws MojoExecutionException {
+        return createHtmlCompressorHandler(createHtmlCompressorFactory(batch));
+    }
+
+    /**
+     * Create a compressor from the given factory.
+     *
+     * @param htmlCompressorFactory
+     *            the html compressor factory
+     *
+     * @return the compressor
+     *
+     * @throws MojoExecutionException
+     *             if a preserve pattern file or Closure extern could not be read, or a preserve pattern is invalid
+     */
+    private static com.googlecode.htmlcompressor.compressor.HtmlCompressor createHtmlCompressorHandler(
+            HtmlCompressorFactory htmlCompressorFactory) throws MojoExecutionException {
+        try {
+            return htmlCompressorFactory.get();
+        } catch (UncheckedIOException | PatternSyntaxException e) {
+            throw new MojoExecutionException(e.getMessage());
+        }
+    }
+
+    /**
+     * Create the compressor factory configured by the plugin settings.
+     *
+     * @param batch
+     *            whether Closure compiles the scripts of all files in one batch
+     *
+     * @return the compressor factory
+     */
+    HtmlCompressorFactory createHtmlCompressorFactory(boolean batch) {
+        HtmlCompressorFactory htmlCompressorFactory = new HtmlCompressorFactory();
+        htmlCompressorFactory.setEnabled(enabled);
+        htmlCompressorFactory.setRemoveComments(removeComments);
+        htmlCompressorFactory.setRemoveMultiSpaces(removeMultiSpaces);
+        htmlCompressorFactory.setRemoveIntertagSpaces(removeIntertagSpaces);
+        htmlCompressorFactory.setRemoveQuotes(removeQuotes);
+        htmlCompressorFactory.setSimpleDoctype(simpleDoctype);
+        htmlCompressorFactory.setRemoveScriptAttributes(removeScriptAttributes);
+        htmlCompressorFactory.setRemoveStyleAttributes(removeStyleAttributes);
+        htmlCompressorFactory.setRemoveLinkAttributes(removeLinkAttributes);
+        htmlCompressorFactory.setRemoveFormAttributes(removeFormAttributes);
+        htmlCompressorFactory.setRemoveInputAttributes(removeInputAttributes);
+        htmlCompressorFactory.setSimpleBooleanAttributes(simpleBooleanAttributes);
+        htmlCompressorFactory.setRemoveJavaScriptProtocol(removeJavaScriptProtocol);
+        htmlCompressorFactory.setRemoveHttpProtocol(removeHttpProtocol);
+        htmlCompressorFactory.setRemoveHttpsProtocol(removeHttpsProtocol);
+        htmlCompressorFactory.setCompressCss(compressCss);
+        htmlCompressorFactory.setPreserveLineBreaks(preserveLineBreaks);
+        htmlCompressorFactory.setYuiCssLineBreak(yuiCssLineBreak);
+        htmlCompressorFactory.setCompressJavaScript(compressJavaScript);
+        htmlCompressorFactory.setJsCompressor(jsCompressor);
+        htmlCompressorFactory.setYuiJsNoMunge(yuiJsNoMunge);
+        htmlCompressorFactory.setYuiJsPreserveAllSemiColons(yuiJsPreserveAllSemiColons);
+        htmlCompressorFactory.setYuiJsLineBreak(yuiJsLineBreak);
+        htmlCompressorFactory.setYuiJsDisableOptimizations(yuiJsDisableOptimizations);
+        htmlCompressorFactory.setClosureOptLevel(closureOptLevel);
+        htmlCompressorFactory.setClosureCustomExternsOnly(closureCustomExternsOnly);
+        htmlCompressorFactory.setClosureExterns(closureExterns);
+        htmlCompressorFactory.setClosureBatch(batch);
+        htmlCompressorFactory.setGenerateStatistics(generateStatistics);
+        htmlCompressorFactory.setPredefinedPreservePatterns(predefinedPreservePatterns);
+        htmlCompressorFactory.setPreservePatterns(preservePatterns);
+        htmlCompressorFactory.setPreservePatternFiles(preservePatternFiles);
+        htmlCompressorFactory.setEncoding(encoding);
+        return htmlCompressorFactory;
+    }
+
     /**
      * Gets the html compression statistics.
      *
@@ -477,6 +573,44 @@ public class HtmlCompressorMojo extends AbstractMojo {
         this.htmlCompressionStatistics = htmlCompressionStatistics;
     }
 
+    /**
+     * Gets the html compression statistics json.
+     *
+     * @return the html compression statistics json
+     */
+    public String getHtmlCompressionStatisticsJson() {
+        return htmlCompressionStatisticsJson;
+    }
+
+    /**
+     * Sets the html compression statistics json.
+     *
+     * @param htmlCompressionStatisticsJson
+     *            the new html compression statistics json
+     */
+    public void setHtmlCompressionStatisticsJson(String htmlCompressionStatisticsJson) {
+        this.htmlCompressionStatisticsJson = htmlCompressionStatisticsJson;
+    }
+
+    /**
+     * Gets the html compression statistics csv.
+     *
+     * @return the html compression statistics csv
+     */
+    public String getHtmlCompressionStatisticsCsv() {
+        return htmlCompressionStatisticsCsv;
+    }
+
+    /**
+     * Sets the html compression statistics csv.
+     *
+     * @param htmlCompressionStatisticsCsv
+     *            the new html compression statistics csv
+     */
+    public void setHtmlCompressionStatisticsCsv(String htmlCompressionStatisticsCsv) {
+        this.htmlCompressionStatisticsCsv = htmlCompressionStatisticsCsv;
+    }
+
     /**
      * Gets the file ext.
      *
@@ -511,6 +645,15 @@ public class HtmlCompressorMojo extends AbstractMojo {
         return fileExtensions;
     }
 
+    /**
+     * Gets the configured file extensions, falling back to the deprecated fileExt parameter.
+     *
+     * @return the file extensions, may be null
+     */
+    String[] getConfiguredFileExtensions() {
+        return fileExtensions == null ? fileExt : fileExtensions;
+    }
+
     /**
      * Sets the file ext.
      *
@@ -521,6 +664,25 @@ public class HtmlCompressorMojo extends AbstractMojo {
         this.fileExtensions = fileExtensions;
     }
 
+    /**
+     * Gets the skip.
+     *
+     * @return the skip
+     */
+    public Boolean getSkip() {
+        return skip;
+    }
+
+    /**
+     * Sets the skip.
+     *
+     * @param skip
+     *            the new skip
+     */
+    public void setSkip(Boolean skip) {
+        this.skip = skip;
+    }
+
     /**
      * Gets the enabled.
      *
@@ -1223,4 +1385,251 @@ public class HtmlCompressorMojo extends AbstractMojo {
     public void setClosureExterns(String[] closureExterns) {
         this.closureExterns = closureExterns;
     }
+
+    /**
+     * Gets the closure batch.
+     *
+     * @return the closure batch
+     */
+    public Boolean getClosureBatch() {
+        return closureBatch;
+    }
+
+    /**
+     * Sets the closure batch.
+     *
+     * @param closureBatch
+     *            the new closure batch
+     */
+    public void setClosureBatch(Boolean closureBatch) {
+        this.closureBatch = closureBatch;
+    }
+
+    /**
+     * Gets the link duplicates.
+     *
+     * @return the link duplicates
+     */
+    public Boolean getLinkDuplicates() {
+        return linkDuplicates;
+    }
+
+    /**
+     * Sets the link duplicates.
+     *
+     * @param linkDuplicates
+     *            the new link duplicates
+     */
+    public void setLinkDuplicates(Boolean linkDuplicates) {
+        this.linkDuplicates = linkDuplicates;
+    }
+
+    /**
+     * Gets the file timeout.
+     *
+     * @return the file timeout
+     */
+    public Long getFileTimeout() {
+        return fileTimeout;
+    }
+
+    /**
+     * Sets the file timeout.
+     *
+     * @param fileTimeout
+     *            the new file timeout
+     */
+    public void setFileTimeout(Long fileTimeout) {
+        this.fileTimeout = fileTimeout;
+    }
+
+    /**
+     * Gets the fail on timeout.
+     *
+     * @return the fail on timeout
+     */
+    public Boolean getFailOnTimeout() {
+        return failOnTimeout;
+    }
+
+    /**
+     * Sets the fail on timeout.
+     *
+     * @param failOnTimeout
+     *            the new fail on timeout
+     */
+    public void setFailOnTimeout(Boolean failOnTimeout) {
+        this.failOnTimeout = failOnTimeout;
+    }
+
+    /**
+     * Gets the metrics file.
+     *
+     * @return the metrics file
+     */
+    public String getMetricsFile() {
+        return metricsFile;
+    }
+
+    /**
+     * Sets the metrics file.
+     *
+     * @param metricsFile
+     *            the new metrics file
+     */
+    public void setMetricsFile(String metricsFile) {
+        this.metricsFile = metricsFile;
+    }
+
+    /**
+     * Gets the top files.
+     *
+     * @return the top files
+     */
+    public Integer getTopFiles() {
+        return topFiles;
+    }
+
+    /**
+     * Sets the top files.
+     *
+     * @param topFiles
+     *            the new top files
+     */
+    public void setTopFiles(Integer topFiles) {
+        this.topFiles = topFiles;
+    }
+
+    /**
+     * Gets the last run file.
+     *
+     * @return the last run file
+     */
+    public String getLastRunFile() {
+        return lastRunFile;
+    }
+
+    /**
+     * Sets the last run file.
+     *
+     * @param lastRunFile
+     *            the new last run file
+     */
+    public void setLastRunFile(String lastRunFile) {
+        this.lastRunFile = lastRunFile;
+    }
+
+    /**
+     * Gets the budgets.
+     *
+     * @return the budgets
+     */
+    public PerformanceBudget[] getBudgets() {
+        return budgets;
+    }
+
+    /**
+     * Sets the budgets.
+     *
+     * @param budgets
+     *            the new budgets
+     */
+    public void setBudgets(PerformanceBudget[] budgets) {
+        this.budgets = budgets;
+    }
+
+    /**
+     * Gets the fail on budget.
+     *
+     * @return the fail on budget
+     */
+    public Boolean getFailOnBudget() {
+        return failOnBudget;
+    }
+
+    /**
+     * Sets the fail on budget.
+     *
+     * @param failOnBudget
+     *            the new fail on budget
+     */
+    public void setFailOnBudget(Boolean failOnBudget) {
+        this.failOnBudget = failOnBudget;
+    }
+
+    /**
+     * Gets the history file.
+     *
+     * @return the history file
+     */
+    public String getHistoryFile() {
+        return historyFile;
+    }
+
+    /**
+     * Sets the history file.
+     *
+     * @param historyFile
+     *            the new history file
+     */
+    public void setHistoryFile(String historyFile) {
+        this.historyFile = historyFile;
+    }
+
+    /**
+     * Gets the project key.
+     *
+     * @return the project key
+     */
+    public String getProjectKey() {
+        return projectKey;
+    }
+
+    /**
+     * Sets the project key.
+     *
+     * @param projectKey
+     *            the new project key
+     */
+    public void setProjectKey(String projectKey) {
+        this.projectKey = projectKey;
+    }
+
+    /**
+     * Gets the project version.
+     *
+     * @return the project version
+     */
+    public String getProjectVersion() {
+        return projectVersion;
+    }
+
+    /**
+     * Sets the project version.
+     *
+     * @param projectVersion
+     *            the new project version
+     */
+    public void setProjectVersion(String projectVersion) {
+        this.projectVersion = projectVersion;
+    }
+
+    /**
+     * Gets the commit.
+     *
+     * @return the commit
+     */
+    public String getCommit() {
+        return commit;
+    }
+
+    /**
+     * Sets the commit.
+     *
+     * @param commit
+     *            the new commit
+     */
+    public void setCommit(String commit) {
+        this.commit = commit;
+    }
 }
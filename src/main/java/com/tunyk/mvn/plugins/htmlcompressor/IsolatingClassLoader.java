@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.security.CodeSigner;
+import java.security.CodeSource;
+import java.security.ProtectionDomain;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Defines Closure, YUI, Rhino and the classes of both libraries that use them in a class loader of their own.
+ * <p>
+ * These classes are loaded child first from the class files the parent finds, so they neither clash with other copies
+ * on the parent's class path, such as the Rhino that yuicompressor patches, nor leak to it. Every other class,
+ * including the {@link com.googlecode.htmlcompressor.compressor.Compressor} interfaces they are used through and the
+ * annotation libraries Closure depends on, comes from the parent. The loader is kept for the life of the JVM once
+ * created.
+ */
+final class IsolatingClassLoader extends ClassLoader {
+
+    static {
+        registerAsParallelCapable();
+    }
+
+    /** The Constant LIBRARIES_CLASS, named rather than referenced so that the parent never loads it. */
+    private static final String LIBRARIES_CLASS = "com.tunyk.mvn.plugins.htmlcompressor.DefaultCompressorLibraries";
+
+    /**
+     * The Constant ISOLATED_PACKAGES, those of the Closure, yuicompressor and Rhino jars. Closure shades its Guava and
+     * protobuf below com.google.javascript.
+     */
+    private static final List<String> ISOLATED_PACKAGES = List.of("com.google.debugging.", "com.google.javascript.",
+            "com.yahoo.platform.yui.", "org.mozilla.classfile.", "org.mozilla.javascript.");
+
+    /** The Constant ISOLATED_CLASSES, including their nested classes. */
+    private static final List<String> ISOLATED_CLASSES = List.of(
+            "com.googlecode.htmlcompressor.compressor.ClosureJavaScriptCompressor",
+            "com.googlecode.htmlcompressor.compressor.YuiCssCompressor",
+            "com.googlecode.htmlcompressor.compressor.YuiJavaScriptCompressor",
+            "com.tunyk.mvn.plugins.htmlcompressor.ClosureBatchCompressor", LIBRARIES_CLASS);
+
+    /** The protection domains by code source location. */
+    private final Map<String, ProtectionDomain> protectionDomains = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a new isolating class loader.
+     *
+     * @param parent
+     *            the parent class loader, which finds the isolated class files
+     */
+    IsolatingClassLoader(ClassLoader parent) {
+        super("htmlcompressor-libraries", parent);
+    }
+
+    /**
+     * Gets the compressor libraries, creating their class loader on first use.
+     *
+     * @return the compressor libraries
+     */
+    static CompressorLibraries getLibraries() {
+        return LibrariesHolder.LIBRARIES;
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        if (!isIsolated(name)) {
+            return super.loadClass(name, resolve);
+        }
+        synchronized (getClassLoadingLock(name)) {
+            Class<?> loadedClass = findLoadedClass(name);
+            if (loadedClass == null) {
+                loadedClass = findClass(name);
+            }
+            if (resolve) {
+                resolveClass(loadedClass);
+            }
+            return loadedClass;
+        }
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+        String path = name.replace('.', '/') + ".class";
+        URL url = getParent().getResource(path);
+        if (url == null) {
+            throw new ClassNotFoundException(name);
+        }
+        byte[] bytes;
+        try (InputStream in = url.openStream()) {
+            bytes = in.readAllBytes();
+        } catch (IOException e) {
+            throw new ClassNotFoundException(name, e);
+        }
+        return defineClass(name, bytes, 0, bytes.length, getProtectionDomain(url, path));
+    }
+
+    /**
+     * Gets the protection domain of the jar or directory a class file was found in.
+     *
+     * @param url
+     *            the url of the class file
+     * @param path
+     *            the path of the class file
+     *
+     * @return the protection domain
+     */
+    private ProtectionDomain getProtectionDomain(URL url, String path) {
+        String location = url.toExternalForm();
+        int separator = location.indexOf("!/");
+        if (location.startsWith("jar:") && separator > 0) {
+            location = location.substring(4, separator);
+        } else if (location.endsWith(path)) {
+            location = location.substring(0, location.length() - path.length());
+        }
+        return protectionDomains.computeIfAbsent(location, key -> {
+            CodeSource codeSource;
+            try {
+                codeSource = new CodeSource(new URL(key), (CodeSigner[]) null);
+            } catch (MalformedURLException e) {
+                codeSource = null;
+            }
+            return new ProtectionDomain(codeSource, null, this, null);
+        });
+    }
+
+    /**
+     * Checks if a class is defined by this class loader.
+     *
+     * @param name
+     *            the class name
+     *
+     * @return true, if isolated
+     */
+    private static boolean isIsolated(String name) {
+        for (String isolatedPackage : ISOLATED_PACKAGES) {
+            if (name.startsWith(isolatedPackage)) {
+                return true;
+            }
+        }
+        for (String isolatedClass : ISOLATED_CLASSES) {
+            if (name.startsWith(isolatedClass)
+                    && (name.length() == isolatedClass.length() || name.charAt(isolatedClass.length()) == '$')) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Holds the compressor libraries, so that the class loader is only created when they are first used.
+     */
+    private static final class LibrariesHolder {
+
+        /** The Constant LIBRARIES. */
+        private static final CompressorLibraries LIBRARIES = create();
+
+        /**
+         * Creates the compressor libraries in a new isolating class loader.
+         *
+         * @return the compressor libraries
+         */
+        private static CompressorLibraries create() {
+            IsolatingClassLoader classLoader = new IsolatingClassLoader(CompressorLibraries.class.getClassLoader());
+            try {
+                return Class.forName(LIBRARIES_CLASS, true, classLoader).asSubclass(CompressorLibraries.class)
+                        .getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Could not load the compressor libraries", e);
+            }
+        }
+    }
+}
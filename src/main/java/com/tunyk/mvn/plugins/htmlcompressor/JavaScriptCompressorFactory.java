@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import com.googlecode.htmlcompressor.compressor.Compressor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Creates JavaScript compressors from the plugin's yuiJs* and closure* settings.
+ * <p>
+ * Closure compressors are not safe to share between threads, so each caller gets its own instance. The externs of
+ * advanced compilations are read once and handed to every instance, instead of being loaded again for each script. The
+ * compressors come from {@link CompressorLibraries}, so Closure and YUI are only loaded once one is created.
+ */
+public class JavaScriptCompressorFactory implements Supplier<Compressor> {
+
+    /** The js compressor, "yui" or "closure". */
+    private String jsCompressor = "yui";
+
+    /** The yui js no munge. */
+    private boolean yuiJsNoMunge;
+
+    /** The yui js preserve all semi colons. */
+    private boolean yuiJsPreserveAllSemiColons;
+
+    /** The yui js line break. */
+    private int yuiJsLineBreak = -1;
+
+    /** The yui js disable optimizations. */
+    private boolean yuiJsDisableOptimizations;
+
+    /** The closure opt level, "simple", "advanced" or "whitespace". */
+    private String closureOptLevel = "simple";
+
+    /** The closure custom externs only. */
+    private boolean closureCustomExternsOnly;
+
+    /** The closure externs. */
+    private String[] closureExterns;
+
+    /** The extern sources by name, loaded on first use. */
+    private Map<String, String> externSources;
+
+    /**
+     * Creates a compressor.
+     *
+     * @return a closure compressor if jsCompressor is "closure", a yui compressor otherwise
+     */
+    @Override
+    public Compressor get() {
+        if ("closure".equalsIgnoreCase(jsCompressor)) {
+            return createClosureCompressor(false);
+        }
+        return CompressorLibraries.get().createYuiJavaScriptCompressor(yuiJsNoMunge, yuiJsPreserveAllSemiColons,
+                yuiJsLineBreak, yuiJsDisableOptimizations);
+    }
+
+    /**
+     * Creates a closure compressor.
+     *
+     * @param batch
+     *            whether the compressor optimizes the scripts of all documents in one batch
+     *
+     * @return the closure compressor, a {@link BatchCompressor} if batch is true
+     *
+     * @throws UncheckedIOException
+     *             if the externs could not be read
+     */
+    public Compressor createClosureCompressor(boolean batch) {
+        Map<String, String> externs = "advanced".equalsIgnoreCase(closureOptLevel) ? getExternSources()
+                : Collections.emptyMap();
+        return CompressorLibraries.get().createClosureCompressor(closureOptLevel, externs, batch);
+    }
+
+    /**
+     * Gets the extern sources, reading them on first use.
+     *
+     * @return the extern sources by name
+     */
+    private synchronized Map<String, String> getExternSources() {
+        if (externSources == null) {
+            Map<String, String> sources = new LinkedHashMap<>();
+            if (!closureCustomExternsOnly) {
+                sources.putAll(CompressorLibraries.get().getBuiltinExterns());
+            }
+            try {
+                if (closureExterns != null) {
+                    for (String externFile : closureExterns) {
+                        sources.put(externFile, Files.readString(Path.of(externFile)));
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            externSources = sources;
+        }
+        return externSources;
+    }
+
+    /**
+     * Gets the js compressor.
+     *
+     * @return the js compressor
+     */
+    public String getJsCompressor() {
+        return jsCompressor;
+    }
+
+    /**
+     * Sets the js compressor.
+     *
+     * @param jsCompressor
+     *            the new js compressor
+     */
+    public void setJsCompressor(String jsCompressor) {
+        this.jsCompressor = jsCompressor;
+    }
+
+    /**
+     * Checks if is yui js no munge.
+     *
+     * @return true, if is yui js no munge
+     */
+    public boolean isYuiJsNoMunge() {
+        return yuiJsNoMunge;
+    }
+
+    /**
+     * Sets the yui js no munge.
+     *
+     * @param yuiJsNoMunge
+     *            the new yui js no munge
+     */
+    public void setYuiJsNoMunge(boolean yuiJsNoMunge) {
+        this.yuiJsNoMunge = yuiJsNoMunge;
+    }
+
+    /**
+     * Checks if is yui js preserve all semi colons.
+     *
+     * @return true, if is yui js preserve all semi colons
+     */
+    public boolean isYuiJsPreserveAllSemiColons() {
+        return yuiJsPreserveAllSemiColons;
+    }
+
+    /**
+     * Sets the yui js preserve all semi colons.
+     *
+     * @param yuiJsPreserveAllSemiColons
+     *            the new yui js preserve all semi colons
+     */
+    public void setYuiJsPreserveAllSemiColons(boolean yuiJsPreserveAllSemiColons) {
+        this.yuiJsPreserveAllSemiColons = yuiJsPreserveAllSemiColons;
+    }
+
+    /**
+     * Gets the yui js line break.
+     *
+     * @return the yui js line break
+     */
+    public int getYuiJsLineBreak() {
+        return yuiJsLineBreak;
+    }
+
+    /**
+     * Sets the yui js line break.
+     *
+     * @param yuiJsLineBreak
+     *            the new yui js line break
+     */
+    public void setYuiJsLineBreak(int yuiJsLineBreak) {
+        this.yuiJsLineBreak = yuiJsLineBreak;
+    }
+
+    /**
+     * Checks if is yui js disable optimizations.
+     *
+     * @return true, if is yui js disable optimizations
+     */
+    public boolean isYuiJsDisableOptimizations() {
+        return yuiJsDisableOptimizations;
+    }
+
+    /**
+     * Sets the yui js disable optimizations.
+     *
+     * @param yuiJsDisableOptimizations
+     *            the new yui js disable optimizations
+     */
+    public void setYuiJsDisableOptimizations(boolean yuiJsDisableOptimizations) {
+        this.yuiJsDisableOptimizations = yuiJsDisableOptimizations;
+    }
+
+    /**
+     * Gets the closure opt level.
+     *
+     * @return the closure opt level
+     */
+    public String getClosureOptLevel() {
+        return closureOptLevel;
+    }
+
+    /**
+     * Sets the closure opt level.
+     *
+     * @param closureOptLevel
+     *            the new closure opt level
+     */
+    public void setClosureOptLevel(String closureOptLevel) {
+        this.closureOptLevel = closureOptLevel;
+    }
+
+    /**
+     * Checks if is closure custom externs only.
+     *
+     * @return true, if is closure custom externs only
+     */
+    public boolean isClosureCustomExternsOnly() {
+        return closureCustomExternsOnly;
+    }
+
+    /**
+     * Sets the closure custom externs only.
+     *
+     * @param closureCustomExternsOnly
+     *            the new closure custom externs only
+     */
+    public synchronized void setClosureCustomExternsOnly(boolean closureCustomExternsOnly) {
+        this.closureCustomExternsOnly = closureCustomExternsOnly;
+        this.externSources = null;
+    }
+
+    /**
+     * Gets the closure externs.
+     *
+     * @return the closure externs
+     */
+    public String[] getClosureExterns() {
+        return closureExterns;
+    }
+
+    /**
+     * Sets the closure externs.
+     *
+     * @param closureExterns
+     *            the new closure externs
+     */
+    public synchronized void setClosureExterns(String[] closureExterns) {
+        this.closureExterns = closureExterns;
+        this.externSources = null;
+    }
+}
@@ -0,0 +1,444 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Compress standalone JavaScript files.
+ */
+@Mojo(name = "js", defaultPhase = LifecyclePhase.COMPILE, requiresProject = false, threadSafe = true)
+public class JavaScriptCompressorMojo extends AbstractMojo {
+
+    /** file extensions to be processed (default is js). */
+    @Parameter(property = "htmlcompressor.fileExtensions")
+    private String[] fileExtensions;
+
+    /** if false all compression is off (default is true). */
+    @Parameter(property = "htmlcompressor.enabled", defaultValue = "true")
+    private boolean enabled = true;
+
+    /** Skip run of plugin. */
+    @Parameter(defaultValue = "false", alias = "skip", property = "skip")
+    private boolean skip;
+
+    /**
+     * source folder where javascript files are located.
+     */
+    @Parameter(property = "htmlcompressor.srcFolder", defaultValue = "${project.basedir}/src/main/resources")
+    private String srcFolder = "src/main/resources";
+
+    /**
+     * target folder where compressed javascript files will be placed.
+     */
+    @Parameter(property = "htmlcompressor.targetFolder", defaultValue = "${project.build.directory}/classes")
+    private String targetFolder = "target/classes";
+
+    /** Charset encoding for files to read and create. */
+    @Parameter(property = "htmlcompressor.encoding", defaultValue = "UTF-8")
+    private String encoding = "UTF-8";
+
+    /** number of files compressed in parallel, 0 uses one thread per available processor (default is 0). */
+    @Parameter(property = "htmlcompressor.threads", defaultValue = "0")
+    private int threads;
+
+    /**
+     * Hard link files whose content duplicates an already written file instead of copying it, where the file system
+     * supports links.
+     */
+    @Parameter(property = "htmlcompressor.linkDuplicates", defaultValue = "false")
+    private boolean linkDuplicates;
+
+    /** javascript compression: "yui" or "closure". */
+    @Parameter(property = "htmlcompressor.jsCompressor", defaultValue = "yui")
+    private String jsCompressor = "yui";
+
+    /** --nomunge param for Yahoo YUI Compressor. */
+    @Parameter(property = "htmlcompressor.yuiJsNoMunge", defaultValue = "false")
+    private boolean yuiJsNoMunge;
+
+    /** --preserve-semi param for Yahoo YUI Compressor. */
+    @Parameter(property = "htmlcompressor.yuiJsPreserveAllSemiColons", defaultValue = "false")
+    private boolean yuiJsPreserveAllSemiColons;
+
+    /** --line-break param for Yahoo YUI Compressor. */
+    @Parameter(property = "htmlcompressor.yuiJsLineBreak", defaultValue = "-1")
+    private int yuiJsLineBreak = -1;
+
+    /** --disable-optimizations param for Yahoo YUI Compressor. */
+    @Parameter(property = "htmlcompressor.yuiJsDisableOptimizations", defaultValue = "false")
+    private boolean yuiJsDisableOptimizations;
+
+    /** closureOptLevel = "simple", "advanced" or "whitespace". */
+    @Parameter(property = "htmlcompressor.closureOptLevel", defaultValue = "simple")
+    private String closureOptLevel = "simple";
+
+    /**
+     * Disable default built-in closure externs.
+     */
+    @Parameter(property = "htmlcompressor.closureCustomExternsOnly", defaultValue = "false")
+    private boolean closureCustomExternsOnly;
+
+    /**
+     * Sets custom closure externs file list.
+     */
+    @Parameter(property = "htmlcompressor.closureExterns")
+    private String[] closureExterns;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        // Check if plugin run should be skipped
+        if (this.skip) {
+            getLog().info("JavaScriptCompressor is skipped");
+            return;
+        }
+
+        if (!enabled) {
+            getLog().info("JavaScript compression was turned off.");
+            return;
+        }
+
+        if (!Files.exists(Path.of(srcFolder))) {
+            getLog().warn("Compressor folder does not exist, skipping compression of " + srcFolder);
+            return;
+        }
+
+        JavaScriptCompressorFactory javaScriptCompressorFactory = new JavaScriptCompressorFactory();
+        javaScriptCompressorFactory.setJsCompressor(jsCompressor);
+        javaScriptCompressorFactory.setYuiJsNoMunge(yuiJsNoMunge);
+        javaScriptCompressorFactory.setYuiJsPreserveAllSemiColons(yuiJsPreserveAllSemiColons);
+        javaScriptCompressorFactory.setYuiJsLineBreak(yuiJsLineBreak);
+        javaScriptCompressorFactory.setYuiJsDisableOptimizations(yuiJsDisableOptimizations);
+        javaScriptCompressorFactory.setClosureOptLevel(closureOptLevel);
+        javaScriptCompressorFactory.setClosureCustomExternsOnly(closureCustomExternsOnly);
+        javaScriptCompressorFactory.setClosureExterns(closureExterns);
+
+        getLog().info("Compressing " + srcFolder);
+        ResourceCompressor resourceCompressor = new ResourceCompressor(srcFolder, targetFolder,
+                fileExtensions == null || fileExtensions.length == 0 ? new String[] { "js" } : fileExtensions,
+                javaScriptCompressorFactory);
+        resourceCompressor.setFileEncoding(Charset.forName(encoding));
+        resourceCompressor.setThreads(threads);
+        resourceCompressor.setLinkDuplicates(linkDuplicates);
+
+        int files;
+        try {
+            files = resourceCompressor.compress();
+        } catch (IOException | UncheckedIOException e) {
+            throw new MojoExecutionException(e.getMessage());
+        }
+
+        getLog().info("JavaScript compression completed for " + files + " files.");
+    }
+
+    /**
+     * Gets the file extensions.
+     *
+     * @return the file extensions
+     */
+    public String[] getFileExtensions() {
+        return fileExtensions;
+    }
+
+    /**
+     * Sets the file extensions.
+     *
+     * @param fileExtensions
+     *            the new file extensions
+     */
+    public void setFileExtensions(String[] fileExtensions) {
+        this.fileExtensions = fileExtensions;
+    }
+
+    /**
+     * Gets the enabled.
+     *
+     * @return the enabled
+     */
+    public Boolean getEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets the enabled.
+     *
+     * @param enabled
+     *            the new enabled
+     */
+    public void setEnabled(Boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets the src folder.
+     *
+     * @return the src folder
+     */
+    public String getSrcFolder() {
+        return srcFolder;
+    }
+
+    /**
+     * Sets the src folder.
+     *
+     * @param srcFolder
+     *            the new src folder
+     */
+    public void setSrcFolder(String srcFolder) {
+        this.srcFolder = srcFolder;
+    }
+
+    /**
+     * Gets the target folder.
+     *
+     * @return the target folder
+     */
+    public String getTargetFolder() {
+        return targetFolder;
+    }
+
+    /**
+     * Sets the target folder.
+     *
+     * @param targetFolder
+     *            the new target folder
+     */
+    public void setTargetFolder(String targetFolder) {
+        this.targetFolder = targetFolder;
+    }
+
+    /**
+     * Gets the encoding.
+     *
+     * @return the encoding
+     */
+    public String getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * Sets the encoding.
+     *
+     * @param encoding
+     *            the new encoding
+     */
+    public void setEncoding(String encoding) {
+        this.encoding = encoding;
+    }
+
+    /**
+     * Gets the threads.
+     *
+     * @return the threads
+     */
+    public Integer getThreads() {
+        return threads;
+    }
+
+    /**
+     * Sets the threads.
+     *
+     * @param threads
+     *            the new threads
+     */
+    public void setThreads(Integer threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Gets the link duplicates.
+     *
+     * @return the link duplicates
+     */
+    public Boolean getLinkDuplicates() {
+        return linkDuplicates;
+    }
+
+    /**
+     * Sets the link duplicates.
+     *
+     * @param linkDuplicates
+     *            the new link duplicates
+     */
+    public void setLinkDuplicates(Boolean linkDuplicates) {
+        this.linkDuplicates = linkDuplicates;
+    }
+
+    /**
+     * Gets the js compressor.
+     *
+     * @return the js compressor
+     */
+    public String getJsCompressor() {
+        return jsCompressor;
+    }
+
+    /**
+     * Sets the js compressor.
+     *
+     * @param jsCompressor
+     *            the new js compressor
+     */
+    public void setJsCompressor(String jsCompressor) {
+        this.jsCompressor = jsCompressor;
+    }
+
+    /**
+     * Gets the yui js no munge.
+     *
+     * @return the yui js no munge
+     */
+    public Boolean getYuiJsNoMunge() {
+        return yuiJsNoMunge;
+    }
+
+    /**
+     * Sets the yui js no munge.
+     *
+     * @param yuiJsNoMunge
+     *            the new yui js no munge
+     */
+    public void setYuiJsNoMunge(Boolean yuiJsNoMunge) {
+        this.yuiJsNoMunge = yuiJsNoMunge;
+    }
+
+    /**
+     * Gets the yui js preserve all semi colons.
+     *
+     * @return the yui js preserve all semi colons
+     */
+    public Boolean getYuiJsPreserveAllSemiColons() {
+        return yuiJsPreserveAllSemiColons;
+    }
+
+    /**
+     * Sets the yui js preserve all semi colons.
+     *
+     * @param yuiJsPreserveAllSemiColons
+     *            the new yui js preserve all semi colons
+     */
+    public void setYuiJsPreserveAllSemiColons(Boolean yuiJsPreserveAllSemiColons) {
+        this.yuiJsPreserveAllSemiColons = yuiJsPreserveAllSemiColons;
+    }
+
+    /**
+     * Gets the yui js line break.
+     *
+     * @return the yui js line break
+     */
+    public Integer getYuiJsLineBreak() {
+        return yuiJsLineBreak;
+    }
+
+    /**
+     * Sets the yui js line break.
+     *
+     * @param yuiJsLineBreak
+     *            the new yui js line break
+     */
+    public void setYuiJsLineBreak(Integer yuiJsLineBreak) {
+        this.yuiJsLineBreak = yuiJsLineBreak;
+    }
+
+    /**
+     * Gets the yui js disable optimizations.
+     *
+     * @return the yui js disable optimizations
+     */
+    public Boolean getYuiJsDisableOptimizations() {
+        return yuiJsDisableOptimizations;
+    }
+
+    /**
+     * Sets the yui js disable optimizations.
+     *
+     * @param yuiJsDisableOptimizations
+     *            the new yui js disable optimizations
+     */
+    public void setYuiJsDisableOptimizations(Boolean yuiJsDisableOptimizations) {
+        this.yuiJsDisableOptimizations = yuiJsDisableOptimizations;
+    }
+
+    /**
+     * Gets the closure opt level.
+     *
+     * @return the closure opt level
+     */
+    public String getClosureOptLevel() {
+        return closureOptLevel;
+    }
+
+    /**
+     * Sets the closure opt level.
+     *
+     * @param closureOptLevel
+     *            the new closure opt level
+     */
+    public void setClosureOptLevel(String closureOptLevel) {
+        this.closureOptLevel = closureOptLevel;
+    }
+
+    /**
+     * Gets the closure custom externs only.
+     *
+     * @return the closure custom externs only
+     */
+    public Boolean getClosureCustomExternsOnly() {
+        return closureCustomExternsOnly;
+    }
+
+    /**
+     * Sets the closure custom externs only.
+     *
+     * @param closureCustomExternsOnly
+     *            the new closure custom externs only
+     */
+    public void setClosureCustomExternsOnly(Boolean closureCustomExternsOnly) {
+        this.closureCustomExternsOnly = closureCustomExternsOnly;
+    }
+
+    /**
+     * Gets the closure externs.
+     *
+     * @return the closure externs
+     */
+    public String[] getClosureExterns() {
+        return closureExterns;
+    }
+
+    /**
+     * Sets the closure externs.
+     *
+     * @param closureExterns
+     *            the new closure externs
+     */
+    public void setClosureExterns(String[] closureExterns) {
+        this.closureExterns = closureExterns;
+    }
+}
@@ -0,0 +1,324 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import java.io.FilterReader;
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map.Entry;
+
+/**
+ * The Class JsonCompressor.
+ */
+public class JsonCompressor {
+
+    /** The Constant FILE_EXT. */
+    private static final String[] FILE_EXT = { "json" };
+
+    /** The file extensions. */
+    private String[] fileExtensions;
+
+    /** The src dir path. */
+    private String srcDirPath;
+
+    /** The target dir path. */
+    private String targetDirPath;
+
+    /** The file encoding. */
+    private Charset fileEncoding;
+
+    /** The phase timer. */
+    private PhaseTimer phaseTimer = new PhaseTimer();
+
+    /** The per-file statistics of the last run. */
+    private CompressionStatistics statistics = new CompressionStatistics();
+
+    /** The json minifier. */
+    private JsonMinifier jsonMinifier;
+
+    /**
+     * Instantiates a new json compressor.
+     *
+     * @param srcDirPath
+     *            the src dir path
+     * @param targetDirPath
+     *            the target dir path
+     */
+    public JsonCompressor(String srcDirPath, String targetDirPath) {
+        this.srcDirPath = srcDirPath;
+        this.targetDirPath = targetDirPath;
+    }
+
+    /**
+     * Compress. Each file is streamed from source to a temporary file that then replaces the target, so only one buffer
+     * per file is held in memory and the source may be compressed in place. The statistics count the characters
+     * streamed, and the compress phase covers reading and writing as well.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public void compress() throws IOException {
+        if (fileExtensions == null || fileExtensions.length == 0) {
+            fileExtensions = FILE_EXT;
+        }
+
+        FileTool fileTool = new FileTool(srcDirPath, fileExtensions, true);
+        fileTool.setFileEncoding(fileEncoding);
+        fileTool.setPhaseTimer(phaseTimer);
+
+        if (jsonMinifier == null) {
+            jsonMinifier = new JsonMinifier();
+        }
+
+        statistics = new CompressionStatistics();
+        for (Entry<String, Path> entry : fileTool.getFilePaths().entrySet()) {
+            Path target = Path.of(targetDirPath + '/' + entry.getKey());
+            Files.createDirectories(target.getParent());
+            // The target may be the source itself, so it is only replaced once the source has been read
+            Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+            try {
+                CompressFileEvent event = new CompressFileEvent();
+                event.begin();
+                long start = System.nanoTime();
+                long originalSize;
+                long compressedSize;
+                try (PhaseTimer.Split split = phaseTimer.start(PhaseTimer.Phase.COMPRESS);
+                        CountingReader reader = new CountingReader(
+                                Files.newBufferedReader(entry.getValue(), fileTool.getFileEncoding()));
+                        CountingWriter writer = new CountingWriter(
+                                Files.newBufferedWriter(temp, fileTool.getFileEncoding()))) {
+                    jsonMinifier.minify(reader, writer);
+                    originalSize = reader.count;
+                    compressedSize = writer.count;
+                    split.addSize(originalSize);
+                }
+                long time = System.nanoTime() - start;
+                event.commit(entry.getKey(), "json", originalSize, compressedSize);
+                statistics.record(
+                        new CompressionStatistics.FileStatistics(entry.getKey(), originalSize, compressedSize, time));
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    /**
+     * Gets the file extensions.
+     *
+     * @return the file extensions
+     */
+    public String[] getFileExtensions() {
+        return fileExtensions;
+    }
+
+    /**
+     * Sets the file extensions.
+     *
+     * @param fileExtensions
+     *            the new file extensions
+     */
+    public void setFileExtensions(String[] fileExtensions) {
+        this.fileExtensions = fileExtensions;
+    }
+
+    /**
+     * Gets the src dir path.
+     *
+     * @return the src dir path
+     */
+    public String getSrcDirPath() {
+        return srcDirPath;
+    }
+
+    /**
+     * Sets the src dir path.
+     *
+     * @param srcDirPath
+     *            the new src dir path
+     */
+    public void setSrcDirPath(String srcDirPath) {
+        this.srcDirPath = srcDirPath;
+    }
+
+    /**
+     * Gets the target dir path.
+     *
+     * @return the target dir path
+     */
+    public String getTargetDirPath() {
+        return targetDirPath;
+    }
+
+    /**
+     * Sets the target dir path.
+     *
+     * @param targetDirPath
+     *            the new target dir path
+     */
+    public void setTargetDirPath(String targetDirPath) {
+        this.targetDirPath = targetDirPath;
+    }
+
+    /**
+     * Gets the file encoding.
+     *
+     * @return the file encoding
+     */
+    public Charset getFileEncoding() {
+        return fileEncoding;
+    }
+
+    /**
+     * Sets the file encoding.
+     *
+     * @param fileEncoding
+     *            the new file encoding
+     */
+    public void setFileEncoding(Charset fileEncoding) {
+        this.fileEncoding = fileEncoding == null ? Charset.defaultCharset() : fileEncoding;
+    }
+
+    /**
+     * Gets the phase timer.
+     *
+     * @return the phase timer
+     */
+    public PhaseTimer getPhaseTimer() {
+        return phaseTimer;
+    }
+
+    /**
+     * Sets the phase timer.
+     *
+     * @param phaseTimer
+     *            the new phase timer
+     */
+    public void setPhaseTimer(PhaseTimer phaseTimer) {
+        this.phaseTimer = phaseTimer;
+    }
+
+    /**
+     * Gets the per-file statistics of the last run.
+     *
+     * @return the statistics
+     */
+    public CompressionStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Gets the json minifier.
+     *
+     * @return the json minifier
+     */
+    public JsonMinifier getJsonMinifier() {
+        return jsonMinifier;
+    }
+
+    /**
+     * Sets the json minifier.
+     *
+     * @param jsonMinifier
+     *            the new json minifier
+     */
+    public void setJsonMinifier(JsonMinifier jsonMinifier) {
+        this.jsonMinifier = jsonMinifier;
+    }
+
+    /**
+     * Reader counting the characters read.
+     */
+    private static final class CountingReader extends FilterReader {
+
+        /** The characters read. */
+        private long count;
+
+        /**
+         * Instantiates a new counting reader.
+         *
+         * @param in
+         *            the reader
+         */
+        private CountingReader(Reader in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int c = super.read();
+            if (c >= 0) {
+                count++;
+            }
+            return c;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            int n = super.read(cbuf, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+
+    /**
+     * Writer counting the characters written.
+     */
+    private static final class CountingWriter extends FilterWriter {
+
+        /** The characters written. */
+        private long count;
+
+        /**
+         * Instantiates a new counting writer.
+         *
+         * @param out
+         *            the writer
+         */
+        private CountingWriter(Writer out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            super.write(c);
+            count++;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            super.write(cbuf, off, len);
+            count += len;
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            super.write(str, off, len);
+            count += len;
+        }
+    }
+}
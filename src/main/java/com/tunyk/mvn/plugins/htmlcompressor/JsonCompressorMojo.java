@@ -0,0 +1,419 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Compress JSON files.
+ */
+@Mojo(name = "json", defaultPhase = LifecyclePhase.COMPILE, requiresProject = false, threadSafe = true)
+public class JsonCompressorMojo extends AbstractMojo {
+
+    /** file extensions to be processed. */
+    @Parameter(property = "htmlcompressor.fileExtensions")
+    private String[] fileExtensions;
+
+    /** if false all compression is off (default is true). */
+    @Parameter(property = "htmlcompressor.enabled", defaultValue = "true")
+    private boolean enabled = true;
+
+    /** Skip run of plugin. */
+    @Parameter(defaultValue = "false", alias = "skip", property = "skip")
+    private boolean skip;
+
+    /**
+     * source folder where json files are located.
+     */
+    @Parameter(property = "htmlcompressor.srcFolder", defaultValue = "${project.basedir}/src/main/resources")
+    private String srcFolder = "src/main/resources";
+
+    /**
+     * target folder where compressed json files will be placed.
+     */
+    @Parameter(property = "htmlcompressor.targetFolder", defaultValue = "${project.build.directory}/classes")
+    private String targetFolder = "target/classes";
+
+    /** Charset encoding for files to read and create. */
+    @Parameter(property = "htmlcompressor.encoding", defaultValue = "UTF-8")
+    private String encoding = "UTF-8";
+
+    /**
+     * OpenMetrics text file to write compression metrics to, for example in the node exporter textfile collector
+     * directory. No metrics are written if not set.
+     */
+    @Parameter(property = "htmlcompressor.metricsFile")
+    private String metricsFile;
+
+    /** number of slowest and most regressed files to report after each run, 0 disables the report (default is 10). */
+    @Parameter(property = "htmlcompressor.topFiles", defaultValue = "10")
+    private int topFiles = 10;
+
+    /** file keeping the per-file results of the last run, compared against by the next run. */
+    @Parameter(property = "htmlcompressor.lastRunFile", defaultValue = "${project.build.directory}/htmlcompressor/json-last-run.json")
+    private String lastRunFile = "target/htmlcompressor/json-last-run.json";
+
+    /** size and time budgets per glob, evaluated against the results of each file (see PerformanceBudget). */
+    @Parameter
+    private PerformanceBudget[] budgets;
+
+    /** if true a budget violation fails the build, otherwise it is logged as warning (default is true). */
+    @Parameter(property = "htmlcompressor.failOnBudget", defaultValue = "true")
+    private boolean failOnBudget = true;
+
+    /**
+     * append-only file recording the aggregate figures of each build for the trends goal, for example in a directory
+     * shared by all builds (default is none).
+     */
+    @Parameter(property = "htmlcompressor.historyFile")
+    private String historyFile;
+
+    /** the project the history is keyed by, as groupId:artifactId. */
+    @Parameter(defaultValue = "${project.groupId}:${project.artifactId}", readonly = true)
+    private String projectKey;
+
+    /** the project version the history is keyed by. */
+    @Parameter(defaultValue = "${project.version}", readonly = true)
+    private String projectVersion;
+
+    /** the commit the history is keyed by (default is the commit checked out in the project directory). */
+    @Parameter(property = "htmlcompressor.commit")
+    private String commit;
+
+    /** the project directory. */
+    @Parameter(defaultValue = "${project.basedir}", readonly = true)
+    private File baseDir;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        // Check if plugin run should be skipped
+        if (this.skip) {
+            getLog().info("JSONCompressor is skipped");
+            return;
+        }
+
+        if (!enabled) {
+            getLog().info("JSON compression was turned off.");
+            return;
+        }
+
+        if (!Files.exists(Path.of(srcFolder))) {
+            getLog().warn("Compressor folder does not exist, skipping compression of " + srcFolder);
+            return;
+        }
+
+        getLog().info("Compressing " + srcFolder);
+        JsonCompressor jsonCompressor = new JsonCompressor(srcFolder, targetFolder);
+        jsonCompressor.setFileExtensions(fileExtensions);
+        jsonCompressor.setFileEncoding(Charset.forName(encoding));
+
+        long start = System.nanoTime();
+        try {
+            jsonCompressor.compress();
+        } catch (IOException e) {
+            throw new MojoExecutionException(e.getMessage());
+        }
+        long wallNanos = System.nanoTime() - start;
+        RunReport runReport = new RunReport("json", getLog());
+        runReport.setMetricsFile(metricsFile);
+        runReport.setTopFiles(topFiles);
+        runReport.setLastRunFile(lastRunFile);
+        runReport.setHistory(historyFile, projectKey, projectVersion, commit,
+                baseDir != null ? baseDir.toPath() : null);
+        runReport.setBudgets(budgets, failOnBudget, Path.of(targetFolder));
+        runReport.report(jsonCompressor.getStatistics(), jsonCompressor.getPhaseTimer(), 0, wallNanos);
+        getLog().info("JSON compression completed.");
+    }
+
+    /**
+     * Gets the file extensions.
+     *
+     * @return the file extensions
+     */
+    public String[] getFileExtensions() {
+        return fileExtensions;
+    }
+
+    /**
+     * Sets the file extensions.
+     *
+     * @param fileExtensions
+     *            the new file extensions
+     */
+    public void setFileExtensions(String[] fileExtensions) {
+        this.fileExtensions = fileExtensions;
+    }
+
+    /**
+     * Gets the enabled.
+     *
+     * @return the enabled
+     */
+    public Boolean getEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets the enabled.
+     *
+     * @param enabled
+     *            the new enabled
+     */
+    public void setEnabled(Boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets the src folder.
+     *
+     * @return the src folder
+     */
+    public String getSrcFolder() {
+        return srcFolder;
+    }
+
+    /**
+     * Sets the src folder.
+     *
+     * @param srcFolder
+     *            the new src folder
+     */
+    public void setSrcFolder(String srcFolder) {
+        this.srcFolder = srcFolder;
+    }
+
+    /**
+     * Gets the target folder.
+     *
+     * @return the target folder
+     */
+    public String getTargetFolder() {
+        return targetFolder;
+    }
+
+    /**
+     * Sets the target folder.
+     *
+     * @param targetFolder
+     *            the new target folder
+     */
+    public void setTargetFolder(String targetFolder) {
+        this.targetFolder = targetFolder;
+    }
+
+    /**
+     * Gets the encoding.
+     *
+     * @return the encoding
+     */
+    public String getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * Sets the encoding.
+     *
+     * @param encoding
+     *            the new encoding
+     */
+    public void setEncoding(String encoding) {
+        this.encoding = encoding;
+    }
+
+    /**
+     * Gets the metrics file.
+     *
+     * @return the metrics file
+     */
+    public String getMetricsFile() {
+        return metricsFile;
+    }
+
+    /**
+     * Sets the metrics file.
+     *
+     * @param metricsFile
+     *            the new metrics file
+     */
+    public void setMetricsFile(String metricsFile) {
+        this.metricsFile = metricsFile;
+    }
+
+    /**
+     * Gets the top files.
+     *
+     * @return the top files
+     */
+    public Integer getTopFiles() {
+        return topFiles;
+    }
+
+    /**
+     * Sets the top files.
+     *
+     * @param topFiles
+     *            the new top files
+     */
+    public void setTopFiles(Integer topFiles) {
+        this.topFiles = topFiles;
+    }
+
+    /**
+     * Gets the last run file.
+     *
+     * @return the last run file
+     */
+    public String getLastRunFile() {
+        return lastRunFile;
+    }
+
+    /**
+     * Sets the last run file.
+     *
+     * @param lastRunFile
+     *            the new last run file
+     */
+    public void setLastRunFile(String lastRunFile) {
+        this.lastRunFile = lastRunFile;
+    }
+
+    /**
+     * Gets the budgets.
+     *
+     * @return the budgets
+     */
+    public PerformanceBudget[] getBudgets() {
+        return budgets;
+    }
+
+    /**
+     * Sets the budgets.
+     *
+     * @param budgets
+     *            the new budgets
+     */
+    public void setBudgets(PerformanceBudget[] budgets) {
+        this.budgets = budgets;
+    }
+
+    /**
+     * Gets the fail on budget.
+     *
+     * @return the fail on budget
+     */
+    public Boolean getFailOnBudget() {
+        return failOnBudget;
+    }
+
+    /**
+     * Sets the fail on budget.
+     *
+     * @param failOnBudget
+     *            the new fail on budget
+     */
+    public void setFailOnBudget(Boolean failOnBudget) {
+        this.failOnBudget = failOnBudget;
+    }
+
+    /**
+     * Gets the history file.
+     *
+     * @return the history file
+     */
+    public String getHistoryFile() {
+        return historyFile;
+    }
+
+    /**
+     * Sets the history file.
+     *
+     * @param historyFile
+     *            the new history file
+     */
+    public void setHistoryFile(String historyFile) {
+        this.historyFile = historyFile;
+    }
+
+    /**
+     * Gets the project key.
+     *
+     * @return the project key
+     */
+    public String getProjectKey() {
+        return projectKey;
+    }
+
+    /**
+     * Sets the project key.
+     *
+     * @param projectKey
+     *            the new project key
+     */
+    public void setProjectKey(String projectKey) {
+        this.projectKey = projectKey;
+    }
+
+    /**
+     * Gets the project version.
+     *
+     * @return the project version
+     */
+    public String getProjectVersion() {
+        return projectVersion;
+    }
+
+    /**
+     * Sets the project version.
+     *
+     * @param projectVersion
+     *            the new project version
+     */
+    public void setProjectVersion(String projectVersion) {
+        this.projectVersion = projectVersion;
+    }
+
+    /**
+     * Gets the commit.
+     *
+     * @return the commit
+     */
+    public String getCommit() {
+        return commit;
+    }
+
+    /**
+     * Sets the commit.
+     *
+     * @param commit
+     *            the new commit
+     */
+    public void setCommit(String commit) {
+        this.commit = commit;
+    }
+}
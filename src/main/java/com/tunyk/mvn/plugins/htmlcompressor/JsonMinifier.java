@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import com.googlecode.htmlcompressor.compressor.Compressor;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/**
+ * Removes insignificant whitespace from JSON documents.
+ * <p>
+ * The document is tokenized as a character stream through a fixed size buffer, tracking only whether the current
+ * position is inside a string literal, so memory use does not depend on the size of the document. The input is not
+ * validated; whitespace outside string literals is dropped and everything else is copied unchanged.
+ */
+public class JsonMinifier implements Compressor {
+
+    /** The Constant BUFFER_SIZE. */
+    private static final int BUFFER_SIZE = 8192;
+
+    @Override
+    public String compress(String source) {
+        StringWriter writer = new StringWriter(source.length());
+        try {
+            minify(new StringReader(source), writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString();
+    }
+
+    /**
+     * Minify a JSON document from a reader to a writer.
+     *
+     * @param reader
+     *            the reader
+     * @param writer
+     *            the writer
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public void minify(Reader reader, Writer writer) throws IOException {
+        char[] in = new char[BUFFER_SIZE];
+        char[] out = new char[BUFFER_SIZE];
+        boolean inString = false;
+        boolean escaped = false;
+        int read;
+        while ((read = reader.read(in)) != -1) {
+            int length = 0;
+            for (int i = 0; i < read; i++) {
+                char c = in[i];
+                if (inString) {
+                    if (escaped) {
+                        escaped = false;
+                    } else if (c == '\\') {
+                        escaped = true;
+                    } else if (c == '"') {
+                        inString = false;
+                    }
+                } else if (c == ' ' || c == '\t' || c == '\n' || c == '\r') {
+                    continue;
+                } else if (c == '"') {
+                    inString = true;
+                }
+                out[length++] = c;
+            }
+            writer.write(out, 0, length);
+        }
+    }
+}
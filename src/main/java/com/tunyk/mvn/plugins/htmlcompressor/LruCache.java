@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Thread-safe least recently used cache bounded by the total weight of its values, such as the characters of minified
+ * pages.
+ * <p>
+ * Concurrent misses on the same key wait for a single load instead of each loading the value.
+ *
+ * @param <K>
+ *            the key type
+ * @param <V>
+ *            the value type
+ */
+public class LruCache<K, V> {
+
+    /** The max total weight. */
+    private final long maxWeight;
+
+    /** The weigher of the values. */
+    private final ToLongFunction<? super V> weigher;
+
+    /** The entries, least recently used first. */
+    private final LinkedHashMap<K, V> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** The loads in progress. */
+    private final ConcurrentMap<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+
+    /** The total weight. */
+    private long weight;
+
+    /** The hits. */
+    private final LongAdder hits = new LongAdder();
+
+    /** The misses. */
+    private final LongAdder misses = new LongAdder();
+
+    /** The evictions. */
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Instantiates a new LRU cache.
+     *
+     * @param maxWeight
+     *            the max total weight, 0 disables caching
+     * @param weigher
+     *            the weigher of the values
+     */
+    public LruCache(long maxWeight, ToLongFunction<? super V> weigher) {
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    /**
+     * Gets a value, marking it as recently used.
+     *
+     * @param key
+     *            the key
+     *
+     * @return the value, or null if not cached
+     */
+    public V get(K key) {
+        V value;
+        synchronized (entries) {
+            value = entries.get(key);
+        }
+        (value != null ? hits : misses).increment();
+        return value;
+    }
+
+    /**
+     * Gets a value, loading it on a miss. Values heavier than the whole cache are returned without being cached.
+     *
+     * @param key
+     *            the key
+     * @param loader
+     *            the loader
+     *
+     * @return the value
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> loader) {
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        CompletableFuture<V> load = new CompletableFuture<>();
+        CompletableFuture<V> running = loading.putIfAbsent(key, load);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+        try {
+            value = loader.apply(key);
+            put(key, value);
+            load.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, load);
+        }
+    }
+
+    /**
+     * Put a value, evicting the least recently used values beyond the max weight.
+     *
+     * @param key
+     *            the key
+     * @param value
+     *            the value
+     */
+    public void put(K key, V value) {
+        long valueWeight = weigher.applyAsLong(value);
+        if (valueWeight > maxWeight) {
+            return;
+        }
+        synchronized (entries) {
+            V previous = entries.put(key, value);
+            weight += valueWeight;
+            if (previous != null) {
+                weight -= weigher.applyAsLong(previous);
+            }
+            Iterator<Map.Entry<K, V>> iterator = entries.entrySet().iterator();
+            while (weight > maxWeight && iterator.hasNext()) {
+                weight -= weigher.applyAsLong(iterator.next().getValue());
+                iterator.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Remove all values.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            weight = 0;
+        }
+    }
+
+    /**
+     * Gets the number of cached values.
+     *
+     * @return the size
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Gets the total weight of the cached values.
+     *
+     * @return the weight
+     */
+    public long getWeight() {
+        synchronized (entries) {
+            return weight;
+        }
+    }
+
+    /**
+     * Gets the hit count.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the miss count.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the eviction count.
+     *
+     * @return the eviction count
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+}
@@ -0,0 +1,362 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+
+/**
+ * Writes compression metrics in the OpenMetrics text format, for scraping through the node exporter textfile collector.
+ * <p>
+ * The file is written next to its destination and moved into place, so a collector never reads a partial file.
+ */
+public class OpenMetricsExporter {
+
+    /** The upper bounds in seconds of the per-file duration histogram buckets. */
+    private static final double[] DURATION_BUCKETS = { 0.001, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10 };
+
+    /** The nanoseconds per second. */
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    /** The goal label. */
+    private final String goal;
+
+    /** The statistics. */
+    private CompressionStatistics statistics = new CompressionStatistics();
+
+    /** The phase timer. */
+    private PhaseTimer phaseTimer = new PhaseTimer();
+
+    /** The cache hits. */
+    private long cacheHits;
+
+    /** The cache lookups. */
+    private long cacheLookups;
+
+    /** The threads compressing files. */
+    private int threads = 1;
+
+    /** The wall time of the whole run in nanoseconds. */
+    private long wallNanos;
+
+    /**
+     * Instantiates a new open metrics exporter.
+     *
+     * @param goal
+     *            the goal, used as label on every sample
+     */
+    public OpenMetricsExporter(String goal) {
+        this.goal = goal;
+    }
+
+    /**
+     * Format the metrics.
+     *
+     * @return the metrics in OpenMetrics text format
+     */
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        String labels = "goal=\"" + escape(goal) + "\"";
+        CompressionStatistics.Rollup total = statistics.getTotal();
+
+        family(sb, "htmlcompressor_files", "counter", "Files processed.");
+        sample(sb, "htmlcompressor_files_total", labels, total.getFileCount());
+        family(sb, "htmlcompressor_input_characters", "counter", "Characters before compression.");
+        sample(sb, "htmlcompressor_input_characters_total", labels,
+                total.get(CompressionStatistics.Metric.ORIGINAL_SIZE));
+        family(sb, "htmlcompressor_output_characters", "counter", "Characters after compression.");
+        sample(sb, "htmlcompressor_output_characters_total", labels,
+                total.get(CompressionStatistics.Metric.COMPRESSED_SIZE));
+
+        family(sb, "htmlcompressor_phase_bytes", "counter",
+                "Bytes processed per phase, characters for the compress phase.");
+        for (PhaseTimer.Phase phase : PhaseTimer.Phase.values()) {
+            sample(sb, "htmlcompressor_phase_bytes_total", phaseLabels(labels, phase), phaseTimer.getSize(phase));
+        }
+        family(sb, "htmlcompressor_phase_duration_seconds", "counter", "Wall time spent per phase.");
+        for (PhaseTimer.Phase phase : PhaseTimer.Phase.values()) {
+            sample(sb, "htmlcompressor_phase_duration_seconds_total", phaseLabels(labels, phase),
+                    phaseTimer.getWallNanos(phase) / NANOS_PER_SECOND);
+        }
+        if (phaseTimer.getCpuNanos(PhaseTimer.Phase.COMPRESS) >= 0) {
+            family(sb, "htmlcompressor_phase_cpu_seconds", "counter", "Thread CPU time spent per phase.");
+            for (PhaseTimer.Phase phase : PhaseTimer.Phase.values()) {
+                sample(sb, "htmlcompressor_phase_cpu_seconds_total", phaseLabels(labels, phase),
+                        phaseTimer.getCpuNanos(phase) / NANOS_PER_SECOND);
+            }
+        }
+
+        family(sb, "htmlcompressor_file_duration_seconds", "histogram", "Compression time per file.");
+        long[] counts = new long[DURATION_BUCKETS.length];
+        long sumNanos = 0;
+        int files = 0;
+        for (CompressionStatistics.FileStatistics file : statistics.getFiles()) {
+            long nanos = file.get(CompressionStatistics.Metric.TIME_NANOS);
+            for (int i = 0; i < DURATION_BUCKETS.length; i++) {
+                if (nanos / NANOS_PER_SECOND <= DURATION_BUCKETS[i]) {
+                    counts[i]++;
+                }
+            }
+            sumNanos += nanos;
+            files++;
+        }
+        for (int i = 0; i < DURATION_BUCKETS.length; i++) {
+            sample(sb, "htmlcompressor_file_duration_seconds_bucket",
+                    labels + ",le=\"" + number(DURATION_BUCKETS[i]) + "\"", counts[i]);
+        }
+        sample(sb, "htmlcompressor_file_duration_seconds_bucket", labels + ",le=\"+Inf\"", files);
+        sample(sb, "htmlcompressor_file_duration_seconds_count", labels, files);
+        sample(sb, "htmlcompressor_file_duration_seconds_sum", labels, sumNanos / NANOS_PER_SECOND);
+
+        family(sb, "htmlcompressor_cache_hit_ratio", "gauge", "Share of cache lookups that were hits.");
+        sample(sb, "htmlcompressor_cache_hit_ratio", labels + ",cache=\"duplicate-content\"",
+                cacheLookups == 0 ? 0d : (double) cacheHits / cacheLookups);
+
+        family(sb, "htmlcompressor_threads", "gauge", "Threads compressing files.");
+        sample(sb, "htmlcompressor_threads", labels, threads);
+        family(sb, "htmlcompressor_thread_utilization_ratio", "gauge",
+                "Share of the available thread time spent compressing.");
+        double available = (double) wallNanos * threads;
+        sample(sb, "htmlcompressor_thread_utilization_ratio", labels,
+                available <= 0 ? 0d : Math.min(1d, phaseTimer.getWallNanos(PhaseTimer.Phase.COMPRESS) / available));
+
+        family(sb, "htmlcompressor_run_duration_seconds", "gauge", "Wall time of the whole run.");
+        sample(sb, "htmlcompressor_run_duration_seconds", labels, wallNanos / NANOS_PER_SECOND);
+        sb.append("# EOF\n");
+        return sb.toString();
+    }
+
+    /**
+     * Write the metrics.
+     *
+     * @param path
+     *            the path
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public void write(Path path) throws IOException {
+        Path target = path.toAbsolutePath();
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            Files.writeString(temp, format(), StandardCharsets.UTF_8);
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Append the metadata of a metric family.
+     *
+     * @param sb
+     *            the sb
+     * @param name
+     *            the name
+     * @param type
+     *            the type
+     * @param help
+     *            the help
+     */
+    private static void family(StringBuilder sb, String name, String type, String help) {
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+    }
+
+    /**
+     * Append a sample.
+     *
+     * @param sb
+     *            the sb
+     * @param name
+     *            the name
+     * @param labels
+     *            the labels
+     * @param value
+     *            the value
+     */
+    private static void sample(StringBuilder sb, String name, String labels, long value) {
+        sb.append(name).append('{').append(labels).append("} ").append(value).append('\n');
+    }
+
+    /**
+     * Append a sample.
+     *
+     * @param sb
+     *            the sb
+     * @param name
+     *            the name
+     * @param labels
+     *            the labels
+     * @param value
+     *            the value
+     */
+    private static void sample(StringBuilder sb, String name, String labels, double value) {
+        sb.append(name).append('{').append(labels).append("} ").append(number(value)).append('\n');
+    }
+
+    /**
+     * Add the phase label.
+     *
+     * @param labels
+     *            the labels
+     * @param phase
+     *            the phase
+     *
+     * @return the labels
+     */
+    private static String phaseLabels(String labels, PhaseTimer.Phase phase) {
+        return labels + ",phase=\"" + phase.name().toLowerCase(Locale.ROOT) + "\"";
+    }
+
+    /**
+     * Format a number without a trailing fraction for whole values.
+     *
+     * @param value
+     *            the value
+     *
+     * @return the text
+     */
+    private static String number(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return String.valueOf((long) value);
+        }
+        return String.valueOf(value);
+    }
+
+    /**
+     * Escape a label value.
+     *
+     * @param value
+     *            the value
+     *
+     * @return the escaped value
+     */
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /**
+     * Gets the goal.
+     *
+     * @return the goal
+     */
+    public String getGoal() {
+        return goal;
+    }
+
+    /**
+     * Gets the statistics.
+     *
+     * @return the statistics
+     */
+    public CompressionStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Sets the statistics.
+     *
+     * @param statistics
+     *            the new statistics
+     */
+    public void setStatistics(CompressionStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    /**
+     * Gets the phase timer.
+     *
+     * @return the phase timer
+     */
+    public PhaseTimer getPhaseTimer() {
+        return phaseTimer;
+    }
+
+    /**
+     * Sets the phase timer.
+     *
+     * @param phaseTimer
+     *            the new phase timer
+     */
+    public void setPhaseTimer(PhaseTimer phaseTimer) {
+        this.phaseTimer = phaseTimer;
+    }
+
+    /**
+     * Sets the cache counts.
+     *
+     * @param cacheHits
+     *            the cache hits
+     * @param cacheLookups
+     *            the cache lookups
+     */
+    public void setCache(long cacheHits, long cacheLookups) {
+        this.cacheHits = cacheHits;
+        this.cacheLookups = cacheLookups;
+    }
+
+    /**
+     * Gets the threads.
+     *
+     * @return the threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Sets the threads.
+     *
+     * @param threads
+     *            the new threads
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Gets the wall nanos.
+     *
+     * @return the wall nanos
+     */
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    /**
+     * Sets the wall nanos.
+     *
+     * @param wallNanos
+     *            the new wall nanos
+     */
+    public void setWallNanos(long wallNanos) {
+        this.wallNanos = wallNanos;
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Size and time budget for the files matching a glob, configured as
+ *
+ * <pre>
+ * &lt;budgets&gt;
+ *   &lt;budget&gt;
+ *     &lt;pattern&gt;landing/*.html&lt;/pattern&gt;
+ *     &lt;maxSize&gt;30000&lt;/maxSize&gt;
+ *     &lt;minSavings&gt;0.2&lt;/minSavings&gt;
+ *     &lt;maxFileTime&gt;500&lt;/maxFileTime&gt;
+ *     &lt;maxTotalTime&gt;5000&lt;/maxTotalTime&gt;
+ *   &lt;/budget&gt;
+ * &lt;/budgets&gt;
+ * </pre>
+ *
+ * The pattern is a {@link java.nio.file.FileSystem#getPathMatcher(String) glob} against the path relative to the source
+ * folder. A leading {@code **}{@code /} also matches no directory, so {@code **}{@code /*.html} covers the top-level
+ * files too. Every limit is optional. The max size is in bytes of the written file, as served; the savings are measured
+ * in characters.
+ */
+public class PerformanceBudget {
+
+    /** The glob of the files the budget applies to. */
+    private String pattern = "**";
+
+    /** The max compressed size of a file in bytes. */
+    private Long maxSize;
+
+    /** The min savings ratio of a file, between 0 and 1. */
+    private Double minSavings;
+
+    /** The max compression time of a file in milliseconds. */
+    private Long maxFileTime;
+
+    /** The max compression time of all matching files in milliseconds. */
+    private Long maxTotalTime;
+
+    /**
+     * Evaluate the budget.
+     *
+     * @param statistics
+     *            the statistics of the run
+     * @param targetDir
+     *            the dir the files were written to
+     *
+     * @return the violations, empty if the budget is met
+     *
+     * @throws IOException
+     *             Signals that the size of a written file could not be read.
+     * @throws IllegalArgumentException
+     *             if the pattern is missing or not a valid glob
+     */
+    public List<String> evaluate(CompressionStatistics statistics, Path targetDir) throws IOException {
+        if (pattern == null || pattern.isBlank()) {
+            throw new IllegalArgumentException("A performance budget needs a pattern");
+        }
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+        PathMatcher topLevelMatcher = pattern.startsWith("**/")
+                ? FileSystems.getDefault().getPathMatcher("glob:" + pattern.substring(3))
+                : matcher;
+        List<String> violations = new ArrayList<>();
+        long totalNanos = 0;
+        for (CompressionStatistics.FileStatistics file : statistics.getFiles()) {
+            Path path = Path.of(file.getFile());
+            if (!matcher.matches(path) && !topLevelMatcher.matches(path)) {
+                continue;
+            }
+            long original = file.get(CompressionStatistics.Metric.ORIGINAL_SIZE);
+            long compressed = file.get(CompressionStatistics.Metric.COMPRESSED_SIZE);
+            long nanos = file.get(CompressionStatistics.Metric.TIME_NANOS);
+            totalNanos += nanos;
+            if (maxSize != null) {
+                long bytes = Files.size(targetDir.resolve(file.getFile()));
+                if (bytes > maxSize) {
+                    violations.add(String.format(Locale.ROOT, "%s: compressed size %d bytes exceeds %d (%s)",
+                            file.getFile(), bytes, maxSize, pattern));
+                }
+            }
+            if (minSavings != null && original > 0 && 1 - (double) compressed / original < minSavings) {
+                violations.add(String.format(Locale.ROOT, "%s: savings %.2f below %.2f (%s)", file.getFile(),
+                        1 - (double) compressed / original, minSavings, pattern));
+            }
+            if (maxFileTime != null && nanos > TimeUnit.MILLISECONDS.toNanos(maxFileTime)) {
+                violations.add(String.format(Locale.ROOT, "%s: compression took %d ms, more than %d ms (%s)",
+                        file.getFile(), TimeUnit.NANOSECONDS.toMillis(nanos), maxFileTime, pattern));
+            }
+        }
+        if (maxTotalTime != null && totalNanos > TimeUnit.MILLISECONDS.toNanos(maxTotalTime)) {
+            violations.add(String.format(Locale.ROOT, "%s: compression took %d ms in total, more than %d ms", pattern,
+                    TimeUnit.NANOSECONDS.toMillis(totalNanos), maxTotalTime));
+        }
+        return violations;
+    }
+
+    /**
+     * Evaluate several budgets.
+     *
+     * @param budgets
+     *            the budgets, may be null
+     * @param statistics
+     *            the statistics of the run
+     * @param targetDir
+     *            the dir the files were written to
+     *
+     * @return the violations of all budgets
+     *
+     * @throws IOException
+     *             Signals that the size of a written file could not be read.
+     * @throws IllegalArgumentException
+     *             if a pattern is missing or not a valid glob
+     */
+    public static List<String> evaluate(PerformanceBudget[] budgets, CompressionStatistics statistics, Path targetDir)
+            throws IOException {
+        List<String> violations = new ArrayList<>();
+        if (budgets != null) {
+            for (PerformanceBudget budget : budgets) {
+                violations.addAll(budget.evaluate(statistics, targetDir));
+            }
+        }
+        return violations;
+    }
+
+    /**
+     * Gets the pattern.
+     *
+     * @return the pattern
+     */
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * Sets the pattern.
+     *
+     * @param pattern
+     *            the new pattern
+     */
+    public void setPattern(String pattern) {
+        this.pattern = pattern;
+    }
+
+    /**
+     * Gets the max size.
+     *
+     * @return the max size
+     */
+    public Long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Sets the max size.
+     *
+     * @param maxSize
+     *            the new max size in bytes
+     */
+    public void setMaxSize(Long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Gets the min savings.
+     *
+     * @return the min savings
+     */
+    public Double getMinSavings() {
+        return minSavings;
+    }
+
+    /**
+     * Sets the min savings.
+     *
+     * @param minSavings
+     *            the new min savings
+     */
+    public void setMinSavings(Double minSavings) {
+        this.minSavings = minSavings;
+    }
+
+    /**
+     * Gets the max file time.
+     *
+     * @return the max file time
+     */
+    public Long getMaxFileTime() {
+        return maxFileTime;
+    }
+
+    /**
+     * Sets the max file time.
+     *
+     * @param maxFileTime
+     *            the new max file time
+     */
+    public void setMaxFileTime(Long maxFileTime) {
+        this.maxFileTime = maxFileTime;
+    }
+
+    /**
+     * Gets the max total time.
+     *
+     * @return the max total time
+     */
+    public Long getMaxTotalTime() {
+        return maxTotalTime;
+    }
+
+    /**
+     * Sets the max total time.
+     *
+     * @param maxTotalTime
+     *            the new max total time
+     */
+    public void setMaxTotalTime(Long maxTotalTime) {
+        this.maxTotalTime = maxTotalTime;
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Wall time, CPU time and size processed per pipeline phase.
+ * <p>
+ * Phases are timed with {@link Split}s that may run on any thread; CPU time is taken from the thread running the split,
+ * so work handed to a watchdog thread is still accounted for. Sizes are bytes for the I/O phases and characters for the
+ * compress phase.
+ */
+public class PhaseTimer {
+
+    /**
+     * The pipeline phases.
+     */
+    public enum Phase {
+
+        /** Finding the source files. */
+        SCAN,
+
+        /** Reading the source files. */
+        READ,
+
+        /** Compressing the contents. */
+        COMPRESS,
+
+        /** Writing the compressed files. */
+        WRITE,
+
+        /** Writing the javascript html sprite. */
+        SPRITE
+    }
+
+    /** The thread bean. */
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    /** The wall time per phase. */
+    private final EnumMap<Phase, LongAdder> wallNanos = newAdders();
+
+    /** The CPU time per phase. */
+    private final EnumMap<Phase, LongAdder> cpuNanos = newAdders();
+
+    /** The size processed per phase. */
+    private final EnumMap<Phase, LongAdder> sizes = newAdders();
+
+    /** The number of splits per phase. */
+    private final EnumMap<Phase, LongAdder> counts = newAdders();
+
+    /** Whether the JVM measures thread CPU time. */
+    private final boolean cpuTimeSupported = THREADS.isCurrentThreadCpuTimeSupported()
+            && THREADS.isThreadCpuTimeEnabled();
+
+    /**
+     * Start timing a phase on the current thread.
+     *
+     * @param phase
+     *            the phase
+     *
+     * @return the split, to be closed when the work is done
+     */
+    public Split start(Phase phase) {
+        return new Split(phase);
+    }
+
+    /**
+     * Gets the wall time.
+     *
+     * @param phase
+     *            the phase
+     *
+     * @return the wall time in nanoseconds
+     */
+    public long getWallNanos(Phase phase) {
+        return wallNanos.get(phase).sum();
+    }
+
+    /**
+     * Gets the CPU time.
+     *
+     * @param phase
+     *            the phase
+     *
+     * @return the CPU time in nanoseconds, or -1 if the JVM does not measure thread CPU time
+     */
+    public long getCpuNanos(Phase phase) {
+        return cpuTimeSupported ? cpuNanos.get(phase).sum() : -1;
+    }
+
+    /**
+     * Gets the size processed.
+     *
+     * @param phase
+     *            the phase
+     *
+     * @return the size
+     */
+    public long getSize(Phase phase) {
+        return sizes.get(phase).sum();
+    }
+
+    /**
+     * Gets the number of splits.
+     *
+     * @param phase
+     *            the phase
+     *
+     * @return the count
+     */
+    public long getCount(Phase phase) {
+        return counts.get(phase).sum();
+    }
+
+    /**
+     * Format the breakdown as a table.
+     *
+     * @return the table
+     */
+    public String format() {
+        String format = "%-12s%12s%12s%12s%16s\n";
+        StringBuilder sb = new StringBuilder("Phase timing:\n");
+        sb.append(String.format(Locale.ROOT, format, "Phase", "Count", "Wall ms", "CPU ms", "Size"));
+        for (Phase phase : Phase.values()) {
+            long cpu = getCpuNanos(phase);
+            sb.append(String.format(Locale.ROOT, format, phase.name().toLowerCase(Locale.ROOT), getCount(phase),
+                    TimeUnit.NANOSECONDS.toMillis(getWallNanos(phase)),
+                    cpu < 0 ? "n/a" : String.valueOf(TimeUnit.NANOSECONDS.toMillis(cpu)),
+                    FileTool.humanReadableByteCount(getSize(phase), true)));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * New adders.
+     *
+     * @return one adder per phase
+     */
+    private static EnumMap<Phase, LongAdder> newAdders() {
+        EnumMap<Phase, LongAdder> adders = new EnumMap<>(Phase.class);
+        for (Phase phase : Phase.values()) {
+            adders.put(phase, new LongAdder());
+        }
+        return adders;
+    }
+
+    /**
+     * One timed piece of work.
+     */
+    public final class Split implements AutoCloseable {
+
+        /** The phase. */
+        private final Phase phase;
+
+        /** The wall start. */
+        private final long wallStart = System.nanoTime();
+
+        /** The CPU start. */
+        private final long cpuStart = cpuTimeSupported ? THREADS.getCurrentThreadCpuTime() : 0;
+
+        /** The size. */
+        private long size;
+
+        /**
+         * Instantiates a new split.
+         *
+         * @param phase
+         *            the phase
+         */
+        private Split(Phase phase) {
+            this.phase = phase;
+        }
+
+        /**
+         * Add to the size processed.
+         *
+         * @param processed
+         *            the size processed
+         */
+        public void addSize(long processed) {
+            size += processed;
+        }
+
+        @Override
+        public void close() {
+            wallNanos.get(phase).add(System.nanoTime() - wallStart);
+            if (cpuTimeSupported) {
+                cpuNanos.get(phase).add(THREADS.getCurrentThreadCpuTime() - cpuStart);
+            }
+            sizes.get(phase).add(size);
+            counts.get(phase).increment();
+        }
+    }
+}
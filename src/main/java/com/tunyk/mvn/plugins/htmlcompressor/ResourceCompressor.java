@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import com.googlecode.htmlcompressor.compressor.Compressor;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Compresses standalone resource files, such as JavaScript or CSS, in parallel.
+ * <p>
+ * Each worker thread creates one compressor from the factory and keeps it for all files it handles, so compiler
+ * instances stay warm across files without being shared between threads. Identical files are compressed once and share
+ * the compressed instance, which lets them be linked when linkDuplicates is set.
+ */
+public class ResourceCompressor {
+
+    /** The file extensions. */
+    private String[] fileExtensions;
+
+    /** The src dir path. */
+    private String srcDirPath;
+
+    /** The target dir path. */
+    private String targetDirPath;
+
+    /** The file encoding. */
+    private Charset fileEncoding;
+
+    /** The compressor factory. */
+    private Supplier<Compressor> compressorFactory;
+
+    /** The number of threads, 0 uses one per available processor. */
+    private int threads;
+
+    /** The link duplicates. */
+    private boolean linkDuplicates;
+
+    /** The per-file statistics of the last run. */
+    private CompressionStatistics statistics = new CompressionStatistics();
+
+    /**
+     * Instantiates a new resource compressor.
+     *
+     * @param srcDirPath
+     *            the src dir path
+     * @param targetDirPath
+     *            the target dir path
+     * @param fileExtensions
+     *            the file extensions
+     * @param compressorFactory
+     *            the compressor factory
+     */
+    public ResourceCompressor(String srcDirPath, String targetDirPath, String[] fileExtensions,
+            Supplier<Compressor> compressorFactory) {
+        this.srcDirPath = srcDirPath;
+        this.targetDirPath = targetDirPath;
+        this.fileExtensions = fileExtensions;
+        this.compressorFactory = compressorFactory;
+    }
+
+    /**
+     * Compress.
+     *
+     * @return the number of compressed files
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public int compress() throws IOException {
+        FileTool fileTool = new FileTool(srcDirPath, fileExtensions, true);
+        fileTool.setFileEncoding(fileEncoding);
+        fileTool.setLinkDuplicates(linkDuplicates);
+        Map<String, String> files = new LinkedHashMap<>(fileTool.getFiles());
+        if (files.isEmpty()) {
+            return 0;
+        }
+
+        int poolSize = Math.min(threads > 0 ? threads : Runtime.getRuntime().availableProcessors(), files.size());
+        ThreadLocal<Compressor> compressors = ThreadLocal.withInitial(compressorFactory);
+        CompressionStatistics runStatistics = new CompressionStatistics();
+        statistics = runStatistics;
+        ExecutorService executor = Executors.newFixedThreadPool(poolSize);
+        Map<String, String> compressed = new LinkedHashMap<>();
+        // The first file of each content, which the duplicates share their compressed instance and statistics with
+        Map<String, String> firstFiles = new HashMap<>();
+        try {
+            Map<String, Future<String>> contentFutures = new HashMap<>();
+            Map<String, Future<String>> futures = new LinkedHashMap<>();
+            for (Entry<String, String> entry : files.entrySet()) {
+                String content = entry.getValue();
+                String file = entry.getKey();
+                Future<String> future = contentFutures.get(content);
+                if (future == null) {
+                    future = executor.submit(() -> {
+                        long start = System.nanoTime();
+                        String result = compressors.get().compress(content);
+                        runStatistics.record(new CompressionStatistics.FileStatistics(file, content.length(),
+                                result.length(), System.nanoTime() - start));
+                        return result;
+                    });
+                    contentFutures.put(content, future);
+                    firstFiles.put(content, file);
+                }
+                futures.put(file, future);
+            }
+            for (Entry<String, Future<String>> entry : futures.entrySet()) {
+                compressed.put(entry.getKey(), entry.getValue().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Compression of " + srcDirPath + " was interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Map<String, CompressionStatistics.FileStatistics> firstStatistics = new HashMap<>();
+        for (CompressionStatistics.FileStatistics fileStatistics : runStatistics.getFiles()) {
+            firstStatistics.put(fileStatistics.getFile(), fileStatistics);
+        }
+        for (Entry<String, String> entry : files.entrySet()) {
+            String firstFile = firstFiles.get(entry.getValue());
+            if (!firstFile.equals(entry.getKey())) {
+                runStatistics.record(
+                        new CompressionStatistics.FileStatistics(entry.getKey(), firstStatistics.get(firstFile)));
+            }
+        }
+
+        fileTool.writeFiles(compressed, targetDirPath);
+        return compressed.size();
+    }
+
+    /**
+     * Gets the file extensions.
+     *
+     * @return the file extensions
+     */
+    public String[] getFileExtensions() {
+        return fileExtensions;
+    }
+
+    /**
+     * Sets the file extensions.
+     *
+     * @param fileExtensions
+     *            the new file extensions
+     */
+    public void setFileExtensions(String[] fileExtensions) {
+        this.fileExtensions = fileExtensions;
+    }
+
+    /**
+     * Gets the src dir path.
+     *
+     * @return the src dir path
+     */
+    public String getSrcDirPath() {
+        return srcDirPath;
+    }
+
+    /**
+     * Sets the src dir path.
+     *
+     * @param srcDirPath
+     *            the new src dir path
+     */
+    public void setSrcDirPath(String srcDirPath) {
+        this.srcDirPath = srcDirPath;
+    }
+
+    /**
+     * Gets the target dir path.
+     *
+     * @return the target dir path
+     */
+    public String getTargetDirPath() {
+        return targetDirPath;
+    }
+
+    /**
+     * Sets the target dir path.
+     *
+     * @param targetDirPath
+     *            the new target dir path
+     */
+    public void setTargetDirPath(String targetDirPath) {
+        this.targetDirPath = targetDirPath;
+    }
+
+    /**
+     * Gets the file encoding.
+     *
+     * @return the file encoding
+     */
+    public Charset getFileEncoding() {
+        return fileEncoding;
+    }
+
+    /**
+     * Sets the file encoding.
+     *
+     * @param fileEncoding
+     *            the new file encoding
+     */
+    public void setFileEncoding(Charset fileEncoding) {
+        this.fileEncoding = fileEncoding == null ? Charset.defaultCharset() : fileEncoding;
+    }
+
+    /**
+     * Gets the compressor factory.
+     *
+     * @return the compressor factory
+     */
+    public Supplier<Compressor> getCompressorFactory() {
+        return compressorFactory;
+    }
+
+    /**
+     * Sets the compressor factory.
+     *
+     * @param compressorFactory
+     *            the new compressor factory
+     */
+    public void setCompressorFactory(Supplier<Compressor> compressorFactory) {
+        this.compressorFactory = compressorFactory;
+    }
+
+    /**
+     * Gets the threads.
+     *
+     * @return the threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Sets the threads.
+     *
+     * @param threads
+     *            the new threads, 0 uses one per available processor
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Checks if is link duplicates.
+     *
+     * @return true, if is link duplicates
+     */
+    public boolean isLinkDuplicates() {
+        return linkDuplicates;
+    }
+
+    /**
+     * Sets the link duplicates.
+     *
+     * @param linkDuplicates
+     *            the new link duplicates
+     */
+    public void setLinkDuplicates(boolean linkDuplicates) {
+        this.linkDuplicates = linkDuplicates;
+    }
+
+    /**
+     * Gets the per-file statistics of the last run.
+     *
+     * @return the statistics
+     */
+    public CompressionStatistics getStatistics() {
+        return statistics;
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.json.JSONException;
+
+/**
+ * The reports of a compression goal after its files are written: the OpenMetrics file, the slowest files compared
+ * against the last run, the history entry and the performance budgets, in that order. Each report is skipped when it is
+ * not configured.
+ */
+public class RunReport {
+
+    /** The goal. */
+    private final String goal;
+
+    /** The log. */
+    private final Log log;
+
+    /** The OpenMetrics file, may be null. */
+    private String metricsFile;
+
+    /** The number of slowest and most regressed files to report, 0 disables the report. */
+    private int topFiles;
+
+    /** The file keeping the per-file results of the last run. */
+    private String lastRunFile;
+
+    /** The history file, may be null. */
+    private String historyFile;
+
+    /** The project the history is keyed by, as groupId:artifactId. */
+    private String projectKey;
+
+    /** The project version the history is keyed by. */
+    private String projectVersion;
+
+    /** The commit the history is keyed by, null to read it from the project directory. */
+    private String commit;
+
+    /** The project directory, may be null. */
+    private Path baseDir;
+
+    /** The budgets, may be null. */
+    private PerformanceBudget[] budgets;
+
+    /** If true a budget violation fails the build. */
+    private boolean failOnBudget = true;
+
+    /** The dir the files were written to. */
+    private Path targetDir;
+
+    /**
+     * Instantiates a new run report.
+     *
+     * @param goal
+     *            the goal
+     * @param log
+     *            the log of the goal
+     */
+    public RunReport(String goal, Log log) {
+        this.goal = goal;
+        this.log = log;
+    }
+
+    /**
+     * Report a run.
+     *
+     * @param statistics
+     *            the statistics of the run
+     * @param phaseTimer
+     *            the phase timer of the run
+     * @param duplicateFiles
+     *            the files whose compressed output was reused
+     * @param wallNanos
+     *            the wall time of the run
+     *
+     * @throws MojoExecutionException
+     *             if a report cannot be written or a budget is violated while failOnBudget is set
+     */
+    public void report(CompressionStatistics statistics, PhaseTimer phaseTimer, long duplicateFiles, long wallNanos)
+            throws MojoExecutionException {
+        if (metricsFile != null && !metricsFile.isEmpty()) {
+            OpenMetricsExporter openMetricsExporter = new OpenMetricsExporter(goal);
+            openMetricsExporter.setStatistics(statistics);
+            openMetricsExporter.setPhaseTimer(phaseTimer);
+            openMetricsExporter.setCache(duplicateFiles, statistics.getTotal().getFileCount());
+            openMetricsExporter.setWallNanos(wallNanos);
+            try {
+                openMetricsExporter.write(Path.of(metricsFile));
+            } catch (IOException e) {
+                throw new MojoExecutionException(e.getMessage());
+            }
+        }
+        if (topFiles > 0 && statistics.getTotal().getFileCount() > 0) {
+            SlowFileReport slowFileReport;
+            try {
+                slowFileReport = SlowFileReport.compare(statistics, Path.of(lastRunFile));
+            } catch (IOException | JSONException e) {
+                throw new MojoExecutionException(e.getMessage());
+            }
+            log.info("Slowest files:");
+            for (String line : slowFileReport.formatSlowest(topFiles)) {
+                log.info(line);
+            }
+            List<String> regressions = slowFileReport.formatRegressions(topFiles);
+            if (!regressions.isEmpty()) {
+                log.warn("Largest regressions since the previous run:");
+                for (String line : regressions) {
+                    log.warn(line);
+                }
+            }
+        }
+        if (historyFile != null && !historyFile.isEmpty()) {
+            String buildCommit = commit != null ? commit
+                    : CompressionHistory.readGitCommit(baseDir != null ? baseDir : Path.of(""));
+            try {
+                new CompressionHistory(Path.of(historyFile)).append(CompressionHistory.Entry.of(projectKey, goal,
+                        projectVersion, buildCommit, statistics, phaseTimer, wallNanos));
+            } catch (IOException e) {
+                throw new MojoExecutionException(e.getMessage());
+            }
+        }
+        List<String> violations;
+        try {
+            violations = PerformanceBudget.evaluate(budgets, statistics, targetDir);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new MojoExecutionException(e.getMessage());
+        }
+        if (!violations.isEmpty()) {
+            for (String violation : violations) {
+                log.warn(violation);
+            }
+            if (failOnBudget) {
+                throw new MojoExecutionException(
+                        violations.size() + " performance budget violations: " + String.join("; ", violations));
+            }
+        }
+    }
+
+    /**
+     * Sets the metrics file.
+     *
+     * @param metricsFile
+     *            the new metrics file
+     */
+    public void setMetricsFile(String metricsFile) {
+        this.metricsFile = metricsFile;
+    }
+
+    /**
+     * Sets the top files.
+     *
+     * @param topFiles
+     *            the new top files
+     */
+    public void setTopFiles(int topFiles) {
+        this.topFiles = topFiles;
+    }
+
+    /**
+     * Sets the last run file.
+     *
+     * @param lastRunFile
+     *            the new last run file
+     */
+    public void setLastRunFile(String lastRunFile) {
+        this.lastRunFile = lastRunFile;
+    }
+
+    /**
+     * Sets the history file and the key of its entries.
+     *
+     * @param historyFile
+     *            the new history file
+     * @param projectKey
+     *            the project as groupId:artifactId
+     * @param projectVersion
+     *            the project version
+     * @param commit
+     *            the commit, null to read it from the project directory
+     * @param baseDir
+     *            the project directory, may be null
+     */
+    public void setHistory(String historyFile, String projectKey, String projectVersion, String commit, Path baseDir) {
+        this.historyFile = historyFile;
+        this.projectKey = projectKey;
+        this.projectVersion = projectVersion;
+        this.commit = commit;
+        this.baseDir = baseDir;
+    }
+
+    /**
+     * Sets the budgets.
+     *
+     * @param budgets
+     *            the new budgets
+     * @param failOnBudget
+     *            if true a budget violation fails the build
+     * @param targetDir
+     *            the dir the files were written to
+     */
+    public void setBudgets(PerformanceBudget[] budgets, boolean failOnBudget, Path targetDir) {
+        this.budgets = budgets;
+        this.failOnBudget = failOnBudget;
+        this.targetDir = targetDir;
+    }
+}
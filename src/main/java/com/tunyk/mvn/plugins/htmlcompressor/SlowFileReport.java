@@ -0,0 +1,303 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Slowest files of a run and the files that regressed most since the previous run.
+ * <p>
+ * The per-file results of each run are kept in a small JSON file, which the next run compares against. Changes below a
+ * quarter, and time regressions of files compressing in less than a millisecond, are ignored as they are dominated by
+ * noise.
+ */
+public class SlowFileReport {
+
+    /** The compression time below which time regressions are ignored. */
+    private static final long MIN_REGRESSION_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /** The ratio from which a change counts as regression. */
+    private static final double MIN_REGRESSION_RATIO = 1.25;
+
+    /** The files of this run. */
+    private final List<CompressionStatistics.FileStatistics> files;
+
+    /** The results of the previous run by file, as compressed size and time in nanoseconds. */
+    private final Map<String, long[]> previous;
+
+    /**
+     * Instantiates a new slow file report.
+     *
+     * @param statistics
+     *            the statistics of this run
+     * @param previous
+     *            the results of the previous run by file, as compressed size and time in nanoseconds
+     */
+    public SlowFileReport(CompressionStatistics statistics, Map<String, long[]> previous) {
+        this.files = statistics.getFiles();
+        this.previous = previous;
+    }
+
+    /**
+     * Compare a run with the results stored by the previous run, and store its own results in their place.
+     *
+     * @param statistics
+     *            the statistics of this run
+     * @param lastRunFile
+     *            the file holding the results of the last run
+     *
+     * @return the report
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public static SlowFileReport compare(CompressionStatistics statistics, Path lastRunFile) throws IOException {
+        Map<String, long[]> previous = new HashMap<>();
+        if (Files.isRegularFile(lastRunFile)) {
+            JSONObject json = new JSONObject(Files.readString(lastRunFile, StandardCharsets.UTF_8));
+            for (String file : json.keySet()) {
+                JSONArray values = json.getJSONArray(file);
+                previous.put(file, new long[] { values.getLong(0), values.getLong(1) });
+            }
+        }
+
+        JSONObject json = new JSONObject();
+        for (CompressionStatistics.FileStatistics file : statistics.getFiles()) {
+            json.put(file.getFile(), new JSONArray().put(file.get(CompressionStatistics.Metric.COMPRESSED_SIZE))
+                    .put(file.get(CompressionStatistics.Metric.TIME_NANOS)));
+        }
+        Path parent = lastRunFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.writeString(lastRunFile, json.toString(), StandardCharsets.UTF_8);
+        return new SlowFileReport(statistics, previous);
+    }
+
+    /**
+     * Gets the slowest files.
+     *
+     * @param limit
+     *            the number of files
+     *
+     * @return the slowest files, slowest first
+     */
+    public List<CompressionStatistics.FileStatistics> getSlowest(int limit) {
+        List<CompressionStatistics.FileStatistics> slowest = new ArrayList<>(files);
+        slowest.sort(Comparator.comparingLong(
+                (CompressionStatistics.FileStatistics file) -> file.get(CompressionStatistics.Metric.TIME_NANOS))
+                .reversed());
+        return slowest.subList(0, Math.min(limit, slowest.size()));
+    }
+
+    /**
+     * Gets the files that regressed most.
+     *
+     * @param limit
+     *            the number of files
+     *
+     * @return the regressions, worst first
+     */
+    public List<Regression> getRegressions(int limit) {
+        List<Regression> regressions = new ArrayList<>();
+        for (CompressionStatistics.FileStatistics file : files) {
+            long[] before = previous.get(file.getFile());
+            if (before != null) {
+                Regression regression = new Regression(file.getFile(), before[0],
+                        file.get(CompressionStatistics.Metric.COMPRESSED_SIZE), before[1],
+                        file.get(CompressionStatistics.Metric.TIME_NANOS));
+                if (regression.getScore() >= MIN_REGRESSION_RATIO) {
+                    regressions.add(regression);
+                }
+            }
+        }
+        regressions.sort(Collections.reverseOrder(Comparator.comparingDouble(Regression::getScore)));
+        return regressions.subList(0, Math.min(limit, regressions.size()));
+    }
+
+    /**
+     * Format the slowest files.
+     *
+     * @param limit
+     *            the number of files
+     *
+     * @return one line per file
+     */
+    public List<String> formatSlowest(int limit) {
+        List<String> lines = new ArrayList<>();
+        for (CompressionStatistics.FileStatistics file : getSlowest(limit)) {
+            lines.add(String.format(Locale.ROOT, "%10.3f ms %12s  %s",
+                    file.get(CompressionStatistics.Metric.TIME_NANOS) / 1_000_000d,
+                    FileTool.humanReadableByteCount(file.get(CompressionStatistics.Metric.COMPRESSED_SIZE), true),
+                    file.getFile()));
+        }
+        return lines;
+    }
+
+    /**
+     * Format the files that regressed most.
+     *
+     * @param limit
+     *            the number of files
+     *
+     * @return one line per file
+     */
+    public List<String> formatRegressions(int limit) {
+        List<String> lines = new ArrayList<>();
+        for (Regression regression : getRegressions(limit)) {
+            lines.add(String.format(Locale.ROOT, "%s: time %.3f -> %.3f ms (x%.2f), size %d -> %d (x%.2f)",
+                    regression.getFile(), regression.getPreviousTimeNanos() / 1_000_000d,
+                    regression.getTimeNanos() / 1_000_000d, regression.getTimeRatio(), regression.getPreviousSize(),
+                    regression.getSize(), regression.getSizeRatio()));
+        }
+        return lines;
+    }
+
+    /**
+     * The change of one file since the previous run.
+     */
+    public static final class Regression {
+
+        /** The file. */
+        private final String file;
+
+        /** The previous size. */
+        private final long previousSize;
+
+        /** The size. */
+        private final long size;
+
+        /** The previous time nanos. */
+        private final long previousTimeNanos;
+
+        /** The time nanos. */
+        private final long timeNanos;
+
+        /**
+         * Instantiates a new regression.
+         *
+         * @param file
+         *            the file
+         * @param previousSize
+         *            the previous compressed size
+         * @param size
+         *            the compressed size
+         * @param previousTimeNanos
+         *            the previous time in nanoseconds
+         * @param timeNanos
+         *            the time in nanoseconds
+         */
+        Regression(String file, long previousSize, long size, long previousTimeNanos, long timeNanos) {
+            this.file = file;
+            this.previousSize = previousSize;
+            this.size = size;
+            this.previousTimeNanos = previousTimeNanos;
+            this.timeNanos = timeNanos;
+        }
+
+        /**
+         * Gets the time ratio.
+         *
+         * @return this run's time divided by the previous, 1 if either is below the noise threshold
+         */
+        public double getTimeRatio() {
+            if (timeNanos < MIN_REGRESSION_NANOS || previousTimeNanos <= 0) {
+                return 1;
+            }
+            return (double) timeNanos / Math.max(previousTimeNanos, MIN_REGRESSION_NANOS);
+        }
+
+        /**
+         * Gets the size ratio.
+         *
+         * @return this run's compressed size divided by the previous
+         */
+        public double getSizeRatio() {
+            return previousSize <= 0 ? 1 : (double) size / previousSize;
+        }
+
+        /**
+         * Gets the score.
+         *
+         * @return the larger of the time and size ratio
+         */
+        public double getScore() {
+            return Math.max(getTimeRatio(), getSizeRatio());
+        }
+
+        /**
+         * Gets the file.
+         *
+         * @return the file
+         */
+        public String getFile() {
+            return file;
+        }
+
+        /**
+         * Gets the previous size.
+         *
+         * @return the previous size
+         */
+        public long getPreviousSize() {
+            return previousSize;
+        }
+
+        /**
+         * Gets the size.
+         *
+         * @return the size
+         */
+        public long getSize() {
+            return size;
+        }
+
+        /**
+         * Gets the previous time nanos.
+         *
+         * @return the previous time nanos
+         */
+        public long getPreviousTimeNanos() {
+            return previousTimeNanos;
+        }
+
+        /**
+         * Gets the time nanos.
+         *
+         * @return the time nanos
+         */
+        public long getTimeNanos() {
+            return timeNanos;
+        }
+    }
+}
@@ -0,0 +1,657 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Writer minifying HTML as it is written, for responses too large or too slow to buffer whole.
+ * <p>
+ * Whitespace runs are collapsed and comments removed one chunk at a time. The content of {@code pre}, {@code textarea},
+ * {@code script} and {@code style} elements, quoted attribute values, conditional comments and preserved regions pass
+ * through unchanged. Only the few characters that cannot be decided yet, such as a tag name or delimiter cut by a chunk
+ * boundary, are held back, so memory does not grow with the page.
+ * <p>
+ * Regular expression preserve patterns cannot be matched without the whole page, so preserved regions are given as
+ * pairs of opening and closing delimiters instead, such as {@code <%} and {@code %>}.
+ */
+public class StreamingHtmlMinifier extends Writer {
+
+    /** The elements whose content is passed through unchanged. */
+    private static final Set<String> RAW_ELEMENTS = Set.of("pre", "textarea", "script", "style");
+
+    /**
+     * The scanner states.
+     */
+    private enum State {
+
+        /** Between tags. */
+        TEXT,
+
+        /** Inside a tag. */
+        TAG,
+
+        /** Inside a raw element, up to its closing tag. */
+        RAW,
+
+        /** Inside a removed comment. */
+        COMMENT,
+
+        /** Inside a preserved region. */
+        PRESERVE
+    }
+
+    /** The writer receiving the minified content. */
+    private final Writer out;
+
+    /** The remove comments. */
+    private boolean removeComments = true;
+
+    /** The remove intertag spaces. */
+    private boolean removeIntertagSpaces;
+
+    /** The preserve line breaks. */
+    private boolean preserveLineBreaks;
+
+    /** The opening and closing delimiters of preserved regions. */
+    private final List<String[]> preserveDelimiters = new ArrayList<>();
+
+    /** The written characters not processed yet. */
+    private final StringBuilder input = new StringBuilder();
+
+    /** The minified characters not passed on yet. */
+    private final StringBuilder output = new StringBuilder();
+
+    /** The state. */
+    private State state = State.TEXT;
+
+    /** The state to return to after a preserved region. */
+    private State resumeState = State.TEXT;
+
+    /** The delimiter ending the current comment, preserved region or raw element. */
+    private String closing;
+
+    /** The raw element opened by the current tag. */
+    private String rawElement;
+
+    /** The quote of the current attribute value, 0 outside of values. */
+    private char quote;
+
+    /** Whether whitespace is pending inside a tag. */
+    private boolean tagSpace;
+
+    /** Whether whitespace is pending between tags. */
+    private boolean space;
+
+    /** Whether the pending whitespace contains a line break. */
+    private boolean lineBreak;
+
+    /** The last character written, 0 at the start. */
+    private char last;
+
+    /** Whether the writer is closed. */
+    private boolean closed;
+
+    /**
+     * Instantiates a new streaming html minifier.
+     *
+     * @param out
+     *            the writer receiving the minified content
+     */
+    public StreamingHtmlMinifier(Writer out) {
+        super(out);
+        this.out = out;
+    }
+
+    /**
+     * Preserve the regions between a pair of delimiters.
+     *
+     * @param open
+     *            the opening delimiter
+     * @param close
+     *            the closing delimiter
+     */
+    public void addPreserveDelimiters(String open, String close) {
+        if (open.isEmpty() || close.isEmpty()) {
+            throw new IllegalArgumentException("Preserve delimiters must not be empty");
+        }
+        preserveDelimiters.add(new String[] { open, close });
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        synchronized (lock) {
+            ensureOpen();
+            input.append(cbuf, off, len);
+            process(false);
+            drain();
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        synchronized (lock) {
+            ensureOpen();
+            input.append(str, off, off + len);
+            process(false);
+            drain();
+        }
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        synchronized (lock) {
+            ensureOpen();
+            input.append((char) c);
+            process(false);
+            drain();
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        synchronized (lock) {
+            ensureOpen();
+            out.flush();
+        }
+    }
+
+    /**
+     * Write out the held back characters, ending the document, without closing the underlying writer.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public void finish() throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            process(true);
+            drain();
+            out.flush();
+            closed = true;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            finish();
+            out.close();
+        }
+    }
+
+    /**
+     * Ensure open.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    /**
+     * Pass the minified characters on.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private void drain() throws IOException {
+        if (output.length() > 0) {
+            out.append(output);
+            output.setLength(0);
+        }
+    }
+
+    /**
+     * Minify the written characters as far as they can be decided.
+     *
+     * @param end
+     *            whether the document is complete
+     */
+    private void process(boolean end) {
+        int length = input.length();
+        int i = 0;
+        while (i < length) {
+            int next;
+            switch (state) {
+                case TEXT:
+                    next = processText(i, end);
+                    break;
+                case TAG:
+                    next = processTag(i, end);
+                    break;
+                case RAW:
+                    next = processRaw(i, end);
+                    break;
+                default:
+                    next = processDelimited(i, end);
+                    break;
+            }
+            if (next < 0) {
+                break;
+            }
+            i = next;
+        }
+        if (end && i < length) {
+            // An unfinished construct at the very end
+            emitSpace(input.charAt(i));
+            emit(input, i, length);
+            i = length;
+        }
+        input.delete(0, i);
+    }
+
+    /**
+     * Process text between tags.
+     *
+     * @param i
+     *            the position
+     * @param end
+     *            whether the document is complete
+     *
+     * @return the next position, or -1 if more characters are needed
+     */
+    private int processText(int i, boolean end) {
+        char c = input.charAt(i);
+        if (Character.isWhitespace(c)) {
+            space = true;
+            lineBreak |= c == '\n';
+            return i + 1;
+        }
+        int preserved = startPreserved(i, end, State.TEXT);
+        if (preserved != 0) {
+            return preserved;
+        }
+        if (c != '<') {
+            emitSpace(c);
+            emit(c);
+            return i + 1;
+        }
+        if (!end && i + 4 > input.length() && startsWith("<!--".substring(0, input.length() - i), i)) {
+            return -1;
+        }
+        if (startsWith("<!--", i)) {
+            if (i + 4 == input.length() && !end) {
+                return -1;
+            }
+            boolean conditional = i + 4 < input.length() && input.charAt(i + 4) == '[';
+            closing = "-->";
+            if (removeComments && !conditional) {
+                state = State.COMMENT;
+                return i + 4;
+            }
+            emitSpace(c);
+            emit(input, i, i + 4);
+            resumeState = State.TEXT;
+            state = State.PRESERVE;
+            return i + 4;
+        }
+        if (i + 1 == input.length()) {
+            return end ? emitLiteral(i) : -1;
+        }
+        char first = input.charAt(i + 1);
+        boolean endTag = first == '/';
+        int nameStart = endTag ? i + 2 : i + 1;
+        if (nameStart == input.length()) {
+            return end ? emitLiteral(i) : -1;
+        }
+        if (!Character.isLetter(input.charAt(nameStart)) && first != '!' && first != '?') {
+            return emitLiteral(i);
+        }
+        int nameEnd = nameStart + 1;
+        while (nameEnd < input.length() && isNameChar(input.charAt(nameEnd))) {
+            nameEnd++;
+        }
+        if (nameEnd == input.length() && !end) {
+            return -1;
+        }
+        String name = input.substring(nameStart, nameEnd).toLowerCase(Locale.ROOT);
+        rawElement = !endTag && RAW_ELEMENTS.contains(name) ? name : null;
+        emitSpace(c);
+        emit(input, i, nameEnd);
+        state = State.TAG;
+        quote = 0;
+        tagSpace = false;
+        return nameEnd;
+    }
+
+    /**
+     * Process the inside of a tag.
+     *
+     * @param i
+     *            the position
+     * @param end
+     *            whether the document is complete
+     *
+     * @return the next position, or -1 if more characters are needed
+     */
+    private int processTag(int i, boolean end) {
+        int preserved = startPreserved(i, end, State.TAG);
+        if (preserved != 0) {
+            return preserved;
+        }
+        char c = input.charAt(i);
+        if (quote != 0) {
+            emit(c);
+            if (c == quote) {
+                quote = 0;
+            }
+            return i + 1;
+        }
+        if (Character.isWhitespace(c)) {
+            tagSpace = true;
+            return i + 1;
+        }
+        if (c == '>') {
+            tagSpace = false;
+            emit(c);
+            if (rawElement != null) {
+                closing = "</" + rawElement;
+                rawElement = null;
+                state = State.RAW;
+            } else {
+                state = State.TEXT;
+            }
+            return i + 1;
+        }
+        if (tagSpace) {
+            emit(' ');
+            tagSpace = false;
+        }
+        if (c == '"' || c == '\'') {
+            quote = c;
+        }
+        emit(c);
+        return i + 1;
+    }
+
+    /**
+     * Process the content of a raw element, up to its closing tag.
+     *
+     * @param i
+     *            the position
+     * @param end
+     *            whether the document is complete
+     *
+     * @return the next position, or -1 if more characters are needed
+     */
+    private int processRaw(int i, boolean end) {
+        int length = input.length();
+        int j = i;
+        while (j < length && input.charAt(j) != '<') {
+            j++;
+        }
+        emit(input, i, j);
+        if (j == length) {
+            return j;
+        }
+        int available = Math.min(length - j, closing.length());
+        if (!input.substring(j, j + available).equalsIgnoreCase(closing.substring(0, available))) {
+            emit('<');
+            return j + 1;
+        }
+        if (available < closing.length() || j + closing.length() == length) {
+            // The closing tag may continue in the next chunk
+            if (end) {
+                emit(input, j, length);
+                return length;
+            }
+            return j > i ? j : -1;
+        }
+        if (isNameChar(input.charAt(j + closing.length()))) {
+            emit('<');
+            return j + 1;
+        }
+        emit(input, j, j + closing.length());
+        state = State.TAG;
+        quote = 0;
+        tagSpace = false;
+        return j + closing.length();
+    }
+
+    /**
+     * Process a removed comment or preserved region, up to its closing delimiter.
+     *
+     * @param i
+     *            the position
+     * @param end
+     *            whether the document is complete
+     *
+     * @return the next position, or -1 if more characters are needed
+     */
+    private int processDelimited(int i, boolean end) {
+        int found = input.indexOf(closing, i);
+        int next;
+        if (found >= 0) {
+            next = found + closing.length();
+        } else {
+            // Hold back what may be the start of the closing delimiter
+            next = end ? input.length() : Math.max(i, input.length() - closing.length() + 1);
+        }
+        if (state == State.PRESERVE) {
+            emit(input, i, next);
+        }
+        if (found >= 0) {
+            state = state == State.PRESERVE ? resumeState : State.TEXT;
+        }
+        return next > i || found >= 0 ? next : -1;
+    }
+
+    /**
+     * Start a preserved region at a position.
+     *
+     * @param i
+     *            the position
+     * @param end
+     *            whether the document is complete
+     * @param resume
+     *            the state to return to after the region
+     *
+     * @return the position after the opening delimiter, -1 if more characters are needed, 0 if no region starts here
+     */
+    private int startPreserved(int i, boolean end, State resume) {
+        for (String[] delimiters : preserveDelimiters) {
+            String open = delimiters[0];
+            int available = Math.min(input.length() - i, open.length());
+            if (!startsWith(open.substring(0, available), i)) {
+                continue;
+            }
+            if (available < open.length()) {
+                if (!end) {
+                    return -1;
+                }
+                continue;
+            }
+            if (resume == State.TEXT) {
+                emitSpace(open.charAt(0));
+            } else if (tagSpace) {
+                emit(' ');
+                tagSpace = false;
+            }
+            emit(input, i, i + open.length());
+            closing = delimiters[1];
+            resumeState = resume;
+            state = State.PRESERVE;
+            return i + open.length();
+        }
+        return 0;
+    }
+
+    /**
+     * Emit a {@code <} that does not start a tag.
+     *
+     * @param i
+     *            the position
+     *
+     * @return the next position
+     */
+    private int emitLiteral(int i) {
+        emitSpace('<');
+        emit('<');
+        return i + 1;
+    }
+
+    /**
+     * Emit the pending whitespace before a character, collapsed to a single space or line break.
+     *
+     * @param next
+     *            the character following the whitespace
+     */
+    private void emitSpace(char next) {
+        if (!space) {
+            return;
+        }
+        boolean newline = lineBreak;
+        space = false;
+        lineBreak = false;
+        if (last == 0 || (removeIntertagSpaces && last == '>' && next == '<')) {
+            return;
+        }
+        emit(preserveLineBreaks && newline ? '\n' : ' ');
+    }
+
+    /**
+     * Emit a character.
+     *
+     * @param c
+     *            the character
+     */
+    private void emit(char c) {
+        output.append(c);
+        last = c;
+    }
+
+    /**
+     * Emit characters of the input.
+     *
+     * @param chars
+     *            the characters
+     * @param start
+     *            the start
+     * @param end
+     *            the end
+     */
+    private void emit(CharSequence chars, int start, int end) {
+        if (end > start) {
+            output.append(chars, start, end);
+            last = chars.charAt(end - 1);
+        }
+    }
+
+    /**
+     * Checks if the input continues with a prefix at a position.
+     *
+     * @param prefix
+     *            the prefix
+     * @param i
+     *            the position
+     *
+     * @return true, if the input continues with the prefix
+     */
+    private boolean startsWith(String prefix, int i) {
+        if (i + prefix.length() > input.length()) {
+            return false;
+        }
+        for (int k = 0; k < prefix.length(); k++) {
+            if (input.charAt(i + k) != prefix.charAt(k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if a character may be part of a tag name.
+     *
+     * @param c
+     *            the character
+     *
+     * @return true, if is name char
+     */
+    private static boolean isNameChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '-' || c == ':' || c == '_' || c == '.';
+    }
+
+    /**
+     * Checks if is remove comments.
+     *
+     * @return true, if is remove comments
+     */
+    public boolean isRemoveComments() {
+        return removeComments;
+    }
+
+    /**
+     * Sets the remove comments.
+     *
+     * @param removeComments
+     *            the new remove comments
+     */
+    public void setRemoveComments(boolean removeComments) {
+        this.removeComments = removeComments;
+    }
+
+    /**
+     * Checks if is remove intertag spaces.
+     *
+     * @return true, if is remove intertag spaces
+     */
+    public boolean isRemoveIntertagSpaces() {
+        return removeIntertagSpaces;
+    }
+
+    /**
+     * Sets the remove intertag spaces.
+     *
+     * @param removeIntertagSpaces
+     *            the new remove intertag spaces
+     */
+    public void setRemoveIntertagSpaces(boolean removeIntertagSpaces) {
+        this.removeIntertagSpaces = removeIntertagSpaces;
+    }
+
+    /**
+     * Checks if is preserve line breaks.
+     *
+     * @return true, if is preserve line breaks
+     */
+    public boolean isPreserveLineBreaks() {
+        return preserveLineBreaks;
+    }
+
+    /**
+     * Sets the preserve line breaks.
+     *
+     * @param preserveLineBreaks
+     *            the new preserve line breaks
+     */
+    public void setPreserveLineBreaks(boolean preserveLineBreaks) {
+        this.preserveLineBreaks = preserveLineBreaks;
+    }
+}
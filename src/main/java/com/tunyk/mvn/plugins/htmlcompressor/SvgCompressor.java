@@ -0,0 +1,767 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * XML compressor with SVG specific optimizations.
+ * <p>
+ * Before the regular XML compression the markup is scanned once, without building a DOM, to drop editor metadata,
+ * redundant namespace declarations and attributes that repeat their default value, and to round the numbers in path
+ * data. Inherited presentation attributes are only treated as defaults when no ancestor, style sheet or reuse through
+ * an id could make the explicit value significant.
+ */
+public class SvgCompressor extends com.googlecode.htmlcompressor.compressor.XmlCompressor {
+
+    /** Prefixes of elements and attributes written by drawing tools. */
+    private static final Set<String> EDITOR_PREFIXES = Set.of("sodipodi", "inkscape", "sketch", "serif");
+
+    /** Elements whose content is rendered through references rather than in place. */
+    private static final Set<String> REFERENCED_CONTAINERS = Set.of("defs", "symbol", "pattern", "marker", "clipPath",
+            "mask");
+
+    /** Elements whose x and y attributes default to 0. */
+    private static final Set<String> ZERO_POSITION_ELEMENTS = Set.of("svg", "rect", "use", "image");
+
+    /** Defaults of attributes that are not inherited. */
+    private static final Map<String, String> DEFAULTS = Map.of("opacity", "1", "display", "inline",
+            "preserveAspectRatio", "xMidYMid meet");
+
+    /** Defaults of inherited presentation attributes. */
+    private static final Map<String, String> INHERITED_DEFAULTS = new HashMap<>();
+
+    static {
+        INHERITED_DEFAULTS.put("fill-opacity", "1");
+        INHERITED_DEFAULTS.put("fill-rule", "nonzero");
+        INHERITED_DEFAULTS.put("clip-rule", "nonzero");
+        INHERITED_DEFAULTS.put("stroke", "none");
+        INHERITED_DEFAULTS.put("stroke-width", "1");
+        INHERITED_DEFAULTS.put("stroke-opacity", "1");
+        INHERITED_DEFAULTS.put("stroke-linecap", "butt");
+        INHERITED_DEFAULTS.put("stroke-linejoin", "miter");
+        INHERITED_DEFAULTS.put("stroke-miterlimit", "4");
+        INHERITED_DEFAULTS.put("stroke-dasharray", "none");
+        INHERITED_DEFAULTS.put("stroke-dashoffset", "0");
+        INHERITED_DEFAULTS.put("visibility", "visible");
+    }
+
+    /** The remove editor metadata. */
+    private boolean removeEditorMetadata = true;
+
+    /** The remove default attributes. */
+    private boolean removeDefaultAttributes = true;
+
+    /** The number of decimal places kept in path data, negative keeps path data unchanged. */
+    private int precision = 3;
+
+    @Override
+    public String compress(String xml) {
+        if (!isEnabled() || xml == null || xml.isEmpty()) {
+            return xml;
+        }
+        return super.compress(optimize(xml));
+    }
+
+    /**
+     * Apply the SVG specific optimizations.
+     *
+     * @param svg
+     *            the svg
+     *
+     * @return the optimized svg, or the original if it could not be tokenized
+     */
+    protected String optimize(String svg) {
+        try {
+            return new Optimizer(svg).run();
+        } catch (IllegalArgumentException e) {
+            return svg;
+        }
+    }
+
+    /**
+     * Round the numbers in path or points data and drop unneeded separators.
+     *
+     * @param data
+     *            the data
+     * @param precision
+     *            the decimal places to keep
+     *
+     * @return the shortened data
+     */
+    static String shortenPathData(String data, int precision) {
+        StringBuilder sb = new StringBuilder(data.length());
+        int length = data.length();
+        boolean lastWasNumber = false;
+        boolean lastHadDot = false;
+        int i = 0;
+        while (i < length) {
+            char c = data.charAt(i);
+            int end = numberEnd(data, i);
+            if (end > i) {
+                String number = formatNumber(data.substring(i, end), precision);
+                if (lastWasNumber && number.charAt(0) != '-' && !(number.charAt(0) == '.' && lastHadDot)) {
+                    sb.append(' ');
+                }
+                sb.append(number);
+                lastWasNumber = true;
+                lastHadDot = number.indexOf('.') >= 0 && number.indexOf('e') < 0 && number.indexOf('E') < 0;
+                i = end;
+            } else {
+                if (c != ',' && !Character.isWhitespace(c)) {
+                    sb.append(c);
+                    lastWasNumber = false;
+                }
+                i++;
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Find the end of a number starting at the index.
+     *
+     * @param data
+     *            the data
+     * @param i
+     *            the index
+     *
+     * @return the exclusive end index, equal to i if no number starts there
+     */
+    private static int numberEnd(String data, int i) {
+        int length = data.length();
+        int j = i;
+        if (j < length && (data.charAt(j) == '-' || data.charAt(j) == '+')) {
+            j++;
+        }
+        int digits = 0;
+        while (j < length && Character.isDigit(data.charAt(j))) {
+            j++;
+            digits++;
+        }
+        if (j < length && data.charAt(j) == '.') {
+            j++;
+            while (j < length && Character.isDigit(data.charAt(j))) {
+                j++;
+                digits++;
+            }
+        }
+        if (digits == 0) {
+            return i;
+        }
+        if (j < length && (data.charAt(j) == 'e' || data.charAt(j) == 'E')) {
+            int k = j + 1;
+            if (k < length && (data.charAt(k) == '-' || data.charAt(k) == '+')) {
+                k++;
+            }
+            if (k < length && Character.isDigit(data.charAt(k))) {
+                j = k;
+                while (j < length && Character.isDigit(data.charAt(j))) {
+                    j++;
+                }
+            }
+        }
+        return j;
+    }
+
+    /**
+     * Round a number to the given decimal places and drop redundant zeros.
+     *
+     * @param token
+     *            the number as written
+     * @param precision
+     *            the decimal places to keep
+     *
+     * @return the shortest equivalent form
+     */
+    private static String formatNumber(String token, int precision) {
+        int dot = token.indexOf('.');
+        if (dot < 0 || token.indexOf('e') >= 0 || token.indexOf('E') >= 0) {
+            return token;
+        }
+        int signLength = token.charAt(0) == '-' || token.charAt(0) == '+' ? 1 : 0;
+        if (dot - signLength > 1 && token.charAt(signLength) == '0') {
+            // Leading zeros only occur where arc flags run into the next number, leave those alone
+            return token;
+        }
+        String number = token;
+        if (token.length() - dot - 1 > precision) {
+            number = new BigDecimal(token).setScale(precision, RoundingMode.HALF_UP).toPlainString();
+        }
+        int end = number.length();
+        int numberDot = number.indexOf('.');
+        if (numberDot >= 0) {
+            while (end > numberDot + 1 && number.charAt(end - 1) == '0') {
+                end--;
+            }
+            if (end == numberDot + 1) {
+                end = numberDot;
+            }
+        }
+        boolean negative = number.charAt(0) == '-';
+        String abs = number.substring(negative || number.charAt(0) == '+' ? 1 : 0, end);
+        if (abs.startsWith("0.")) {
+            abs = abs.substring(1);
+        }
+        if (abs.isEmpty() || "0".equals(abs)) {
+            return "0";
+        }
+        return negative ? "-" + abs : abs;
+    }
+
+    /**
+     * Gets the prefix of a qualified name.
+     *
+     * @param name
+     *            the name
+     *
+     * @return the prefix, or null if the name is not prefixed
+     */
+    private static String prefixOf(String name) {
+        int colon = name.indexOf(':');
+        return colon > 0 ? name.substring(0, colon) : null;
+    }
+
+    /**
+     * Checks if a name belongs to a drawing tool.
+     *
+     * @param name
+     *            the name
+     *
+     * @return true, if is editor name
+     */
+    private static boolean isEditorName(String name) {
+        String prefix = prefixOf(name);
+        return prefix != null && EDITOR_PREFIXES.contains(prefix);
+    }
+
+    /**
+     * Checks if is remove editor metadata.
+     *
+     * @return true, if is remove editor metadata
+     */
+    public boolean isRemoveEditorMetadata() {
+        return removeEditorMetadata;
+    }
+
+    /**
+     * Sets the remove editor metadata.
+     *
+     * @param removeEditorMetadata
+     *            the new remove editor metadata
+     */
+    public void setRemoveEditorMetadata(boolean removeEditorMetadata) {
+        this.removeEditorMetadata = removeEditorMetadata;
+    }
+
+    /**
+     * Checks if is remove default attributes.
+     *
+     * @return true, if is remove default attributes
+     */
+    public boolean isRemoveDefaultAttributes() {
+        return removeDefaultAttributes;
+    }
+
+    /**
+     * Sets the remove default attributes.
+     *
+     * @param removeDefaultAttributes
+     *            the new remove default attributes
+     */
+    public void setRemoveDefaultAttributes(boolean removeDefaultAttributes) {
+        this.removeDefaultAttributes = removeDefaultAttributes;
+    }
+
+    /**
+     * Gets the precision.
+     *
+     * @return the precision
+     */
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Sets the precision.
+     *
+     * @param precision
+     *            the new precision, negative keeps path data unchanged
+     */
+    public void setPrecision(int precision) {
+        this.precision = precision;
+    }
+
+    /**
+     * An element being processed, holding what its descendants inherit from it.
+     */
+    private static final class Scope {
+
+        /** The namespaces declared on the element. */
+        private final Map<String, String> namespaces = new HashMap<>();
+
+        /** The presentation properties set on the element. */
+        private final Set<String> properties = new HashSet<>();
+
+        /** Whether the element's content may be rendered through a reference. */
+        private boolean referenced;
+    }
+
+    /**
+     * An attribute as written in the source.
+     */
+    private static final class Attribute {
+
+        /** The name. */
+        private final String name;
+
+        /** The value. */
+        private final String value;
+
+        /** The quote. */
+        private final char quote;
+
+        /**
+         * Instantiates a new attribute.
+         *
+         * @param name
+         *            the name
+         * @param value
+         *            the value
+         * @param quote
+         *            the quote
+         */
+        private Attribute(String name, String value, char quote) {
+            this.name = name;
+            this.value = value;
+            this.quote = quote;
+        }
+    }
+
+    /**
+     * Single pass over one document.
+     */
+    private final class Optimizer {
+
+        /** The svg. */
+        private final String svg;
+
+        /** The output. */
+        private final StringBuilder out;
+
+        /** The open elements, innermost first. */
+        private final Deque<Scope> scopes = new ArrayDeque<>();
+
+        /** The prefixes used by element and attribute names. */
+        private final Set<String> usedPrefixes = new HashSet<>();
+
+        /** The output ranges of prefixed namespace declarations. */
+        private final List<int[]> declarations = new ArrayList<>();
+
+        /** The prefixes of the namespace declarations. */
+        private final List<String> declarationPrefixes = new ArrayList<>();
+
+        /** Whether a style sheet could set presentation properties. */
+        private final boolean hasStyleSheet;
+
+        /** The depth inside a removed element. */
+        private int skipDepth;
+
+        /**
+         * Instantiates a new optimizer.
+         *
+         * @param svg
+         *            the svg
+         */
+        private Optimizer(String svg) {
+            this.svg = svg;
+            this.out = new StringBuilder(svg.length());
+            this.hasStyleSheet = svg.contains("<style") || svg.contains("<?xml-stylesheet");
+        }
+
+        /**
+         * Run.
+         *
+         * @return the optimized svg
+         */
+        private String run() {
+            int length = svg.length();
+            int i = 0;
+            while (i < length) {
+                int lt = svg.indexOf('<', i);
+                if (lt < 0) {
+                    copy(i, length);
+                    break;
+                }
+                copy(i, lt);
+                if (svg.startsWith("<!--", lt)) {
+                    i = copyThrough(lt, "-->");
+                } else if (svg.startsWith("<![CDATA[", lt)) {
+                    i = copyThrough(lt, "]]>");
+                } else if (svg.startsWith("<?", lt)) {
+                    i = copyThrough(lt, "?>");
+                } else if (svg.startsWith("<!", lt)) {
+                    i = declarationEnd(lt);
+                    copy(lt, i);
+                } else if (svg.startsWith("</", lt)) {
+                    i = endTag(lt);
+                } else {
+                    i = startTag(lt);
+                }
+            }
+
+            for (int d = declarations.size() - 1; d >= 0; d--) {
+                if (!usedPrefixes.contains(declarationPrefixes.get(d))) {
+                    int[] range = declarations.get(d);
+                    out.delete(range[0], range[1]);
+                }
+            }
+            return out.toString();
+        }
+
+        /**
+         * Copy source text unless inside a removed element.
+         *
+         * @param from
+         *            the from
+         * @param to
+         *            the to
+         */
+        private void copy(int from, int to) {
+            if (skipDepth == 0) {
+                out.append(svg, from, to);
+            }
+        }
+
+        /**
+         * Copy source text through the closing delimiter.
+         *
+         * @param from
+         *            the from
+         * @param closer
+         *            the closer
+         *
+         * @return the index after the closer
+         */
+        private int copyThrough(int from, String closer) {
+            int end = svg.indexOf(closer, from);
+            if (end < 0) {
+                throw new IllegalArgumentException("Unterminated " + closer);
+            }
+            copy(from, end + closer.length());
+            return end + closer.length();
+        }
+
+        /**
+         * Find the end of a markup declaration such as a doctype with an internal subset.
+         *
+         * @param lt
+         *            the index of '&lt;'
+         *
+         * @return the index after the declaration
+         */
+        private int declarationEnd(int lt) {
+            int depth = 0;
+            for (int j = lt + 2; j < svg.length(); j++) {
+                char c = svg.charAt(j);
+                if (c == '[') {
+                    depth++;
+                } else if (c == ']') {
+                    depth--;
+                } else if (c == '>' && depth <= 0) {
+                    return j + 1;
+                }
+            }
+            throw new IllegalArgumentException("Unterminated declaration");
+        }
+
+        /**
+         * Process an end tag.
+         *
+         * @param lt
+         *            the index of '&lt;'
+         *
+         * @return the index after the tag
+         */
+        private int endTag(int lt) {
+            int end = svg.indexOf('>', lt);
+            if (end < 0) {
+                throw new IllegalArgumentException("Unterminated end tag");
+            }
+            if (skipDepth > 0) {
+                skipDepth--;
+            } else {
+                scopes.poll();
+                out.append(svg, lt, end + 1);
+            }
+            return end + 1;
+        }
+
+        /**
+         * Process a start or empty element tag.
+         *
+         * @param lt
+         *            the index of '&lt;'
+         *
+         * @return the index after the tag
+         */
+        private int startTag(int lt) {
+            int length = svg.length();
+            int j = lt + 1;
+            while (j < length && !isTagDelimiter(svg.charAt(j))) {
+                j++;
+            }
+            String name = svg.substring(lt + 1, j);
+            List<Attribute> attributes = new ArrayList<>();
+            boolean selfClosing = false;
+            while (true) {
+                while (j < length && Character.isWhitespace(svg.charAt(j))) {
+                    j++;
+                }
+                if (j >= length) {
+                    throw new IllegalArgumentException("Unterminated tag " + name);
+                }
+                char c = svg.charAt(j);
+                if (c == '>') {
+                    j++;
+                    break;
+                }
+                if (c == '/') {
+                    selfClosing = true;
+                    j++;
+                    continue;
+                }
+                int nameStart = j;
+                while (j < length && !isTagDelimiter(svg.charAt(j)) && svg.charAt(j) != '=') {
+                    j++;
+                }
+                String attributeName = svg.substring(nameStart, j);
+                while (j < length && Character.isWhitespace(svg.charAt(j))) {
+                    j++;
+                }
+                if (j >= length || svg.charAt(j) != '=') {
+                    throw new IllegalArgumentException("Attribute without value in " + name);
+                }
+                j++;
+                while (j < length && Character.isWhitespace(svg.charAt(j))) {
+                    j++;
+                }
+                char quote = j < length ? svg.charAt(j) : 0;
+                if (quote != '"' && quote != '\'') {
+                    throw new IllegalArgumentException("Unquoted attribute in " + name);
+                }
+                int valueEnd = svg.indexOf(quote, j + 1);
+                if (valueEnd < 0) {
+                    throw new IllegalArgumentException("Unterminated attribute in " + name);
+                }
+                attributes.add(new Attribute(attributeName, svg.substring(j + 1, valueEnd), quote));
+                j = valueEnd + 1;
+            }
+
+            if (skipDepth > 0 || (removeEditorMetadata && ("metadata".equals(name) || isEditorName(name)))) {
+                if (!selfClosing) {
+                    skipDepth++;
+                }
+                return j;
+            }
+
+            Scope scope = new Scope();
+            Scope parent = scopes.peek();
+            scope.referenced = (parent != null && parent.referenced) || REFERENCED_CONTAINERS.contains(name);
+            boolean hasId = false;
+            for (Attribute attribute : attributes) {
+                hasId |= "id".equals(attribute.name);
+            }
+            scope.referenced |= hasId;
+            addPrefix(name);
+
+            out.append('<').append(name);
+            for (Attribute attribute : attributes) {
+                appendAttribute(name, attribute, scope, hasId);
+            }
+            out.append(selfClosing ? "/>" : ">");
+            if (!selfClosing) {
+                scopes.push(scope);
+            }
+            return j;
+        }
+
+        /**
+         * Append an attribute unless it is redundant.
+         *
+         * @param element
+         *            the element name
+         * @param attribute
+         *            the attribute
+         * @param scope
+         *            the scope of the element
+         * @param hasId
+         *            whether the element has an id
+         */
+        private void appendAttribute(String element, Attribute attribute, Scope scope, boolean hasId) {
+            String name = attribute.name;
+            String value = attribute.value;
+            if (removeEditorMetadata && isEditorName(name)) {
+                return;
+            }
+
+            if ("xmlns".equals(name) || name.startsWith("xmlns:")) {
+                String prefix = "xmlns".equals(name) ? "" : name.substring(6);
+                if (removeEditorMetadata && EDITOR_PREFIXES.contains(prefix)) {
+                    return;
+                }
+                if (value.equals(namespaceInScope(prefix))) {
+                    return;
+                }
+                scope.namespaces.put(prefix, value);
+                int start = out.length();
+                writeAttribute(name, value, attribute.quote);
+                if (!prefix.isEmpty()) {
+                    declarations.add(new int[] { start, out.length() });
+                    declarationPrefixes.add(prefix);
+                }
+                return;
+            }
+
+            addPrefix(name);
+            if (removeDefaultAttributes && isDefault(element, name, value, hasId)) {
+                return;
+            }
+            if (INHERITED_DEFAULTS.containsKey(name)) {
+                scope.properties.add(name);
+            } else if ("style".equals(name)) {
+                for (int start = 0; start < value.length();) {
+                    int end = value.indexOf(';', start);
+                    if (end < 0) {
+                        end = value.length();
+                    }
+                    int colon = value.indexOf(':', start);
+                    if (colon > start && colon < end) {
+                        scope.properties.add(value.substring(start, colon).trim());
+                    }
+                    start = end + 1;
+                }
+            }
+            if (precision >= 0 && ("d".equals(name) || "points".equals(name))) {
+                value = shortenPathData(value, precision);
+            }
+            writeAttribute(name, value, attribute.quote);
+        }
+
+        /**
+         * Checks if an attribute repeats the value it would have anyway.
+         *
+         * @param element
+         *            the element name
+         * @param name
+         *            the attribute name
+         * @param value
+         *            the value
+         * @param hasId
+         *            whether the element has an id
+         *
+         * @return true, if the attribute can be dropped
+         */
+        private boolean isDefault(String element, String name, String value, boolean hasId) {
+            if (("x".equals(name) || "y".equals(name)) && ZERO_POSITION_ELEMENTS.contains(element)) {
+                return "0".equals(value);
+            }
+            if (value.equals(DEFAULTS.get(name))) {
+                return true;
+            }
+            if (!value.equals(INHERITED_DEFAULTS.get(name)) || hasId || hasStyleSheet) {
+                return false;
+            }
+            for (Scope ancestor : scopes) {
+                if (ancestor.referenced || ancestor.properties.contains(name)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Find the namespace bound to a prefix by an ancestor.
+         *
+         * @param prefix
+         *            the prefix
+         *
+         * @return the namespace, or null if unbound
+         */
+        private String namespaceInScope(String prefix) {
+            Iterator<Scope> iterator = scopes.iterator();
+            while (iterator.hasNext()) {
+                String namespace = iterator.next().namespaces.get(prefix);
+                if (namespace != null) {
+                    return namespace;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Record the prefix of a name as used.
+         *
+         * @param name
+         *            the name
+         */
+        private void addPrefix(String name) {
+            String prefix = prefixOf(name);
+            if (prefix != null) {
+                usedPrefixes.add(prefix);
+            }
+        }
+
+        /**
+         * Write an attribute.
+         *
+         * @param name
+         *            the name
+         * @param value
+         *            the value
+         * @param quote
+         *            the quote
+         */
+        private void writeAttribute(String name, String value, char quote) {
+            out.append(' ').append(name).append('=').append(quote).append(value).append(quote);
+        }
+
+        /**
+         * Checks if a character ends a tag or attribute name.
+         *
+         * @param c
+         *            the c
+         *
+         * @return true, if is tag delimiter
+         */
+        private boolean isTagDelimiter(char c) {
+            return Character.isWhitespace(c) || c == '/' || c == '>';
+        }
+    }
+}
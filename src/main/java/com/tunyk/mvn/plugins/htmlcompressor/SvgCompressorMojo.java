@@ -0,0 +1,376 @@
+/*
+ * Copyright (c) 2011-2024 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import java.nio.charset.Charset;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Compress SVG files.
+ */
+@Mojo(name = "svg", defaultPhase = LifecyclePhase.COMPILE, requiresProject = false, threadSafe = true)
+public class SvgCompressorMojo extends AbstractMojo {
+
+    /** file extensions to be processed (default is svg). */
+    @Parameter(property = "htmlcompressor.fileExtensions")
+    private String[] fileExtensions;
+
+    /** if false all compression is off (default is true). */
+    @Parameter(property = "htmlcompressor.enabled", defaultValue = "true")
+    private boolean enabled = true;
+
+    /** Skip run of plugin. */
+    @Parameter(defaultValue = "false", alias = "skip", property = "skip")
+    private boolean skip;
+
+    /** if false keeps SVG comments (default is true). */
+    @Parameter(property = "htmlcompressor.removeComments", defaultValue = "true")
+    private boolean removeComments = true;
+
+    /** removes iter-tag whitespace characters (default is true). */
+    @Parameter(property = "htmlcompressor.removeIntertagSpaces", defaultValue = "true")
+    private boolean removeIntertagSpaces = true;
+
+    /**
+     * source folder where svg files are located.
+     */
+    @Parameter(property = "htmlcompressor.srcFolder", defaultValue = "${project.basedir}/src/main/resources")
+    private String srcFolder = "src/main/resources";
+
+    /**
+     * target folder where compressed svg files will be placed.
+     */
+    @Parameter(property = "htmlcompressor.targetFolder", defaultValue = "${project.build.directory}/classes")
+    private String targetFolder = "target/classes";
+
+    /** removes metadata, elements and attributes written by drawing tools such as Inkscape (default is true). */
+    @Parameter(property = "htmlcompressor.removeEditorMetadata", defaultValue = "true")
+    private boolean removeEditorMetadata = true;
+
+    /** removes attributes set to their default value (default is true). */
+    @Parameter(property = "htmlcompressor.removeDefaultAttributes", defaultValue = "true")
+    private boolean removeDefaultAttributes = true;
+
+    /**
+     * decimal places kept for numbers in path and points data, negative keeps them unchanged (default is 3).
+     */
+    @Parameter(property = "htmlcompressor.svgPrecision", defaultValue = "3")
+    private int svgPrecision = 3;
+
+    /** Charset encoding for files to read and create. */
+    @Parameter(property = "htmlcompressor.encoding", defaultValue = "UTF-8")
+    private String encoding = "UTF-8";
+
+    /**
+     * Hard link files whose content duplicates an already written file instead of copying it, where the file system
+     * supports links.
+     */
+    @Parameter(property = "htmlcompressor.linkDuplicates", defaultValue = "false")
+    private boolean linkDuplicates;
+
+    /**
+     * Maximum time in milliseconds to spend compressing a single file, 0 disables the limit.
+     */
+    @Parameter(property = "htmlcompressor.fileTimeout", defaultValue = "0")
+    private long fileTimeout;
+
+    /**
+     * If true a file exceeding fileTimeout fails the build, otherwise the original file is copied through unchanged.
+     */
+    @Parameter(property = "htmlcompressor.failOnTimeout", defaultValue = "true")
+    private boolean failOnTimeout = true;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        // Check if plugin run should be skipped
+        if (this.skip) {
+            getLog().info("SVGCompressor is skipped");
+            return;
+        }
+
+        if (!enabled) {
+            getLog().info("SVG compression was turned off.");
+            return;
+        }
+
+        getLog().info("Compressing " + srcFolder);
+        XmlCompressor xmlCompressor = new XmlCompressor(srcFolder, targetFolder);
+        xmlCompressor.setFileExtensions(fileExtensions == null ? new String[] { "svg" } : fileExtensions);
+        xmlCompressor.setFileEncoding(Charset.forName(encoding));
+        xmlCompressor.setFileTimeout(fileTimeout);
+        xmlCompressor.setFailOnTimeout(failOnTimeout);
+        xmlCompressor.setLinkDuplicates(linkDuplicates);
+
+        SvgCompressor svgCompressor = new SvgCompressor();
+        svgCompressor.setEnabled(enabled);
+        svgCompressor.setRemoveComments(removeComments);
+        svgCompressor.setRemoveIntertagSpaces(removeIntertagSpaces);
+        svgCompressor.setRemoveEditorMetadata(removeEditorMetadata);
+        svgCompressor.setRemoveDefaultAttributes(removeDefaultAttributes);
+        svgCompressor.setPrecision(svgPrecision);
+        xmlCompressor.setXmlCompressor(svgCompressor);
+
+        try {
+            xmlCompressor.compress();
+        } catch (Exception e) {
+            throw new MojoExecutionException(e.getMessage());
+        }
+        for (String file : xmlCompressor.getTimedOutFiles()) {
+            getLog().warn("Compression of " + file + " exceeded " + fileTimeout + " ms, copied original file");
+        }
+        if (xmlCompressor.getDuplicateFiles() > 0) {
+            getLog().info("Reused compressed output for " + xmlCompressor.getDuplicateFiles() + " duplicate files.");
+        }
+
+        getLog().info("SVG compression completed.");
+    }
+
+    /**
+     * Gets the file extensions.
+     *
+     * @return the file extensions
+     */
+    public String[] getFileExtensions() {
+        return fileExtensions;
+    }
+
+    /**
+     * Sets the file ext.
+     *
+     * @param fileExtensions
+     *            the new file extensions
+     */
+    public void setFileExtensions(String[] fileExtensions) {
+        this.fileExtensions = fileExtensions;
+    }
+
+    /**
+     * Gets the enabled.
+     *
+     * @return the enabled
+     */
+    public Boolean getEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets the enabled.
+     *
+     * @param enabled
+     *            the new enabled
+     */
+    public void setEnabled(Boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets the removes the comments.
+     *
+     * @return the removes the comments
+     */
+    public Boolean getRemoveComments() {
+        return removeComments;
+    }
+
+    /**
+     * Sets the removes the comments.
+     *
+     * @param removeComments
+     *            the new removes the comments
+     */
+    public void setRemoveComments(Boolean removeComments) {
+        this.removeComments = removeComments;
+    }
+
+    /**
+     * Gets the removes the intertag spaces.
+     *
+     * @return the removes the intertag spaces
+     */
+    public Boolean getRemoveIntertagSpaces() {
+        return removeIntertagSpaces;
+    }
+
+    /**
+     * Sets the removes the intertag spaces.
+     *
+     * @param removeIntertagSpaces
+     *            the new removes the intertag spaces
+     */
+    public void setRemoveIntertagSpaces(Boolean removeIntertagSpaces) {
+        this.removeIntertagSpaces = removeIntertagSpaces;
+    }
+
+    /**
+     * Gets the src folder.
+     *
+     * @return the src folder
+     */
+    public String getSrcFolder() {
+        return srcFolder;
+    }
+
+    /**
+     * Sets the src folder.
+     *
+     * @param srcFolder
+     *            the new src folder
+     */
+    public void setSrcFolder(String srcFolder) {
+        this.srcFolder = srcFolder;
+    }
+
+    /**
+     * Gets the target folder.
+     *
+     * @return the target folder
+     */
+    public String getTargetFolder() {
+        return targetFolder;
+    }
+
+    /**
+     * Sets the target folder.
+     *
+     * @param targetFolder
+     *            the new target folder
+     */
+    public void setTargetFolder(String targetFolder) {
+        this.targetFolder = targetFolder;
+    }
+
+    /**
+     * Gets the link duplicates.
+     *
+     * @return the link duplicates
+     */
+    public Boolean getLinkDuplicates() {
+        return linkDuplicates;
+    }
+
+    /**
+     * Sets the link duplicates.
+     *
+     * @param linkDuplicates
+     *            the new link duplicates
+     */
+    public void setLinkDuplicates(Boolean linkDuplicates) {
+        this.linkDuplicates = linkDuplicates;
+    }
+
+    /**
+     * Gets the file timeout.
+     *
+     * @return the file timeout
+     */
+    public Long getFileTimeout() {
+        return fileTimeout;
+    }
+
+    /**
+     * Sets the file timeout.
+     *
+     * @param fileTimeout
+     *            the new file timeout
+     */
+    public void setFileTimeout(Long fileTimeout) {
+        this.fileTimeout = fileTimeout;
+    }
+
+    /**
+     * Gets the fail on timeout.
+     *
+     * @return the fail on timeout
+     */
+    public Boolean getFailOnTimeout() {
+        return failOnTimeout;
+    }
+
+    /**
+     * Sets the fail on timeout.
+     *
+     * @param failOnTimeout
+     *            the new fail on timeout
+     */
+    public void setFailOnTimeout(Boolean failOnTimeout) {
+        this.failOnTimeout = failOnTimeout;
+    }
+
+    /**
+     * Gets the removes the editor metadata.
+     *
+     * @return the removes the editor metadata
+     */
+    public Boolean getRemoveEditorMetadata() {
+        return removeEditorMetadata;
+    }
+
+    /**
+     * Sets the removes the editor metadata.
+     *
+     * @param removeEditorMetadata
+     *            the new removes the editor metadata
+     */
+    public void setRemoveEditorMetadata(Boolean removeEditorMetadata) {
+        this.removeEditorMetadata = removeEditorMetadata;
+    }
+
+    /**
+     * Gets the removes the default attributes.
+     *
+     * @return the removes the default attributes
+     */
+    public Boolean getRemoveDefaultAttributes() {
+        return removeDefaultAttributes;
+    }
+
+    /**
+     * Sets the removes the default attributes.
+     *
+     * @param removeDefaultAttributes
+     *            the new removes the default attributes
+     */
+    public void setRemoveDefaultAttributes(Boolean removeDefaultAttributes) {
+        this.removeDefaultAttributes = removeDefaultAttributes;
+    }
+
+    /**
+     * Gets the svg precision.
+     *
+     * @return the svg precision
+     */
+    public Integer getSvgPrecision() {
+        return svgPrecision;
+    }
+
+    /**
+     * Sets the svg precision.
+     *
+     * @param svgPrecision
+     *            the new svg precision
+     */
+    public void setSvgPrecision(Integer svgPrecision) {
+        this.svgPrecision = svgPrecision;
+    }
+}
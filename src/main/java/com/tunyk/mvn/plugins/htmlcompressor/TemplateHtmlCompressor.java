@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * HTML compressor that leaves JSP, Velocity and Thymeleaf constructs untouched.
+ * <p>
+ * Template regions are found by {@link TemplatePreserveTokenizer} in a single scan instead of running one regular
+ * expression per construct through the preserve patterns.
+ */
+public class TemplateHtmlCompressor extends com.googlecode.htmlcompressor.compressor.HtmlCompressor {
+
+    /** The tokenizer. */
+    private final TemplatePreserveTokenizer tokenizer;
+
+    /**
+     * Instantiates a new template html compressor.
+     *
+     * @param languages
+     *            the template languages to preserve
+     */
+    public TemplateHtmlCompressor(Set<TemplatePreserveTokenizer.Language> languages) {
+        this.tokenizer = new TemplatePreserveTokenizer(languages);
+    }
+
+    @Override
+    public String compress(String html) {
+        List<String> blocks = new ArrayList<>();
+        String preserved = tokenizer.preserve(html, blocks);
+        return TemplatePreserveTokenizer.restore(super.compress(preserved), blocks);
+    }
+}
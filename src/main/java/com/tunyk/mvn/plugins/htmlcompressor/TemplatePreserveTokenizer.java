@@ -0,0 +1,526 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Finds JSP, Velocity and Thymeleaf constructs that must survive compression unchanged.
+ * <p>
+ * The content is scanned once from left to right. Every recognized region is replaced by a placeholder which the HTML
+ * compressor leaves alone, and {@link #restore(String, List)} puts the regions back afterwards. Once the closing
+ * delimiter of a construct is known to be missing from the rest of the content, that construct is no longer looked for,
+ * which keeps malformed templates from turning the scan quadratic.
+ */
+public class TemplatePreserveTokenizer {
+
+    /**
+     * The supported template languages.
+     */
+    public enum Language {
+
+        /** JSP scriptlets, directives, comments, prefixed tags and EL expressions. */
+        JSP,
+
+        /** Velocity directives, comments, unparsed blocks and references. */
+        VELOCITY,
+
+        /** Thymeleaf inline and standard expressions and comment blocks. */
+        THYMELEAF
+    }
+
+    /** The Constant PLACEHOLDER_PREFIX. */
+    private static final String PLACEHOLDER_PREFIX = "%%%~COMPRESS~TEMPLATE~";
+
+    /** The Constant PLACEHOLDER_SUFFIX. */
+    private static final String PLACEHOLDER_SUFFIX = "~%%%";
+
+    /** The Constant PLACEHOLDER_PATTERN. */
+    private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("%%%~COMPRESS~TEMPLATE~(\\d+)~%%%");
+
+    /** Velocity directives taking arguments. */
+    private static final Set<String> VELOCITY_DIRECTIVES = Set.of("if", "elseif", "foreach", "set", "include", "parse",
+            "evaluate", "define", "macro");
+
+    /** Velocity directives without arguments. */
+    private static final Set<String> VELOCITY_BARE_DIRECTIVES = Set.of("else", "end", "break", "stop");
+
+    /** The jsp. */
+    private final boolean jsp;
+
+    /** The velocity. */
+    private final boolean velocity;
+
+    /** The thymeleaf. */
+    private final boolean thymeleaf;
+
+    /**
+     * Instantiates a new template preserve tokenizer.
+     *
+     * @param languages
+     *            the template languages to recognize
+     */
+    public TemplatePreserveTokenizer(Set<Language> languages) {
+        Set<Language> set = languages.isEmpty() ? EnumSet.noneOf(Language.class) : EnumSet.copyOf(languages);
+        this.jsp = set.contains(Language.JSP);
+        this.velocity = set.contains(Language.VELOCITY);
+        this.thymeleaf = set.contains(Language.THYMELEAF);
+    }
+
+    /**
+     * Replace template regions by placeholders.
+     *
+     * @param content
+     *            the content
+     * @param blocks
+     *            receives the preserved regions, indexed by placeholder number
+     *
+     * @return the content with placeholders
+     */
+    public String preserve(String content, List<String> blocks) {
+        if (!jsp && !velocity && !thymeleaf) {
+            return content;
+        }
+
+        Map<String, Integer> exhausted = new HashMap<>();
+        StringBuilder sb = null;
+        int length = content.length();
+        int copied = 0;
+        int i = 0;
+        while (i < length) {
+            int end = regionEnd(content, i, exhausted);
+            if (end > i) {
+                if (sb == null) {
+                    sb = new StringBuilder(length);
+                }
+                sb.append(content, copied, i).append(PLACEHOLDER_PREFIX).append(blocks.size())
+                        .append(PLACEHOLDER_SUFFIX);
+                blocks.add(content.substring(i, end));
+                copied = end;
+                i = end;
+            } else {
+                i++;
+            }
+        }
+        if (sb == null) {
+            return content;
+        }
+        return sb.append(content, copied, length).toString();
+    }
+
+    /**
+     * Put preserved regions back in place of their placeholders.
+     *
+     * @param content
+     *            the content with placeholders
+     * @param blocks
+     *            the preserved regions
+     *
+     * @return the restored content
+     */
+    public static String restore(String content, List<String> blocks) {
+        if (blocks.isEmpty()) {
+            return content;
+        }
+        Matcher matcher = PLACEHOLDER_PATTERN.matcher(content);
+        StringBuilder sb = new StringBuilder(content.length());
+        while (matcher.find()) {
+            matcher.appendReplacement(sb, Matcher.quoteReplacement(blocks.get(Integer.parseInt(matcher.group(1)))));
+        }
+        matcher.appendTail(sb);
+        return sb.toString();
+    }
+
+    /**
+     * Find the end of a template region starting at the given index.
+     *
+     * @param content
+     *            the content
+     * @param i
+     *            the index
+     * @param exhausted
+     *            the last index of each closing delimiter a search failed for, past which no region can close
+     *
+     * @return the exclusive end index, or -1 if no region starts here
+     */
+    private int regionEnd(String content, int i, Map<String, Integer> exhausted) {
+        char c = content.charAt(i);
+        char next = i + 1 < content.length() ? content.charAt(i + 1) : 0;
+        switch (c) {
+            case '<':
+                return tagRegionEnd(content, i, exhausted);
+            case '$':
+                if (next == '{' && (jsp || velocity || thymeleaf)) {
+                    return balancedEnd(content, i + 1, '{', '}', exhausted);
+                }
+                return velocity ? velocityReferenceEnd(content, i, exhausted) : -1;
+            case '#':
+                if (velocity) {
+                    int end = velocityDirectiveEnd(content, i, exhausted);
+                    if (end > i) {
+                        return end;
+                    }
+                }
+                if (next == '{' && (jsp || thymeleaf)) {
+                    return balancedEnd(content, i + 1, '{', '}', exhausted);
+                }
+                return -1;
+            case '*':
+            case '@':
+            case '~':
+                if (next == '{' && thymeleaf) {
+                    return balancedEnd(content, i + 1, '{', '}', exhausted);
+                }
+                return -1;
+            case '[':
+                if (thymeleaf && next == '[') {
+                    return closeAfter(content, i + 2, "]]", exhausted);
+                }
+                if (thymeleaf && next == '(') {
+                    return closeAfter(content, i + 2, ")]", exhausted);
+                }
+                return -1;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Find the end of a template region starting with '&lt;'.
+     *
+     * @param content
+     *            the content
+     * @param i
+     *            the index
+     * @param exhausted
+     *            the last index of each closing delimiter a search failed for, past which no region can close
+     *
+     * @return the exclusive end index, or -1 if no region starts here
+     */
+    private int tagRegionEnd(String content, int i, Map<String, Integer> exhausted) {
+        if (jsp) {
+            if (content.startsWith("<%--", i)) {
+                return closeAfter(content, i + 4, "--%>", exhausted);
+            }
+            if (content.startsWith("<%", i)) {
+                return closeAfter(content, i + 2, "%>", exhausted);
+            }
+            if (isPrefixedTag(content, i)) {
+                return tagEnd(content, i, exhausted);
+            }
+        }
+        if (thymeleaf) {
+            // Prototype-only blocks hold live markup and the /* */ markers must reach Thymeleaf intact
+            if (content.startsWith("<!--/*/", i)) {
+                return closeAfter(content, i + 7, "/*/-->", exhausted);
+            }
+            if (content.startsWith("<!--/*-->", i)) {
+                return i + 9;
+            }
+            if (content.startsWith("<!--*/-->", i)) {
+                return i + 9;
+            }
+            if (content.startsWith("<!--/*", i)) {
+                return closeAfter(content, i + 6, "*/-->", exhausted);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Find the end of a Velocity directive, comment or unparsed block.
+     *
+     * @param content
+     *            the content
+     * @param i
+     *            the index of '#'
+     * @param exhausted
+     *            the last index of each closing delimiter a search failed for, past which no region can close
+     *
+     * @return the exclusive end index, or -1 if no region starts here
+     */
+    private static int velocityDirectiveEnd(String content, int i, Map<String, Integer> exhausted) {
+        int length = content.length();
+        if (content.startsWith("##", i)) {
+            // The line break belongs to the comment, collapsing it would comment out the next line
+            int end = content.indexOf('\n', i);
+            return end < 0 ? length : end + 1;
+        }
+        if (content.startsWith("#*", i)) {
+            return closeAfter(content, i + 2, "*#", exhausted);
+        }
+        if (content.startsWith("#[[", i)) {
+            return closeAfter(content, i + 3, "]]#", exhausted);
+        }
+
+        int j = i + 1;
+        boolean braced = j < length && content.charAt(j) == '{';
+        boolean blockMacro = j < length && content.charAt(j) == '@';
+        if (braced || blockMacro) {
+            j++;
+        }
+        int nameEnd = identifierEnd(content, j);
+        if (nameEnd == j) {
+            return -1;
+        }
+        String name = content.substring(j, nameEnd);
+        j = nameEnd;
+        if (braced) {
+            if (j >= length || content.charAt(j) != '}') {
+                return -1;
+            }
+            j++;
+        }
+
+        if (VELOCITY_BARE_DIRECTIVES.contains(name)) {
+            return j;
+        }
+        int paren = j;
+        if (VELOCITY_DIRECTIVES.contains(name) || blockMacro) {
+            while (paren < length && (content.charAt(paren) == ' ' || content.charAt(paren) == '\t')) {
+                paren++;
+            }
+        }
+        if (paren < length && content.charAt(paren) == '(') {
+            return balancedEnd(content, paren, '(', ')', exhausted);
+        }
+        return blockMacro ? j : -1;
+    }
+
+    /**
+     * Find the end of a Velocity reference such as $name, $!name or $name.method(arg).property.
+     *
+     * @param content
+     *            the content
+     * @param i
+     *            the index of '$'
+     * @param exhausted
+     *            the last index of each closing delimiter a search failed for, past which no region can close
+     *
+     * @return the exclusive end index, or -1 if no region starts here
+     */
+    private static int velocityReferenceEnd(String content, int i, Map<String, Integer> exhausted) {
+        int length = content.length();
+        int j = i + 1;
+        if (j < length && content.charAt(j) == '!') {
+            j++;
+        }
+        if (j < length && content.charAt(j) == '{') {
+            return balancedEnd(content, j, '{', '}', exhausted);
+        }
+        int end = identifierEnd(content, j);
+        if (end == j) {
+            return -1;
+        }
+        while (end < length) {
+            char c = content.charAt(end);
+            if (c == '.' && identifierEnd(content, end + 1) > end + 1) {
+                end = identifierEnd(content, end + 1);
+                if (end < length && content.charAt(end) == '(') {
+                    int close = balancedEnd(content, end, '(', ')', exhausted);
+                    if (close < 0) {
+                        break;
+                    }
+                    end = close;
+                }
+            } else if (c == '[') {
+                int close = balancedEnd(content, end, '[', ']', exhausted);
+                if (close < 0) {
+                    break;
+                }
+                end = close;
+            } else {
+                break;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Checks if a JSP action or custom tag such as &lt;jsp:include&gt; or &lt;/c:forEach&gt; starts at the index.
+     *
+     * @param content
+     *            the content
+     * @param i
+     *            the index of '&lt;'
+     *
+     * @return true, if a prefixed tag starts here
+     */
+    private static boolean isPrefixedTag(String content, int i) {
+        int j = i + 1;
+        if (j < content.length() && content.charAt(j) == '/') {
+            j++;
+        }
+        int prefixEnd = identifierEnd(content, j);
+        return prefixEnd > j && prefixEnd + 1 < content.length() && content.charAt(prefixEnd) == ':'
+                && Character.isLetter(content.charAt(prefixEnd + 1));
+    }
+
+    /**
+     * Find the end of a tag, skipping quoted attribute values.
+     *
+     * @param content
+     *            the content
+     * @param i
+     *            the index of '&lt;'
+     * @param exhausted
+     *            the last index of each closing delimiter a search failed for, past which no region can close
+     *
+     * @return the exclusive end index, or -1 if the tag is not closed
+     */
+    private static int tagEnd(String content, int i, Map<String, Integer> exhausted) {
+        if (isExhausted(exhausted, ">", i)) {
+            return -1;
+        }
+        char quote = 0;
+        for (int j = i + 1; j < content.length(); j++) {
+            char c = content.charAt(j);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '>') {
+                return j + 1;
+            }
+        }
+        exhausted.put(">", content.lastIndexOf('>'));
+        return -1;
+    }
+
+    /**
+     * Find the end of a bracketed expression, honoring nesting and quoted strings.
+     *
+     * @param content
+     *            the content
+     * @param open
+     *            the index of the opening bracket
+     * @param openChar
+     *            the opening bracket
+     * @param closeChar
+     *            the closing bracket
+     * @param exhausted
+     *            the last index of each closing delimiter a search failed for, past which no region can close
+     *
+     * @return the exclusive end index, or -1 if the expression is not closed
+     */
+    private static int balancedEnd(String content, int open, char openChar, char closeChar,
+            Map<String, Integer> exhausted) {
+        String key = String.valueOf(closeChar);
+        if (isExhausted(exhausted, key, open)) {
+            return -1;
+        }
+        int depth = 0;
+        char quote = 0;
+        for (int j = open; j < content.length(); j++) {
+            char c = content.charAt(j);
+            if (quote != 0) {
+                if (c == '\\') {
+                    j++;
+                } else if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == openChar) {
+                depth++;
+            } else if (c == closeChar && --depth == 0) {
+                return j + 1;
+            }
+        }
+        // A later start may still close, unless no closing bracket follows it
+        exhausted.put(key, content.lastIndexOf(closeChar));
+        return -1;
+    }
+
+    /**
+     * Find the end of a region closed by a fixed delimiter.
+     *
+     * @param content
+     *            the content
+     * @param from
+     *            the index to search from
+     * @param closer
+     *            the closing delimiter
+     * @param exhausted
+     *            the last index of each closing delimiter a search failed for, past which no region can close
+     *
+     * @return the exclusive end index, or -1 if the delimiter is missing
+     */
+    private static int closeAfter(String content, int from, String closer, Map<String, Integer> exhausted) {
+        if (isExhausted(exhausted, closer, from)) {
+            return -1;
+        }
+        int index = content.indexOf(closer, from);
+        if (index < 0) {
+            exhausted.put(closer, content.lastIndexOf(closer));
+            return -1;
+        }
+        return index + closer.length();
+    }
+
+    /**
+     * Checks if a closing delimiter is known to be missing after an index.
+     *
+     * @param exhausted
+     *            the last index of each closing delimiter a search failed for
+     * @param closer
+     *            the closing delimiter
+     * @param from
+     *            the index the region starts at
+     *
+     * @return true, if no region starting at the index can close
+     */
+    private static boolean isExhausted(Map<String, Integer> exhausted, String closer, int from) {
+        Integer last = exhausted.get(closer);
+        return last != null && from > last;
+    }
+
+    /**
+     * Find the end of an identifier.
+     *
+     * @param content
+     *            the content
+     * @param from
+     *            the index the identifier starts at
+     *
+     * @return the exclusive end index, equal to from if no identifier starts there
+     */
+    private static int identifierEnd(String content, int from) {
+        if (from >= content.length() || !Character.isLetter(content.charAt(from))) {
+            return from;
+        }
+        int j = from + 1;
+        while (j < content.length()) {
+            char c = content.charAt(j);
+            if (!Character.isLetterOrDigit(c) && c != '_') {
+                break;
+            }
+            j++;
+        }
+        return j;
+    }
+}
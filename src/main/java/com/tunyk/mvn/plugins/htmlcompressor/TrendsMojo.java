@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Render trends and percentiles from the compression history recorded by the html and xml goals.
+ */
+@Mojo(name = "trends", requiresProject = false, threadSafe = true)
+public class TrendsMojo extends AbstractMojo {
+
+    /** The key of the stub project Maven runs a goal in outside of a project. */
+    static final String STANDALONE_PROJECT = "org.apache.maven:standalone-pom";
+
+    /** the history file to read. */
+    @Parameter(property = "htmlcompressor.historyFile", required = true)
+    private String historyFile;
+
+    /** the goal whose builds are reported (default is html). */
+    @Parameter(property = "htmlcompressor.trendsGoal", defaultValue = "html")
+    private String trendsGoal = "html";
+
+    /**
+     * the project whose builds are reported, as groupId:artifactId, or * for all (default is the current project, or
+     * all outside of a project).
+     */
+    @Parameter(property = "htmlcompressor.trendsProject", defaultValue = "${project.groupId}:${project.artifactId}")
+    private String trendsProject;
+
+    /** the number of most recent builds to report, 0 for all (default is 0). */
+    @Parameter(property = "htmlcompressor.trendsBuilds", defaultValue = "0")
+    private int trendsBuilds;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        String project = getReportedProject();
+        List<CompressionHistory.Entry> entries;
+        try {
+            entries = new CompressionHistory(Path.of(historyFile)).read(project, trendsGoal);
+        } catch (IOException e) {
+            throw new MojoExecutionException(e.getMessage());
+        }
+        if (trendsBuilds > 0 && entries.size() > trendsBuilds) {
+            entries = entries.subList(entries.size() - trendsBuilds, entries.size());
+        }
+        getLog().info("Compression trends of " + trendsGoal + " in " + (project == null ? "all projects" : project)
+                + " over " + entries.size() + " builds:");
+        for (String line : CompressionHistory.formatTrends(entries)) {
+            getLog().info(line);
+        }
+    }
+
+    /**
+     * Gets the project whose builds are reported.
+     *
+     * @return the project as groupId:artifactId, null for all
+     */
+    String getReportedProject() {
+        if (trendsProject == null || "*".equals(trendsProject) || STANDALONE_PROJECT.equals(trendsProject)) {
+            return null;
+        }
+        return trendsProject;
+    }
+
+    /**
+     * Gets the history file.
+     *
+     * @return the history file
+     */
+    public String getHistoryFile() {
+        return historyFile;
+    }
+
+    /**
+     * Sets the history file.
+     *
+     * @param historyFile
+     *            the new history file
+     */
+    public void setHistoryFile(String historyFile) {
+        this.historyFile = historyFile;
+    }
+
+    /**
+     * Gets the trends goal.
+     *
+     * @return the trends goal
+     */
+    public String getTrendsGoal() {
+        return trendsGoal;
+    }
+
+    /**
+     * Sets the trends goal.
+     *
+     * @param trendsGoal
+     *            the new trends goal
+     */
+    public void setTrendsGoal(String trendsGoal) {
+        this.trendsGoal = trendsGoal;
+    }
+
+    /**
+     * Gets the trends project.
+     *
+     * @return the trends project
+     */
+    public String getTrendsProject() {
+        return trendsProject;
+    }
+
+    /**
+     * Sets the trends project.
+     *
+     * @param trendsProject
+     *            the new trends project
+     */
+    public void setTrendsProject(String trendsProject) {
+        this.trendsProject = trendsProject;
+    }
+
+    /**
+     * Gets the trends builds.
+     *
+     * @return the trends builds
+     */
+    public Integer getTrendsBuilds() {
+        return trendsBuilds;
+    }
+
+    /**
+     * Sets the trends builds.
+     *
+     * @param trendsBuilds
+     *            the new trends builds
+     */
+    public void setTrendsBuilds(Integer trendsBuilds) {
+        this.trendsBuilds = trendsBuilds;
+    }
+}
@@ -18,7 +18,13 @@
  */
 package com.tunyk.mvn.plugins.htmlcompressor;
 
+import com.googlecode.htmlcompressor.compressor.Compressor;
+
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentMap;
 
@@ -42,6 +48,27 @@ public class XmlCompressor {
     /** The file encoding. */
     private Charset fileEncoding;
 
+    /** The maximum time in milliseconds to spend compressing a single file, 0 disables the limit. */
+    private long fileTimeout;
+
+    /** The fail on timeout. */
+    private boolean failOnTimeout = true;
+
+    /** The files whose compression timed out and were copied through unchanged. */
+    private List<String> timedOutFiles = new ArrayList<>();
+
+    /** The link duplicates. */
+    private boolean linkDuplicates;
+
+    /** The number of files whose content duplicated an already compressed file. */
+    private int duplicateFiles;
+
+    /** The phase timer. */
+    private PhaseTimer phaseTimer = new PhaseTimer();
+
+    /** The per-file statistics of the last run. */
+    private CompressionStatistics statistics = new CompressionStatistics();
+
     /** The xml compressor. */
     private com.googlecode.htmlcompressor.compressor.XmlCompressor xmlCompressor;
 
@@ -71,14 +98,52 @@ public class XmlCompressor {
 
         FileTool fileTool = new FileTool(srcDirPath, fileExtensions, true);
         fileTool.setFileEncoding(fileEncoding);
+        fileTool.setLinkDuplicates(linkDuplicates);
+        fileTool.setPhaseTimer(phaseTimer);
         ConcurrentMap<String, String> map = fileTool.getFiles();
 
         if (xmlCompressor == null) {
             xmlCompressor = new com.googlecode.htmlcompressor.compressor.XmlCompressor();
         }
 
-        for (Entry<String, String> key : map.entrySet()) {
-            map.put(key.getKey(), xmlCompressor.compress(key.getValue()));
+        com.googlecode.htmlcompressor.compressor.XmlCompressor handler = xmlCompressor;
+        Compressor timedCompressor = content -> {
+            try (PhaseTimer.Split split = phaseTimer.start(PhaseTimer.Phase.COMPRESS)) {
+                split.addSize(content.length());
+                return handler.compress(content);
+            }
+        };
+
+        try (CompressionWatchdog watchdog = new CompressionWatchdog(fileTimeout, failOnTimeout)) {
+            // Identical sources are compressed once and share the compressed instance
+            Map<String, String> compressedContents = new HashMap<>();
+            Map<String, CompressionStatistics.FileStatistics> contentStatistics = new HashMap<>();
+            duplicateFiles = 0;
+            statistics = new CompressionStatistics();
+            for (Entry<String, String> key : map.entrySet()) {
+                String compressed = compressedContents.get(key.getValue());
+                CacheEvent.lookup("duplicate-content", key.getKey(), compressed != null);
+                CompressionStatistics.FileStatistics fileStatistics;
+                if (compressed == null) {
+                    CompressFileEvent event = new CompressFileEvent();
+                    event.begin();
+                    long start = System.nanoTime();
+                    compressed = watchdog.compress(key.getKey(), key.getValue(), timedCompressor);
+                    long time = System.nanoTime() - start;
+                    event.commit(key.getKey(), "xml", key.getValue(), compressed);
+                    compressedContents.put(key.getValue(), compressed);
+                    fileStatistics = new CompressionStatistics.FileStatistics(key.getKey(), key.getValue().length(),
+                            compressed.length(), time);
+                    contentStatistics.put(key.getValue(), fileStatistics);
+                } else {
+                    duplicateFiles++;
+                    fileStatistics = new CompressionStatistics.FileStatistics(key.getKey(),
+                            contentStatistics.get(key.getValue()));
+                }
+                statistics.record(fileStatistics);
+                map.put(key.getKey(), compressed);
+            }
+            timedOutFiles = watchdog.getTimedOutFiles();
         }
 
         fileTool.writeFiles(map, targetDirPath);
@@ -178,4 +243,107 @@ public class XmlCompressor {
     public void setXmlCompressor(com.googlecode.htmlcompressor.compressor.XmlCompressor xmlCompressor) {
         this.xmlCompressor = xmlCompressor;
     }
+
+    /**
+     * Gets the file timeout.
+     *
+     * @return the file timeout in milliseconds
+     */
+    public long getFileTimeout() {
+        return fileTimeout;
+    }
+
+    /**
+     * Sets the file timeout.
+     *
+     * @param fileTimeout
+     *            the new file timeout in milliseconds, 0 disables the limit
+     */
+    public void setFileTimeout(long fileTimeout) {
+        this.fileTimeout = fileTimeout;
+    }
+
+    /**
+     * Checks if is fail on timeout.
+     *
+     * @return true, if is fail on timeout
+     */
+    public boolean isFailOnTimeout() {
+        return failOnTimeout;
+    }
+
+    /**
+     * Sets the fail on timeout.
+     *
+     * @param failOnTimeout
+     *            the new fail on timeout
+     */
+    public void setFailOnTimeout(boolean failOnTimeout) {
+        this.failOnTimeout = failOnTimeout;
+    }
+
+    /**
+     * Gets the files whose compression timed out and were copied through unchanged.
+     *
+     * @return the timed out files
+     */
+    public List<String> getTimedOutFiles() {
+        return timedOutFiles;
+    }
+
+    /**
+     * Checks if is link duplicates.
+     *
+     * @return true, if is link duplicates
+     */
+    public boolean isLinkDuplicates() {
+        return linkDuplicates;
+    }
+
+    /**
+     * Sets the link duplicates.
+     *
+     * @param linkDuplicates
+     *            the new link duplicates
+     */
+    public void setLinkDuplicates(boolean linkDuplicates) {
+        this.linkDuplicates = linkDuplicates;
+    }
+
+    /**
+     * Gets the number of files whose content duplicated an already compressed file.
+     *
+     * @return the duplicate files
+     */
+    public int getDuplicateFiles() {
+        return duplicateFiles;
+    }
+
+    /**
+     * Gets the phase timer.
+     *
+     * @return the phase timer
+     */
+    public PhaseTimer getPhaseTimer() {
+        return phaseTimer;
+    }
+
+    /**
+     * Sets the phase timer.
+     *
+     * @param phaseTimer
+     *            the new phase timer
+     */
+    public void setPhaseTimer(PhaseTimer phaseTimer) {
+        this.phaseTimer = phaseTimer;
+    }
+
+    /**
+     * Gets the per-file statistics of the last run.
+     *
+     * @return the statistics
+     */
+    public CompressionStatistics getStatistics() {
+        return statistics;
+    }
 }
@@ -18,7 +18,9 @@
  */
 package com.tunyk.mvn.plugins.htmlcompressor;
 
+import java.io.File;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
 
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
@@ -77,6 +79,71 @@ public class XmlCompressorMojo extends AbstractMojo {
     @Parameter(property = "htmlcompressor.encoding", defaultValue = "UTF-8")
     private String encoding = "UTF-8";
 
+    /**
+     * Hard link files whose content duplicates an already written file instead of copying it, where the file system
+     * supports links.
+     */
+    @Parameter(property = "htmlcompressor.linkDuplicates", defaultValue = "false")
+    private boolean linkDuplicates;
+
+    /**
+     * Maximum time in milliseconds to spend compressing a single file, 0 disables the limit.
+     */
+    @Parameter(property = "htmlcompressor.fileTimeout", defaultValue = "0")
+    private long fileTimeout;
+
+    /**
+     * If true a file exceeding fileTimeout fails the build, otherwise the original file is copied through unchanged.
+     */
+    @Parameter(property = "htmlcompressor.failOnTimeout", defaultValue = "true")
+    private boolean failOnTimeout = true;
+
+    /**
+     * OpenMetrics text file to write compression metrics to, for example in the node exporter textfile collector
+     * directory. No metrics are written if not set.
+     */
+    @Parameter(property = "htmlcompressor.metricsFile")
+    private String metricsFile;
+
+    /** number of slowest and most regressed files to report after each run, 0 disables the report (default is 10). */
+    @Parameter(property = "htmlcompressor.topFiles", defaultValue = "10")
+    private int topFiles = 10;
+
+    /** file keeping the per-file results of the last run, compared against by the next run. */
+    @Parameter(property = "htmlcompressor.lastRunFile", defaultValue = "${project.build.directory}/htmlcompressor/xml-last-run.json")
+    private String lastRunFile = "target/htmlcompressor/xml-last-run.json";
+
+    /** size and time budgets per glob, evaluated against the results of each file (see PerformanceBudget). */
+    @Parameter
+    private PerformanceBudget[] budgets;
+
+    /** if true a budget violation fails the build, otherwise it is logged as warning (default is true). */
+    @Parameter(property = "htmlcompressor.failOnBudget", defaultValue = "true")
+    private boolean failOnBudget = true;
+
+    /**
+     * append-only file recording the aggregate figures of each build for the trends goal, for example in a directory
+     * shared by all builds (default is none).
+     */
+    @Parameter(property = "htmlcompressor.historyFile")
+    private String historyFile;
+
+    /** the project the history is keyed by, as groupId:artifactId. */
+    @Parameter(defaultValue = "${project.groupId}:${project.artifactId}", readonly = true)
+    private String projectKey;
+
+    /** the project version the history is keyed by. */
+    @Parameter(defaultValue = "${project.version}", readonly = true)
+    private String projectVersion;
+
+    /** the commit the history is keyed by (default is the commit checked out in the project directory). */
+    @Parameter(property = "htmlcompressor.commit")
+    private String commit;
+
+    /** the project directory. */
+    @Parameter(defaultValue = "${project.basedir}", readonly = true)
+    private File baseDir;
+
     @Override
     public void execute() throws MojoExecutionException {
         // Check if plugin run should be skipped
@@ -99,6 +166,9 @@ public class XmlCompressorMojo extends AbstractMojo {
         XmlCompressor xmlCompressor = new XmlCompressor(srcFolder, targetFolder);
         xmlCompressor.setFileExtensions(fileExtensions);
         xmlCompressor.setFileEncoding(Charset.forName(encoding));
+        xmlCompressor.setFileTimeout(fileTimeout);
+        xmlCompressor.setFailOnTimeout(failOnTimeout);
+        xmlCompressor.setLinkDuplicates(linkDuplicates);
 
         com.googlecode.htmlcompressor.compressor.XmlCompressor xmlCompressorHandler = new com.googlecode.htmlcompressor.compressor.XmlCompressor();
         xmlCompressorHandler.setEnabled(enabled);
@@ -106,12 +176,28 @@ public class XmlCompressorMojo extends AbstractMojo {
         xmlCompressorHandler.setRemoveIntertagSpaces(removeIntertagSpaces);
         xmlCompressor.setXmlCompressor(xmlCompressorHandler);
 
+        long start = System.nanoTime();
         try {
             xmlCompressor.compress();
         } catch (Exception e) {
             throw new MojoExecutionException(e.getMessage());
         }
-
+        long wallNanos = System.nanoTime() - start;
+        for (String file : xmlCompressor.getTimedOutFiles()) {
+            getLog().warn("Compression of " + file + " exceeded " + fileTimeout + " ms, copied original file");
+        }
+        if (xmlCompressor.getDuplicateFiles() > 0) {
+            getLog().info("Reused compressed output for " + xmlCompressor.getDuplicateFiles() + " duplicate files.");
+        }
+        RunReport runReport = new RunReport("xml", getLog());
+        runReport.setMetricsFile(metricsFile);
+        runReport.setTopFiles(topFiles);
+        runReport.setLastRunFile(lastRunFile);
+        runReport.setHistory(historyFile, projectKey, projectVersion, commit,
+                baseDir != null ? baseDir.toPath() : null);
+        runReport.setBudgets(budgets, failOnBudget, Path.of(targetFolder));
+        runReport.report(xmlCompressor.getStatistics(), xmlCompressor.getPhaseTimer(),
+                xmlCompressor.getDuplicateFiles(), wallNanos);
         getLog().info("XML compression completed.");
     }
 
@@ -253,4 +339,232 @@ public class XmlCompressorMojo extends AbstractMojo {
     public void setTargetFolder(String targetFolder) {
         this.targetFolder = targetFolder;
     }
+
+    /**
+     * Gets the link duplicates.
+     *
+     * @return the link duplicates
+     */
+    public Boolean getLinkDuplicates() {
+        return linkDuplicates;
+    }
+
+    /**
+     * Sets the link duplicates.
+     *
+     * @param linkDuplicates
+     *            the new link duplicates
+     */
+    public void setLinkDuplicates(Boolean linkDuplicates) {
+        this.linkDuplicates = linkDuplicates;
+    }
+
+    /**
+     * Gets the file timeout.
+     *
+     * @return the file timeout
+     */
+    public Long getFileTimeout() {
+        return fileTimeout;
+    }
+
+    /**
+     * Sets the file timeout.
+     *
+     * @param fileTimeout
+     *            the new file timeout
+     */
+    public void setFileTimeout(Long fileTimeout) {
+        this.fileTimeout = fileTimeout;
+    }
+
+    /**
+     * Gets the fail on timeout.
+     *
+     * @return the fail on timeout
+     */
+    public Boolean getFailOnTimeout() {
+        return failOnTimeout;
+    }
+
+    /**
+     * Sets the fail on timeout.
+     *
+     * @param failOnTimeout
+     *            the new fail on timeout
+     */
+    public void setFailOnTimeout(Boolean failOnTimeout) {
+        this.failOnTimeout = failOnTimeout;
+    }
+
+    /**
+     * Gets the metrics file.
+     *
+     * @return the metrics file
+     */
+    public String getMetricsFile() {
+        return metricsFile;
+    }
+
+    /**
+     * Sets the metrics file.
+     *
+     * @param metricsFile
+     *            the new metrics file
+     */
+    public void setMetricsFile(String metricsFile) {
+        this.metricsFile = metricsFile;
+    }
+
+    /**
+     * Gets the top files.
+     *
+     * @return the top files
+     */
+    public Integer getTopFiles() {
+        return topFiles;
+    }
+
+    /**
+     * Sets the top files.
+     *
+     * @param topFiles
+     *            the new top files
+     */
+    public void setTopFiles(Integer topFiles) {
+        this.topFiles = topFiles;
+    }
+
+    /**
+     * Gets the last run file.
+     *
+     * @return the last run file
+     */
+    public String getLastRunFile() {
+        return lastRunFile;
+    }
+
+    /**
+     * Sets the last run file.
+     *
+     * @param lastRunFile
+     *            the new last run file
+     */
+    public void setLastRunFile(String lastRunFile) {
+        this.lastRunFile = lastRunFile;
+    }
+
+    /**
+     * Gets the budgets.
+     *
+     * @return the budgets
+     */
+    public PerformanceBudget[] getBudgets() {
+        return budgets;
+    }
+
+    /**
+     * Sets the budgets.
+     *
+     * @param budgets
+     *            the new budgets
+     */
+    public void setBudgets(PerformanceBudget[] budgets) {
+        this.budgets = budgets;
+    }
+
+    /**
+     * Gets the fail on budget.
+     *
+     * @return the fail on budget
+     */
+    public Boolean getFailOnBudget() {
+        return failOnBudget;
+    }
+
+    /**
+     * Sets the fail on budget.
+     *
+     * @param failOnBudget
+     *            the new fail on budget
+     */
+    public void setFailOnBudget(Boolean failOnBudget) {
+        this.failOnBudget = failOnBudget;
+    }
+
+    /**
+     * Gets the history file.
+     *
+     * @return the history file
+     */
+    public String getHistoryFile() {
+        return historyFile;
+    }
+
+    /**
+     * Sets the history file.
+     *
+     * @param historyFile
+     *            the new history file
+     */
+    public void setHistoryFile(String historyFile) {
+        this.historyFile = historyFile;
+    }
+
+    /**
+     * Gets the project key.
+     *
+     * @return the project key
+     */
+    public String getProjectKey() {
+        return projectKey;
+    }
+
+    /**
+     * Sets the project key.
+     *
+     * @param projectKey
+     *            the new project key
+     */
+    public void setProjectKey(String projectKey) {
+        this.projectKey = projectKey;
+    }
+
+    /**
+     * Gets the project version.
+     *
+     * @return the project version
+     */
+    public String getProjectVersion() {
+        return projectVersion;
+    }
+
+    /**
+     * Sets the project version.
+     *
+     * @param projectVersion
+     *            the new project version
+     */
+    public void setProjectVersion(String projectVersion) {
+        this.projectVersion = projectVersion;
+    }
+
+    /**
+     * Gets the commit.
+     *
+     * @return the commit
+     */
+    public String getCommit() {
+        return commit;
+    }
+
+    /**
+     * Sets the commit.
+     *
+     * @param commit
+     *            the new commit
+     */
+    public void setCommit(String commit) {
+        this.commit = commit;
+    }
 }
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2011-2023 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import java.util.List;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class BenchMojoTest.
+ */
+class BenchMojoTest {
+
+    /** The Constant LOG. */
+    private static final Logger LOG = LoggerFactory.getLogger(BenchMojoTest.class);
+
+    /**
+     * Sets the up class.
+     */
+    @BeforeAll
+    static void setUpClass() {
+        LOG.info("Setting up class...");
+    }
+
+    /**
+     * Tear down class.
+     */
+    @AfterAll
+    static void tearDownClass() {
+        LOG.info("Mojo test finished.");
+    }
+
+    /**
+     * Sets the up.
+     */
+    @BeforeEach
+    void setUp() {
+        LOG.info("Setting up data for testing...");
+    }
+
+    /**
+     * Test execute.
+     *
+     * @throws MojoExecutionException
+     *             the mojo execution exception
+     */
+    @Test
+    void testExecute() throws MojoExecutionException {
+        LOG.info("Testing mojo execution...");
+
+        BenchMojo benchMojo = new BenchMojo();
+        benchMojo.setSrcFolder("src/test/resources/html");
+        benchMojo.setCompressCss(true);
+        benchMojo.setBenchWarmups(1);
+        benchMojo.setBenchIterations(2);
+        benchMojo.setBenchThreads(new int[] { 2, 1 });
+        benchMojo.execute();
+
+        LOG.info("Passed");
+    }
+
+    /**
+     * Test invalid iteration counts.
+     */
+    @Test
+    void testInvalidIterations() {
+        LOG.info("Testing invalid iteration counts...");
+
+        BenchMojo benchMojo = new BenchMojo();
+        benchMojo.setSrcFolder("src/test/resources/html");
+        benchMojo.setBenchWarmups(-1);
+        Assertions.assertThrows(MojoExecutionException.class, benchMojo::execute);
+
+        benchMojo.setBenchWarmups(0);
+        benchMojo.setBenchIterations(0);
+        Assertions.assertThrows(MojoExecutionException.class, benchMojo::execute);
+
+        LOG.info("Passed");
+    }
+
+    /**
+     * Test format.
+     */
+    @Test
+    void testFormat() {
+        LOG.info("Testing result table...");
+
+        List<String> lines = BenchMojo.format(
+                List.of(new BenchMojo.Result(1, new long[] { 400_000_000L }, 5000),
+                        new BenchMojo.Result(4, new long[] { 200_000_000L, 100_000_000L, 150_000_000L }, 5000)),
+                100, 2_000_000);
+        lines.forEach(LOG::info);
+        Assertions.assertEquals(3, lines.size());
+        Assertions.assertEquals(
+                String.format("%8s%12s%12s%12s%10s%12s%12s", "1", "400", "250.0", "5.00", "1.00", "100%", "5.0 kB"),
+                lines.get(1));
+        Assertions.assertEquals(
+                String.format("%8s%12s%12s%12s%10s%12s%12s", "4", "150", "666.7", "13.33", "2.67", "67%", "5.0 kB"),
+                lines.get(2));
+
+        LOG.info("Passed");
+    }
+}
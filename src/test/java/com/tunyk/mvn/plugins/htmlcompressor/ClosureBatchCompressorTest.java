@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import com.google.javascript.jscomp.CompilationLevel;
+import com.googlecode.htmlcompressor.compressor.ClosureJavaScriptCompressor;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class ClosureBatchCompressorTest.
+ */
+class ClosureBatchCompressorTest {
+
+    /** The Constant LOG. */
+    private static final Logger LOG = LoggerFactory.getLogger(ClosureBatchCompressorTest.class);
+
+    /**
+     * Sets the up class.
+     */
+    @BeforeAll
+    static void setUpClass() {
+        LOG.info("Setting up class...");
+    }
+
+    /**
+     * Tear down class.
+     */
+    @AfterAll
+    static void tearDownClass() {
+        LOG.info("Test finished.");
+    }
+
+    /**
+     * Sets the up.
+     */
+    @BeforeEach
+    void setUp() {
+        LOG.info("Setting up data for testing...");
+    }
+
+    /**
+     * Test batch compile.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void testBatchCompile() throws IOException {
+        LOG.info("Testing batch compile...");
+
+        ClosureBatchCompressor compressor = new ClosureBatchCompressor(
+                new ClosureJavaScriptCompressor(CompilationLevel.SIMPLE_OPTIMIZATIONS));
+
+        com.googlecode.htmlcompressor.compressor.HtmlCompressor htmlCompressor = new com.googlecode.htmlcompressor.compressor.HtmlCompressor();
+        htmlCompressor.setCompressJavaScript(true);
+        htmlCompressor.setJavaScriptCompressor(compressor);
+
+        String first = htmlCompressor.compress("<p>first</p>\n<script>var  first = 1 + 2 ;\nalert( first );</script>");
+        String second = htmlCompressor.compress("<script>\nvar second = 'a' + 'b';\nalert(second);\n</script>");
+        Assertions.assertFalse(first.contains("alert"));
+        Assertions.assertFalse(second.contains("alert"));
+
+        compressor.compile();
+        Assertions.assertEquals("<p>first</p> <script>'use strict';var first=3;alert(first);</script>",
+                compressor.resolve(first));
+        Assertions.assertEquals("<script>'use strict';var second=\"ab\";alert(second);</script>",
+                compressor.resolve(second));
+
+        LOG.info("Passed");
+    }
+
+    /**
+     * Test batch compile falls back to single blocks on error.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void testBatchCompileFallback() throws IOException {
+        LOG.info("Testing batch compile fallback...");
+
+        ClosureBatchCompressor compressor = new ClosureBatchCompressor(
+                new ClosureJavaScriptCompressor(CompilationLevel.SIMPLE_OPTIMIZATIONS));
+        String valid = compressor.compress("var  valid = 1 ;");
+        String broken = compressor.compress("var broken = ;");
+
+        Assertions.assertEquals("'use strict';var valid=1;", compressor.resolve(valid));
+        Assertions.assertEquals("var broken = ;", compressor.resolve(broken));
+
+        LOG.info("Passed");
+    }
+
+    /**
+     * Test advanced compilations are not batched.
+     */
+    @Test
+    void testAdvancedNotBatched() {
+        LOG.info("Testing advanced compilations are not batched...");
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ClosureBatchCompressor(
+                new ClosureJavaScriptCompressor(CompilationLevel.ADVANCED_OPTIMIZATIONS)));
+
+        CompressorLibraries libraries = new DefaultCompressorLibraries();
+        Assertions.assertInstanceOf(ClosureJavaScriptCompressor.class,
+                libraries.createClosureCompressor("advanced", Map.of(), true));
+        Assertions.assertInstanceOf(ClosureBatchCompressor.class,
+                libraries.createClosureCompressor("whitespace", Map.of(), true));
+
+        LOG.info("Passed");
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * The Class CompressFileEventTest.
+ */
+class CompressFileEventTest {
+
+    /** The Constant LOG. */
+    private static final Logger LOG = LoggerFactory.getLogger(CompressFileEventTest.class);
+
+    /**
+     * Sets the up class.
+     */
+    @BeforeAll
+    static void setUpClass() {
+        LOG.info("Setting up class...");
+    }
+
+    /**
+     * Tear down class.
+     */
+    @AfterAll
+    static void tearDownClass() {
+        LOG.info("Test finished.");
+    }
+
+    /**
+     * Sets the up.
+     */
+    @BeforeEach
+    void setUp() {
+        LOG.info("Setting up data for testing...");
+    }
+
+    /**
+     * Test that compressing files emits flight recorder events.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void testEvents() throws Exception {
+        LOG.info("Testing flight recorder events...");
+
+        Path dump = Path.of("target/htmlcompressor/events.jfr");
+        Files.createDirectories(dump.getParent());
+        try (Recording recording = new Recording()) {
+            recording.enable(CompressFileEvent.class).withThreshold(Duration.ZERO);
+            recording.enable(FileIoEvent.class).withThreshold(Duration.ZERO);
+            recording.enable(CacheEvent.class);
+            recording.start();
+            new XmlCompressor("src/test/resources/xml", "target/htmlcompressor/events").compress();
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        List<RecordedEvent> compressEvents = events.stream()
+                .filter(event -> "com.tunyk.htmlcompressor.CompressFile".equals(event.getEventType().getName()))
+                .collect(Collectors.toList());
+        Assertions.assertEquals(2, compressEvents.size());
+        Assertions.assertEquals("xml", compressEvents.get(0).getString("compressor"));
+        Assertions.assertTrue(compressEvents.get(0).getLong("sizeIn") > compressEvents.get(0).getLong("sizeOut"));
+        Assertions.assertEquals(4, events.stream()
+                .filter(event -> "com.tunyk.htmlcompressor.FileIo".equals(event.getEventType().getName())).count());
+        Assertions.assertEquals(2, events.stream()
+                .filter(event -> "com.tunyk.htmlcompressor.Cache".equals(event.getEventType().getName())).count());
+
+        LOG.info("Passed");
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class CompressionHistoryTest.
+ */
+class CompressionHistoryTest {
+
+    /** The Constant LOG. */
+    private static final Logger LOG = LoggerFactory.getLogger(CompressionHistoryTest.class);
+
+    /**
+     * Sets the up class.
+     */
+    @BeforeAll
+    static void setUpClass() {
+        LOG.info("Setting up class...");
+    }
+
+    /**
+     * Tear down class.
+     */
+    @AfterAll
+    static void tearDownClass() {
+        LOG.info("Test finished.");
+    }
+
+    /**
+     * Sets the up.
+     */
+    @BeforeEach
+    void setUp() {
+        LOG.info("Setting up data for testing...");
+    }
+
+    /**
+     * Test append, read and trends.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void testHistory() throws IOException {
+        LOG.info("Testing history...");
+
+        Path file = Path.of("target/htmlcompressor/history/history.jsonl");
+        Files.deleteIfExists(file);
+        CompressionHistory history = new CompressionHistory(file);
+        Map<PhaseTimer.Phase, Long> phases = new EnumMap<>(PhaseTimer.Phase.class);
+        for (int i = 1; i <= 10; i++) {
+            phases.put(PhaseTimer.Phase.COMPRESS, i * 1_000_000L);
+            history.append(new CompressionHistory.Entry(i, "com.example:site", "html", i <= 5 ? "1.0" : "1.1", "c" + i,
+                    3, 1000, 500 - i, i * 1_000_000L, i * 2_000_000L, phases));
+        }
+        history.append(
+                new CompressionHistory.Entry(11, "com.example:site", "xml", "1.1", null, 1, 10, 5, 1, 1, phases));
+        history.append(
+                new CompressionHistory.Entry(12, "com.example:other", "html", "2.0", null, 1, 10, 5, 1, 1, phases));
+        Files.writeString(file, "{\"time\":", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        List<CompressionHistory.Entry> entries = history.read("com.example:site", "html");
+        Assertions.assertEquals(10, entries.size());
+        Assertions.assertEquals("c10", entries.get(9).getCommit());
+        Assertions.assertEquals(10_000_000L, entries.get(9).getPhaseNanos(PhaseTimer.Phase.COMPRESS));
+        Assertions.assertNull(history.read("com.example:site", "xml").get(0).getCommit());
+        Assertions.assertEquals(11, history.read("com.example:site", null).size());
+        Assertions.assertEquals(11, history.read(null, "html").size());
+        Assertions.assertEquals(12, history.read(null, null).size());
+
+        Assertions.assertEquals(5, CompressionHistory.percentile(new long[] { 9, 1, 5, 3, 7 }, 50));
+        Assertions.assertEquals(9, CompressionHistory.percentile(new long[] { 9, 1, 5, 3, 7 }, 90));
+        Assertions.assertEquals(1, CompressionHistory.percentile(new long[] { 9, 1, 5, 3, 7 }, 0));
+
+        List<String> lines = CompressionHistory.formatTrends(entries);
+        lines.forEach(LOG::info);
+        Assertions.assertTrue(lines.get(1).startsWith("1.0 "));
+        Assertions.assertTrue(lines.get(2).startsWith("1.1 "));
+        Assertions.assertTrue(lines.get(2).endsWith("c10"));
+        Assertions.assertTrue(lines.get(4).matches("run ms\\s+10\\s+18\\s+20\\s+20\\s+20"));
+        Assertions.assertTrue(lines.get(5).startsWith("files ms "));
+
+        LOG.info("Passed");
+    }
+
+    /**
+     * Test the project reported by the trends goal.
+     */
+    @Test
+    void testTrendsProject() {
+        LOG.info("Testing trends project...");
+
+        TrendsMojo trendsMojo = new TrendsMojo();
+        trendsMojo.setTrendsProject("com.example:site");
+        Assertions.assertEquals("com.example:site", trendsMojo.getReportedProject());
+        trendsMojo.setTrendsProject("*");
+        Assertions.assertNull(trendsMojo.getReportedProject());
+        // Outside of a project the default resolves to Maven's stub project, which records no builds
+        trendsMojo.setTrendsProject(TrendsMojo.STANDALONE_PROJECT);
+        Assertions.assertNull(trendsMojo.getReportedProject());
+
+        LOG.info("Passed");
+    }
+
+    /**
+     * Test read git commit.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void testReadGitCommit() throws IOException {
+        LOG.info("Testing git commit lookup...");
+
+        Path repository = Path.of("target/htmlcompressor/history/repository");
+        Path gitDir = repository.resolve(".git");
+        Files.createDirectories(gitDir.resolve("refs/heads"));
+        Files.createDirectories(repository.resolve("src/main"));
+        Files.writeString(gitDir.resolve("HEAD"), "ref: refs/heads/main\n", StandardCharsets.UTF_8);
+        Files.deleteIfExists(gitDir.resolve("refs/heads/main"));
+        Files.writeString(gitDir.resolve("packed-refs"), "# pack-refs with: peeled\nabc123 refs/heads/main\n",
+                StandardCharsets.UTF_8);
+        Assertions.assertEquals("abc123", CompressionHistory.readGitCommit(repository.resolve("src/main")));
+
+        Files.writeString(gitDir.resolve("refs/heads/main"), "def456\n", StandardCharsets.UTF_8);
+        Assertions.assertEquals("def456", CompressionHistory.readGitCommit(repository));
+
+        // A linked worktree has its own HEAD but reads the branches from the main repository
+        Path worktree = Path.of("target/htmlcompressor/history/worktree");
+        Path worktreeGitDir = gitDir.resolve("worktrees/feature");
+        Files.createDirectories(worktree);
+        Files.createDirectories(worktreeGitDir);
+        Files.writeString(worktree.resolve(".git"), "gitdir: " + worktreeGitDir.toAbsolutePath() + "\n",
+                StandardCharsets.UTF_8);
+        Files.writeString(worktreeGitDir.resolve("HEAD"), "ref: refs/heads/feature\n", StandardCharsets.UTF_8);
+        Files.writeString(worktreeGitDir.resolve("commondir"), "../..\n", StandardCharsets.UTF_8);
+        Files.writeString(gitDir.resolve("refs/heads/feature"), "fed789\n", StandardCharsets.UTF_8);
+        Assertions.assertEquals("fed789", CompressionHistory.readGitCommit(worktree));
+
+        LOG.info("Passed");
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class CompressionProcessorTest.
+ */
+class CompressionProcessorTest {
+
+    /** The Constant LOG. */
+    private static final Logger LOG = LoggerFactory.getLogger(CompressionProcessorTest.class);
+
+    /** The service. */
+    private static CompressionService service;
+
+    /**
+     * Sets the up class.
+     */
+    @BeforeAll
+    static void setUpClass() {
+        LOG.info("Setting up class...");
+        service = new CompressionService(CompressionOptions.builder().html("removeIntertagSpaces", true).build());
+    }
+
+    /**
+     * Tear down class.
+     */
+    @AfterAll
+    static void tearDownClass() {
+        LOG.info("Test finished.");
+    }
+
+    /**
+     * Sets the up.
+     */
+    @BeforeEach
+    void setUp() {
+        LOG.info("Setting up data for testing...");
+    }
+
+    /**
+     * Test compressing a stream of documents.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void testCompressStream() throws Exception {
+        LOG.info("Testing compress stream...");
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (SubmissionPublisher<CompressionProcessor.Document> publisher = new SubmissionPublisher<>()) {
+            CompressionProcessor processor = new CompressionProcessor(service, executor, 3);
+            publisher.subscribe(processor);
+            Collector collector = new Collector(1);
+            processor.subscribe(collector);
+            for (int i = 0; i < 50; i++) {
+                publisher.submit(
+                        i % 2 == 0 ? new CompressionProcessor.Document("page" + i + ".html", "<p>\n  " + i + "\n</p>")
+                                : new CompressionProcessor.Document("data" + i + ".xml",
+                                        "<a>\n  <!-- c -->\n  <b>" + i + "</b>\n</a>"));
+            }
+            publisher.close();
+            Assertions.assertTrue(collector.done.await(30, TimeUnit.SECONDS));
+            Assertions.assertNull(collector.error.get());
+            Assertions.assertEquals(50, collector.results.size());
+            for (CompressionProcessor.Result result : collector.results) {
+                Assertions.assertFalse(result.isFailed());
+                String n = result.getPath().replaceAll("\\D", "");
+                Assertions.assertEquals(
+                        result.getPath().endsWith(".xml") ? "<a><b>" + n + "</b></a>" : "<p> " + n + " </p>",
+                        result.getContent());
+            }
+            Assertions.assertEquals(50, processor.getStatistics().getTotal().getFileCount());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Test that upstream is asked for no more documents than downstream demand and the concurrency allow.
+     */
+    @Test
+    void testBackpressure() {
+        LOG.info("Testing backpressure...");
+
+        CompressionProcessor processor = new CompressionProcessor(service, Runnable::run, 2);
+        AtomicLong requested = new AtomicLong();
+        processor.onSubscribe(new Flow.Subscription() {
+
+            @Override
+            public void request(long n) {
+                requested.addAndGet(n);
+            }
+
+            @Override
+            public void cancel() {
+                // Not cancelled in this test
+            }
+        });
+        Assertions.assertEquals(0, requested.get());
+
+        Collector collector = new Collector(0);
+        processor.subscribe(collector);
+        collector.subscription.request(3);
+        Assertions.assertEquals(2, requested.get());
+
+        processor.onNext(new CompressionProcessor.Document("a.html", "<p> a </p>"));
+        Assertions.assertEquals(3, requested.get());
+        processor.onNext(new CompressionProcessor.Document("b.html", "<p> b </p>"));
+        processor.onNext(new CompressionProcessor.Document("c.html", "<p> c </p>"));
+        Assertions.assertEquals(3, requested.get());
+        Assertions.assertEquals(3, collector.results.size());
+
+        processor.onComplete();
+        Assertions.assertEquals(0, collector.done.getCount());
+    }
+
+    /**
+     * Test that a failed document does not end the stream.
+     */
+    @Test
+    void testFailedDocument() {
+        LOG.info("Testing failed document...");
+
+        CompressionProcessor processor = new CompressionProcessor(service, Runnable::run, 1);
+        processor.onSubscribe(new Flow.Subscription() {
+
+            @Override
+            public void request(long n) {
+                // Documents are pushed directly
+            }
+
+            @Override
+            public void cancel() {
+                // Not cancelled in this test
+            }
+        });
+        Collector collector = new Collector(0);
+        processor.subscribe(collector);
+        collector.subscription.request(Long.MAX_VALUE);
+        processor.onNext(new CompressionProcessor.Document("broken.html", null));
+        processor.onNext(new CompressionProcessor.Document("ok.html", "<p> ok </p>"));
+        processor.onComplete();
+
+        Assertions.assertEquals(2, collector.results.size());
+        Assertions.assertTrue(collector.results.get(0).isFailed());
+        Assertions.assertEquals("<p> ok </p>", collector.results.get(1).getContent());
+        Assertions.assertEquals(1, processor.getStatistics().getTotal().getFileCount());
+
+        Collector second = new Collector(0);
+        processor.subscribe(second);
+        Assertions.assertTrue(second.error.get() instanceof IllegalStateException);
+    }
+
+    /**
+     * Subscriber collecting the results.
+     */
+    private static class Collector implements Flow.Subscriber<CompressionProcessor.Result> {
+
+        /** The number of results requested at a time, 0 to leave requests to the test. */
+        private final long batch;
+
+        /** The results. */
+        private final List<CompressionProcessor.Result> results = new CopyOnWriteArrayList<>();
+
+        /** The error. */
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+        /** Released on the terminal signal. */
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        /** The subscription. */
+        private Flow.Subscription subscription;
+
+        /**
+         * Instantiates a new collector.
+         *
+         * @param batch
+         *            the number of results requested at a time
+         */
+        Collector(long batch) {
+            this.batch = batch;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (batch > 0) {
+                subscription.request(batch);
+            }
+        }
+
+        @Override
+        public void onNext(CompressionProcessor.Result item) {
+            results.add(item);
+            if (batch > 0) {
+                subscription.request(batch);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error.set(throwable);
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            done.countDown();
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class CompressionServiceTest.
+ */
+class CompressionServiceTest {
+
+    /** The Constant LOG. */
+    private static final Logger LOG = LoggerFactory.getLogger(CompressionServiceTest.class);
+
+    /**
+     * Sets the up class.
+     */
+    @BeforeAll
+    static void setUpClass() {
+        LOG.info("Setting up class...");
+    }
+
+    /**
+     * Tear down class.
+     */
+    @AfterAll
+    static void tearDownClass() {
+        LOG.info("Test finished.");
+    }
+
+    /**
+     * Sets the up.
+     */
+    @BeforeEach
+    void setUp() {
+        LOG.info("Setting up data for testing...");
+    }
+
+    /**
+     * Test options.
+     */
+    @Test
+    void testOptions() {
+        LOG.info("Testing options...");
+
+        CompressionOptions options = CompressionOptions.builder().html("removeIntertagSpaces", true)
+                .html("preservePatterns", new String[] { "<\\?php.*?\\?>", "\\{\\{.*?\\}\\}" }).xmlRemoveComments(false)
+                .build();
+        Assertions.assertEquals("true", options.getHtmlSettings().get("removeIntertagSpaces"));
+        Assertions.assertEquals("<\\?php.*?\\?>\n\\{\\{.*?\\}\\}", options.getHtmlSettings().get("preservePatterns"));
+        Assertions.assertFalse(options.isXmlRemoveComments());
+        Assertions.assertEquals(StandardCharsets.UTF_8, options.getCharset());
+        Assertions.assertThrows(UnsupportedOperationException.class,
+                () -> options.getHtmlSettings().put("removeQuotes", "true"));
+
+        CompressionOptions changed = options.toBuilder().html("removeIntertagSpaces", null).build();
+        Assertions.assertNull(changed.getHtmlSettings().get("removeIntertagSpaces"));
+        Assertions.assertEquals("true", options.getHtmlSettings().get("removeIntertagSpaces"));
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> CompressionOptions.builder().html("removeIntertagSpace", true).build());
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> CompressionOptions.builder().html("yuiJsLineBreak", "x").build());
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> CompressionOptions.builder().html("encoding", "no-such-charset").build());
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> CompressionOptions.builder().html("closureBatch", true).build());
+        Assertions.assertEquals("false",
+                CompressionOptions.builder().html("closureBatch", false).build().getHtmlSettings().get("closureBatch"));
+    }
+
+    /**
+     * Test the typed options.
+     */
+    @Test
+    void testTypedOptions() {
+        LOG.info("Testing typed options...");
+
+        CompressionOptions options = CompressionOptions.builder().removeIntertagSpaces(true).yuiJsLineBreak(80)
+                .jsCompressor("closure").predefinedPreservePatterns(new String[] { "PHP_TAG_PATTERN", "JSP" })
+                .preservePatterns(new String[] { "<\\?php.*?\\?>", "\\{\\{.*?\\}\\}" }).encoding("ISO-8859-1").build();
+        Assertions.assertEquals("true", options.getHtmlSettings().get("removeIntertagSpaces"));
+        Assertions.assertEquals("80", options.getHtmlSettings().get("yuiJsLineBreak"));
+        Assertions.assertEquals("closure", options.getHtmlSettings().get("jsCompressor"));
+        Assertions.assertEquals("PHP_TAG_PATTERN,JSP", options.getHtmlSettings().get("predefinedPreservePatterns"));
+        Assertions.assertEquals("<\\?php.*?\\?>\n\\{\\{.*?\\}\\}", options.getHtmlSettings().get("preservePatterns"));
+        Assertions.assertEquals(StandardCharsets.ISO_8859_1, options.getCharset());
+        Assertions.assertEquals(options.getHtmlSettings(),
+                CompressionOptions.builder().html("removeIntertagSpaces", true).html("yuiJsLineBreak", 80)
+                        .html("jsCompressor", "closure").html("predefinedPreservePatterns", "PHP_TAG_PATTERN,JSP")
+                        .html("preservePatterns", "<\\?php.*?\\?>\n\\{\\{.*?\\}\\}").html("encoding", "ISO-8859-1")
+                        .build().getHtmlSettings());
+
+        Assertions.assertNull(options.toBuilder().encoding(null).build().getHtmlSettings().get("encoding"));
+    }
+
+    /**
+     * Test the entry points.
+     */
+    @Test
+    void testEntryPoints() {
+        LOG.info("Testing entry points...");
+
+        CompressionService service = new CompressionService(
+                CompressionOptions.builder().html("removeIntertagSpaces", true).build());
+        String html = "<html>\n  <body>\n    <!-- c -->\n    <p>  héllo  </p>\n  </body>\n</html>";
+        String expected = "<html><body><p> héllo </p></body></html>";
+        Assertions.assertEquals(expected, service.compressHtml(html));
+        Assertions.assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8),
+                service.compressHtml(html.getBytes(StandardCharsets.UTF_8)));
+
+        ByteBuffer buffer = ByteBuffer.wrap(("xx" + html).getBytes(StandardCharsets.UTF_8));
+        buffer.position(2);
+        ByteBuffer result = service.compressHtml(buffer);
+        Assertions.assertEquals(2, buffer.position());
+        Assertions.assertEquals(expected, StandardCharsets.UTF_8.decode(result).toString());
+
+        String xml = "<root>\n  <!-- c -->\n  <item> a </item>\n</root>";
+        Assertions.assertEquals("<root><item> a </item></root>", service.compressXml(xml));
+        Assertions.assertEquals("<root><item> a </item></root>",
+                new String(service.compressXml(xml.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8));
+        Assertions.assertEquals("<root><item> a </item></root>", StandardCharsets.UTF_8
+                .decode(service.compressXml(ByteBuffer.wrap(xml.getBytes(StandardCharsets.UTF_8)))).toString());
+    }
+
+    /**
+     * Test concurrent callers.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void testConcurrentCallers() throws Exception {
+        LOG.info("Testing concurrent callers...");
+
+        CompressionService service = new CompressionService(
+                CompressionOptions.builder().html("compressCss", true).html("removeIntertagSpaces", true).build(), 2);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Boolean>> tasks = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                int n = i;
+                tasks.add(() -> {
+                    String html = "<div>\n  <style> .c" + n + " { color : red ; } </style>\n  <p> " + n
+                            + " </p>\n</div>";
+                    String expected = "<div><style>.c" + n + "{color:red}</style><p> " + n + " </p></div>";
+                    return expected.equals(service.compressHtml(html));
+                });
+            }
+            for (Future<Boolean> future : executor.invokeAll(tasks)) {
+                Assertions.assertTrue(future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class CompressionStatisticsTest.
+ */
+class CompressionStatisticsTest {
+
+    /** The Constant LOG. */
+    private static final Logger LOG = LoggerFactory.getLogger(CompressionStatisticsTest.class);
+
+    /**
+     * Sets the up class.
+     */
+    @BeforeAll
+    static void setUpClass() {
+        LOG.info("Setting up class...");
+    }
+
+    /**
+     * Tear down class.
+     */
+    @AfterAll
+    static void tearDownClass() {
+        LOG.info("Test finished.");
+    }
+
+    /**
+     * Sets the up.
+     */
+    @BeforeEach
+    void setUp() {
+        LOG.info("Setting up data for testing...");
+    }
+
+    /**
+     * Test recording from several threads.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void testParallelRecord() throws Exception {
+        LOG.info("Testing parallel record...");
+
+        CompressionStatistics statistics = new CompressionStatistics();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            String file = (i % 2 == 0 ? "a/b/" : "c/") + "file" + i + ".html";
+            futures.add(executor
+                    .submit(() -> statistics.record(new CompressionStatistics.FileStatistics(file, 100, 60, 1000))));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        Assertions.assertEquals(1000, statistics.getFiles().size());
+        Assertions.assertEquals(1000, statistics.getTotal().getFileCount());
+        Assertions.assertEquals(100_000, statistics.getTotal().get(CompressionStatistics.Metric.ORIGINAL_SIZE));
+        Assertions.assertEquals(60_000, statistics.getTotal().get(CompressionStatistics.Metric.COMPRESSED_SIZE));
+        List<CompressionStatistics.Rollup> directories = statistics.getDirectories();
+        Assertions.assertEquals(4, directories.size());
+        Assertions.assertEquals(".", directories.get(0).getDirectory());
+        Assertions.assertEquals("a", directories.get(1).getDirectory());
+        Assertions.assertEquals(500, directories.get(1).getFileCount());
+        Assertions.assertEquals("a/b", directories.get(2).getDirectory());
+        Assertions.assertEquals(500, directories.get(2).getFileCount());
+        Assertions.assertEquals(30_000, directories.get(3).get(CompressionStatistics.Metric.COMPRESSED_SIZE));
+
+        LOG.info("Passed");
+    }
+
+    /**
+     * Test recording a file again.
+     */
+    @Test
+    void testRecordAgain() {
+        LOG.info("Testing record again...");
+
+        CompressionStatistics statistics = new CompressionStatistics();
+        statistics.record(new CompressionStatistics.FileStatistics("a/index.html", 100, 60, 1000));
+        statistics.record(new CompressionStatistics.FileStatistics("a/index.html", 100, 50, 3000));
+
+        Assertions.assertEquals(1, statistics.getFiles().size());
+        for (CompressionStatistics.Rollup rollup : statistics.getDirectories()) {
+            Assertions.assertEquals(1, rollup.getFileCount());
+            Assertions.assertEquals(100, rollup.get(CompressionStatistics.Metric.ORIGINAL_SIZE));
+            Assertions.assertEquals(50, rollup.get(CompressionStatistics.Metric.COMPRESSED_SIZE));
+            Assertions.assertEquals(3000, rollup.get(CompressionStatistics.Metric.TIME_NANOS));
+        }
+
+        LOG.info("Passed");
+    }
+
+    /**
+     * Test reports.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void testReports() throws IOException {
+        LOG.info("Testing reports...");
+
+        CompressionStatistics statistics = new CompressionStatistics();
+        CompressionStatistics.FileStatistics source = new CompressionStatistics.FileStatistics("x/one.html", 10, 4, 7);
+        statistics.record(source);
+        statistics.record(new CompressionStatistics.FileStatistics("x/two,2.html", source));
+
+        Path csv = Path.of("target/htmlcompressor/statistics/statistics.csv");
+        statistics.writeCsv(csv, StandardCharsets.UTF_8);
+        List<String> lines = Files.readAllLines(csv, StandardCharsets.UTF_8);
+        Assertions.assertEquals(5, lines.size());
+        Assertions.assertTrue(lines.get(0).startsWith("type,path,files,originalSize,compressedSize,"));
+        Assertions.assertTrue(lines.get(1).startsWith("file,x/one.html,1,10,4,"));
+        Assertions.assertTrue(lines.get(1).endsWith(",7"));
+        Assertions.assertTrue(lines.get(2).startsWith("file,\"x/two,2.html\",1,10,4,"));
+        Assertions.assertTrue(lines.get(2).endsWith(",0"));
+        Assertions.assertTrue(lines.get(3).startsWith("directory,.,2,20,8,"));
+
+        Path json = Path.of("target/htmlcompressor/statistics/statistics.json");
+        statistics.writeJson(json, StandardCharsets.UTF_8);
+        JSONObject report = new JSONObject(Files.readString(json, StandardCharsets.UTF_8));
+        Assertions.assertEquals(2, report.getJSONArray("files").length());
+        Assertions.assertEquals("x/one.html", report.getJSONArray("files").getJSONObject(0).getString("file"));
+        Assertions.assertEquals(8, report.getJSONArray("directories").getJSONObject(1).getLong("compressedSize"));
+
+        LOG.info("Passed");
+    }
+}
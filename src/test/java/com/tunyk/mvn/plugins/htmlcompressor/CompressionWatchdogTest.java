@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import com.googlecode.htmlcompressor.compressor.Compressor;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class CompressionWatchdogTest.
+ */
+class CompressionWatchdogTest {
+
+    /** The Constant LOG. */
+    private static final Logger LOG = LoggerFactory.getLogger(CompressionWatchdogTest.class);
+
+    /** A compressor that never finishes unless interrupted. */
+    private static final Compressor HANGING_COMPRESSOR = source -> {
+        try {
+            Thread.sleep(60_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "hung";
+    };
+
+    /**
+     * Sets the up class.
+     */
+    @BeforeAll
+    static void setUpClass() {
+        LOG.info("Setting up class...");
+    }
+
+    /**
+     * Tear down class.
+     */
+    @AfterAll
+    static void tearDownClass() {
+        LOG.info("Test finished.");
+    }
+
+    /**
+     * Sets the up.
+     */
+    @BeforeEach
+    void setUp() {
+        LOG.info("Setting up data for testing...");
+    }
+
+    /**
+     * Test compress within budget.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void testCompressWithinBudget() throws IOException {
+        LOG.info("Testing compress within budget...");
+
+        try (CompressionWatchdog watchdog = new CompressionWatchdog(5_000, true)) {
+            Assertions.assertEquals("A", watchdog.compress("file.html", "a", String::toUpperCase));
+            Assertions.assertTrue(watchdog.getTimedOutFiles().isEmpty());
+        }
+        try (CompressionWatchdog watchdog = new CompressionWatchdog(0, true)) {
+            Assertions.assertEquals("A", watchdog.compress("file.html", "a", String::toUpperCase));
+        }
+
+        LOG.info("Passed");
+    }
+
+    /**
+     * Test timeout copies original.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void testTimeoutCopiesOriginal() throws IOException {
+        LOG.info("Testing timeout copies original...");
+
+        try (CompressionWatchdog watchdog = new CompressionWatchdog(50, false)) {
+            Assertions.assertEquals("original", watchdog.compress("slow.html", "original", HANGING_COMPRESSOR));
+            Assertions.assertEquals("B", watchdog.compress("fast.html", "b", String::toUpperCase));
+            Assertions.assertEquals(1, watchdog.getTimedOutFiles().size());
+            Assertions.assertEquals("slow.html", watchdog.getTimedOutFiles().get(0));
+        }
+
+        LOG.info("Passed");
+    }
+
+    /**
+     * Test timeout fails.
+     */
+    @Test
+    void testTimeoutFails() {
+        LOG.info("Testing timeout fails...");
+
+        try (CompressionWatchdog watchdog = new CompressionWatchdog(50, true)) {
+            IOException e = Assertions.assertThrows(IOException.class,
+                    () -> watchdog.compress("slow.html", "original", HANGING_COMPRESSOR));
+            Assertions.assertTrue(e.getMessage().contains("slow.html"));
+        }
+
+        LOG.info("Passed");
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import com.googlecode.htmlcompressor.compressor.Compressor;
+import com.googlecode.htmlcompressor.compressor.HtmlCompressor;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class CompressorLibrariesTest.
+ */
+class CompressorLibrariesTest {
+
+    /** The Constant LOG. */
+    private static final Logger LOG = LoggerFactory.getLogger(CompressorLibrariesTest.class);
+
+    /**
+     * Sets the up class.
+     */
+    @BeforeAll
+    static void setUpClass() {
+        LOG.info("Setting up class...");
+    }
+
+    /**
+     * Tear down class.
+     */
+    @AfterAll
+    static void tearDownClass() {
+        LOG.info("Test finished.");
+    }
+
+    /**
+     * Sets the up.
+     */
+    @BeforeEach
+    void setUp() {
+        LOG.info("Setting up data for testing...");
+    }
+
+    /**
+     * Test isolation.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @throws ClassNotFoundException
+     *             if a class is missing
+     */
+    @Test
+    void testIsolation() throws IOException, ClassNotFoundException {
+        LOG.info("Testing isolation...");
+
+        CompressorLibraries libraries = CompressorLibraries.get();
+        ClassLoader parent = CompressorLibraries.class.getClassLoader();
+        Assertions.assertSame(libraries, CompressorLibraries.get());
+        Assertions.assertInstanceOf(IsolatingClassLoader.class, libraries.getClass().getClassLoader());
+        Assertions.assertEquals(parent, libraries.getClass().getClassLoader().getParent());
+        Assertions.assertInstanceOf(IsolatingClassLoader.class,
+                Class.forName("com.google.javascript.jscomp.Compiler", false, libraries.getClass().getClassLoader())
+                        .getClassLoader());
+        Assertions.assertSame(parent, Class
+                .forName("com.google.errorprone.annotations.Immutable", false, libraries.getClass().getClassLoader())
+                .getClassLoader());
+
+        Compressor yuiJs = libraries.createYuiJavaScriptCompressor(false, false, -1, false);
+        Assertions.assertSame(libraries.getClass().getClassLoader(), yuiJs.getClass().getClassLoader());
+        Assertions.assertEquals("var a=1;", yuiJs.compress("var a = 1 ;"));
+
+        Compressor yuiCss = libraries.createYuiCssCompressor(-1);
+        Assertions.assertEquals("a{color:red}", yuiCss.compress("a { color : red; }"));
+
+        Compressor closure = libraries.createClosureCompressor("whitespace", Collections.emptyMap(), true);
+        Assertions.assertInstanceOf(BatchCompressor.class, closure);
+        Assertions.assertSame(libraries.getClass().getClassLoader(), closure.getClass().getClassLoader());
+        BatchCompressor batch = (BatchCompressor) closure;
+        String placeholder = batch.compress("var a = 1 ;");
+        batch.compile();
+        Assertions.assertTrue(batch.resolve(placeholder).endsWith("var a=1;"));
+
+        Assertions.assertTrue(libraries.getBuiltinExterns().size() > 0);
+    }
+
+    /**
+     * Test factory.
+     */
+    @Test
+    void testFactory() {
+        LOG.info("Testing factory...");
+
+        HtmlCompressorFactory factory = new HtmlCompressorFactory();
+        HtmlCompressor htmlCompressor = factory.get();
+        Assertions.assertNull(htmlCompressor.getJavaScriptCompressor());
+        Assertions.assertNull(htmlCompressor.getCssCompressor());
+
+        factory.setCompressJavaScript(true);
+        factory.setCompressCss(true);
+        factory.setJsCompressor("closure");
+        factory.setClosureBatch(true);
+        htmlCompressor = factory.get();
+        Assertions.assertInstanceOf(BatchCompressor.class, htmlCompressor.getJavaScriptCompressor());
+        Assertions.assertInstanceOf(IsolatingClassLoader.class,
+                htmlCompressor.getJavaScriptCompressor().getClass().getClassLoader());
+        Assertions.assertInstanceOf(IsolatingClassLoader.class,
+                htmlCompressor.getCssCompressor().getClass().getClassLoader());
+        Assertions.assertEquals("<style>a{color:red}</style>",
+                htmlCompressor.compress("<style>a { color : red; }</style>"));
+    }
+}
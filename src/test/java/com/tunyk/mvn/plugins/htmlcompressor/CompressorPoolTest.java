@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class CompressorPoolTest.
+ */
+class CompressorPoolTest {
+
+    /** The Constant LOG. */
+    private static final Logger LOG = LoggerFactory.getLogger(CompressorPoolTest.class);
+
+    /**
+     * Sets the up class.
+     */
+    @BeforeAll
+    static void setUpClass() {
+        LOG.info("Setting up class...");
+    }
+
+    /**
+     * Tear down class.
+     */
+    @AfterAll
+    static void tearDownClass() {
+        LOG.info("Test finished.");
+    }
+
+    /**
+     * Sets the up.
+     */
+    @BeforeEach
+    void setUp() {
+        LOG.info("Setting up data for testing...");
+    }
+
+    /**
+     * Test borrow and release.
+     */
+    @Test
+    void testApply() {
+        LOG.info("Testing pool...");
+
+        AtomicInteger created = new AtomicInteger();
+        CompressorPool<StringBuilder> pool = new CompressorPool<>(() -> {
+            created.incrementAndGet();
+            return new StringBuilder();
+        }, 1);
+        StringBuilder first = pool.borrow();
+        StringBuilder second = pool.borrow();
+        Assertions.assertEquals(2, created.get());
+        pool.release(first);
+        pool.release(second);
+        Assertions.assertEquals(1, pool.getIdleCount());
+        Assertions.assertSame(first, pool.apply(sb -> sb));
+        Assertions.assertEquals(2, created.get());
+
+        Assertions.assertThrows(IllegalStateException.class, () -> pool.apply(sb -> {
+            throw new IllegalStateException();
+        }));
+        Assertions.assertEquals(0, pool.getIdleCount());
+
+        LOG.info("Passed");
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class CssCompressorMojoTest.
+ */
+class CssCompressorMojoTest {
+
+    /** The Constant LOG. */
+    private static final Logger LOG = LoggerFactory.getLogger(CssCompressorMojoTest.class);
+
+    /**
+     * Sets the up class.
+     */
+    @BeforeAll
+    static void setUpClass() {
+        LOG.info("Setting up class...");
+    }
+
+    /**
+     * Tear down class.
+     */
+    @AfterAll
+    static void tearDownClass() {
+        LOG.info("Mojo test finished.");
+    }
+
+    /**
+     * Sets the up.
+     */
+    @BeforeEach
+    void setUp() {
+        LOG.info("Setting up data for testing...");
+    }
+
+    /**
+     * Test execute.
+     *
+     * @throws MojoExecutionException
+     *             the mojo execution exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void testExecute() throws MojoExecutionException, IOException {
+        LOG.info("Testing mojo execution...");
+
+        CssCompressorMojo cssCompressorMojo = new CssCompressorMojo();
+        cssCompressorMojo.setSrcFolder("src/test/resources/css");
+        cssCompressorMojo.setTargetFolder("target/htmlcompressor/css");
+        cssCompressorMojo.execute();
+
+        Assertions.assertEquals("body{margin:0;color:#fff}",
+                Files.readString(Path.of("target/htmlcompressor/css/file.css"), StandardCharsets.UTF_8));
+
+        LOG.info("Passed");
+    }
+
+    /**
+     * Test identical files are linked.
+     *
+     * @throws MojoExecutionException
+     *             the mojo execution exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void testLinkDuplicates() throws MojoExecutionException, IOException {
+        LOG.info("Testing linked duplicates...");
+
+        Path src = Path.of("target/htmlcompressor/css-duplicates-src");
+        Path target = Path.of("target/htmlcompressor/css-duplicates");
+        Files.createDirectories(src.resolve("b"));
+        Files.writeString(src.resolve("a.css"), "body { margin : 0; }", StandardCharsets.UTF_8);
+        Files.writeString(src.resolve("b/a.css"), "body { margin : 0; }", StandardCharsets.UTF_8);
+        Files.writeString(src.resolve("c.css"), "p { margin : 0; }", StandardCharsets.UTF_8);
+
+        CssCompressorMojo cssCompressorMojo = new CssCompressorMojo();
+        cssCompressorMojo.setSrcFolder(src.toString());
+        cssCompressorMojo.setTargetFolder(target.toString());
+        cssCompressorMojo.setLinkDuplicates(true);
+        cssCompressorMojo.execute();
+
+        Assertions.assertEquals("body{margin:0}", Files.readString(target.resolve("b/a.css"), StandardCharsets.UTF_8));
+        Assertions.assertTrue(Files.isSameFile(target.resolve("a.css"), target.resolve("b/a.css")));
+        Assertions.assertFalse(Files.isSameFile(target.resolve("a.css"), target.resolve("c.css")));
+
+        LOG.info("Passed");
+    }
+}
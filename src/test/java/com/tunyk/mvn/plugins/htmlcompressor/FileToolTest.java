@@ -19,6 +19,11 @@
 package com.tunyk.mvn.plugins.htmlcompressor;
 
 import java.io.IOException;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -122,6 +127,65 @@ class FileToolTest {
         LOG.info("Passed");
     }
 
+    /**
+     * Test invalid content is reported rather than replaced.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void testInvalidEncoding() throws IOException {
+        LOG.info("Testing invalid encoding...");
+
+        String targetDir = "target/test/filetool-encoding";
+        Files.createDirectories(Path.of(targetDir));
+        Files.write(Path.of(targetDir, "malformed.html"), new byte[] { '<', 'p', '>', (byte) 0xC3, '<' });
+        FileTool fileTool = new FileTool(targetDir, new String[] { "html" }, true);
+        fileTool.setFileEncoding(StandardCharsets.UTF_8);
+        Assertions.assertThrows(CharacterCodingException.class, fileTool::getFiles);
+
+        fileTool.setFileEncoding(StandardCharsets.US_ASCII);
+        Map<String, String> map = new HashMap<>();
+        map.put("unmappable.html", "<p>\u00e9</p>");
+        Assertions.assertThrows(CharacterCodingException.class, () -> fileTool.writeFiles(map, targetDir));
+
+        LOG.info("Passed");
+    }
+
+    /**
+     * Test write duplicate files.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void testWriteDuplicateFiles() throws IOException {
+        LOG.info("Testing writeFiles method with duplicates...");
+
+        String targetDir = "target/test/filetool-duplicates";
+        String content = "shared tenant template";
+        FileTool fileTool = new FileTool(targetDir, new String[] { "htm", "html" }, true);
+        Map<String, String> map = new HashMap<String, String>();
+        map.put("tenant1/file.html", content);
+        map.put("tenant2/file.html", content);
+        map.put("tenant3/file.html", "own template");
+
+        fileTool.writeFiles(map, targetDir);
+        Assertions.assertEquals(content,
+                Files.readString(Path.of(targetDir, "tenant2/file.html"), Charset.defaultCharset()));
+
+        fileTool.setLinkDuplicates(true);
+        fileTool.writeFiles(map, targetDir);
+        Assertions.assertEquals(content,
+                Files.readString(Path.of(targetDir, "tenant1/file.html"), Charset.defaultCharset()));
+        Assertions.assertEquals(content,
+                Files.readString(Path.of(targetDir, "tenant2/file.html"), Charset.defaultCharset()));
+        Assertions.assertEquals("own template",
+                Files.readString(Path.of(targetDir, "tenant3/file.html"), Charset.defaultCharset()));
+
+        LOG.info("Passed");
+    }
+
     /**
      * Test write to json file.
      *
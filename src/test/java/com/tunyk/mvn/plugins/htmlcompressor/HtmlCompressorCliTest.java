@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class HtmlCompressorCliTest.
+ */
+class HtmlCompressorCliTest {
+
+    /** The Constant LOG. */
+    private static final Logger LOG = LoggerFactory.getLogger(HtmlCompressorCliTest.class);
+
+    /** The page. */
+    private static final String PAGE = "<html>\n  <body>\n    <!-- c -->\n    <p>  héllo  </p>\n  </body>\n</html>";
+
+    /** The temporary directory. */
+    @TempDir
+    Path tempDir;
+
+    /** The standard output. */
+    private ByteArrayOutputStream out;
+
+    /** The standard error. */
+    private ByteArrayOutputStream err;
+
+    /**
+     * Sets the up class.
+     */
+    @BeforeAll
+    static void setUpClass() {
+        LOG.info("Setting up class...");
+    }
+
+    /**
+     * Tear down class.
+     */
+    @AfterAll
+    static void tearDownClass() {
+        LOG.info("Test finished.");
+    }
+
+    /**
+     * Sets the up.
+     */
+    @BeforeEach
+    void setUp() {
+        LOG.info("Setting up data for testing...");
+        out = new ByteArrayOutputStream();
+        err = new ByteArrayOutputStream();
+    }
+
+    /**
+     * Test compressing the standard input.
+     */
+    @Test
+    void testStream() {
+        LOG.info("Testing stream...");
+
+        Assertions.assertEquals(HtmlCompressorCli.EXIT_OK, run(PAGE, "--removeIntertagSpaces"));
+        Assertions.assertEquals("<html><body><p> héllo </p></body></html>", out.toString(StandardCharsets.UTF_8));
+
+        out.reset();
+        Assertions.assertEquals(HtmlCompressorCli.EXIT_OK,
+                run("<a>\n  <!-- c -->\n  <b/>\n</a>", "--type=xml", "--xmlRemoveComments=false", "-"));
+        Assertions.assertEquals("<a><!-- c --><b/></a>", out.toString(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Test compressing a directory.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void testDirectory() throws Exception {
+        LOG.info("Testing directory...");
+
+        Path source = tempDir.resolve("src");
+        Path target = tempDir.resolve("target");
+        Files.createDirectories(source.resolve("a/b"));
+        Files.writeString(source.resolve("index.html"), PAGE);
+        Files.writeString(source.resolve("a/b/page.htm"), "<p>\n  x\n</p>");
+        Files.writeString(source.resolve("a/notes.txt"), "  left   alone  ");
+
+        Assertions.assertEquals(HtmlCompressorCli.EXIT_OK, run("", source.toString(), target.toString()));
+        Assertions.assertEquals("<html> <body> <p> héllo </p> </body> </html>",
+                Files.readString(target.resolve("index.html")));
+        Assertions.assertEquals("<p> x </p>", Files.readString(target.resolve("a/b/page.htm")));
+        Assertions.assertFalse(Files.exists(target.resolve("a/notes.txt")));
+        Assertions.assertTrue(out.toString(StandardCharsets.UTF_8).startsWith("Compressed 2 files"));
+    }
+
+    /**
+     * Test invalid arguments.
+     */
+    @Test
+    void testUsage() {
+        LOG.info("Testing usage...");
+
+        Assertions.assertEquals(HtmlCompressorCli.EXIT_USAGE, run("", "--noSuchOption"));
+        Assertions.assertEquals(HtmlCompressorCli.EXIT_USAGE, run("", "--type=json"));
+        Assertions.assertEquals(HtmlCompressorCli.EXIT_USAGE, run("", "one"));
+        Assertions.assertEquals(HtmlCompressorCli.EXIT_USAGE, run("", "--daemon", "--connect"));
+        Assertions.assertEquals(HtmlCompressorCli.EXIT_USAGE, run("", "--connect", "--port=7677"));
+        Assertions.assertTrue(err.toString(StandardCharsets.UTF_8).contains("Usage: htmlcompressor"));
+        Assertions.assertEquals(HtmlCompressorCli.EXIT_OK, run("", "--help"));
+    }
+
+    /**
+     * Test requests to a running daemon, over a Unix domain socket when supported and over TCP.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void testDaemon() throws Exception {
+        LOG.info("Testing daemon...");
+
+        CompressionService service = new CompressionService(
+                CompressionOptions.builder().html("removeIntertagSpaces", true).build());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Path socket = tempDir.resolve("hc.sock");
+            CompressionDaemon unix = new CompressionDaemon(service, socket, -1);
+            Future<?> serving = executor.submit(() -> {
+                unix.serve();
+                return null;
+            });
+            Assertions.assertEquals(HtmlCompressorCli.EXIT_OK,
+                    run(PAGE, "--connect", "--socket=" + socket, "--removeIntertagSpaces"));
+            Assertions.assertEquals("<html><body><p> héllo </p></body></html>", out.toString(StandardCharsets.UTF_8));
+            Assertions.assertEquals("", err.toString(StandardCharsets.UTF_8));
+
+            // Other options are refused, neither replaced by the daemon's nor compressed in-process
+            out.reset();
+            Assertions.assertEquals(HtmlCompressorCli.EXIT_FAILURE, run(PAGE, "--connect", "--socket=" + socket));
+            Assertions.assertEquals("", out.toString(StandardCharsets.UTF_8));
+            Assertions.assertTrue(err.toString(StandardCharsets.UTF_8).startsWith("Options differ"));
+
+            Assertions.assertEquals(HtmlCompressorCli.EXIT_OK, run("", "--stop", "--socket=" + socket));
+            serving.get(10, TimeUnit.SECONDS);
+            Assertions.assertTrue(unix.awaitTermination(10_000));
+            Assertions.assertFalse(Files.exists(socket));
+
+            // Nothing listens anymore, so the content is compressed in-process with the given options
+            out.reset();
+            err.reset();
+            Assertions.assertEquals(HtmlCompressorCli.EXIT_OK, run(PAGE, "--connect", "--socket=" + socket));
+            Assertions.assertEquals("<html> <body> <p> héllo </p> </body> </html>",
+                    out.toString(StandardCharsets.UTF_8));
+            Assertions.assertTrue(err.toString(StandardCharsets.UTF_8).startsWith("No daemon answered"));
+
+            Path endpoint = tempDir.resolve("hc.tcp");
+            try (CompressionDaemon tcp = new CompressionDaemon(service, endpoint, 0)) {
+                Future<?> tcpServing = executor.submit(() -> {
+                    tcp.serve();
+                    return null;
+                });
+                ByteArrayOutputStream result = new ByteArrayOutputStream();
+                CompressionDaemon.request(endpoint, "xml", null, "<a>\n  <b/>\n</a>".getBytes(StandardCharsets.UTF_8),
+                        result);
+                Assertions.assertEquals("<a><b/></a>", result.toString(StandardCharsets.UTF_8));
+
+                // Requests without the token of the endpoint file are refused
+                int port = Integer.parseInt(Files.readString(endpoint).split(" ", -1)[0]);
+                try (Socket client = new Socket(InetAddress.getLoopbackAddress(), port)) {
+                    client.getOutputStream().write("xml\n<a/>".getBytes(StandardCharsets.UTF_8));
+                    client.shutdownOutput();
+                    Assertions.assertEquals("ERROR Missing or wrong token\n",
+                            new String(client.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+                }
+                if (Files.getFileStore(endpoint).supportsFileAttributeView("posix")) {
+                    Assertions.assertEquals("rw-------",
+                            PosixFilePermissions.toString(Files.getPosixFilePermissions(endpoint)));
+                }
+                tcp.close();
+                tcpServing.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Run the command line.
+     *
+     * @param input
+     *            the standard input
+     * @param args
+     *            the arguments
+     *
+     * @return the exit code
+     */
+    private int run(String input, String... args) {
+        return HtmlCompressorCli.run(args, new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)),
+                new PrintStream(out, true, StandardCharsets.UTF_8), new PrintStream(err, true, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class HtmlCompressorFactoryTest.
+ */
+class HtmlCompressorFactoryTest {
+
+    /** The Constant LOG. */
+    private static final Logger LOG = LoggerFactory.getLogger(HtmlCompressorFactoryTest.class);
+
+    /**
+     * Sets the up class.
+     */
+    @BeforeAll
+    static void setUpClass() {
+        LOG.info("Setting up class...");
+    }
+
+    /**
+     * Tear down class.
+     */
+    @AfterAll
+    static void tearDownClass() {
+        LOG.info("Test finished.");
+    }
+
+    /**
+     * Sets the up.
+     */
+    @BeforeEach
+    void setUp() {
+        LOG.info("Setting up data for testing...");
+    }
+
+    /**
+     * Test from properties.
+     */
+    @Test
+    void testFromProperties() {
+        LOG.info("Testing factory settings...");
+
+        HtmlCompressorFactory factory = HtmlCompressorFactory.fromProperties(
+                Map.of("removeIntertagSpaces", "true", "compressCss", " true ", "predefinedPreservePatterns",
+                        "PHP_TAG_PATTERN, jsp", "preservePatterns", "\\{\\{[^}]*\\}\\}\n\n<!--keep-->"));
+        Assertions.assertTrue(factory.isRemoveIntertagSpaces());
+        Assertions.assertTrue(factory.isCompressCss());
+        Assertions.assertArrayEquals(new String[] { "PHP_TAG_PATTERN", "jsp" },
+                factory.getPredefinedPreservePatterns());
+        Assertions.assertEquals(2, factory.getPreservePatterns().length);
+
+        com.googlecode.htmlcompressor.compressor.HtmlCompressor compressor = factory.get();
+        Assertions.assertTrue(compressor instanceof TemplateHtmlCompressor);
+        Assertions.assertNotSame(compressor, factory.get());
+        Assertions.assertEquals("<div>{{ a  b }}</div><style>p{color:red}</style>", compressor
+                .compress("<div>\n  {{ a  b }}\n</div>\n<!-- x -->\n<style>\n  p {\n    color : red;\n  }\n</style>"));
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> HtmlCompressorFactory.fromProperties(Map.of("removeEverything", "true")));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> HtmlCompressorFactory.fromProperties(Map.of("closureBatch", "true")));
+        Assertions.assertFalse(HtmlCompressorFactory.fromProperties(Map.of("closureBatch", "false")).isClosureBatch());
+
+        LOG.info("Passed");
+    }
+
+    /**
+     * Test compressors are created while another thread changes the settings.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void testConcurrentChange() throws Exception {
+        LOG.info("Testing concurrent change...");
+
+        HtmlCompressorFactory factory = new HtmlCompressorFactory();
+        factory.setPredefinedPreservePatterns(new String[] { "PHP_TAG_PATTERN", "JSP" });
+        factory.setPreservePatterns(new String[] { "\\{\\{.*?\\}\\}" });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        AtomicBoolean done = new AtomicBoolean();
+        try {
+            Future<?> changes = executor.submit(() -> {
+                while (!done.get()) {
+                    factory.setPreservePatterns(new String[] { "\\{\\{.*?\\}\\}" });
+                }
+            });
+            for (int i = 0; i < 20000; i++) {
+                Assertions.assertEquals(2, factory.get().getPreservePatterns().size());
+            }
+            done.set(true);
+            changes.get();
+        } finally {
+            done.set(true);
+            executor.shutdownNow();
+        }
+
+        LOG.info("Passed");
+    }
+}
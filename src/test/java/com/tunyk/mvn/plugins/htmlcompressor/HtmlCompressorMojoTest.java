@@ -18,8 +18,15 @@
  */
 package com.tunyk.mvn.plugins.htmlcompressor;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
 import org.apache.maven.plugin.MojoExecutionException;
 import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -63,17 +70,31 @@ class HtmlCompressorMojoTest {
      *
      * @throws MojoExecutionException
      *             the mojo execution exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
      */
     @Test
-    void testExecute() throws MojoExecutionException {
+    void testExecute() throws MojoExecutionException, IOException {
         LOG.info("Testing mojo execution...");
 
         HtmlCompressorMojo htmlCompressorMojo = new HtmlCompressorMojo();
         htmlCompressorMojo.setSrcFolder("src/test/resources/html");
         htmlCompressorMojo.setJavascriptHtmlSpriteIntegrationFile("src/test/resources/html/integration.js");
         htmlCompressorMojo.setTargetFolder("target/htmlcompressor/html");
+        htmlCompressorMojo.setHtmlCompressionStatisticsCsv("target/htmlcompressor/html-compression-statistics.csv");
+        htmlCompressorMojo.setMetricsFile("target/htmlcompressor/htmlcompressor.prom");
         htmlCompressorMojo.execute();
 
+        List<String> csv = Files.readAllLines(Path.of("target/htmlcompressor/html-compression-statistics.csv"),
+                StandardCharsets.UTF_8);
+        Assertions.assertTrue(csv.stream().anyMatch(line -> line.startsWith("directory,.,3,")));
+
+        List<String> metrics = Files.readAllLines(Path.of("target/htmlcompressor/htmlcompressor.prom"),
+                StandardCharsets.UTF_8);
+        Assertions.assertTrue(metrics.contains("htmlcompressor_files_total{goal=\"html\"} 3"));
+        Assertions.assertTrue(metrics.contains("htmlcompressor_file_duration_seconds_count{goal=\"html\"} 3"));
+        Assertions.assertEquals("# EOF", metrics.get(metrics.size() - 1));
+
         // TODO: test results
 
         LOG.info("Passed");
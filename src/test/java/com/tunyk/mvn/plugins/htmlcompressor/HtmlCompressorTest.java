@@ -18,10 +18,20 @@
  */
 package com.tunyk.mvn.plugins.htmlcompressor;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,6 +43,10 @@ class HtmlCompressorTest {
     /** The Constant LOG. */
     private static final Logger LOG = LoggerFactory.getLogger(HtmlCompressorTest.class);
 
+    /** The temp dir. */
+    @TempDir
+    Path tempDir;
+
     /**
      * Sets the up class.
      */
@@ -85,4 +99,108 @@ class HtmlCompressorTest {
 
         LOG.info("Passed");
     }
+
+    /**
+     * Test the files after a timeout are compressed by a new compressor.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void testTimeoutReplacesCompressor() throws IOException {
+        LOG.info("Testing timeout replaces compressor...");
+
+        Path source = tempDir.resolve("src");
+        Path target = tempDir.resolve("target");
+        Files.createDirectories(source);
+        Files.writeString(source.resolve("slow.html"), "<p>  slow  </p>");
+        for (int i = 0; i < 5; i++) {
+            Files.writeString(source.resolve("fast" + i + ".html"), "<p>  fast " + i + "  </p>");
+        }
+
+        CountDownLatch release = new CountDownLatch(1);
+        List<AtomicInteger> calls = new CopyOnWriteArrayList<>();
+        List<Boolean> hung = new CopyOnWriteArrayList<>();
+        HtmlCompressor htmlCompressor = new HtmlCompressor(source.toString(), target.toString());
+        htmlCompressor.setFileTimeout(200);
+        htmlCompressor.setFailOnTimeout(false);
+        htmlCompressor.setHtmlCompressorFactory(() -> {
+            int index = calls.size();
+            calls.add(new AtomicInteger());
+            hung.add(Boolean.FALSE);
+            return new com.googlecode.htmlcompressor.compressor.HtmlCompressor() {
+                @Override
+                public String compress(String html) {
+                    if (hung.get(index)) {
+                        Assertions.fail("Compressor used after its timeout");
+                    }
+                    calls.get(index).incrementAndGet();
+                    if (html.contains("slow")) {
+                        hung.set(index, Boolean.TRUE);
+                        // Ignores interrupts like a runaway regular expression
+                        while (release.getCount() > 0) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                    return super.compress(html);
+                }
+            };
+        });
+        try {
+            htmlCompressor.compress();
+        } finally {
+            release.countDown();
+        }
+
+        Assertions.assertEquals(List.of("slow.html"), htmlCompressor.getTimedOutFiles());
+        Assertions.assertEquals(2, calls.size());
+        Assertions.assertTrue(calls.get(1).get() > 0);
+        Assertions.assertEquals("<p>  slow  </p>", Files.readString(target.resolve("slow.html")));
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertEquals("<p> fast " + i + " </p>", Files.readString(target.resolve("fast" + i + ".html")));
+        }
+
+        LOG.info("Passed");
+    }
+
+    /**
+     * Test the statistics with closure batch compilation describe the written files.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void testStatisticsWithClosureBatch() throws IOException {
+        LOG.info("Testing statistics with closure batch...");
+
+        Path source = tempDir.resolve("src");
+        Path target = tempDir.resolve("target");
+        Files.createDirectories(source);
+        String page = "<p>page</p>\n<script>var  page = 1 + 2 ;\nalert( page );</script>";
+        Files.writeString(source.resolve("page.html"), page);
+        Files.writeString(source.resolve("copy.html"), page);
+        Files.writeString(source.resolve("other.html"), "<script>\nvar other = 'a' + 'b';\nalert(other);\n</script>");
+
+        HtmlCompressorFactory factory = new HtmlCompressorFactory();
+        factory.setCompressJavaScript(true);
+        factory.setJsCompressor("closure");
+        factory.setClosureBatch(true);
+        HtmlCompressor htmlCompressor = new HtmlCompressor(source.toString(), target.toString());
+        htmlCompressor.setHtmlCompressorFactory(factory);
+        htmlCompressor.compress();
+
+        for (String file : List.of("page.html", "copy.html", "other.html")) {
+            String written = Files.readString(target.resolve(file));
+            Assertions.assertFalse(written.contains("CLOSURE~BATCH"), written);
+            CompressionStatistics.FileStatistics fileStatistics = htmlCompressor.getStatistics().getFiles().stream()
+                    .filter(statistics -> statistics.getFile().equals(file)).findFirst().orElseThrow();
+            Assertions.assertEquals(written.length(), fileStatistics.get(CompressionStatistics.Metric.COMPRESSED_SIZE));
+        }
+        Assertions.assertEquals(
+                Files.readString(target.resolve("page.html")).length() * 2L
+                        + Files.readString(target.resolve("other.html")).length(),
+                htmlCompressor.getStatistics().getTotal().get(CompressionStatistics.Metric.COMPRESSED_SIZE));
+
+        LOG.info("Passed");
+    }
 }
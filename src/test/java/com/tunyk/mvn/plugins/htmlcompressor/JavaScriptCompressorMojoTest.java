@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class JavaScriptCompressorMojoTest.
+ */
+class JavaScriptCompressorMojoTest {
+
+    /** The Constant LOG. */
+    private static final Logger LOG = LoggerFactory.getLogger(JavaScriptCompressorMojoTest.class);
+
+    /**
+     * Sets the up class.
+     */
+    @BeforeAll
+    static void setUpClass() {
+        LOG.info("Setting up class...");
+    }
+
+    /**
+     * Tear down class.
+     */
+    @AfterAll
+    static void tearDownClass() {
+        LOG.info("Mojo test finished.");
+    }
+
+    /**
+     * Sets the up.
+     */
+    @BeforeEach
+    void setUp() {
+        LOG.info("Setting up data for testing...");
+    }
+
+    /**
+     * Test execute.
+     *
+     * @throws MojoExecutionException
+     *             the mojo execution exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void testExecute() throws MojoExecutionException, IOException {
+        LOG.info("Testing mojo execution...");
+
+        JavaScriptCompressorMojo javaScriptCompressorMojo = new JavaScriptCompressorMojo();
+        javaScriptCompressorMojo.setSrcFolder("src/test/resources/js");
+        javaScriptCompressorMojo.setTargetFolder("target/htmlcompressor/js");
+        javaScriptCompressorMojo.setThreads(2);
+        javaScriptCompressorMojo.execute();
+
+        Assertions.assertEquals("function greet(a){var b=\"Hello, \"+a;return b};",
+                Files.readString(Path.of("target/htmlcompressor/js/file.js"), StandardCharsets.UTF_8));
+        Assertions.assertEquals("var counter=1+2;",
+                Files.readString(Path.of("target/htmlcompressor/js/recursive/file.js"), StandardCharsets.UTF_8));
+
+        LOG.info("Passed");
+    }
+
+    /**
+     * Test execute with closure.
+     *
+     * @throws MojoExecutionException
+     *             the mojo execution exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void testExecuteClosure() throws MojoExecutionException, IOException {
+        LOG.info("Testing mojo execution with closure...");
+
+        JavaScriptCompressorMojo javaScriptCompressorMojo = new JavaScriptCompressorMojo();
+        javaScriptCompressorMojo.setSrcFolder("src/test/resources/js");
+        javaScriptCompressorMojo.setTargetFolder("target/htmlcompressor/js-closure");
+        javaScriptCompressorMojo.setJsCompressor("closure");
+        javaScriptCompressorMojo.execute();
+
+        Assertions.assertEquals("'use strict';var counter=3;", Files
+                .readString(Path.of("target/htmlcompressor/js-closure/recursive/file.js"), StandardCharsets.UTF_8));
+
+        LOG.info("Passed");
+    }
+}
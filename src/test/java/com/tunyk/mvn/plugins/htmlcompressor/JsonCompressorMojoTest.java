@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class JsonCompressorMojoTest.
+ */
+class JsonCompressorMojoTest {
+
+    /** The Constant LOG. */
+    private static final Logger LOG = LoggerFactory.getLogger(JsonCompressorMojoTest.class);
+
+    /**
+     * Sets the up class.
+     */
+    @BeforeAll
+    static void setUpClass() {
+        LOG.info("Setting up class...");
+    }
+
+    /**
+     * Tear down class.
+     */
+    @AfterAll
+    static void tearDownClass() {
+        LOG.info("Mojo test finished.");
+    }
+
+    /**
+     * Sets the up.
+     */
+    @BeforeEach
+    void setUp() {
+        LOG.info("Setting up data for testing...");
+    }
+
+    /**
+     * Test execute.
+     *
+     * @throws MojoExecutionException
+     *             the mojo execution exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void testExecute() throws MojoExecutionException, IOException {
+        LOG.info("Testing mojo execution...");
+
+        JsonCompressorMojo jsonCompressorMojo = new JsonCompressorMojo();
+        jsonCompressorMojo.setSrcFolder("src/test/resources/json");
+        jsonCompressorMojo.setTargetFolder("target/htmlcompressor/json");
+        jsonCompressorMojo.setMetricsFile("target/htmlcompressor/json.prom");
+        jsonCompressorMojo.execute();
+
+        Assertions.assertEquals(
+                "{\"greeting\":\"hello  world\",\"escaped\":\"quote \\\" and  backslash \\\\\",\"items\":[1,2,3]}",
+                Files.readString(Path.of("target/htmlcompressor/json/file.json"), StandardCharsets.UTF_8));
+        Assertions.assertEquals("{\"nested\":{\"key\":\"value\"}}",
+                Files.readString(Path.of("target/htmlcompressor/json/recursive/file.json"), StandardCharsets.UTF_8));
+
+        List<String> metrics = Files.readAllLines(Path.of("target/htmlcompressor/json.prom"), StandardCharsets.UTF_8);
+        Assertions.assertTrue(metrics.contains("htmlcompressor_files_total{goal=\"json\"} 2"));
+        Assertions.assertTrue(metrics.contains("htmlcompressor_file_duration_seconds_count{goal=\"json\"} 2"));
+        Assertions.assertTrue(metrics.contains("htmlcompressor_output_characters_total{goal=\"json\"} 108"));
+
+        LOG.info("Passed");
+    }
+
+    /**
+     * Test execute in place.
+     *
+     * @throws MojoExecutionException
+     *             the mojo execution exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void testExecuteInPlace() throws MojoExecutionException, IOException {
+        LOG.info("Testing mojo execution in place...");
+
+        Path folder = Path.of("target/htmlcompressor/json-in-place");
+        Files.createDirectories(folder);
+        Files.writeString(folder.resolve("file.json"), "{ \"key\" : [ 1, 2 ] }", StandardCharsets.UTF_8);
+
+        JsonCompressorMojo jsonCompressorMojo = new JsonCompressorMojo();
+        jsonCompressorMojo.setSrcFolder(folder.toString());
+        jsonCompressorMojo.setTargetFolder(folder.toString());
+        jsonCompressorMojo.execute();
+
+        Assertions.assertEquals("{\"key\":[1,2]}",
+                Files.readString(folder.resolve("file.json"), StandardCharsets.UTF_8));
+        try (Stream<Path> files = Files.list(folder)) {
+            Assertions.assertEquals(1, files.count());
+        }
+
+        LOG.info("Passed");
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class JsonMinifierTest.
+ */
+class JsonMinifierTest {
+
+    /** The Constant LOG. */
+    private static final Logger LOG = LoggerFactory.getLogger(JsonMinifierTest.class);
+
+    /**
+     * Sets the up class.
+     */
+    @BeforeAll
+    static void setUpClass() {
+        LOG.info("Setting up class...");
+    }
+
+    /**
+     * Tear down class.
+     */
+    @AfterAll
+    static void tearDownClass() {
+        LOG.info("Test finished.");
+    }
+
+    /**
+     * Sets the up.
+     */
+    @BeforeEach
+    void setUp() {
+        LOG.info("Setting up data for testing...");
+    }
+
+    /**
+     * Test compress.
+     */
+    @Test
+    void testCompress() {
+        LOG.info("Testing compress method...");
+
+        JsonMinifier minifier = new JsonMinifier();
+        Assertions.assertEquals("{\"a  b\":[1,2,{\"c\":\"quote \\\" and \\\\\"}],\"d\":true}", minifier
+                .compress("{\n  \"a  b\" : [ 1, 2,\r\n\t{ \"c\": \"quote \\\" and \\\\\" } ],\n  \"d\": true\n}\n"));
+
+        // String literals spanning the internal buffer boundary keep their whitespace
+        String value = " ".repeat(10_000);
+        Assertions.assertEquals("[\"" + value + "\"]", minifier.compress("[ \"" + value + "\" ]"));
+
+        LOG.info("Passed");
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class LruCacheTest.
+ */
+class LruCacheTest {
+
+    /** The Constant LOG. */
+    private static final Logger LOG = LoggerFactory.getLogger(LruCacheTest.class);
+
+    /**
+     * Sets the up class.
+     */
+    @BeforeAll
+    static void setUpClass() {
+        LOG.info("Setting up class...");
+    }
+
+    /**
+     * Tear down class.
+     */
+    @AfterAll
+    static void tearDownClass() {
+        LOG.info("Test finished.");
+    }
+
+    /**
+     * Sets the up.
+     */
+    @BeforeEach
+    void setUp() {
+        LOG.info("Setting up data for testing...");
+    }
+
+    /**
+     * Test eviction.
+     */
+    @Test
+    void testEviction() {
+        LOG.info("Testing eviction...");
+
+        LruCache<String, String> cache = new LruCache<>(10, String::length);
+        cache.put("a", "aaaa");
+        cache.put("b", "bbbb");
+        Assertions.assertEquals("aaaa", cache.get("a"));
+        cache.put("c", "cccc");
+        Assertions.assertNull(cache.get("b"));
+        Assertions.assertEquals("aaaa", cache.get("a"));
+        Assertions.assertEquals(8, cache.getWeight());
+        cache.put("d", "ddddddddddd");
+        Assertions.assertNull(cache.get("d"));
+        cache.put("a", "aa");
+        Assertions.assertEquals(6, cache.getWeight());
+        Assertions.assertEquals(1, cache.getEvictionCount());
+        Assertions.assertEquals(2, cache.getHitCount());
+        Assertions.assertEquals(2, cache.getMissCount());
+
+        LOG.info("Passed");
+    }
+
+    /**
+     * Test concurrent misses load once.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void testComputeIfAbsent() throws Exception {
+        LOG.info("Testing concurrent loads...");
+
+        LruCache<String, String> cache = new LruCache<>(1000, String::length);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> cache.computeIfAbsent("page", key -> {
+                    loads.incrementAndGet();
+                    started.countDown();
+                    try {
+                        Thread.sleep(100);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return "minified";
+                })));
+            }
+            Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+            for (Future<String> future : futures) {
+                Assertions.assertEquals("minified", future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertThrows(IllegalStateException.class, () -> cache.computeIfAbsent("broken", key -> {
+            throw new IllegalStateException();
+        }));
+
+        LOG.info("Passed");
+    }
+}
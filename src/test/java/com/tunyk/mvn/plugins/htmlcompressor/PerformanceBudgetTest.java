@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class PerformanceBudgetTest.
+ */
+class PerformanceBudgetTest {
+
+    /** The Constant LOG. */
+    private static final Logger LOG = LoggerFactory.getLogger(PerformanceBudgetTest.class);
+
+    /** The temp dir. */
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Sets the up class.
+     */
+    @BeforeAll
+    static void setUpClass() {
+        LOG.info("Setting up class...");
+    }
+
+    /**
+     * Tear down class.
+     */
+    @AfterAll
+    static void tearDownClass() {
+        LOG.info("Test finished.");
+    }
+
+    /**
+     * Sets the up.
+     */
+    @BeforeEach
+    void setUp() {
+        LOG.info("Setting up data for testing...");
+    }
+
+    /**
+     * Test evaluate.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void testEvaluate() throws IOException {
+        LOG.info("Testing budget evaluation...");
+
+        CompressionStatistics statistics = new CompressionStatistics();
+        // Two bytes per character in UTF-8, so only the written size exceeds the budget
+        statistics.record(new CompressionStatistics.FileStatistics("landing/index.html", 50_000, 15_500, 2_000_000));
+        statistics.record(new CompressionStatistics.FileStatistics("landing/about.html", 10_000, 9_500, 400_000_000));
+        statistics.record(new CompressionStatistics.FileStatistics("docs/guide.html", 90_000, 60_000, 300_000_000));
+
+        Files.createDirectories(tempDir.resolve("landing"));
+        Files.writeString(tempDir.resolve("landing/index.html"), "\u00e9".repeat(15_500), StandardCharsets.UTF_8);
+        Files.writeString(tempDir.resolve("landing/about.html"), "a".repeat(9_500), StandardCharsets.UTF_8);
+
+        PerformanceBudget landing = new PerformanceBudget();
+        landing.setPattern("landing/*.html");
+        landing.setMaxSize(30_000L);
+        landing.setMinSavings(0.2);
+        landing.setMaxFileTime(100L);
+
+        PerformanceBudget all = new PerformanceBudget();
+        all.setMaxTotalTime(500L);
+
+        List<String> violations = PerformanceBudget.evaluate(new PerformanceBudget[] { landing, all }, statistics,
+                tempDir);
+        Assertions.assertEquals(4, violations.size());
+        Assertions.assertEquals("landing/about.html: savings 0.05 below 0.20 (landing/*.html)", violations.get(0));
+        Assertions.assertEquals("landing/about.html: compression took 400 ms, more than 100 ms (landing/*.html)",
+                violations.get(1));
+        Assertions.assertEquals("landing/index.html: compressed size 31000 bytes exceeds 30000 (landing/*.html)",
+                violations.get(2));
+        Assertions.assertEquals("**: compression took 702 ms in total, more than 500 ms", violations.get(3));
+        Assertions.assertTrue(PerformanceBudget.evaluate(null, statistics, tempDir).isEmpty());
+
+        LOG.info("Passed");
+    }
+
+    /**
+     * Test patterns.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void testPatterns() throws IOException {
+        LOG.info("Testing budget patterns...");
+
+        CompressionStatistics statistics = new CompressionStatistics();
+        statistics.record(new CompressionStatistics.FileStatistics("index.html", 100, 100, 0));
+        statistics.record(new CompressionStatistics.FileStatistics("docs/guide.html", 100, 100, 0));
+        statistics.record(new CompressionStatistics.FileStatistics("docs/notes.txt", 100, 100, 0));
+
+        PerformanceBudget budget = new PerformanceBudget();
+        budget.setPattern("**/*.html");
+        budget.setMinSavings(0.1);
+        List<String> violations = budget.evaluate(statistics, tempDir);
+        Assertions.assertEquals(2, violations.size());
+        Assertions.assertTrue(violations.get(0).startsWith("docs/guide.html:"));
+        Assertions.assertTrue(violations.get(1).startsWith("index.html:"));
+
+        budget.setPattern("*.html");
+        Assertions.assertEquals(1, budget.evaluate(statistics, tempDir).size());
+
+        budget.setPattern(null);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> budget.evaluate(statistics, tempDir));
+
+        LOG.info("Passed");
+    }
+}
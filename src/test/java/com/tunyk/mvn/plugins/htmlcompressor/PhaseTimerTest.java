@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class PhaseTimerTest.
+ */
+class PhaseTimerTest {
+
+    /** The Constant LOG. */
+    private static final Logger LOG = LoggerFactory.getLogger(PhaseTimerTest.class);
+
+    /**
+     * Sets the up class.
+     */
+    @BeforeAll
+    static void setUpClass() {
+        LOG.info("Setting up class...");
+    }
+
+    /**
+     * Tear down class.
+     */
+    @AfterAll
+    static void tearDownClass() {
+        LOG.info("Test finished.");
+    }
+
+    /**
+     * Sets the up.
+     */
+    @BeforeEach
+    void setUp() {
+        LOG.info("Setting up data for testing...");
+    }
+
+    /**
+     * Test file tool phases.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void testFileToolPhases() throws IOException {
+        LOG.info("Testing file tool phases...");
+
+        PhaseTimer phaseTimer = new PhaseTimer();
+        FileTool fileTool = new FileTool("src/test/resources/json", new String[] { "json" }, true);
+        fileTool.setPhaseTimer(phaseTimer);
+        Map<String, String> files = fileTool.getFiles();
+        fileTool.writeFiles(files, "target/htmlcompressor/phases");
+
+        long size = 0;
+        for (String content : files.values()) {
+            size += content.length();
+        }
+        Assertions.assertEquals(1, phaseTimer.getCount(PhaseTimer.Phase.SCAN));
+        Assertions.assertEquals(files.size(), phaseTimer.getCount(PhaseTimer.Phase.READ));
+        Assertions.assertEquals(size, phaseTimer.getSize(PhaseTimer.Phase.READ));
+        Assertions.assertEquals(size, phaseTimer.getSize(PhaseTimer.Phase.WRITE));
+        Assertions.assertEquals(0, phaseTimer.getCount(PhaseTimer.Phase.SPRITE));
+        Assertions.assertTrue(phaseTimer.getWallNanos(PhaseTimer.Phase.READ) > 0);
+        Assertions.assertTrue(phaseTimer.format().contains("compress"));
+
+        LOG.info("Passed");
+    }
+}
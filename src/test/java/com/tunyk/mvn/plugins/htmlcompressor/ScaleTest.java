@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the mojos on large synthetic trees, asserting they complete within a heap ceiling and at a minimum throughput.
+ * <p>
+ * Only run by the scale profile, which also fixes the max heap. The sources and their compressed output are held in
+ * memory, so the heap grows with the tree: {@code mvn test -Pscale -Dscale.files=1000000 -Dscale.heap=8g
+ * -Dscale.maxHeapMb=7168}.
+ */
+@Tag("scale")
+class ScaleTest {
+
+    /** The number of files. */
+    private static final int FILES = Integer.getInteger("scale.files", 100_000);
+
+    /** The heap ceiling in bytes. */
+    private static final long MAX_HEAP = Long.getLong("scale.maxHeapMb", 896) * 1024 * 1024;
+
+    /** The min throughput in files per second. */
+    private static final long MIN_FILES_PER_SECOND = Long.getLong("scale.minFilesPerSecond", 500);
+
+    /** The Constant LOG. */
+    private static final Logger LOG = LoggerFactory.getLogger(ScaleTest.class);
+
+    /**
+     * Sets the up class.
+     */
+    @BeforeAll
+    static void setUpClass() {
+        LOG.info("Setting up class...");
+    }
+
+    /**
+     * Tear down class.
+     */
+    @AfterAll
+    static void tearDownClass() {
+        LOG.info("Mojo test finished.");
+    }
+
+    /**
+     * Sets the up.
+     */
+    @BeforeEach
+    void setUp() {
+        LOG.info("Setting up data for testing...");
+    }
+
+    /**
+     * Test the html goal.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @throws MojoExecutionException
+     *             the mojo execution exception
+     */
+    @Test
+    void testHtml() throws IOException, MojoExecutionException {
+        Path src = Path.of("target/scale/html");
+        Path target = Path.of("target/scale/html-compressed");
+        SyntheticCorpus corpus = new SyntheticCorpus();
+        corpus.setFiles(FILES);
+        corpus.setDepth(3);
+        corpus.setMedianSize(1024);
+        corpus.setDuplicateRatio(0.1);
+        prepare(corpus, src, target, "html");
+
+        HtmlCompressorMojo htmlCompressorMojo = new HtmlCompressorMojo();
+        htmlCompressorMojo.setSrcFolder(src.toString());
+        htmlCompressorMojo.setTargetFolder(target.toString());
+        htmlCompressorMojo.setCompressCss(true);
+        htmlCompressorMojo.setJavascriptHtmlSprite(false);
+        htmlCompressorMojo.setHtmlCompressionStatistics("target/scale/html-compression-statistics.txt");
+        htmlCompressorMojo.setHtmlCompressionStatisticsJson("target/scale/html-compression-statistics.json");
+        htmlCompressorMojo.setHtmlCompressionStatisticsCsv("target/scale/html-compression-statistics.csv");
+        htmlCompressorMojo.setLastRunFile("target/scale/html-last-run.json");
+        measure("html", htmlCompressorMojo::execute, target);
+    }
+
+    /**
+     * Test the xml goal.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @throws MojoExecutionException
+     *             the mojo execution exception
+     */
+    @Test
+    void testXml() throws IOException, MojoExecutionException {
+        Path src = Path.of("target/scale/xml");
+        Path target = Path.of("target/scale/xml-compressed");
+        SyntheticCorpus corpus = new SyntheticCorpus();
+        corpus.setFiles(FILES);
+        corpus.setDepth(3);
+        corpus.setMedianSize(1024);
+        corpus.setDuplicateRatio(0.1);
+        prepare(corpus, src, target, "xml");
+
+        XmlCompressorMojo xmlCompressorMojo = new XmlCompressorMojo();
+        xmlCompressorMojo.setSrcFolder(src.toString());
+        xmlCompressorMojo.setTargetFolder(target.toString());
+        xmlCompressorMojo.setLastRunFile("target/scale/xml-last-run.json");
+        measure("xml", xmlCompressorMojo::execute, target);
+    }
+
+    /**
+     * Write a fresh corpus and remove the output of earlier runs.
+     *
+     * @param corpus
+     *            the corpus
+     * @param src
+     *            the source folder
+     * @param target
+     *            the target folder
+     * @param extension
+     *            the extension, html or xml
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private static void prepare(SyntheticCorpus corpus, Path src, Path target, String extension) throws IOException {
+        delete(src);
+        delete(target);
+        long start = System.nanoTime();
+        long size = "html".equals(extension) ? corpus.writeHtml(src) : corpus.writeXml(src);
+        LOG.info("Generated {} {} files of {} in {} s", FILES, extension, FileTool.humanReadableByteCount(size, true),
+                TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start));
+    }
+
+    /**
+     * Run a mojo and check it compressed every file within the heap ceiling and at the min throughput.
+     * <p>
+     * The heap peak is the highest total heap use sampled every few milliseconds during the run. The peaks of the
+     * single heap pools are not added up, as they are reached at different times.
+     *
+     * @param goal
+     *            the goal
+     * @param mojo
+     *            the mojo execution
+     * @param target
+     *            the target folder
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @throws MojoExecutionException
+     *             the mojo execution exception
+     */
+    private static void measure(String goal, MojoExecution mojo, Path target)
+            throws IOException, MojoExecutionException {
+        System.gc();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        AtomicLong peak = new AtomicLong();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        ScheduledFuture<?> sampling = sampler.scheduleAtFixedRate(
+                () -> peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max), 0, 5,
+                TimeUnit.MILLISECONDS);
+        long start = System.nanoTime();
+        try {
+            mojo.execute();
+        } finally {
+            sampling.cancel(false);
+            sampler.shutdownNow();
+        }
+        long nanos = System.nanoTime() - start;
+        long peakHeap = peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+        long filesPerSecond = FILES * TimeUnit.SECONDS.toNanos(1) / Math.max(1, nanos);
+        LOG.info("Compressed {} {} files in {} ms, {} files/s, heap peak {}", FILES, goal,
+                TimeUnit.NANOSECONDS.toMillis(nanos), filesPerSecond, FileTool.humanReadableByteCount(peakHeap, false));
+
+        try (Stream<Path> files = Files.walk(target)) {
+            Assertions.assertEquals(FILES, files.filter(Files::isRegularFile).count());
+        }
+        Assertions.assertTrue(peakHeap <= MAX_HEAP, "heap peak " + peakHeap + " exceeds " + MAX_HEAP);
+        Assertions.assertTrue(filesPerSecond >= MIN_FILES_PER_SECOND,
+                filesPerSecond + " files/s below " + MIN_FILES_PER_SECOND);
+    }
+
+    /**
+     * Delete a directory tree.
+     *
+     * @param dir
+     *            the directory
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private static void delete(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /**
+     * A mojo execution.
+     */
+    @FunctionalInterface
+    private interface MojoExecution {
+
+        /**
+         * Execute.
+         *
+         * @throws MojoExecutionException
+         *             the mojo execution exception
+         */
+        void execute() throws MojoExecutionException;
+    }
+}
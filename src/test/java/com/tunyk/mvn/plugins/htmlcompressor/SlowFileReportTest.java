@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class SlowFileReportTest.
+ */
+class SlowFileReportTest {
+
+    /** The Constant LOG. */
+    private static final Logger LOG = LoggerFactory.getLogger(SlowFileReportTest.class);
+
+    /**
+     * Sets the up class.
+     */
+    @BeforeAll
+    static void setUpClass() {
+        LOG.info("Setting up class...");
+    }
+
+    /**
+     * Tear down class.
+     */
+    @AfterAll
+    static void tearDownClass() {
+        LOG.info("Test finished.");
+    }
+
+    /**
+     * Sets the up.
+     */
+    @BeforeEach
+    void setUp() {
+        LOG.info("Setting up data for testing...");
+    }
+
+    /**
+     * Test compare against the previous run.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void testCompare() throws IOException {
+        LOG.info("Testing regression detection...");
+
+        Path lastRun = Path.of("target/htmlcompressor/report/last-run.json");
+        Files.deleteIfExists(lastRun);
+
+        CompressionStatistics first = new CompressionStatistics();
+        first.record(new CompressionStatistics.FileStatistics("a.html", 1000, 100, 2_000_000));
+        first.record(new CompressionStatistics.FileStatistics("b.html", 1000, 100, 4_000_000));
+        first.record(new CompressionStatistics.FileStatistics("c.html", 1000, 100, 1_000));
+        SlowFileReport report = SlowFileReport.compare(first, lastRun);
+        Assertions.assertTrue(report.getRegressions(10).isEmpty());
+        Assertions.assertEquals("b.html", report.getSlowest(1).get(0).getFile());
+
+        CompressionStatistics second = new CompressionStatistics();
+        second.record(new CompressionStatistics.FileStatistics("a.html", 1000, 100, 6_000_000));
+        second.record(new CompressionStatistics.FileStatistics("b.html", 1000, 150, 4_000_000));
+        second.record(new CompressionStatistics.FileStatistics("c.html", 1000, 100, 100_000));
+        second.record(new CompressionStatistics.FileStatistics("d.html", 1000, 100, 9_000_000));
+        report = SlowFileReport.compare(second, lastRun);
+
+        List<SlowFileReport.Regression> regressions = report.getRegressions(10);
+        Assertions.assertEquals(2, regressions.size());
+        Assertions.assertEquals("a.html", regressions.get(0).getFile());
+        Assertions.assertEquals(3, regressions.get(0).getTimeRatio(), 0.001);
+        Assertions.assertEquals("b.html", regressions.get(1).getFile());
+        Assertions.assertEquals(1.5, regressions.get(1).getSizeRatio(), 0.001);
+        Assertions.assertEquals("d.html", report.getSlowest(2).get(0).getFile());
+        Assertions.assertEquals(2, report.formatSlowest(2).size());
+        Assertions.assertTrue(Files.readString(lastRun, StandardCharsets.UTF_8).contains("d.html"));
+
+        LOG.info("Passed");
+    }
+}
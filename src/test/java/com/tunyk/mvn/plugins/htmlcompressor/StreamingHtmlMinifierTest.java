@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class StreamingHtmlMinifierTest.
+ */
+class StreamingHtmlMinifierTest {
+
+    /** The Constant LOG. */
+    private static final Logger LOG = LoggerFactory.getLogger(StreamingHtmlMinifierTest.class);
+
+    /** The page. */
+    private static String page;
+
+    /**
+     * Sets the up class.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @BeforeAll
+    static void setUpClass() throws IOException {
+        LOG.info("Setting up class...");
+        // Line breaks may have been converted on checkout
+        page = Files.readString(Path.of("src/test/resources/streaming/page.html"), StandardCharsets.UTF_8)
+                .replace("\r\n", "\n");
+    }
+
+    /**
+     * Tear down class.
+     */
+    @AfterAll
+    static void tearDownClass() {
+        LOG.info("Test finished.");
+    }
+
+    /**
+     * Sets the up.
+     */
+    @BeforeEach
+    void setUp() {
+        LOG.info("Setting up data for testing...");
+    }
+
+    /**
+     * Test minify.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void testMinify() throws Exception {
+        LOG.info("Testing minify...");
+
+        String expected = "<!DOCTYPE html> <html> <head> <title> Test page </title> <style>\n  body { color: red; }\n"
+                + "    </style> <script type=\"text/javascript\">\n  if (a < b) {\n    x = '</scr' + 'ipt>';\n  }\n"
+                + "    </script> </head> <body class=\"a   b\"> <p>Some text here</p> <pre>\n  keep   this\n</pre>"
+                + " <textarea name='t'>  and   this </textarea> <!--[if IE]>  <p>ie</p>  <![endif]--> <p>1 < 2</p>"
+                + " <%  out.print(\"a   b\");  %> </body> </html>";
+        Assertions.assertEquals(expected, minify(page, page.length(), false));
+    }
+
+    /**
+     * Test that chunk boundaries do not change the result.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void testChunkBoundaries() throws Exception {
+        LOG.info("Testing chunk boundaries...");
+
+        for (boolean intertag : new boolean[] { false, true }) {
+            String whole = minify(page, page.length(), intertag);
+            for (int chunk = 1; chunk <= 17; chunk++) {
+                Assertions.assertEquals(whole, minify(page, chunk, intertag), "chunk size " + chunk);
+            }
+        }
+    }
+
+    /**
+     * Test remove intertag spaces and preserve line breaks.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void testIntertagSpacesAndLineBreaks() throws Exception {
+        LOG.info("Testing intertag spaces and line breaks...");
+
+        Assertions.assertEquals("<ul><li>a b</li><li>c</li></ul>",
+                minify("<ul>\n  <li>a   b</li>\n  <li>c</li>\n</ul>", 3, true));
+
+        StringWriter out = new StringWriter();
+        StreamingHtmlMinifier minifier = new StreamingHtmlMinifier(out);
+        minifier.setPreserveLineBreaks(true);
+        minifier.setRemoveComments(false);
+        minifier.write("<p>a  \n  b   c</p>  <!-- kept -->");
+        minifier.close();
+        Assertions.assertEquals("<p>a\nb c</p> <!-- kept -->", out.toString());
+    }
+
+    /**
+     * Test that held back characters are written out when the document ends.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void testUnfinishedConstructs() throws Exception {
+        LOG.info("Testing unfinished constructs...");
+
+        Assertions.assertEquals("a <", minify("a <", 1, false));
+        Assertions.assertEquals("<pre> x </pr", minify("<pre> x </pr", 1, false));
+        Assertions.assertEquals("<a href=\"x", minify("<a  href=\"x", 1, false));
+        Assertions.assertEquals("a", minify("a <!-- never closed", 1, false));
+    }
+
+    /**
+     * Test the preserve delimiters created from the factory settings.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void testFactoryDelimiters() throws Exception {
+        LOG.info("Testing factory delimiters...");
+
+        HtmlCompressorFactory factory = new HtmlCompressorFactory();
+        factory.setPredefinedPreservePatterns(new String[] { "JSP", "THYMELEAF" });
+        factory.setRemoveIntertagSpaces(true);
+        String page = "<p>  ${ user.name   }  </p>\n<a href=\"<%= url(\"a\") %>\">  x  </a>\n"
+                + "<!--/*   hidden   */-->\n<span>  [[ ${a}   ]]  </span>";
+        String expected = "<p> ${ user.name   } </p><a href=\"<%= url(\"a\") %>\"> x </a><!--/*   hidden   */-->"
+                + "<span> [[ ${a}   ]] </span>";
+        for (int chunk = 1; chunk <= page.length(); chunk += 7) {
+            StringWriter out = new StringWriter();
+            try (StreamingHtmlMinifier minifier = factory.createStreamingMinifier(out)) {
+                for (int i = 0; i < page.length(); i += chunk) {
+                    minifier.write(page, i, Math.min(chunk, page.length() - i));
+                }
+            }
+            Assertions.assertEquals(expected, out.toString(), "chunk size " + chunk);
+        }
+    }
+
+    /**
+     * Test that flushing passes on everything decided so far.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void testFlush() throws Exception {
+        LOG.info("Testing flush...");
+
+        StringWriter out = new StringWriter();
+        StreamingHtmlMinifier minifier = new StreamingHtmlMinifier(out);
+        minifier.write("<p>first   part</p>   <");
+        minifier.flush();
+        Assertions.assertEquals("<p>first part</p>", out.toString());
+        minifier.write("p>second</p>");
+        minifier.finish();
+        Assertions.assertEquals("<p>first part</p> <p>second</p>", out.toString());
+        Assertions.assertThrows(IOException.class, () -> minifier.write("more"));
+    }
+
+    /**
+     * Minify a page written in chunks.
+     *
+     * @param page
+     *            the page
+     * @param chunk
+     *            the chunk size
+     * @param removeIntertagSpaces
+     *            the remove intertag spaces
+     *
+     * @return the minified page
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private static String minify(String page, int chunk, boolean removeIntertagSpaces) throws IOException {
+        StringWriter out = new StringWriter();
+        try (StreamingHtmlMinifier minifier = new StreamingHtmlMinifier(out)) {
+            minifier.setRemoveIntertagSpaces(removeIntertagSpaces);
+            minifier.addPreserveDelimiters("<%", "%>");
+            for (int i = 0; i < page.length(); i += chunk) {
+                minifier.write(page.toCharArray(), i, Math.min(chunk, page.length() - i));
+            }
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class SvgCompressorTest.
+ */
+class SvgCompressorTest {
+
+    /** The Constant LOG. */
+    private static final Logger LOG = LoggerFactory.getLogger(SvgCompressorTest.class);
+
+    /**
+     * Sets the up class.
+     */
+    @BeforeAll
+    static void setUpClass() {
+        LOG.info("Setting up class...");
+    }
+
+    /**
+     * Tear down class.
+     */
+    @AfterAll
+    static void tearDownClass() {
+        LOG.info("Test finished.");
+    }
+
+    /**
+     * Sets the up.
+     */
+    @BeforeEach
+    void setUp() {
+        LOG.info("Setting up data for testing...");
+    }
+
+    /**
+     * Test path data.
+     */
+    @Test
+    void testShortenPathData() {
+        LOG.info("Testing path data...");
+
+        Assertions.assertEquals("M10.123 20L.5-.25Z",
+                SvgCompressor.shortenPathData("M 10.123456,20.000000 L 0.500000 -0.250000 Z", 3));
+        Assertions.assertEquals("M1.5.5l0 0", SvgCompressor.shortenPathData("M1.5,0.5 l-0.0001,0", 3));
+        Assertions.assertEquals("a25 25 0 1050 50", SvgCompressor.shortenPathData("a25,25 0 1050 50", 3));
+        Assertions.assertEquals("0 0 10 10", SvgCompressor.shortenPathData("0,0 10,10", 0));
+
+        LOG.info("Passed");
+    }
+
+    /**
+     * Test compress.
+     */
+    @Test
+    void testCompress() {
+        LOG.info("Testing svg compression...");
+
+        SvgCompressor svgCompressor = new SvgCompressor();
+        Assertions.assertEquals("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"2\"><rect width=\"2\"/></svg>",
+                svgCompressor.compress("<svg xmlns=\"http://www.w3.org/2000/svg\""
+                        + " xmlns:inkscape=\"http://www.inkscape.org/namespaces/inkscape\" width=\"2\">\n"
+                        + "  <metadata><title>x</title></metadata>\n"
+                        + "  <rect x=\"0\" width=\"2\" stroke=\"none\" inkscape:label=\"box\"/>\n</svg>"));
+
+        LOG.info("Passed");
+    }
+
+    /**
+     * Test that defaults overriding an inherited value are kept.
+     */
+    @Test
+    void testKeepsSignificantDefaults() {
+        LOG.info("Testing inherited defaults...");
+
+        SvgCompressor svgCompressor = new SvgCompressor();
+        String inherited = "<svg><g stroke=\"red\"><path stroke=\"none\" d=\"M0 0\"/></g></svg>";
+        Assertions.assertEquals(inherited, svgCompressor.compress(inherited));
+        String referenced = "<svg><defs><path stroke=\"none\" d=\"M0 0\"/></defs></svg>";
+        Assertions.assertEquals(referenced, svgCompressor.compress(referenced));
+        String styled = "<svg><style>path{stroke:red}</style><path stroke=\"none\" d=\"M0 0\"/></svg>";
+        Assertions.assertEquals(styled, svgCompressor.compress(styled));
+        String nested = "<svg xmlns:xlink=\"http://www.w3.org/1999/xlink\"><use xlink:href=\"#a\""
+                + " xmlns:xlink=\"http://www.w3.org/1999/xlink\"/></svg>";
+        Assertions.assertEquals("<svg xmlns:xlink=\"http://www.w3.org/1999/xlink\"><use xlink:href=\"#a\"/></svg>",
+                svgCompressor.compress(nested));
+
+        LOG.info("Passed");
+    }
+}
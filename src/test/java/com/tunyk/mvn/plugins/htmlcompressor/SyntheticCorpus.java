@@ -0,0 +1,345 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic generator of synthetic HTML and XML source trees.
+ * <p>
+ * Every file is generated from its own seed, so a tree only depends on the settings and not on the generation order.
+ * File sizes follow a log-normal distribution around the median, as template sizes of real projects do, and a share of
+ * the files are exact copies of earlier ones.
+ */
+public class SyntheticCorpus {
+
+    /** The words of the text. */
+    private static final String[] WORDS = { "lorem", "ipsum", "dolor", "sit", "amet", "consectetur", "adipiscing",
+            "elit", "sed", "do", "eiusmod", "tempor", "incididunt", "ut", "labore", "et", "dolore", "magna", "aliqua" };
+
+    /** The number of subdirectories of each directory. */
+    private static final int FAN_OUT = 10;
+
+    /** The seed. */
+    private long seed = 1;
+
+    /** The number of files. */
+    private int files = 100;
+
+    /** The depth of the directory tree. */
+    private int depth = 2;
+
+    /** The median file size in characters. */
+    private int medianSize = 4096;
+
+    /** The spread of the file sizes, as standard deviation of their logarithm. */
+    private double sizeSpread = 0.75;
+
+    /** The max file size in characters. */
+    private int maxSize = 262_144;
+
+    /** The probability of an inline script after each block. */
+    private double scriptDensity = 0.1;
+
+    /** The probability of an inline style after each block. */
+    private double styleDensity = 0.05;
+
+    /** The share of files that copy an earlier file. */
+    private double duplicateRatio;
+
+    /**
+     * Write the HTML tree.
+     *
+     * @param dir
+     *            the directory
+     *
+     * @return the number of characters written
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public long writeHtml(Path dir) throws IOException {
+        return write(dir, "html");
+    }
+
+    /**
+     * Write the XML tree.
+     *
+     * @param dir
+     *            the directory
+     *
+     * @return the number of characters written
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public long writeXml(Path dir) throws IOException {
+        return write(dir, "xml");
+    }
+
+    /**
+     * Write a tree.
+     *
+     * @param dir
+     *            the directory
+     * @param extension
+     *            the extension, html or xml
+     *
+     * @return the number of characters written
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private long write(Path dir, String extension) throws IOException {
+        long size = 0;
+        for (int i = 0; i < files; i++) {
+            Random random = newRandom(i, 0);
+            int source = i > 0 && random.nextDouble() < duplicateRatio ? random.nextInt(i) : i;
+            String content = "html".equals(extension) ? generateHtml(source) : generateXml(source);
+            Path path = dir.resolve(getPath(i, extension));
+            Files.createDirectories(path.getParent());
+            Files.writeString(path, content, StandardCharsets.UTF_8);
+            size += content.length();
+        }
+        return size;
+    }
+
+    /**
+     * Gets the relative path of a file.
+     *
+     * @param index
+     *            the index of the file
+     * @param extension
+     *            the extension
+     *
+     * @return the path
+     */
+    String getPath(int index, String extension) {
+        StringBuilder sb = new StringBuilder();
+        int rest = index;
+        for (int level = 0; level < depth; level++) {
+            sb.append('d').append(rest % FAN_OUT).append('/');
+            rest /= FAN_OUT;
+        }
+        return sb.append("file").append(index).append('.').append(extension).toString();
+    }
+
+    /**
+     * Generate the HTML content of a file.
+     *
+     * @param index
+     *            the index of the file
+     *
+     * @return the content
+     */
+    String generateHtml(int index) {
+        Random random = newRandom(index, 1);
+        int size = nextSize(random);
+        StringBuilder sb = new StringBuilder(size + 512);
+        sb.append("<!DOCTYPE html>\n<html>\n  <head>\n    <title>Page ").append(index)
+                .append("</title>\n  </head>\n  <body>\n    <!-- page ").append(index).append(" -->\n");
+        int block = 0;
+        while (sb.length() < size) {
+            block++;
+            sb.append("    <div class=\"block").append(block).append("\">\n      <p>\n        ");
+            appendWords(sb, random, 10 + random.nextInt(40));
+            sb.append("\n      </p>\n    </div>\n");
+            if (random.nextDouble() < scriptDensity) {
+                sb.append("    <script type=\"text/javascript\">\n      function handler").append(block)
+                        .append("(event) {\n        var element = document.getElementById('block").append(block)
+                        .append("');\n        if (element !== null) {\n          element.className = 'active';\n")
+                        .append("        }\n        return event;\n      }\n    </script>\n");
+            }
+            if (random.nextDouble() < styleDensity) {
+                sb.append("    <style type=\"text/css\">\n      .block").append(block).append(" {\n        margin: ")
+                        .append(random.nextInt(20)).append("px;\n        color: #")
+                        .append(Integer.toHexString(0x100000 + random.nextInt(0xefffff))).append(";\n      }\n")
+                        .append("    </style>\n");
+            }
+        }
+        return sb.append("  </body>\n</html>\n").toString();
+    }
+
+    /**
+     * Generate the XML content of a file.
+     *
+     * @param index
+     *            the index of the file
+     *
+     * @return the content
+     */
+    String generateXml(int index) {
+        Random random = newRandom(index, 1);
+        int size = nextSize(random);
+        StringBuilder sb = new StringBuilder(size + 256);
+        sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<!-- document ").append(index)
+                .append(" -->\n<catalog id=\"").append(index).append("\">\n");
+        int item = 0;
+        while (sb.length() < size) {
+            item++;
+            sb.append("    <item id=\"").append(item).append("\">\n        <name>");
+            appendWords(sb, random, 1 + random.nextInt(5));
+            sb.append("</name>\n        <price>").append(random.nextInt(10_000) / 100.0)
+                    .append("</price>\n    </item>\n");
+        }
+        return sb.append("</catalog>\n").toString();
+    }
+
+    /**
+     * New random for a file. Seeds of consecutive files are mixed, as java.util.Random yields correlated first values
+     * for close seeds.
+     *
+     * @param index
+     *            the index of the file
+     * @param stream
+     *            the stream of the file
+     *
+     * @return the random
+     */
+    private Random newRandom(int index, int stream) {
+        return new Random(new SplittableRandom(seed * 31 + index * 2L + stream).nextLong());
+    }
+
+    /**
+     * Next file size.
+     *
+     * @param random
+     *            the random
+     *
+     * @return the size
+     */
+    private int nextSize(Random random) {
+        double size = medianSize * Math.exp(sizeSpread * random.nextGaussian());
+        return (int) Math.max(1, Math.min(maxSize, size));
+    }
+
+    /**
+     * Append words.
+     *
+     * @param sb
+     *            the string builder
+     * @param random
+     *            the random
+     * @param count
+     *            the number of words
+     */
+    private static void appendWords(StringBuilder sb, Random random, int count) {
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+    }
+
+    /**
+     * Sets the seed.
+     *
+     * @param seed
+     *            the new seed
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Sets the files.
+     *
+     * @param files
+     *            the new files
+     */
+    public void setFiles(int files) {
+        this.files = files;
+    }
+
+    /**
+     * Sets the depth.
+     *
+     * @param depth
+     *            the new depth
+     */
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    /**
+     * Sets the median size.
+     *
+     * @param medianSize
+     *            the new median size
+     */
+    public void setMedianSize(int medianSize) {
+        this.medianSize = medianSize;
+    }
+
+    /**
+     * Sets the size spread.
+     *
+     * @param sizeSpread
+     *            the new size spread
+     */
+    public void setSizeSpread(double sizeSpread) {
+        this.sizeSpread = sizeSpread;
+    }
+
+    /**
+     * Sets the max size.
+     *
+     * @param maxSize
+     *            the new max size
+     */
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Sets the script density.
+     *
+     * @param scriptDensity
+     *            the new script density
+     */
+    public void setScriptDensity(double scriptDensity) {
+        this.scriptDensity = scriptDensity;
+    }
+
+    /**
+     * Sets the style density.
+     *
+     * @param styleDensity
+     *            the new style density
+     */
+    public void setStyleDensity(double styleDensity) {
+        this.styleDensity = styleDensity;
+    }
+
+    /**
+     * Sets the duplicate ratio.
+     *
+     * @param duplicateRatio
+     *            the new duplicate ratio
+     */
+    public void setDuplicateRatio(double duplicateRatio) {
+        this.duplicateRatio = duplicateRatio;
+    }
+}
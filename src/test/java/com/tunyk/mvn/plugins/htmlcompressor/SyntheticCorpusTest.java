@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class SyntheticCorpusTest.
+ */
+class SyntheticCorpusTest {
+
+    /** The Constant LOG. */
+    private static final Logger LOG = LoggerFactory.getLogger(SyntheticCorpusTest.class);
+
+    /**
+     * Sets the up class.
+     */
+    @BeforeAll
+    static void setUpClass() {
+        LOG.info("Setting up class...");
+    }
+
+    /**
+     * Tear down class.
+     */
+    @AfterAll
+    static void tearDownClass() {
+        LOG.info("Test finished.");
+    }
+
+    /**
+     * Sets the up.
+     */
+    @BeforeEach
+    void setUp() {
+        LOG.info("Setting up data for testing...");
+    }
+
+    /**
+     * Test the generated tree.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    void testWriteHtml() throws IOException {
+        LOG.info("Testing synthetic corpus...");
+
+        SyntheticCorpus corpus = new SyntheticCorpus();
+        corpus.setFiles(200);
+        corpus.setDepth(3);
+        corpus.setMedianSize(2048);
+        corpus.setScriptDensity(0.5);
+        corpus.setDuplicateRatio(0.25);
+
+        Path first = Path.of("target/htmlcompressor/corpus/first");
+        Path second = Path.of("target/htmlcompressor/corpus/second");
+        long size = corpus.writeHtml(first);
+        Assertions.assertEquals(size, corpus.writeHtml(second));
+
+        Set<String> contents = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            String path = corpus.getPath(i, "html");
+            String content = Files.readString(first.resolve(path), StandardCharsets.UTF_8);
+            Assertions.assertEquals(content, Files.readString(second.resolve(path), StandardCharsets.UTF_8));
+            contents.add(content);
+        }
+        Assertions.assertEquals("d7/d2/d1/file127.html", corpus.getPath(127, "html"));
+        Assertions.assertTrue(contents.size() > 120 && contents.size() < 180, "unique files: " + contents.size());
+        try (Stream<Path> files = Files.walk(first)) {
+            Assertions.assertEquals(200, files.filter(Files::isRegularFile).collect(Collectors.toList()).size());
+        }
+        Assertions.assertTrue(contents.stream().anyMatch(content -> content.contains("<script")));
+
+        LOG.info("Passed");
+    }
+}
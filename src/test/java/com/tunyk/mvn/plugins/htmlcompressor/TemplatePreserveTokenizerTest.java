@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2011-2025 Alex Tunyk <alex at tunyk.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ */
+package com.tunyk.mvn.plugins.htmlcompressor;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class TemplatePreserveTokenizerTest.
+ */
+class TemplatePreserveTokenizerTest {
+
+    /** The Constant LOG. */
+    private static final Logger LOG = LoggerFactory.getLogger(TemplatePreserveTokenizerTest.class);
+
+    /**
+     * Sets the up class.
+     */
+    @BeforeAll
+    static void setUpClass() {
+        LOG.info("Setting up class...");
+    }
+
+    /**
+     * Tear down class.
+     */
+    @AfterAll
+    static void tearDownClass() {
+        LOG.info("Test finished.");
+    }
+
+    /**
+     * Sets the up.
+     */
+    @BeforeEach
+    void setUp() {
+        LOG.info("Setting up data for testing...");
+    }
+
+    /**
+     * Test jsp.
+     */
+    @Test
+    void testJsp() {
+        LOG.info("Testing JSP tokenizer...");
+
+        TemplatePreserveTokenizer tokenizer = new TemplatePreserveTokenizer(
+                EnumSet.of(TemplatePreserveTokenizer.Language.JSP));
+        String content = "<%@ page  contentType=\"text/html\" %>\n<div>  <%-- a  comment --%>\n"
+                + "<c:if test=\"${a  > b}\">  <%= value  %>  </c:if> ${fn:escape('a}')}</div>";
+        List<String> blocks = new ArrayList<>();
+        String preserved = tokenizer.preserve(content, blocks);
+
+        Assertions.assertEquals(List.of("<%@ page  contentType=\"text/html\" %>", "<%-- a  comment --%>",
+                "<c:if test=\"${a  > b}\">", "<%= value  %>", "</c:if>", "${fn:escape('a}')}"), blocks);
+        Assertions.assertEquals(content, TemplatePreserveTokenizer.restore(preserved, blocks));
+
+        TemplateHtmlCompressor compressor = new TemplateHtmlCompressor(
+                EnumSet.of(TemplatePreserveTokenizer.Language.JSP));
+        Assertions.assertEquals(
+                "<%@ page  contentType=\"text/html\" %> <div> <%-- a  comment --%> "
+                        + "<c:if test=\"${a  > b}\"> <%= value  %> </c:if> ${fn:escape('a}')}</div>",
+                compressor.compress(content));
+
+        LOG.info("Passed");
+    }
+
+    /**
+     * Test velocity.
+     */
+    @Test
+    void testVelocity() {
+        LOG.info("Testing Velocity tokenizer...");
+
+        TemplatePreserveTokenizer tokenizer = new TemplatePreserveTokenizer(
+                EnumSet.of(TemplatePreserveTokenizer.Language.VELOCITY));
+        String content = "## a comment\n#if ($user.name( 'a  b' ))<b>$!user.items[0]</b>#{else}#*\n  *#$5 #fff"
+                + " #end #[[ $raw ]]#";
+        List<String> blocks = new ArrayList<>();
+        String preserved = tokenizer.preserve(content, blocks);
+
+        Assertions.assertEquals(List.of("## a comment\n", "#if ($user.name( 'a  b' ))", "$!user.items[0]", "#{else}",
+                "#*\n  *#", "#end", "#[[ $raw ]]#"), blocks);
+        Assertions.assertEquals(content, TemplatePreserveTokenizer.restore(preserved, blocks));
+
+        LOG.info("Passed");
+    }
+
+    /**
+     * Test thymeleaf.
+     */
+    @Test
+    void testThymeleaf() {
+        LOG.info("Testing Thymeleaf tokenizer...");
+
+        TemplatePreserveTokenizer tokenizer = new TemplatePreserveTokenizer(
+                EnumSet.of(TemplatePreserveTokenizer.Language.THYMELEAF));
+        String content = "<p th:text=\"${user.name}\">[[${greeting}]]</p><!--/*/ <b th:text=\"*{x}\"></b> /*/-->"
+                + "<!--/*--> prototype <!--*/--><a th:href=\"@{/home}\">[(#{key})]</a>";
+        List<String> blocks = new ArrayList<>();
+        String preserved = tokenizer.preserve(content, blocks);
+
+        Assertions.assertEquals(List.of("${user.name}", "[[${greeting}]]", "<!--/*/ <b th:text=\"*{x}\"></b> /*/-->",
+                "<!--/*-->", "<!--*/-->", "@{/home}", "[(#{key})]"), blocks);
+        Assertions.assertEquals(content, TemplatePreserveTokenizer.restore(preserved, blocks));
+
+        TemplateHtmlCompressor compressor = new TemplateHtmlCompressor(
+                EnumSet.of(TemplatePreserveTokenizer.Language.THYMELEAF));
+        Assertions.assertTrue(compressor.compress(content).contains("<!--/*--> prototype <!--*/-->"));
+
+        LOG.info("Passed");
+    }
+
+    /**
+     * Test unterminated constructs.
+     */
+    @Test
+    void testUnterminated() {
+        LOG.info("Testing unterminated constructs...");
+
+        TemplatePreserveTokenizer tokenizer = new TemplatePreserveTokenizer(
+                EnumSet.allOf(TemplatePreserveTokenizer.Language.class));
+        String content = "<% never closed ${ never closed <c:tag attr=\"x";
+        List<String> blocks = new ArrayList<>();
+
+        Assertions.assertSame(content, tokenizer.preserve(content, blocks));
+        Assertions.assertTrue(blocks.isEmpty());
+
+        LOG.info("Passed");
+    }
+
+    /**
+     * Test expressions following an unbalanced one.
+     */
+    @Test
+    void testAfterUnbalanced() {
+        LOG.info("Testing expressions after an unbalanced one...");
+
+        TemplatePreserveTokenizer tokenizer = new TemplatePreserveTokenizer(
+                EnumSet.of(TemplatePreserveTokenizer.Language.THYMELEAF));
+        String content = "<p>${ a</p> <p>${b}</p> <i>#{key}</i> <b>*{x}</b> <!--/* never closed";
+        List<String> blocks = new ArrayList<>();
+        String preserved = tokenizer.preserve(content, blocks);
+
+        Assertions.assertEquals(List.of("${b}", "#{key}", "*{x}"), blocks);
+        Assertions.assertEquals(content, TemplatePreserveTokenizer.restore(preserved, blocks));
+
+        LOG.info("Passed");
+    }
+}
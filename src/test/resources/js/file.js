@@ -0,0 +1,4 @@
+function greet(name) {
+    var message = "Hello, " + name;
+    return message;
+}
@@ -0,0 +1,2 @@
+// counter
+var counter = 1 + 2;